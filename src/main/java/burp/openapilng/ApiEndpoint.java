@@ -1,34 +1,96 @@
 package burp.openapilng;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 
 /**
  * Immutable model for a single API endpoint parsed from an OpenAPI specification.
- * Holds HTTP method, path, server, parameters, and optional description.
+ * Holds HTTP method, path, server, parameters, optional description, and the operation's
+ * tags, plus the spec it came from when several specs are loaded together.
  *
  * @author jabberwock
  * @since 1.0
  * Copyright (c) 2026 jabberwock
  */
 public class ApiEndpoint {
+
+    /** Longest description preview shown in the endpoint table. */
+    static final int PREVIEW_CHARS = 160;
+
     private final int index;
     private final String scheme;
     private final String method;
     private final String server;
     private final String path;
     private final List<ParameterInfo> parameters;
+    /** Full description, or null for a catalog view that reads it from its catalog. */
     private final String description;
+    /** First line of the description, shortened; computed on first use for a standalone endpoint. */
+    private String descriptionPreview;
+    private final String source;
+    private final List<String> tags;
+    /** Catalog this endpoint is a view of, or null for an endpoint that stands alone. */
+    private final EndpointCatalog catalog;
+    private final int catalogRow;
+    /**
+     * Compiled on first request build; a benign race may compile it twice. A catalog view
+     * leaves this and the cells below unset and uses its catalog's columns instead.
+     */
+    private RequestTemplate template;
+    /** Table cell values, formatted on first display so painting allocates nothing; same benign race. */
+    private Integer indexCell;
+    private String parametersCell;
+    private String rowKey;
 
     public ApiEndpoint(int index, String scheme, String method, String server, String path,
                        List<ParameterInfo> parameters, String description) {
+        this(index, scheme, method, server, path, parameters, description, "");
+    }
+
+    public ApiEndpoint(int index, String scheme, String method, String server, String path,
+                       List<ParameterInfo> parameters, String description, String source) {
+        this(index, scheme, method, server, path, parameters, description, source, null);
+    }
+
+    public ApiEndpoint(int index, String scheme, String method, String server, String path,
+                       List<ParameterInfo> parameters, String description, String source, List<String> tags) {
+        this(index, scheme, method, server, path, parameters, description != null ? description : "", null,
+                source, tags, null, -1);
+    }
+
+    /**
+     * Creates a view of one row of an {@link EndpointCatalog}.
+     *
+     * @param description the full description, or null to read it from the catalog when asked
+     * @param descriptionPreview the description's preview, or null to compute it from {@code description}
+     */
+    ApiEndpoint(int index, String scheme, String method, String server, String path,
+                List<ParameterInfo> parameters, String description, String descriptionPreview, String source,
+                List<String> tags, EndpointCatalog catalog, int catalogRow) {
+        this.catalog = catalog;
+        this.catalogRow = catalogRow;
+        this.descriptionPreview = descriptionPreview;
         this.index = index;
         this.scheme = scheme != null ? scheme : "https";
         this.method = method != null ? method : "GET";
         this.server = server != null ? server : "";
         this.path = path != null ? path : "/";
         this.parameters = parameters != null ? parameters : new ArrayList<>();
-        this.description = description != null ? description : "";
+        this.description = description;
+        this.source = source != null ? source : "";
+        this.tags = tags != null && !tags.isEmpty() ? tags : Collections.emptyList();
+    }
+
+    /**
+     * @param index the endpoint's index in the merged list
+     * @param source label of the spec the endpoint came from
+     * @return a copy with the given index and source, sharing the parameter list
+     */
+    public ApiEndpoint withSource(int index, String source) {
+        return new ApiEndpoint(index, scheme, method, server, path, parameters, getDescription(), source, tags);
     }
 
     public int getIndex() {
@@ -55,35 +117,298 @@ public class ApiEndpoint {
         return parameters;
     }
 
+    /**
+     * @return the full description; for a catalog view, read from the catalog on each call
+     */
     public String getDescription() {
-        return description;
+        return description != null ? description : catalog.description(catalogRow);
+    }
+
+    /**
+     * @return the description's first non-blank line, trimmed and cut to
+     *         {@value #PREVIEW_CHARS} characters, for the endpoint table
+     */
+    public String getDescriptionPreview() {
+        String preview = descriptionPreview;
+        if (preview == null) {
+            preview = preview(description);
+            descriptionPreview = preview;
+        }
+        return preview;
+    }
+
+    /**
+     * @return the preview of a description: the same instance if it is one short line
+     */
+    static String preview(String description) {
+        int start = 0;
+        int end;
+        while (true) {
+            end = description.indexOf('\n', start);
+            if (end < 0) end = description.length();
+            if (!description.substring(start, end).isBlank() || end == description.length()) break;
+            start = end + 1;
+        }
+        String line = description.substring(start, end).strip();
+        if (line.length() > PREVIEW_CHARS) {
+            line = line.substring(0, PREVIEW_CHARS - 1).stripTrailing() + "\u2026";
+        }
+        return line.equals(description) ? description : line;
+    }
+
+    /**
+     * @return label of the spec this endpoint was loaded from, or empty for single loads
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return the operation's tags, in spec order; empty if it has none
+     */
+    public List<String> getTags() {
+        return tags;
+    }
+
+    /**
+     * @return the catalog this endpoint was read from, or null
+     */
+    EndpointCatalog catalog() {
+        return catalog;
+    }
+
+    /**
+     * @return the row of {@link #catalog()} this endpoint was read from, or -1
+     */
+    int catalogRow() {
+        return catalogRow;
+    }
+
+    /**
+     * @return this endpoint's request template, compiled on first use
+     */
+    RequestTemplate template() {
+        if (catalog != null) return catalog.template(catalogRow);
+        RequestTemplate t = template;
+        if (t == null) {
+            t = RequestTemplate.compile(this);
+            template = t;
+        }
+        return t;
+    }
+
+    /**
+     * @return the index, boxed once for the table's {@code #} column
+     */
+    Integer indexCell() {
+        if (catalog != null) return catalog.indexCell(catalogRow);
+        Integer cell = indexCell;
+        if (cell == null) {
+            cell = index;
+            indexCell = cell;
+        }
+        return cell;
+    }
+
+    /**
+     * @return e.g. {@code PATH:id, QUERY:limit}, formatted on first use; reads the
+     *         parameters, so it resolves any {@code $ref} parameters
+     */
+    String parametersCell() {
+        if (catalog != null) return catalog.parametersCell(catalogRow);
+        String cell = parametersCell;
+        if (cell == null) {
+            cell = formatParameters(parameters);
+            parametersCell = cell;
+        }
+        return cell;
+    }
+
+    /**
+     * @return {@code source method path}, which identifies the endpoint's table row across
+     *         reloads; built on first use
+     */
+    String rowKey() {
+        if (catalog != null) return catalog.rowKey(catalogRow);
+        String key = rowKey;
+        if (key == null) {
+            key = rowKey(source, method, path);
+            rowKey = key;
+        }
+        return key;
+    }
+
+    static String rowKey(String source, String method, String path) {
+        return source + " " + method + " " + path;
+    }
+
+    static String formatParameters(List<ParameterInfo> params) {
+        if (params.isEmpty()) return "";
+        StringBuilder sb = new StringBuilder(params.size() * 16);
+        for (ParameterInfo p : params) {
+            if (sb.length() > 0) sb.append(", ");
+            String location = p.getLocation();
+            sb.append(location != null ? location.toUpperCase(Locale.ROOT) : "").append(':').append(p.getName());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Compares what the endpoint table shows for a row. Like {@link #equals(Object)}, but
+     * descriptions are compared by preview and hash, so a catalog view's description stays
+     * compressed, and a {@code $ref} parameter of this endpoint that has not been resolved
+     * yet is compared by its reference only, so it stays unresolved.
+     *
+     * @param other the endpoint that would replace this one
+     * @return true if the row would look the same
+     */
+    boolean sameRow(ApiEndpoint other) {
+        if (this == other) return true;
+        if (index != other.index
+                || !scheme.equals(other.scheme)
+                || !method.equals(other.method)
+                || !server.equals(other.server)
+                || !path.equals(other.path)
+                || !source.equals(other.source)
+                || !tags.equals(other.tags)
+                || descriptionHash() != other.descriptionHash()
+                || !getDescriptionPreview().equals(other.getDescriptionPreview())
+                || parameters.size() != other.parameters.size()) {
+            return false;
+        }
+        for (int i = 0; i < parameters.size(); i++) {
+            ParameterInfo mine = parameters.get(i);
+            ParameterInfo theirs = other.parameters.get(i);
+            boolean same = mine.isUnresolved()
+                    ? mine.getRef().equals(theirs.getRef())
+                    : mine.equals(theirs);
+            if (!same) return false;
+        }
+        return true;
+    }
+
+    private int descriptionHash() {
+        return description != null ? description.hashCode() : catalog.descriptionHash(catalogRow);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ApiEndpoint)) return false;
+        ApiEndpoint that = (ApiEndpoint) o;
+        return index == that.index
+                && scheme.equals(that.scheme)
+                && method.equals(that.method)
+                && server.equals(that.server)
+                && path.equals(that.path)
+                && parameters.equals(that.parameters)
+                && getDescription().equals(that.getDescription())
+                && source.equals(that.source)
+                && tags.equals(that.tags);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, scheme, method, server, path, parameters, getDescription(), source, tags);
     }
 
     /**
      * Describes a single parameter (path, query, header, or cookie) for an endpoint.
      * Used for insertion point computation and display.
+     * <p>
+     * A parameter created with {@link #reference(String, ParameterRefResolver)} holds only
+     * its {@code $ref}; name and location are resolved on first access.
      */
     public static class ParameterInfo {
         private final String name;
         private final String location; // "path", "query", "header", "cookie"
         private final String placeholderValue;
+        private final String ref;
+        private final ParameterRefResolver resolver;
+        private ParameterInfo target;
 
         public ParameterInfo(String name, String location, String placeholderValue) {
             this.name = name;
             this.location = location;
             this.placeholderValue = placeholderValue != null ? placeholderValue : "";
+            this.ref = null;
+            this.resolver = null;
+        }
+
+        private ParameterInfo(String ref, ParameterRefResolver resolver) {
+            this.name = null;
+            this.location = null;
+            this.placeholderValue = "";
+            this.ref = ref;
+            this.resolver = resolver;
+        }
+
+        /**
+         * Creates a parameter that is resolved through {@code resolver} when first read.
+         *
+         * @param ref the {@code $ref} value
+         * @param resolver resolver for the spec the reference came from
+         * @return an unresolved parameter
+         */
+        public static ParameterInfo reference(String ref, ParameterRefResolver resolver) {
+            return new ParameterInfo(ref, resolver);
+        }
+
+        private ParameterInfo target() {
+            ParameterInfo t = target;
+            if (t == null) {
+                t = resolver.resolve(ref);
+                target = t;
+            }
+            return t;
         }
 
         public String getName() {
-            return name;
+            return ref != null ? target().getName() : name;
         }
 
         public String getLocation() {
-            return location;
+            return ref != null ? target().getLocation() : location;
         }
 
         public String getPlaceholderValue() {
-            return placeholderValue;
+            return ref != null ? target().getPlaceholderValue() : placeholderValue;
+        }
+
+        /**
+         * @return the {@code $ref} this parameter was declared with, or null
+         */
+        public String getRef() {
+            return ref;
+        }
+
+        /**
+         * @return the resolver a reference resolves through, or null for a plain parameter
+         */
+        ParameterRefResolver getResolver() {
+            return resolver;
+        }
+
+        /**
+         * @return true if this parameter is a reference that has not been read yet
+         */
+        public boolean isUnresolved() {
+            return ref != null && target == null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ParameterInfo)) return false;
+            ParameterInfo that = (ParameterInfo) o;
+            return Objects.equals(getName(), that.getName())
+                    && Objects.equals(getLocation(), that.getLocation())
+                    && getPlaceholderValue().equals(that.getPlaceholderValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(getName(), getLocation(), getPlaceholderValue());
         }
     }
 }
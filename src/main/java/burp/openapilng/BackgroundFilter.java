@@ -0,0 +1,121 @@
+package burp.openapilng;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs the endpoint filter off the EDT. Each {@link #request} waits out a short debounce
+ * window and then filters on the background thread; a newer request cancels both a pass
+ * that is still waiting and one that is already running, so only the filter for the latest
+ * text is ever published.
+ * <p>
+ * {@link #request} is called from one thread (the EDT); results are handed back through
+ * the publisher given to the constructor, normally {@code SwingUtilities::invokeLater}, and
+ * dropped there if a newer request was made in the meantime.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class BackgroundFilter implements Closeable {
+
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 150;
+
+    private final long debounceMillis;
+    private final Consumer<Runnable> publisher;
+    private final ScheduledExecutorService scheduler;
+    /** Bumped by every request; only results of the latest one are published. */
+    private long generation;
+    private ScheduledFuture<?> pending;
+    private LoadProgress pendingProgress;
+
+    /**
+     * Receives the result of a filter pass, on the publisher's thread.
+     */
+    public interface Listener {
+        void filtered(String regex, List<ApiEndpoint> source, List<ApiEndpoint> filtered);
+
+        /**
+         * Called instead of {@link #filtered} when the filter's regex exceeded its
+         * {@link RegexGuard} budget.
+         */
+        default void rejected(String regex, String reason) {
+        }
+    }
+
+    /**
+     * @param debounceMillis quiet period after the last request before filtering starts
+     * @param publisher runs result callbacks on the requesting thread, e.g. {@code SwingUtilities::invokeLater}
+     */
+    public BackgroundFilter(long debounceMillis, Consumer<Runnable> publisher) {
+        this.debounceMillis = Math.max(0, debounceMillis);
+        this.publisher = publisher;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "OpenAPI-NG filter");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Filters the indexed endpoints once the debounce window passes, replacing any earlier request.
+     *
+     * @param index indexes over the endpoints to filter
+     * @param regex filter text: a regex or a {@link FilterQuery}
+     * @param listener receives the result unless a newer request supersedes it
+     */
+    public synchronized void request(FieldIndex index, String regex, Listener listener) {
+        cancelPending();
+        if (scheduler.isShutdown()) return;
+        long id = ++generation;
+        LoadProgress progress = new LoadProgress();
+        pendingProgress = progress;
+        pending = scheduler.schedule(() -> {
+            List<ApiEndpoint> filtered;
+            try {
+                filtered = EndpointTableModel.filter(index, regex, progress);
+            } catch (CancellationException e) {
+                return; // Superseded
+            } catch (RegexGuard.BudgetExceededException e) {
+                publisher.accept(() -> {
+                    if (isCurrent(id)) listener.rejected(regex, e.getMessage());
+                });
+                return;
+            }
+            publisher.accept(() -> {
+                if (isCurrent(id)) listener.filtered(regex, index.getEndpoints(), filtered);
+            });
+        }, debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Drops any waiting or running pass without starting a new one.
+     */
+    public synchronized void cancel() {
+        cancelPending();
+        generation++;
+    }
+
+    private synchronized boolean isCurrent(long id) {
+        return id == generation;
+    }
+
+    private void cancelPending() {
+        if (pendingProgress != null) pendingProgress.cancel();
+        if (pending != null) pending.cancel(true);
+        pending = null;
+        pendingProgress = null;
+    }
+
+    @Override
+    public synchronized void close() {
+        cancel();
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,296 @@
+package burp.openapilng;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Sends one request per endpoint to record a baseline status, size, and latency before
+ * scanning. Requests share a global token-bucket rate limit, each host has a cap on
+ * concurrent requests, and transport failures and {@code 429}/{@code 502}/{@code 503}/
+ * {@code 504} responses are retried with exponential backoff.
+ * <p>
+ * Each request runs on its own virtual thread when the JVM has them (Java 21+), so
+ * thousands of requests waiting on the rate limit or a slow host cost almost nothing.
+ * Older JVMs fall back to a bounded pool of daemon threads.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class BaselineCrawler {
+
+    public static final double DEFAULT_RATE = 50;
+    public static final int DEFAULT_PER_HOST = 8;
+    public static final int DEFAULT_RETRIES = 2;
+    public static final long DEFAULT_BACKOFF_MILLIS = 250;
+
+    /** Backoff never waits longer than this between attempts. */
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    /** Platform threads used when virtual threads are unavailable. */
+    private static final int FALLBACK_THREADS = 64;
+
+    private final Sender sender;
+    private final TokenBucket bucket;
+    private final int perHost;
+    private final int retries;
+    private final long backoffMillis;
+
+    /**
+     * Sends one endpoint's request. Called concurrently from crawler threads.
+     */
+    public interface Sender {
+        /**
+         * @return the response's status and body length, from {@link Baseline#response(int, long)}
+         * @throws Exception on transport failure; the request is retried
+         */
+        Baseline send(ApiEndpoint endpoint) throws Exception;
+    }
+
+    /**
+     * Receives each baseline as it is recorded. Called on the thread running
+     * {@link #crawl(List, Function, Listener, LoadProgress)}, in completion order.
+     */
+    public interface Listener {
+        void baselined(ApiEndpoint endpoint, Baseline baseline, int done, int total);
+    }
+
+    /**
+     * @param sender sends requests
+     * @param requestsPerSecond global rate limit; bursts of up to one second's worth are allowed
+     * @param perHost maximum requests in flight to one host
+     * @param retries retries after the first attempt
+     * @param backoffMillis wait before the first retry, doubled for each further one
+     */
+    public BaselineCrawler(Sender sender, double requestsPerSecond, int perHost, int retries, long backoffMillis) {
+        this.sender = sender;
+        this.bucket = new TokenBucket(requestsPerSecond, Math.max(1, requestsPerSecond));
+        this.perHost = Math.max(1, perHost);
+        this.retries = Math.max(0, retries);
+        this.backoffMillis = Math.max(0, backoffMillis);
+    }
+
+    /**
+     * Baselines every endpoint and waits until all are done.
+     *
+     * @param endpoints endpoints to send
+     * @param hostOf host key each endpoint's request goes to, for the per-host cap
+     * @param listener progress callback, or null
+     * @param progress cancel to stop; requests in flight are interrupted
+     * @return baselines, aligned with {@code endpoints}
+     * @throws CancellationException if {@code progress} is cancelled or the caller interrupted
+     */
+    public Baseline[] crawl(List<ApiEndpoint> endpoints, Function<ApiEndpoint, String> hostOf, Listener listener,
+                            LoadProgress progress) {
+        int total = endpoints.size();
+        Baseline[] results = new Baseline[total];
+        if (total == 0) return results;
+        Map<String, Semaphore> hosts = new ConcurrentHashMap<>();
+        ExecutorService pool = newExecutor();
+        try {
+            CompletionService<Integer> completion = new ExecutorCompletionService<>(pool);
+            for (int i = 0; i < total; i++) {
+                final int slot = i;
+                ApiEndpoint endpoint = endpoints.get(slot);
+                Semaphore host = hosts.computeIfAbsent(hostOf.apply(endpoint), k -> new Semaphore(perHost));
+                completion.submit(() -> {
+                    results[slot] = baseline(endpoint, host, progress);
+                    return slot;
+                });
+            }
+            for (int done = 1; done <= total; done++) {
+                int slot = completion.take().get();
+                if (listener != null) {
+                    listener.baselined(endpoints.get(slot), results[slot], done, total);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.cancel();
+            throw new CancellationException("Baseline interrupted");
+        } catch (ExecutionException e) {
+            // baseline only lets cancellation through
+            progress.cancel();
+            throw new CancellationException("Baseline cancelled");
+        } finally {
+            pool.shutdownNow();
+        }
+        return results;
+    }
+
+    private Baseline baseline(ApiEndpoint endpoint, Semaphore host, LoadProgress progress) throws InterruptedException {
+        Baseline last = null;
+        for (int attempt = 1; ; attempt++) {
+            progress.checkCancelled();
+            host.acquire();
+            try {
+                bucket.acquire();
+                progress.checkCancelled();
+                long start = System.nanoTime();
+                try {
+                    Baseline reply = sender.send(endpoint);
+                    last = reply.timed(System.nanoTime() - start, attempt);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    last = Baseline.failure(e.getClass().getSimpleName() + ": " + e.getMessage(), attempt);
+                }
+            } finally {
+                host.release();
+            }
+            if (!last.isRetryable() || attempt > retries) {
+                return last;
+            }
+            long wait = Math.min(MAX_BACKOFF_MILLIS, backoffMillis << Math.min(attempt - 1, 20));
+            Thread.sleep(wait);
+        }
+    }
+
+    /**
+     * @return a virtual-thread-per-task executor on Java 21+, otherwise a bounded pool
+     */
+    static ExecutorService newExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newFixedThreadPool(FALLBACK_THREADS, r -> {
+                Thread t = new Thread(r, "OpenAPI-NG baseline");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * Global rate limit. Tokens refill continuously up to {@code burst}; a caller that finds
+     * the bucket empty reserves the next token and sleeps until it is due, so waiting
+     * callers are served in order without spinning.
+     */
+    static class TokenBucket {
+        private final double perNano;
+        private final double burst;
+        private double tokens;
+        private long lastNanos;
+
+        TokenBucket(double perSecond, double burst) {
+            this.perNano = Math.max(perSecond, 0.001) / TimeUnit.SECONDS.toNanos(1);
+            this.burst = burst;
+            this.tokens = burst;
+            this.lastNanos = System.nanoTime();
+        }
+
+        void acquire() throws InterruptedException {
+            long waitNanos = reserve(System.nanoTime());
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+
+        /**
+         * Takes a token, going into debt if none is left.
+         *
+         * @return how long the caller must wait before using it
+         */
+        synchronized long reserve(long nowNanos) {
+            tokens = Math.min(burst, tokens + (nowNanos - lastNanos) * perNano);
+            lastNanos = nowNanos;
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / perNano);
+        }
+    }
+
+    /**
+     * Status, body length, and latency of one endpoint's baseline request, or the error
+     * that stopped it.
+     */
+    public static class Baseline {
+        private final int status;
+        private final long length;
+        private final long nanos;
+        private final int attempts;
+        private final String error;
+        /** Formatted once, since the endpoint table shows it on every paint. */
+        private final String display;
+
+        private Baseline(int status, long length, long nanos, int attempts, String error) {
+            this.status = status;
+            this.length = length;
+            this.nanos = nanos;
+            this.attempts = attempts;
+            this.error = error;
+            this.display = error != null ? "error: " + error
+                    : String.format(Locale.ROOT, "%d · %s · %d ms", status, LoadProgress.formatBytes(length),
+                            TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+
+        /**
+         * @return a reply for {@link Sender} to return; the crawler adds timing
+         */
+        public static Baseline response(int status, long length) {
+            return new Baseline(status, length, 0, 1, null);
+        }
+
+        static Baseline failure(String error, int attempts) {
+            return new Baseline(0, 0, 0, attempts, error);
+        }
+
+        Baseline timed(long nanos, int attempts) {
+            return new Baseline(status, length, nanos, attempts, error);
+        }
+
+        boolean isRetryable() {
+            return error != null || status == 429 || status == 502 || status == 503 || status == 504;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        /**
+         * @return why no response was received, or null
+         */
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * @return e.g. {@code 200 · 1.2 KB · 85 ms}, for the endpoint table
+         */
+        public String getDisplay() {
+            return display;
+        }
+
+        @Override
+        public String toString() {
+            return display;
+        }
+    }
+}
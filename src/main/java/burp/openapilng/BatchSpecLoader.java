@@ -0,0 +1,367 @@
+package burp.openapilng;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Loads every spec under a directory, or every file matching a glob, on a bounded worker
+ * pool and merges the endpoints into one list. Each endpoint is tagged with the spec it
+ * came from, relative to the directory searched.
+ * <p>
+ * A spec that fails to read or parse, including one that overflows the stack, is reported
+ * and skipped; the rest of the batch still loads. Merged endpoints keep file order
+ * regardless of which spec finished first.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class BatchSpecLoader {
+
+    /** Threads for a batch; parsing is CPU bound but network drives add read latency. */
+    public static final int DEFAULT_THREADS = Math.max(2, Math.min(16, Runtime.getRuntime().availableProcessors() * 2));
+
+    /** Directory searches stop this deep, which covers per-service folders in a monorepo. */
+    private static final int MAX_DEPTH = 8;
+    private static final PathMatcher SPEC_FILES =
+            FileSystems.getDefault().getPathMatcher("glob:**.{json,yaml,yml,JSON,YAML,YML}");
+
+    private final OpenAPIParser parser;
+    private final int threads;
+
+    public BatchSpecLoader(OpenAPIParser parser, int threads) {
+        this.parser = parser;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Receives progress as individual specs finish. Called from worker threads.
+     */
+    public interface Listener {
+        void specLoaded(SpecOutcome outcome, int done, int total);
+    }
+
+    /**
+     * @param input a path or URL typed by the user
+     * @return true if the input names a directory, or has glob characters and names no file
+     */
+    public static boolean isBatchInput(String input) {
+        if (input == null || input.isBlank()) return false;
+        if (isGlob(input.trim())) return true;
+        try {
+            return Files.isDirectory(Paths.get(input.trim()));
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Finds spec files for a batch. A directory is searched recursively for {@code .json},
+     * {@code .yaml}, and {@code .yml} files; a glob such as {@code /specs/{@literal *}/openapi.yaml}
+     * is matched from its longest directory prefix without glob characters.
+     *
+     * @param input directory or glob
+     * @return matching files in path order
+     * @throws IOException if the directory cannot be listed
+     */
+    public static List<Path> findSpecs(String input) throws IOException {
+        String trimmed = input.trim();
+        Path base = baseOf(trimmed);
+        PathMatcher matcher;
+        int depth = MAX_DEPTH;
+        if (isGlob(trimmed)) {
+            String pattern = trimmed.replace('\\', '/');
+            int split = globBaseEnd(pattern);
+            String rest = pattern.substring(split + 1);
+            if (!rest.contains("**")) {
+                depth = rest.split("/").length;
+            }
+            matcher = FileSystems.getDefault().getPathMatcher("glob:" + (split < 0 ? "./" + pattern : pattern));
+        } else {
+            matcher = SPEC_FILES;
+        }
+        if (!Files.isDirectory(base)) {
+            throw new IOException("Not a directory: " + base);
+        }
+        List<Path> result = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(base, depth)) {
+            files.filter(Files::isRegularFile).filter(matcher::matches).forEach(result::add);
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Finds and loads every spec for a directory or glob.
+     *
+     * @see #findSpecs(String)
+     * @see #load(Path, List, Listener)
+     */
+    public BatchResult load(String input, Listener listener) throws IOException {
+        return load(input, listener, LoadProgress.untracked());
+    }
+
+    /**
+     * As {@link #load(String, Listener)}, reporting bytes and operations across all specs.
+     *
+     * @throws java.util.concurrent.CancellationException if {@code progress} is cancelled
+     */
+    public BatchResult load(String input, Listener listener, LoadProgress progress) throws IOException {
+        List<Path> files = findSpecs(input);
+        return load(baseOf(input.trim()), files, listener, progress);
+    }
+
+    /**
+     * Parses the given files concurrently and merges their endpoints in file order.
+     *
+     * @param base directory that source labels are relative to
+     * @param files spec files
+     * @param listener progress callback, or null
+     * @return merged endpoints and per-spec outcomes
+     */
+    public BatchResult load(Path base, List<Path> files, Listener listener) {
+        return load(base, files, listener, LoadProgress.untracked());
+    }
+
+    /**
+     * As {@link #load(Path, List, Listener)}; cancelling {@code progress} stops specs that
+     * have not started and interrupts the rest.
+     *
+     * @throws CancellationException if {@code progress} is cancelled or the caller interrupted
+     */
+    public BatchResult load(Path base, List<Path> files, Listener listener, LoadProgress progress) {
+        int total = files.size();
+        SpecOutcome[] outcomes = new SpecOutcome[total];
+        if (total == 0) {
+            return new BatchResult(new ArrayList<>(), new ArrayList<>());
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, total), r -> {
+            Thread t = new Thread(r, "OpenAPI-NG batch load");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            CompletionService<SpecOutcome> completion = new ExecutorCompletionService<>(pool);
+            for (int i = 0; i < total; i++) {
+                final int slot = i;
+                completion.submit(() -> {
+                    progress.checkCancelled();
+                    SpecOutcome outcome = loadOne(files.get(slot), label(base, files.get(slot)), progress);
+                    outcomes[slot] = outcome;
+                    return outcome;
+                });
+            }
+            for (int done = 1; done <= total; done++) {
+                SpecOutcome outcome = completion.take().get();
+                if (listener != null) {
+                    listener.specLoaded(outcome, done, total);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.cancel();
+            throw new CancellationException("Batch load interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CancellationException) {
+                progress.cancel();
+                throw (CancellationException) cause;
+            }
+            // loadOne records everything else per spec, so this is a VM error or a bug
+            if (cause instanceof Error) throw (Error) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException("Batch load failed", cause);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<SpecOutcome> list = new ArrayList<>(total);
+        for (SpecOutcome outcome : outcomes) {
+            if (outcome != null) list.add(outcome);
+        }
+        return new BatchResult(merge(list), list);
+    }
+
+    /**
+     * Joins the specs' endpoints, numbered in order and labelled with their spec. Catalogs are
+     * joined column by column, so long descriptions stay compressed.
+     */
+    static List<ApiEndpoint> merge(List<SpecOutcome> outcomes) {
+        List<EndpointCatalog> parts = new ArrayList<>(outcomes.size());
+        List<String> sources = new ArrayList<>(outcomes.size());
+        for (SpecOutcome outcome : outcomes) {
+            if (!(outcome.getEndpoints() instanceof EndpointCatalog)) break;
+            parts.add((EndpointCatalog) outcome.getEndpoints());
+            sources.add(outcome.getSource());
+        }
+        if (parts.size() == outcomes.size()) {
+            EndpointCatalog joined = EndpointCatalog.concat(parts, sources);
+            if (joined != null) return joined;
+        }
+        List<ApiEndpoint> merged = new ArrayList<>();
+        for (SpecOutcome outcome : outcomes) {
+            for (ApiEndpoint e : outcome.getEndpoints()) {
+                merged.add(e.withSource(merged.size() + 1, outcome.getSource()));
+            }
+        }
+        return merged;
+    }
+
+    private SpecOutcome loadOne(Path file, String source, LoadProgress progress) {
+        try {
+            SpecSource content;
+            try (LoadMetrics.Span ignored = progress.getMetrics().begin(LoadMetrics.READ)) {
+                content = SpecSource.of(file);
+            }
+            OpenAPIParser.ParseResult result = parser.parseSource(file.toString(), content, progress);
+            return new SpecOutcome(file, source, result.getEndpoints(), result.getMessages());
+        } catch (CancellationException e) {
+            throw e;
+        } catch (VirtualMachineError e) {
+            // A deeply nested spec overflows only its own worker's stack; anything else is fatal
+            if (!(e instanceof StackOverflowError)) throw e;
+            return failed(file, source, e);
+        } catch (IOException | RuntimeException | Error e) {
+            return failed(file, source, e);
+        }
+    }
+
+    private static SpecOutcome failed(Path file, String source, Throwable e) {
+        List<String> messages = new ArrayList<>();
+        messages.add(e.getClass().getSimpleName() + ": " + e.getMessage());
+        return new SpecOutcome(file, source, new ArrayList<>(), messages);
+    }
+
+    private static String label(Path base, Path file) {
+        try {
+            return base.relativize(file).toString().replace('\\', '/');
+        } catch (IllegalArgumentException e) {
+            return file.toString();
+        }
+    }
+
+    /**
+     * @return true if the input has glob characters and does not name an existing file, so a
+     *         file such as {@code api{v2}.yaml} is still loaded as itself
+     */
+    private static boolean isGlob(String s) {
+        if (!hasGlob(s)) return false;
+        try {
+            return !Files.exists(Paths.get(s));
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    private static boolean hasGlob(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '{') return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return index of the last separator before the first glob character, or -1 if the
+     * glob starts in the current directory
+     */
+    private static int globBaseEnd(String pattern) {
+        int firstGlob = 0;
+        while (firstGlob < pattern.length() && "*?[{".indexOf(pattern.charAt(firstGlob)) < 0) {
+            firstGlob++;
+        }
+        return pattern.lastIndexOf('/', firstGlob);
+    }
+
+    private static Path baseOf(String input) {
+        if (!isGlob(input)) return Paths.get(input);
+        int split = globBaseEnd(input.replace('\\', '/'));
+        return split < 0 ? Paths.get(".") : Paths.get(split == 0 ? "/" : input.substring(0, split));
+    }
+
+    /**
+     * Outcome of loading one spec in a batch.
+     */
+    public static class SpecOutcome {
+        private final Path file;
+        private final String source;
+        private final List<ApiEndpoint> endpoints;
+        private final List<String> messages;
+
+        SpecOutcome(Path file, String source, List<ApiEndpoint> endpoints, List<String> messages) {
+            this.file = file;
+            this.source = source;
+            this.endpoints = endpoints;
+            this.messages = messages;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public List<ApiEndpoint> getEndpoints() {
+            return endpoints;
+        }
+
+        public List<String> getMessages() {
+            return messages;
+        }
+
+        /**
+         * @return true if the spec produced no endpoints
+         */
+        public boolean isFailed() {
+            return endpoints.isEmpty();
+        }
+    }
+
+    /**
+     * Merged result of a batch load.
+     */
+    public static class BatchResult {
+        private final List<ApiEndpoint> endpoints;
+        private final List<SpecOutcome> specs;
+
+        /**
+         * @param endpoints merged endpoints; kept as an {@link EndpointCatalog}
+         */
+        public BatchResult(List<ApiEndpoint> endpoints, List<SpecOutcome> specs) {
+            this.endpoints = EndpointCatalog.of(endpoints);
+            this.specs = specs;
+        }
+
+        public List<ApiEndpoint> getEndpoints() {
+            return endpoints;
+        }
+
+        public List<SpecOutcome> getSpecs() {
+            return specs;
+        }
+
+        public int getFailedCount() {
+            int failed = 0;
+            for (SpecOutcome s : specs) {
+                if (s.isFailed()) failed++;
+            }
+            return failed;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package burp.openapilng;
+
+import burp.api.montoya.http.Http;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.http.message.responses.HttpResponse;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Fetches remote specs with HTTP validators and compression. The last body for each URL is
+ * kept on disk with its {@code ETag} and {@code Last-Modified}. Reloads send
+ * {@code If-None-Match} and {@code If-Modified-Since}, and a {@code 304} reuses the stored
+ * bytes and, within a session, the {@link ParseCache} key of their parse result. The
+ * result itself is left to the parse cache, so nothing parsed is kept here.
+ * <p>
+ * Bodies are requested with {@code gzip} or {@code deflate} and decompressed as a stream
+ * straight into the cache file, which is then memory-mapped by {@link SpecSource}.
+ * Brotli is not requested because the JDK has no decoder for it.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class ConditionalSpecFetcher {
+
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private final Transport transport;
+    private final Path directory;
+    private final Map<String, String> resultKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Sends one GET request. Implementations must not decompress the body.
+     */
+    public interface Transport {
+        Response get(String url, Map<String, String> headers) throws IOException;
+    }
+
+    /**
+     * Status, headers, and raw body of a response.
+     */
+    public interface Response {
+        int status();
+
+        /**
+         * @param name header name, case-insensitive
+         * @return the header value, or null if absent
+         */
+        String header(String name);
+
+        InputStream body() throws IOException;
+    }
+
+    public ConditionalSpecFetcher(Transport transport, Path directory) {
+        this.transport = transport;
+        this.directory = directory;
+    }
+
+    /**
+     * @return {@code ~/.openapi-ng/http-cache}
+     */
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".openapi-ng", "http-cache");
+    }
+
+    /**
+     * @param http Burp's HTTP API, so requests honour the project's upstream proxy and TLS settings
+     * @return a transport sending requests through Burp
+     */
+    public static Transport montoyaTransport(Http http) {
+        return (url, headers) -> {
+            HttpRequest request = HttpRequest.httpRequestFromUrl(url);
+            for (Map.Entry<String, String> h : headers.entrySet()) {
+                request = request.withHeader(h.getKey(), h.getValue());
+            }
+            HttpResponse response = http.sendRequest(request).response();
+            if (response == null) throw new IOException("No response");
+            return new Response() {
+                @Override
+                public int status() {
+                    return response.statusCode();
+                }
+
+                @Override
+                public String header(String name) {
+                    return response.headerValue(name);
+                }
+
+                @Override
+                public InputStream body() {
+                    return SpecSource.of(response.body()).openStream();
+                }
+            };
+        };
+    }
+
+    /**
+     * Fetches a spec, revalidating any cached copy.
+     *
+     * @param url spec URL
+     * @return the body, and the parse cache key of its result if the server answered {@code 304}
+     * @throws IOException on transport errors, non-success statuses, or unknown encodings
+     */
+    public Fetched fetch(String url) throws IOException {
+        String key = key(url);
+        Path body = directory.resolve(key + ".body");
+        Path meta = directory.resolve(key + ".properties");
+        Properties validators = readValidators(meta, url);
+        boolean haveBody = validators != null && Files.isRegularFile(body);
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Accept-Encoding", ACCEPT_ENCODING);
+        if (haveBody) {
+            String etag = validators.getProperty("etag");
+            String lastModified = validators.getProperty("lastModified");
+            if (etag != null) headers.put("If-None-Match", etag);
+            if (lastModified != null) headers.put("If-Modified-Since", lastModified);
+        }
+
+        Response response = transport.get(url, headers);
+        if (response.status() == 304 && haveBody) {
+            return new Fetched(SpecSource.of(body), true, resultKeys.get(url));
+        }
+        if (response.status() == 304) {
+            // Server validated a copy we no longer have; ask again unconditionally
+            headers.remove("If-None-Match");
+            headers.remove("If-Modified-Since");
+            response = transport.get(url, headers);
+        }
+        if (response.status() < 200 || response.status() >= 300) {
+            throw new IOException("HTTP " + response.status() + " from " + url);
+        }
+
+        Files.createDirectories(directory);
+        resultKeys.remove(url);
+        Path tmp = Files.createTempFile(directory, key, ".tmp");
+        try {
+            try (InputStream in = decode(response.body(), response.header("Content-Encoding"));
+                 OutputStream out = Files.newOutputStream(tmp)) {
+                in.transferTo(out);
+            }
+            Files.move(tmp, body, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        writeValidators(meta, url, response.header("ETag"), response.header("Last-Modified"));
+        return new Fetched(SpecSource.of(body), false, null);
+    }
+
+    /**
+     * Remembers the parse cache key of the result for the body last fetched from {@code url},
+     * to be returned when the server next answers {@code 304}. Results the parse cache does
+     * not hold are not remembered.
+     */
+    public void remember(String url, OpenAPIParser.ParseResult result) {
+        if (result != null && result.getCacheKey() != null) {
+            resultKeys.put(url, result.getCacheKey());
+        }
+    }
+
+    static InputStream decode(InputStream body, String contentEncoding) throws IOException {
+        if (contentEncoding == null) return body;
+        String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+        switch (encoding) {
+            case "":
+            case "identity":
+                return body;
+            case "gzip":
+            case "x-gzip":
+                return gunzip(body);
+            case "deflate":
+                return new InflaterInputStream(body);
+            default:
+                body.close();
+                throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+        }
+    }
+
+    /**
+     * Gunzips the body unless it lacks the gzip magic, which happens when something on the
+     * way already decoded it but kept the header.
+     */
+    private static InputStream gunzip(InputStream body) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(body, 64 * 1024);
+        in.mark(2);
+        int b0 = in.read();
+        int b1 = in.read();
+        in.reset();
+        if (b0 == 0x1f && b1 == 0x8b) {
+            return new GZIPInputStream(in, 64 * 1024);
+        }
+        return in;
+    }
+
+    private static Properties readValidators(Path meta, String url) {
+        if (!Files.isRegularFile(meta)) return null;
+        Properties p = new Properties();
+        try (Reader r = Files.newBufferedReader(meta, StandardCharsets.UTF_8)) {
+            p.load(r);
+        } catch (IOException e) {
+            return null;
+        }
+        // Guard against the (astronomically unlikely) hash collision
+        if (!url.equals(p.getProperty("url"))) return null;
+        if (p.getProperty("etag") == null && p.getProperty("lastModified") == null) return null;
+        return p;
+    }
+
+    private static void writeValidators(Path meta, String url, String etag, String lastModified) throws IOException {
+        if (etag == null && lastModified == null) {
+            Files.deleteIfExists(meta);
+            return;
+        }
+        Properties p = new Properties();
+        p.setProperty("url", url);
+        if (etag != null) p.setProperty("etag", etag);
+        if (lastModified != null) p.setProperty("lastModified", lastModified);
+        try (Writer w = Files.newBufferedWriter(meta, StandardCharsets.UTF_8)) {
+            p.store(w, null);
+        }
+    }
+
+    private static String key(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(64);
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A fetched spec body.
+     */
+    public static class Fetched {
+        private final SpecSource content;
+        private final boolean notModified;
+        private final String resultKey;
+
+        Fetched(SpecSource content, boolean notModified, String resultKey) {
+            this.content = content;
+            this.notModified = notModified;
+            this.resultKey = resultKey;
+        }
+
+        public SpecSource getContent() {
+            return content;
+        }
+
+        /**
+         * @return true if the server answered {@code 304} and the cached body was reused
+         */
+        public boolean isNotModified() {
+            return notModified;
+        }
+
+        /**
+         * @return the parse cache key remembered for the unchanged body's result, or null
+         */
+        public String getResultKey() {
+            return resultKey;
+        }
+    }
+}
@@ -0,0 +1,534 @@
+package burp.openapilng;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Read-only endpoint list stored by column instead of as one object graph per endpoint.
+ * Methods, schemes, and parameter locations are byte codes; every other string (servers,
+ * sources, description previews, path segments, tags, parameter names and values) is stored once
+ * in a shared table and referenced by {@code int} code. Paths are kept as runs of segment
+ * codes, and parameters and tags as runs in packed arrays, so an endpoint costs a few dozen
+ * bytes of primitive arrays plus whatever strings are unique to it.
+ * <p>
+ * Descriptions are kept as a one-line preview, which is all the endpoint table shows. A
+ * description longer than its preview goes to a compressed {@link TextStore} and is
+ * inflated only when {@link ApiEndpoint#getDescription()} is called, for a tooltip or a
+ * {@code desc} query. The parse cache stores the previews and the compressed store as they
+ * are and rebuilds the catalog with {@link #restore}.
+ * <p>
+ * {@link #get(int)} builds a lightweight {@link ApiEndpoint} view on demand. Recently read
+ * views are kept in a small cache, so the rows a table repaints get the same instance.
+ * State derived from a row, its request template, row key, and formatted cells, is kept
+ * in columns of its own rather than on the view, so a scan that evicts cached views does
+ * not lose it. The endpoint table reads its cells straight from the columns, so painting
+ * builds no views at all. Parameters that are unresolved {@code $ref}s are kept as they are, so they
+ * still resolve only when first read.
+ * <p>
+ * Immutable and safe to share between threads.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class EndpointCatalog extends AbstractList<ApiEndpoint> implements RandomAccess {
+
+    /** Views kept for repeated reads; a power of two above a screenful of rows. */
+    private static final int VIEW_CACHE_SIZE = 256;
+    /** Location code of a parameter kept as a {@code $ref}; its name code indexes {@link #references}. */
+    private static final byte REFERENCE = -1;
+    /** Byte codes leave room for this many distinct methods, schemes, or locations, less {@link #REFERENCE}. */
+    private static final int MAX_BYTE_CODES = 255;
+
+    private final int size;
+    private final String[] strings;
+    private final String[] methodNames;
+    private final String[] schemeNames;
+    private final String[] locationNames;
+
+    private final int[] indexes;
+    private final byte[] methods;
+    private final byte[] schemes;
+    private final int[] servers;
+    private final int[] sources;
+    /** Preview codes into {@link #strings}. */
+    private final int[] descriptions;
+    /** Ids in {@link #fullDescriptions}, or -1 where the preview is the whole description. */
+    private final int[] fullDescriptionIds;
+    private final TextStore fullDescriptions;
+    /** {@link String#hashCode()} of each full description, so rows compare without inflating it. */
+    private final int[] descriptionHashes;
+    /** Row {@code r}'s path segments are {@code pathSegments[pathStarts[r] .. pathStarts[r + 1])}. */
+    private final int[] pathStarts;
+    private final int[] pathSegments;
+    private final int[] tagStarts;
+    private final int[] tags;
+    private final int[] paramStarts;
+    private final int[] paramNames;
+    private final byte[] paramLocations;
+    private final int[] paramValues;
+    private final ApiEndpoint.ParameterInfo[] references;
+
+    /** Derived per row on first use; a benign race may compute a value twice. */
+    private final RequestTemplate[] templates;
+    private final Integer[] indexCells;
+    private final String[] parametersCells;
+    private final String[] pathCells;
+    private final String[] rowKeys;
+
+    private final CachedView[] views = new CachedView[VIEW_CACHE_SIZE];
+
+    /**
+     * A view and the row it was built for, replaced as a unit so readers never see a
+     * mismatched pair.
+     */
+    private static final class CachedView {
+        final int row;
+        final ApiEndpoint view;
+
+        CachedView(int row, ApiEndpoint view) {
+            this.row = row;
+            this.view = view;
+        }
+    }
+
+    private EndpointCatalog(Builder b) {
+        size = b.size;
+        strings = b.strings.values.toArray(new String[0]);
+        methodNames = b.methodNames.values.toArray(new String[0]);
+        schemeNames = b.schemeNames.values.toArray(new String[0]);
+        locationNames = b.locationNames.values.toArray(new String[0]);
+        indexes = Arrays.copyOf(b.indexes, size);
+        methods = Arrays.copyOf(b.methods, size);
+        schemes = Arrays.copyOf(b.schemes, size);
+        servers = Arrays.copyOf(b.servers, size);
+        sources = Arrays.copyOf(b.sources, size);
+        descriptions = Arrays.copyOf(b.descriptions, size);
+        fullDescriptionIds = Arrays.copyOf(b.fullDescriptionIds, size);
+        fullDescriptions = b.storedDescriptions != null ? b.storedDescriptions : b.fullDescriptions.build();
+        descriptionHashes = Arrays.copyOf(b.descriptionHashes, size);
+        pathStarts = Arrays.copyOf(b.pathStarts, size + 1);
+        pathSegments = b.pathSegments.toArray();
+        tagStarts = Arrays.copyOf(b.tagStarts, size + 1);
+        tags = b.tags.toArray();
+        paramStarts = Arrays.copyOf(b.paramStarts, size + 1);
+        paramNames = b.paramNames.toArray();
+        paramLocations = Arrays.copyOf(b.paramLocations, b.paramNames.size);
+        paramValues = b.paramValues.toArray();
+        references = b.references.toArray(new ApiEndpoint.ParameterInfo[0]);
+        templates = new RequestTemplate[size];
+        indexCells = new Integer[size];
+        parametersCells = new String[size];
+        pathCells = new String[size];
+        rowKeys = new String[size];
+    }
+
+    /**
+     * @param endpoints endpoints to store; read once and not kept
+     * @return a catalog of the endpoints, or {@code endpoints} itself if it already is one or
+     *         has more distinct methods, schemes, or parameter locations than byte codes allow
+     */
+    public static List<ApiEndpoint> of(List<ApiEndpoint> endpoints) {
+        if (endpoints instanceof EndpointCatalog) return endpoints;
+        Builder builder = new Builder(endpoints.size());
+        for (ApiEndpoint e : endpoints) {
+            if (!builder.add(e)) return endpoints;
+        }
+        return new EndpointCatalog(builder);
+    }
+
+    /**
+     * Rebuilds a catalog whose long descriptions are already compressed, as the parse cache
+     * reads it back, so they are not inflated and compressed again.
+     *
+     * @param endpoints endpoints whose descriptions are their previews
+     * @param fullDescriptionIds per endpoint, its id in {@code fullDescriptions}, or -1 where
+     *                           the preview is the whole description
+     * @param descriptionHashes per endpoint, the hash of its full description
+     * @param fullDescriptions the descriptions longer than their preview
+     * @return the catalog, or null if a byte-coded column ran out of codes
+     */
+    static EndpointCatalog restore(List<ApiEndpoint> endpoints, int[] fullDescriptionIds, int[] descriptionHashes,
+                                   TextStore fullDescriptions) {
+        Builder builder = new Builder(endpoints.size(), fullDescriptions);
+        for (int i = 0; i < endpoints.size(); i++) {
+            ApiEndpoint e = endpoints.get(i);
+            if (!builder.add(e, e.getDescription(), fullDescriptionIds[i], descriptionHashes[i])) return null;
+        }
+        return new EndpointCatalog(builder);
+    }
+
+    /**
+     * Joins catalogs into one, numbering rows from 1 in order and labelling each part's rows
+     * with its source. Long descriptions are copied still compressed, so none is inflated.
+     *
+     * @param parts catalogs to join
+     * @param sources per part, the source to label its rows with
+     * @return the catalog, or null if a byte-coded column ran out of codes
+     */
+    static EndpointCatalog concat(List<EndpointCatalog> parts, List<String> sources) {
+        int total = 0;
+        for (EndpointCatalog part : parts) total += part.size;
+        Builder builder = new Builder(total);
+        for (int p = 0; p < parts.size(); p++) {
+            EndpointCatalog part = parts.get(p);
+            int firstId = builder.fullDescriptions.addAll(part.fullDescriptions);
+            for (int row = 0; row < part.size; row++) {
+                int id = part.fullDescriptionIds[row];
+                if (!builder.add(part.get(row), builder.size + 1, sources.get(p), part.descriptionPreview(row),
+                        id < 0 ? -1 : firstId + id, part.descriptionHashes[row])) {
+                    return null;
+                }
+            }
+        }
+        return new EndpointCatalog(builder);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public ApiEndpoint get(int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        int slot = row & (VIEW_CACHE_SIZE - 1);
+        CachedView cached = views[slot];
+        if (cached != null && cached.row == row) return cached.view;
+        String preview = strings[descriptions[row]];
+        ApiEndpoint view = new ApiEndpoint(indexes[row], schemeNames[schemes[row] & 0xFF],
+                methodNames[methods[row] & 0xFF], strings[servers[row]], path(row), parameters(row),
+                fullDescriptionIds[row] < 0 ? preview : null, preview, strings[sources[row]], tags(row), this, row);
+        views[slot] = new CachedView(row, view);
+        return view;
+    }
+
+    /**
+     * @return the full description of a row, inflated from the side store if it is longer
+     *         than its preview
+     */
+    public String description(int row) {
+        int id = fullDescriptionIds[row];
+        return id < 0 ? strings[descriptions[row]] : fullDescriptions.get(id);
+    }
+
+    /**
+     * @return the row's request template, compiled on first use
+     */
+    RequestTemplate template(int row) {
+        RequestTemplate t = templates[row];
+        if (t == null) {
+            t = RequestTemplate.compile(get(row));
+            templates[row] = t;
+        }
+        return t;
+    }
+
+    /**
+     * @return the row's index, boxed once for the table's {@code #} column
+     */
+    Integer indexCell(int row) {
+        Integer cell = indexCells[row];
+        if (cell == null) {
+            cell = indexes[row];
+            indexCells[row] = cell;
+        }
+        return cell;
+    }
+
+    String scheme(int row) {
+        return schemeNames[schemes[row] & 0xFF];
+    }
+
+    String method(int row) {
+        return methodNames[methods[row] & 0xFF];
+    }
+
+    String server(int row) {
+        return strings[servers[row]];
+    }
+
+    String source(int row) {
+        return strings[sources[row]];
+    }
+
+    /**
+     * @return the row's path for the table, joined from its segments on first use
+     */
+    String pathCell(int row) {
+        String cell = pathCells[row];
+        if (cell == null) {
+            cell = path(row);
+            pathCells[row] = cell;
+        }
+        return cell;
+    }
+
+    /**
+     * @return the row's parameters cell, formatted on first use
+     * @see ApiEndpoint#parametersCell()
+     */
+    String parametersCell(int row) {
+        String cell = parametersCells[row];
+        if (cell == null) {
+            cell = ApiEndpoint.formatParameters(parameters(row));
+            parametersCells[row] = cell;
+        }
+        return cell;
+    }
+
+    /**
+     * @return the row's key, built on first use
+     * @see ApiEndpoint#rowKey()
+     */
+    String rowKey(int row) {
+        String key = rowKeys[row];
+        if (key == null) {
+            key = ApiEndpoint.rowKey(strings[sources[row]], methodNames[methods[row] & 0xFF], path(row));
+            rowKeys[row] = key;
+        }
+        return key;
+    }
+
+    /**
+     * @return hash of the row's full description, without inflating it
+     */
+    int descriptionHash(int row) {
+        return descriptionHashes[row];
+    }
+
+    /**
+     * @return the row's description preview
+     */
+    String descriptionPreview(int row) {
+        return strings[descriptions[row]];
+    }
+
+    /**
+     * @return the row's id in {@link #descriptionStore()}, or -1 where the preview is the
+     *         whole description
+     */
+    int fullDescriptionId(int row) {
+        return fullDescriptionIds[row];
+    }
+
+    /**
+     * @return the compressed store of descriptions longer than their preview
+     */
+    TextStore descriptionStore() {
+        return fullDescriptions;
+    }
+
+    /**
+     * @return compressed bytes held for descriptions longer than their preview
+     */
+    public long getDescriptionBytes() {
+        return fullDescriptions.getCompressedBytes();
+    }
+
+    /**
+     * @return the row the endpoint was read from, or -1 if it is not a view of this catalog
+     */
+    public int rowOf(ApiEndpoint endpoint) {
+        return endpoint.catalog() == this ? endpoint.catalogRow() : -1;
+    }
+
+    private String path(int row) {
+        int start = pathStarts[row];
+        int end = pathStarts[row + 1];
+        if (end - start == 1) return strings[pathSegments[start]];
+        StringBuilder sb = new StringBuilder(32);
+        for (int i = start; i < end; i++) {
+            if (i > start) sb.append('/');
+            sb.append(strings[pathSegments[i]]);
+        }
+        return sb.toString();
+    }
+
+    private List<ApiEndpoint.ParameterInfo> parameters(int row) {
+        int start = paramStarts[row];
+        int end = paramStarts[row + 1];
+        if (start == end) return Collections.emptyList();
+        ApiEndpoint.ParameterInfo[] params = new ApiEndpoint.ParameterInfo[end - start];
+        for (int i = start; i < end; i++) {
+            params[i - start] = paramLocations[i] == REFERENCE
+                    ? references[paramNames[i]]
+                    : new ApiEndpoint.ParameterInfo(strings[paramNames[i]], locationNames[paramLocations[i] & 0xFF],
+                            strings[paramValues[i]]);
+        }
+        return Arrays.asList(params);
+    }
+
+    private List<String> tags(int row) {
+        int start = tagStarts[row];
+        int end = tagStarts[row + 1];
+        if (start == end) return Collections.emptyList();
+        String[] result = new String[end - start];
+        for (int i = start; i < end; i++) {
+            result[i - start] = strings[tags[i]];
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Accumulates the columns while the endpoints are read.
+     */
+    private static final class Builder {
+        final Dictionary strings = new Dictionary();
+        final Dictionary methodNames = new Dictionary();
+        final Dictionary schemeNames = new Dictionary();
+        final Dictionary locationNames = new Dictionary();
+        int size;
+        int[] indexes;
+        byte[] methods;
+        byte[] schemes;
+        int[] servers;
+        int[] sources;
+        int[] descriptions;
+        int[] fullDescriptionIds;
+        int[] descriptionHashes;
+        /** Collects long descriptions, unless they arrive already compressed in {@link #storedDescriptions}. */
+        final TextStore.Builder fullDescriptions;
+        final TextStore storedDescriptions;
+        int[] pathStarts;
+        int[] tagStarts;
+        int[] paramStarts;
+        final IntList pathSegments = new IntList();
+        final IntList tags = new IntList();
+        final IntList paramNames = new IntList();
+        byte[] paramLocations = new byte[16];
+        final IntList paramValues = new IntList();
+        final List<ApiEndpoint.ParameterInfo> references = new ArrayList<>();
+
+        Builder(int capacity) {
+            this(capacity, null);
+        }
+
+        Builder(int capacity, TextStore storedDescriptions) {
+            this.storedDescriptions = storedDescriptions;
+            fullDescriptions = storedDescriptions == null ? new TextStore.Builder() : null;
+            indexes = new int[capacity];
+            methods = new byte[capacity];
+            schemes = new byte[capacity];
+            servers = new int[capacity];
+            sources = new int[capacity];
+            descriptions = new int[capacity];
+            fullDescriptionIds = new int[capacity];
+            descriptionHashes = new int[capacity];
+            pathStarts = new int[capacity + 1];
+            tagStarts = new int[capacity + 1];
+            paramStarts = new int[capacity + 1];
+        }
+
+        /**
+         * @return false if a byte-coded column ran out of codes
+         */
+        boolean add(ApiEndpoint e) {
+            String description = e.getDescription();
+            String preview = ApiEndpoint.preview(description);
+            return add(e, preview, preview == description ? -1 : fullDescriptions.add(description),
+                    description.hashCode());
+        }
+
+        /**
+         * @param fullDescriptionId id of the full description in the catalog's store, or -1
+         * @return false if a byte-coded column ran out of codes
+         */
+        boolean add(ApiEndpoint e, String preview, int fullDescriptionId, int descriptionHash) {
+            return add(e, e.getIndex(), e.getSource(), preview, fullDescriptionId, descriptionHash);
+        }
+
+        /**
+         * @param index the row's index, in place of the endpoint's own
+         * @param source the row's source, in place of the endpoint's own
+         */
+        boolean add(ApiEndpoint e, int index, String source, String preview, int fullDescriptionId,
+                    int descriptionHash) {
+            int method = methodNames.code(e.getMethod());
+            int scheme = schemeNames.code(e.getScheme());
+            if (method >= MAX_BYTE_CODES || scheme >= MAX_BYTE_CODES) return false;
+            int row = size;
+            indexes[row] = index;
+            methods[row] = (byte) method;
+            schemes[row] = (byte) scheme;
+            servers[row] = strings.code(e.getServer());
+            sources[row] = strings.code(source);
+            descriptions[row] = strings.code(preview);
+            fullDescriptionIds[row] = fullDescriptionId;
+            descriptionHashes[row] = descriptionHash;
+            // split(-1) keeps empty segments, so joining with '/' gives the path back exactly
+            for (String segment : e.getPath().split("/", -1)) {
+                pathSegments.add(strings.code(segment));
+            }
+            for (String tag : e.getTags()) {
+                tags.add(strings.code(tag));
+            }
+            for (ApiEndpoint.ParameterInfo p : e.getParameters()) {
+                byte location;
+                if (p.getRef() != null) {
+                    // Reading a reference would resolve it; keep it whole instead
+                    location = REFERENCE;
+                    paramNames.add(references.size());
+                    paramValues.add(0);
+                    references.add(p);
+                } else {
+                    int code = locationNames.code(p.getLocation());
+                    if (code >= MAX_BYTE_CODES) return false;
+                    location = (byte) code;
+                    paramNames.add(strings.code(p.getName()));
+                    paramValues.add(strings.code(p.getPlaceholderValue()));
+                }
+                if (paramNames.size > paramLocations.length) {
+                    paramLocations = Arrays.copyOf(paramLocations, paramLocations.length * 2);
+                }
+                paramLocations[paramNames.size - 1] = location;
+            }
+            size++;
+            pathStarts[size] = pathSegments.size;
+            tagStarts[size] = tags.size;
+            paramStarts[size] = paramNames.size;
+            return true;
+        }
+    }
+
+    /**
+     * Assigns each distinct string, null included, the next code.
+     */
+    private static final class Dictionary {
+        final Map<String, Integer> codes = new HashMap<>();
+        final List<String> values = new ArrayList<>();
+
+        int code(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+    }
+
+    /**
+     * Growable {@code int[]}.
+     */
+    private static final class IntList {
+        int[] values = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package burp.openapilng;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Sorts endpoint table rows by a column, off the EDT. The result is a permutation: entry
+ * {@code i} is the position in the filtered list of the row shown at view row {@code i}.
+ * <p>
+ * Each column is reduced to an {@code int} rank per row first: distinct strings are sorted
+ * once (case-insensitively, then case-sensitively to break ties) and numbers by value. The
+ * rank and row position are packed into one {@code long} per row, so the sort itself is a
+ * primitive array sort that never calls {@code getValueAt} or compares strings, and rows
+ * with equal keys keep their filtered order.
+ * <p>
+ * {@link SortKeys} keeps the ranks of every loaded endpoint per column, so only the first
+ * sort by a column compares strings; later sorts by it, after a filter change or in the
+ * other direction, just look up ranks and sort the packed longs.
+ * <p>
+ * Like {@link BackgroundFilter}, a newer {@link #request} cancels the pass before it, and
+ * results are published through the constructor's publisher only if still current.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class EndpointSorter implements Closeable {
+
+    /** Case-insensitive, with a case-sensitive tiebreak so distinct strings never tie. */
+    static final Comparator<String> COLLATION =
+            String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+    /** Rows ranked between cancellation checks. */
+    private static final int CHECK_INTERVAL = 4096;
+
+    private final Consumer<Runnable> publisher;
+    private final ExecutorService executor;
+    /** Bumped by every request; only results of the latest one are published. */
+    private long generation;
+    private Future<?> pending;
+    private LoadProgress pendingProgress;
+
+    /**
+     * Receives a sort order, on the publisher's thread.
+     */
+    public interface Listener {
+        void sorted(List<ApiEndpoint> rows, int column, boolean ascending, int[] order);
+    }
+
+    /**
+     * @param publisher runs result callbacks on the requesting thread, e.g. {@code SwingUtilities::invokeLater}
+     */
+    public EndpointSorter(Consumer<Runnable> publisher) {
+        this.publisher = publisher;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "OpenAPI-NG sort");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Ranks of every endpoint in one list, per column, computed on first use. Safe to share
+     * with the sort thread; the Baseline column changes as baselines arrive, so it is
+     * always ranked afresh.
+     */
+    public static class SortKeys {
+        private final List<ApiEndpoint> endpoints;
+        private final int[][] ranks = new int[EndpointTableModel.COL_BASELINE + 1][];
+        private Map<ApiEndpoint, Integer> rows;
+
+        /**
+         * @param endpoints every loaded endpoint; must not be modified afterwards
+         */
+        public SortKeys(List<ApiEndpoint> endpoints) {
+            this.endpoints = endpoints;
+        }
+
+        /**
+         * @return the rank of each row's value, by position in {@link #SortKeys(List) endpoints}
+         */
+        synchronized int[] ranks(int column, LoadProgress progress) {
+            if (ranks[column] == null) {
+                ranks[column] = EndpointSorter.ranks(endpoints, column, e -> null, progress);
+            }
+            return ranks[column];
+        }
+
+        /**
+         * @return the endpoint's position in the list, or -1 if it is not in it
+         */
+        synchronized int row(ApiEndpoint endpoint) {
+            if (endpoints instanceof EndpointCatalog) {
+                return ((EndpointCatalog) endpoints).rowOf(endpoint);
+            }
+            if (rows == null) {
+                Map<ApiEndpoint, Integer> built = new IdentityHashMap<>(endpoints.size());
+                for (int i = 0; i < endpoints.size(); i++) {
+                    built.putIfAbsent(endpoints.get(i), i);
+                }
+                rows = built;
+            }
+            Integer row = rows.get(endpoint);
+            return row != null ? row : -1;
+        }
+    }
+
+    /**
+     * Sorts the rows in the background, replacing any earlier request.
+     *
+     * @param keys ranks over the list the rows were filtered from
+     * @param rows rows to sort; must not be modified while the pass runs
+     * @param column model column to sort by
+     * @param ascending sort direction
+     * @param baselines baseline lookup for the Baseline column; must be safe to call off the EDT
+     * @param listener receives the order unless a newer request supersedes it
+     */
+    public synchronized void request(SortKeys keys, List<ApiEndpoint> rows, int column, boolean ascending,
+                                     Function<ApiEndpoint, BaselineCrawler.Baseline> baselines, Listener listener) {
+        cancelPending();
+        if (executor.isShutdown()) return;
+        long id = ++generation;
+        LoadProgress progress = new LoadProgress();
+        pendingProgress = progress;
+        pending = executor.submit(() -> {
+            int[] order;
+            try {
+                order = order(keys, rows, column, ascending, baselines, progress);
+            } catch (CancellationException e) {
+                return; // Superseded
+            }
+            publisher.accept(() -> {
+                if (isCurrent(id)) listener.sorted(rows, column, ascending, order);
+            });
+        });
+    }
+
+    /**
+     * Drops any running pass without starting a new one.
+     */
+    public synchronized void cancel() {
+        cancelPending();
+        generation++;
+    }
+
+    private synchronized boolean isCurrent(long id) {
+        return id == generation;
+    }
+
+    private void cancelPending() {
+        if (pendingProgress != null) pendingProgress.cancel();
+        if (pending != null) pending.cancel(true);
+        pending = null;
+        pendingProgress = null;
+    }
+
+    @Override
+    public synchronized void close() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Computes a stable sort order. Touches no model state, so it can run on any thread.
+     *
+     * @param rows rows to sort
+     * @param column model column to sort by
+     * @param ascending sort direction; ties keep row order either way
+     * @param baselines baseline lookup for the Baseline column
+     * @param progress checked while ranking
+     * @return view row to row position
+     */
+    public static int[] order(List<ApiEndpoint> rows, int column, boolean ascending,
+                              Function<ApiEndpoint, BaselineCrawler.Baseline> baselines, LoadProgress progress) {
+        return order(ranks(rows, column, baselines, progress), ascending, progress);
+    }
+
+    /**
+     * Like {@link #order(List, int, boolean, Function, LoadProgress)}, but takes ranks from
+     * the keys, computing them for the column on first use.
+     *
+     * @param keys ranks over the list the rows were filtered from
+     */
+    public static int[] order(SortKeys keys, List<ApiEndpoint> rows, int column, boolean ascending,
+                              Function<ApiEndpoint, BaselineCrawler.Baseline> baselines, LoadProgress progress) {
+        if (column == EndpointTableModel.COL_BASELINE) {
+            return order(rows, column, ascending, baselines, progress);
+        }
+        int[] all = keys.ranks(column, progress);
+        int[] ranks = new int[rows.size()];
+        for (int i = 0; i < ranks.length; i++) {
+            if (i % CHECK_INTERVAL == 0) progress.checkCancelled();
+            int row = keys.row(rows.get(i));
+            if (row < 0) {
+                // Not from the keyed list; cannot happen through the model, but stay correct
+                return order(rows, column, ascending, baselines, progress);
+            }
+            ranks[i] = all[row];
+        }
+        return order(ranks, ascending, progress);
+    }
+
+    private static int[] order(int[] ranks, boolean ascending, LoadProgress progress) {
+        long[] packed = new long[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            int rank = ascending ? ranks[i] : ~ranks[i];
+            packed[i] = ((long) rank << 32) | i;
+        }
+        progress.checkCancelled();
+        Arrays.parallelSort(packed);
+        progress.checkCancelled();
+        int[] order = new int[packed.length];
+        for (int i = 0; i < packed.length; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+
+    /**
+     * @return each row's rank in the column; equal values share a rank
+     */
+    static int[] ranks(List<ApiEndpoint> rows, int column, Function<ApiEndpoint, BaselineCrawler.Baseline> baselines,
+                       LoadProgress progress) {
+        switch (column) {
+            case EndpointTableModel.COL_INDEX:
+            case EndpointTableModel.COL_BASELINE: {
+                long[] keys = new long[rows.size()];
+                for (int i = 0; i < keys.length; i++) {
+                    if (i % CHECK_INTERVAL == 0) progress.checkCancelled();
+                    ApiEndpoint e = rows.get(i);
+                    keys[i] = column == EndpointTableModel.COL_INDEX ? e.getIndex() : baselineKey(baselines.apply(e));
+                }
+                return rankLongs(keys, progress);
+            }
+            default: {
+                String[] keys = new String[rows.size()];
+                for (int i = 0; i < keys.length; i++) {
+                    if (i % CHECK_INTERVAL == 0) progress.checkCancelled();
+                    keys[i] = stringKey(rows.get(i), column);
+                }
+                return rankStrings(keys, progress);
+            }
+        }
+    }
+
+    private static String stringKey(ApiEndpoint e, int column) {
+        switch (column) {
+            case EndpointTableModel.COL_SCHEME: return e.getScheme();
+            case EndpointTableModel.COL_METHOD: return e.getMethod();
+            case EndpointTableModel.COL_SERVER: return e.getServer();
+            case EndpointTableModel.COL_PATH: return e.getPath();
+            case EndpointTableModel.COL_PARAMS: return e.parametersCell();
+            case EndpointTableModel.COL_DESC: return e.getDescriptionPreview();
+            case EndpointTableModel.COL_SOURCE: return e.getSource();
+            default: return "";
+        }
+    }
+
+    /**
+     * Orders baselines by status, then latency; errors (status 0) first and rows without a
+     * baseline last.
+     */
+    private static long baselineKey(BaselineCrawler.Baseline b) {
+        if (b == null) return Long.MAX_VALUE;
+        return ((long) b.getStatus() << 40) | Math.min(b.getNanos() / 1000, (1L << 40) - 1);
+    }
+
+    private static int[] rankLongs(long[] keys, LoadProgress progress) {
+        long[] distinct = keys.clone();
+        Arrays.parallelSort(distinct);
+        int n = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i == 0 || distinct[i] != distinct[n - 1]) distinct[n++] = distinct[i];
+        }
+        progress.checkCancelled();
+        int[] ranks = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            ranks[i] = Arrays.binarySearch(distinct, 0, n, keys[i]);
+        }
+        return ranks;
+    }
+
+    private static int[] rankStrings(String[] keys, LoadProgress progress) {
+        Map<String, Integer> ids = new HashMap<>();
+        int[] ranks = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (i % CHECK_INTERVAL == 0) progress.checkCancelled();
+            Integer id = ids.get(keys[i]);
+            if (id == null) {
+                id = ids.size();
+                ids.put(keys[i], id);
+            }
+            ranks[i] = id;
+        }
+        String[] distinct = new String[ids.size()];
+        for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+            distinct[entry.getValue()] = entry.getKey();
+        }
+        String[] sorted = distinct.clone();
+        Arrays.parallelSort(sorted, COLLATION);
+        progress.checkCancelled();
+        // Reuse the id map: first-seen id to sorted position
+        for (int r = 0; r < sorted.length; r++) {
+            ids.put(sorted[r], r);
+        }
+        int[] rankOfId = new int[distinct.length];
+        for (int id = 0; id < distinct.length; id++) {
+            rankOfId[id] = ids.get(distinct[id]);
+        }
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = rankOfId[ranks[i]];
+        }
+        return ranks;
+    }
+}
@@ -1,15 +1,38 @@
 package burp.openapilng;
 
+import javax.swing.event.TableModelEvent;
 import javax.swing.table.AbstractTableModel;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 /**
- * Swing table model for the OpenAPI-NG endpoint list. Supports regex filtering with a
- * maximum pattern length to mitigate ReDoS. Displays index, scheme, method, server,
- * path, parameters, and description.
+ * Swing table model for the OpenAPI-NG endpoint list. Supports regex filtering and
+ * {@link FilterQuery} queries, with a maximum filter length to mitigate ReDoS. Displays index, scheme, method, server,
+ * path, parameters, description, the source spec of batch-loaded endpoints, and the
+ * baseline response once one has been recorded.
+ * <p>
+ * Cell values are formatted once per endpoint and baseline and then reused, so painting
+ * and scrolling allocate nothing. The Description column shows a one-line preview; the
+ * full text is read only for {@link #getDescriptionToolTip(int)}.
+ * <p>
+ * Rows can be sorted by any column with {@link #setSort(int, boolean)}. The view is then a
+ * permutation over the filtered rows, kept across filter changes: small lists are re-sorted
+ * at once, larger ones show filter order until {@link #setSortResult} delivers the order
+ * computed by {@link EndpointSorter}. Row indexes taken by {@link #getEndpointAt(int)} and
+ * {@link #getValueAt(int, int)} are view rows.
+ * <p>
+ * {@link #updateEndpoints(List)} replaces the list in place with row-level events so that
+ * selection and scroll position survive reloads of a watched spec. A reload filters and
+ * diffs the new list off the EDT with {@link #diff}; only the resulting events are applied
+ * on the EDT.
  *
  * @author jabberwock
  * @since 1.0
@@ -17,62 +40,633 @@ import java.util.regex.PatternSyntaxException;
  */
 public class EndpointTableModel extends AbstractTableModel {
 
-    private static final String[] COLUMN_NAMES = {"#", "Scheme", "Method", "Server", "Path", "Parameters (COOKIE, URL)", "Description"};
+    private static final String[] COLUMN_NAMES = {"#", "Scheme", "Method", "Server", "Path", "Parameters (COOKIE, URL)", "Description", "Source", "Baseline"};
     /** Max filter regex length to mitigate ReDoS. Filter content is not sanitized for display. */
     private static final int MAX_FILTER_REGEX_LENGTH = 500;
-    private static final int COL_INDEX = 0;
-    private static final int COL_SCHEME = 1;
-    private static final int COL_METHOD = 2;
-    private static final int COL_SERVER = 3;
-    private static final int COL_PATH = 4;
-    private static final int COL_PARAMS = 5;
-    private static final int COL_DESC = 6;
+    /** Rows filtered between cancellation checks. */
+    private static final int FILTER_CHECK_INTERVAL = 1024;
+    /** Regex step budget per row on the EDT; still hundreds of times what an ordinary filter needs. */
+    private static final long EDT_ROW_STEPS = 100_000;
+    /** Filtered lists up to this size are sorted on the EDT; larger ones by {@link EndpointSorter}. */
+    static final int SYNC_SORT_ROWS = 20_000;
+    /** Description characters shown in a tooltip; the rest of a long description is cut. */
+    private static final int MAX_TOOLTIP_CHARS = 4000;
+    static final int COL_INDEX = 0;
+    static final int COL_SCHEME = 1;
+    static final int COL_METHOD = 2;
+    static final int COL_SERVER = 3;
+    static final int COL_PATH = 4;
+    static final int COL_PARAMS = 5;
+    static final int COL_DESC = 6;
+    static final int COL_SOURCE = 7;
+    static final int COL_BASELINE = 8;
 
     private List<ApiEndpoint> allEndpoints = new ArrayList<>();
+    /** Indexes over {@link #allEndpoints}, built the first time a filter needs them. */
+    private FieldIndex index = new FieldIndex(allEndpoints);
+    /** Sort ranks over {@link #allEndpoints}, computed by {@link EndpointSorter} off the EDT. */
+    private EndpointSorter.SortKeys sortKeys = new EndpointSorter.SortKeys(allEndpoints);
     private List<ApiEndpoint> filteredEndpoints = new ArrayList<>();
     private String filterRegex = "";
     private Pattern filterPattern = null;
+    /** Set instead of {@link #filterPattern} when the filter text is a query. */
+    private FilterQuery filterQuery = null;
+    /** Why the filter was rejected on the last pass, or null. */
+    private String filterError = null;
+    /** Model column the view is sorted by, or -1 for filter order. */
+    private int sortColumn = -1;
+    private boolean sortAscending = true;
+    /**
+     * View row to position in {@link #filteredEndpoints}; null in filter order or while a
+     * sort of {@link #sortedRows} is still running.
+     */
+    private int[] viewOrder = null;
+    /** The filtered list {@link #viewOrder} was computed for. */
+    private List<ApiEndpoint> sortedRows = null;
+    /** Baseline responses by row key, so they survive reloads and filter changes. */
+    private final Map<String, BaselineCrawler.Baseline> baselines = new HashMap<>();
+    /**
+     * View row of each row key, built on the first baseline recorded for a view; stale once
+     * {@link #filteredEndpoints} or {@link #viewOrder} is replaced, and cleared when rows are
+     * edited in place.
+     */
+    private Map<String, Integer> viewRows = null;
+    private List<ApiEndpoint> viewRowsRows = null;
+    private int[] viewRowsOrder = null;
 
     public void setEndpoints(List<ApiEndpoint> endpoints) {
         this.allEndpoints = endpoints != null ? endpoints : new ArrayList<>();
+        this.index = new FieldIndex(allEndpoints);
+        this.sortKeys = new EndpointSorter.SortKeys(allEndpoints);
         applyFilter();
     }
 
     public void setFilter(String regex) {
-        this.filterRegex = regex != null ? regex : "";
-        this.filterPattern = null;
-        if (!this.filterRegex.isBlank() && this.filterRegex.length() <= MAX_FILTER_REGEX_LENGTH) {
-            try {
-                this.filterPattern = Pattern.compile(this.filterRegex);
-            } catch (PatternSyntaxException ignored) {
-                filterPattern = null;
-            }
-        }
+        compile(regex);
         applyFilter();
     }
 
-    private void applyFilter() {
-        filteredEndpoints.clear();
-        if (filterPattern == null) {
-            filteredEndpoints.addAll(allEndpoints);
+    /**
+     * Publishes a filter pass run off the EDT with {@link #filter(FieldIndex, String, LoadProgress)}.
+     * If the endpoint list was replaced while the pass ran, the filter is applied again here
+     * instead, so the table never shows rows from an old list.
+     *
+     * @param regex the filter text the pass ran with
+     * @param source the endpoint list the pass filtered, from {@link #getIndex()}
+     * @param filtered the matching endpoints
+     */
+    public void setFilterResult(String regex, List<ApiEndpoint> source, List<ApiEndpoint> filtered) {
+        if (source != allEndpoints) {
+            setFilter(regex);
+            return;
+        }
+        compile(regex);
+        filterError = null;
+        filteredEndpoints = filtered;
+        sortFiltered();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Sorts the view by a column, or restores filter order.
+     *
+     * @param column model column, or -1 for filter order
+     * @param ascending sort direction
+     */
+    public void setSort(int column, boolean ascending) {
+        sortColumn = column >= 0 && column < COLUMN_NAMES.length ? column : -1;
+        sortAscending = ascending;
+        sortedRows = null;
+        sortFiltered();
+        fireTableDataChanged();
+    }
+
+    /**
+     * @return the model column the view is sorted by, or -1
+     */
+    public int getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isSortAscending() {
+        return sortAscending;
+    }
+
+    /**
+     * @return true if the view should be sorted but is showing filter order until an
+     *         {@link EndpointSorter} pass over {@link #getFilteredEndpoints()} completes
+     */
+    public boolean isSortPending() {
+        return sortColumn >= 0 && viewOrder == null;
+    }
+
+    /**
+     * @return sort ranks over the current endpoint list, for sorting off the EDT
+     */
+    public EndpointSorter.SortKeys getSortKeys() {
+        return sortKeys;
+    }
+
+    /**
+     * @return the filtered rows in filter order, for sorting off the EDT
+     */
+    public List<ApiEndpoint> getFilteredEndpoints() {
+        return filteredEndpoints;
+    }
+
+    /**
+     * Publishes an order computed by {@link EndpointSorter}. Ignored if the filtered rows or
+     * the sort changed since the pass started; a newer pass will follow.
+     */
+    public void setSortResult(List<ApiEndpoint> rows, int column, boolean ascending, int[] order) {
+        if (rows != filteredEndpoints || column != sortColumn || ascending != sortAscending
+                || order.length != rows.size()) {
+            return;
+        }
+        viewOrder = order;
+        sortedRows = rows;
+        fireTableDataChanged();
+    }
+
+    /**
+     * @return baseline lookup over a snapshot of the recorded baselines, safe to use off the EDT
+     */
+    public Function<ApiEndpoint, BaselineCrawler.Baseline> getBaselineSnapshot() {
+        Map<String, BaselineCrawler.Baseline> snapshot = new HashMap<>(baselines);
+        return e -> snapshot.get(e.rowKey());
+    }
+
+    /**
+     * Brings {@link #viewOrder} up to date with {@link #filteredEndpoints}: sorts small lists
+     * now and leaves larger ones pending for a background pass.
+     */
+    private void sortFiltered() {
+        if (sortColumn < 0) {
+            viewOrder = null;
+            sortedRows = null;
+            return;
+        }
+        if (sortedRows == filteredEndpoints && viewOrder != null) return;
+        if (filteredEndpoints.size() <= SYNC_SORT_ROWS) {
+            viewOrder = EndpointSorter.order(filteredEndpoints, sortColumn, sortAscending,
+                    this::getBaseline, LoadProgress.untracked());
+            sortedRows = filteredEndpoints;
         } else {
-            for (ApiEndpoint e : allEndpoints) {
-                String row = e.getMethod() + " " + e.getPath() + " " + e.getServer();
-                if (filterPattern.matcher(row).find()) {
-                    filteredEndpoints.add(e);
+            viewOrder = null;
+            sortedRows = null;
+        }
+    }
+
+    /**
+     * @return why the current filter was rejected and every row is shown, or null
+     */
+    public String getFilterError() {
+        return filterError;
+    }
+
+    /**
+     * @return the indexes over the current endpoint list, for filtering off the EDT
+     */
+    public FieldIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the last filter text set, never null
+     */
+    public String getFilter() {
+        return filterRegex;
+    }
+
+    /**
+     * @return the compiled filter, or null to show every row: blank, too long, or invalid
+     */
+    public static Pattern compileFilter(String regex) {
+        if (regex == null || regex.isBlank() || regex.length() > MAX_FILTER_REGEX_LENGTH) {
+            return null;
+        }
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * Sets the filter text and compiles it as a query or a regex. A malformed query
+     * filters nothing rather than being tried as a regex.
+     */
+    private void compile(String text) {
+        this.filterRegex = text != null ? text : "";
+        this.filterQuery = compileQuery(filterRegex);
+        this.filterPattern = filterQuery == null && !FilterQuery.isQuery(filterRegex)
+                ? compileFilter(filterRegex) : null;
+    }
+
+    /**
+     * @return the compiled query, or null if the text is not a query, too long, or malformed
+     */
+    public static FilterQuery compileQuery(String text) {
+        if (text == null || text.length() > MAX_FILTER_REGEX_LENGTH || !FilterQuery.isQuery(text)) {
+            return null;
+        }
+        try {
+            return FilterQuery.parse(text);
+        } catch (IllegalArgumentException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * Filters with a query or a regex, whichever the text is, using the indexes. Touches
+     * no model state, so it can run on a background thread.
+     *
+     * @param index indexes over the endpoints to filter
+     * @param text filter text
+     * @param progress checked while rows are scanned
+     * @return the matching endpoints, in order
+     * @throws RegexGuard.BudgetExceededException if the regex exceeds the default budgets
+     */
+    public static List<ApiEndpoint> filter(FieldIndex index, String text, LoadProgress progress) {
+        RegexGuard guard = RegexGuard.forPass(progress);
+        FilterQuery query = compileQuery(text);
+        if (query != null) {
+            return query.filter(index, guard);
+        }
+        return filter(index.text(), FilterQuery.isQuery(text) ? null : compileFilter(text), guard);
+    }
+
+    /**
+     * Replaces the endpoint list, firing insert, update, and delete events only for rows
+     * whose endpoint was added, changed, or removed. Computes the change on the calling
+     * thread; a reload should use {@link #snapshot()}, {@link #diff}, and
+     * {@link #applyUpdate} to keep the work off the EDT.
+     *
+     * @param endpoints the new endpoint list
+     */
+    public void updateEndpoints(List<ApiEndpoint> endpoints) {
+        applyUpdate(diff(snapshot(), endpoints, LoadProgress.untracked()));
+    }
+
+    /**
+     * @return the rows shown and the filter and sort that chose them, for {@link #diff}
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(filteredEndpoints, filterRegex, sortColumn);
+    }
+
+    /**
+     * Filters a new endpoint list with the snapshot's filter and works out the row events
+     * that turn the snapshot's rows into the result. Rows are matched by source, method,
+     * and path template and compared with {@link ApiEndpoint#sameRow}. A sorted view,
+     * reordered rows, or ambiguous keys give an update that refreshes the table whole.
+     * Touches no model state, so it can run on a background thread.
+     *
+     * @param base rows shown when the reload started, from {@link #snapshot()}
+     * @param endpoints the new endpoint list
+     * @param progress checked while rows are filtered and compared
+     * @return the update, for {@link #applyUpdate} on the EDT
+     */
+    public static Update diff(Snapshot base, List<ApiEndpoint> endpoints, LoadProgress progress) {
+        List<ApiEndpoint> all = endpoints != null ? endpoints : new ArrayList<>();
+        FieldIndex index = new FieldIndex(all);
+        List<ApiEndpoint> target;
+        String error = null;
+        try {
+            target = filter(index, base.filter, progress);
+        } catch (RegexGuard.BudgetExceededException e) {
+            target = everyRow(all);
+            error = e.getMessage();
+        }
+        // Row-level events assume view rows are filter positions, so a sorted view is refreshed whole
+        if (base.sortColumn >= 0 || !canDiff(base.rows, target, progress)) {
+            return new Update(base, all, index, target, error, null, null);
+        }
+
+        List<ApiEndpoint> rows = new ArrayList<>(base.rows);
+        List<ApiEndpoint> work = new ArrayList<>(rows);
+        List<Edit> edits = new ArrayList<>();
+        Map<String, ApiEndpoint> targetByKey = new HashMap<>(target.size() * 2);
+        for (ApiEndpoint e : target) {
+            targetByKey.put(keyOf(e), e);
+        }
+        progress.checkCancelled();
+
+        // Deletions, back to front so earlier row indexes stay valid
+        int i = work.size() - 1;
+        while (i >= 0) {
+            if (targetByKey.containsKey(keyOf(work.get(i)))) {
+                i--;
+                continue;
+            }
+            int last = i;
+            while (i >= 0 && !targetByKey.containsKey(keyOf(work.get(i)))) i--;
+            work.subList(i + 1, last + 1).clear();
+            edits.add(new Edit(TableModelEvent.DELETE, i + 1, last, null));
+        }
+
+        // Surviving rows are now an ordered subsequence of target: insert the gaps, note changes
+        List<Integer> updated = new ArrayList<>();
+        int row = 0;
+        int insertStart = -1;
+        for (ApiEndpoint want : target) {
+            if (row < work.size() && keyOf(work.get(row)).equals(keyOf(want))) {
+                if (insertStart >= 0) {
+                    edits.add(new Edit(TableModelEvent.INSERT, insertStart, row - 1,
+                            new ArrayList<>(work.subList(insertStart, row))));
+                    insertStart = -1;
                 }
+                if (!work.get(row).sameRow(want)) {
+                    updated.add(row);
+                }
+            } else {
+                work.add(row, want);
+                if (insertStart < 0) insertStart = row;
+            }
+            row++;
+        }
+        if (insertStart >= 0) {
+            edits.add(new Edit(TableModelEvent.INSERT, insertStart, row - 1,
+                    new ArrayList<>(work.subList(insertStart, row))));
+        }
+
+        for (int u = 0; u < updated.size(); ) {
+            int first = updated.get(u);
+            int last = first;
+            while (++u < updated.size() && updated.get(u) == last + 1) last++;
+            edits.add(new Edit(TableModelEvent.UPDATE, first, last, null));
+        }
+        return new Update(base, all, index, target, error, rows, edits);
+    }
+
+    /**
+     * Publishes an update from {@link #diff}: replays its row events, or refreshes the
+     * table whole if the view it was computed against has changed since. Call on the EDT.
+     */
+    public void applyUpdate(Update update) {
+        this.allEndpoints = update.endpoints;
+        this.index = update.index;
+        this.sortKeys = new EndpointSorter.SortKeys(allEndpoints);
+        viewRows = null;
+        Snapshot base = update.base;
+        if (!base.filter.equals(filterRegex)) {
+            // The filter changed while the reload ran; the index is built, so this is cheap
+            applyFilter();
+            return;
+        }
+        filterError = update.filterError;
+        if (update.edits == null || base.rows != filteredEndpoints || base.sortColumn != sortColumn) {
+            filteredEndpoints = update.filtered;
+            sortFiltered();
+            fireTableDataChanged();
+            return;
+        }
+
+        // Replay on a copy of the old rows so each event sees the row count it describes
+        filteredEndpoints = update.rows;
+        for (Edit edit : update.edits) {
+            if (edit.type == TableModelEvent.DELETE) {
+                filteredEndpoints.subList(edit.first, edit.last + 1).clear();
+                fireTableRowsDeleted(edit.first, edit.last);
+            } else if (edit.type == TableModelEvent.INSERT) {
+                filteredEndpoints.addAll(edit.first, edit.rows);
+                fireTableRowsInserted(edit.first, edit.last);
+            } else {
+                // Updates come last; from here on the rows are the new endpoints
+                filteredEndpoints = update.filtered;
+                fireTableRowsUpdated(edit.first, edit.last);
             }
         }
+        filteredEndpoints = update.filtered;
+    }
+
+    /**
+     * True if every key is unique and the rows present in both lists keep their relative
+     * order, so the current rows can be turned into the target with inserts and deletes.
+     */
+    private static boolean canDiff(List<ApiEndpoint> current, List<ApiEndpoint> target, LoadProgress progress) {
+        Map<String, Integer> targetPos = new HashMap<>(target.size() * 2);
+        for (int i = 0; i < target.size(); i++) {
+            if (targetPos.put(keyOf(target.get(i)), i) != null) return false;
+        }
+        progress.checkCancelled();
+        Set<String> seen = new HashSet<>(current.size() * 2);
+        int lastPos = -1;
+        for (ApiEndpoint e : current) {
+            String key = keyOf(e);
+            if (!seen.add(key)) return false;
+            Integer pos = targetPos.get(key);
+            if (pos == null) continue;
+            if (pos < lastPos) return false;
+            lastPos = pos;
+        }
+        return true;
+    }
+
+    /**
+     * @return the endpoint's row key, built without caching it on the endpoint or catalog,
+     *         so diffing a whole list does not keep a key for every row
+     */
+    private static String keyOf(ApiEndpoint e) {
+        return ApiEndpoint.rowKey(e.getSource(), e.getMethod(), e.getPath());
+    }
+
+    private void applyFilter() {
+        filteredEndpoints = filter(allEndpoints);
+        sortFiltered();
         fireTableDataChanged();
     }
 
+    /**
+     * Filters on the EDT with a tighter regex budget. A filter that exceeds it is rejected
+     * like an invalid regex: every row is shown and {@link #getFilterError()} says why.
+     */
+    private List<ApiEndpoint> filter(List<ApiEndpoint> endpoints) {
+        filterError = null;
+        RegexGuard guard = new RegexGuard(LoadProgress.untracked(), EDT_ROW_STEPS);
+        try {
+            // Building an index costs several full scans, so the EDT only uses one already built
+            boolean indexed = endpoints == allEndpoints;
+            if (filterQuery != null) {
+                return indexed && index.isBuilt() && index.foldedText().isBuilt()
+                        ? filterQuery.filter(index, guard)
+                        : filterQuery.filter(endpoints, guard);
+            }
+            if (indexed && index.text().isBuilt()) {
+                return filter(index.text(), filterPattern, guard);
+            }
+            return filter(endpoints, filterPattern, guard);
+        } catch (RegexGuard.BudgetExceededException e) {
+            filterError = e.getMessage();
+            return everyRow(endpoints);
+        }
+    }
+
+    /**
+     * @return every endpoint: a catalog as it is, so its rows are not all turned into
+     *         views at once, and any other list as a copy
+     */
+    private static List<ApiEndpoint> everyRow(List<ApiEndpoint> endpoints) {
+        return endpoints instanceof EndpointCatalog ? endpoints : new ArrayList<>(endpoints);
+    }
+
+    /**
+     * Like {@link #filter(TrigramIndex, Pattern, RegexGuard)}, with the default regex budgets.
+     */
+    public static List<ApiEndpoint> filter(TrigramIndex index, Pattern pattern, LoadProgress progress) {
+        return filter(index, pattern, RegexGuard.forPass(progress));
+    }
+
+    /**
+     * Like {@link #filter(List, Pattern, RegexGuard)}, but runs the pattern only on rows
+     * containing every literal the pattern requires, as found by the index.
+     *
+     * @param index index over the endpoints to filter
+     * @param pattern filter from {@link #compileFilter(String)}, or null to keep every endpoint
+     * @param guard bounds matching; its progress is checked every {@link #FILTER_CHECK_INTERVAL} rows
+     * @return the matching endpoints, in order
+     * @throws RegexGuard.BudgetExceededException if the pattern exceeds the guard's budget
+     */
+    public static List<ApiEndpoint> filter(TrigramIndex index, Pattern pattern, RegexGuard guard) {
+        List<ApiEndpoint> endpoints = index.getEndpoints();
+        if (pattern == null) {
+            return everyRow(endpoints);
+        }
+        int[] candidates = index.candidates(TrigramIndex.requiredLiterals(pattern.pattern()));
+        if (candidates == null) {
+            return filter(endpoints, pattern, guard);
+        }
+        List<ApiEndpoint> result = new ArrayList<>();
+        StringBuilder row = new StringBuilder(128);
+        Matcher matcher = pattern.matcher(row);
+        for (int i = 0; i < candidates.length; i++) {
+            if (i % FILTER_CHECK_INTERVAL == 0) {
+                guard.getProgress().checkCancelled();
+            }
+            ApiEndpoint e = endpoints.get(candidates[i]);
+            if (matcher.reset(guard.wrap(TrigramIndex.rowText(e, row))).find()) {
+                result.add(e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Matches {@code method path server} of each endpoint against the pattern, with the
+     * default regex budgets. Touches no model state, so it can run on a background thread.
+     *
+     * @param endpoints endpoints to filter
+     * @param pattern filter from {@link #compileFilter(String)}, or null to keep every endpoint
+     * @param progress checked every {@link #FILTER_CHECK_INTERVAL} rows
+     * @return the matching endpoints, in order
+     * @throws java.util.concurrent.CancellationException if {@code progress} is cancelled
+     * @throws RegexGuard.BudgetExceededException if the pattern exceeds the budgets
+     */
+    public static List<ApiEndpoint> filter(List<ApiEndpoint> endpoints, Pattern pattern, LoadProgress progress) {
+        return filter(endpoints, pattern, RegexGuard.forPass(progress));
+    }
+
+    /**
+     * Like {@link #filter(List, Pattern, LoadProgress)}, with the given regex budgets.
+     */
+    public static List<ApiEndpoint> filter(List<ApiEndpoint> endpoints, Pattern pattern, RegexGuard guard) {
+        if (pattern == null) {
+            return everyRow(endpoints);
+        }
+        List<ApiEndpoint> result = new ArrayList<>();
+        StringBuilder row = new StringBuilder(128);
+        Matcher matcher = pattern.matcher(row);
+        for (int i = 0; i < endpoints.size(); i++) {
+            if (i % FILTER_CHECK_INTERVAL == 0) {
+                guard.getProgress().checkCancelled();
+            }
+            ApiEndpoint e = endpoints.get(i);
+            if (matcher.reset(guard.wrap(TrigramIndex.rowText(e, row))).find()) {
+                result.add(e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records an endpoint's baseline response and repaints its Baseline cell, if the row is shown.
+     */
+    public void setBaseline(ApiEndpoint endpoint, BaselineCrawler.Baseline baseline) {
+        String key = endpoint.rowKey();
+        baselines.put(key, baseline);
+        Integer row = viewRows().get(key);
+        if (row != null) {
+            fireTableCellUpdated(row, COL_BASELINE);
+        }
+    }
+
+    /**
+     * @return view row by row key for the current view, rebuilt if the view changed since
+     */
+    private Map<String, Integer> viewRows() {
+        if (viewRows == null || viewRowsRows != filteredEndpoints || viewRowsOrder != viewOrder) {
+            Map<String, Integer> rows = new HashMap<>(filteredEndpoints.size() * 2);
+            EndpointCatalog catalog = filteredEndpoints instanceof EndpointCatalog
+                    ? (EndpointCatalog) filteredEndpoints : null;
+            for (int r = 0; r < filteredEndpoints.size(); r++) {
+                int position = viewOrder != null ? viewOrder[r] : r;
+                rows.put(catalog != null ? catalog.rowKey(position) : filteredEndpoints.get(position).rowKey(), r);
+            }
+            viewRows = rows;
+            viewRowsRows = filteredEndpoints;
+            viewRowsOrder = viewOrder;
+        }
+        return viewRows;
+    }
+
+    /**
+     * @return the endpoint's baseline response, or null if it has not been baselined
+     */
+    public BaselineCrawler.Baseline getBaseline(ApiEndpoint endpoint) {
+        return baselines.get(endpoint.rowKey());
+    }
+
+    /**
+     * @param row view row
+     * @return HTML tooltip with the row's full description, or null if the preview in the
+     *         Description column already shows all of it
+     */
+    public String getDescriptionToolTip(int row) {
+        ApiEndpoint e = getEndpointAt(row);
+        if (e == null) return null;
+        String full = e.getDescription();
+        if (full.equals(e.getDescriptionPreview())) return null;
+        if (full.length() > MAX_TOOLTIP_CHARS) {
+            full = full.substring(0, MAX_TOOLTIP_CHARS) + "\u2026";
+        }
+        StringBuilder html = new StringBuilder(full.length() + 64).append("<html><body style='width: 480px'>");
+        for (int i = 0; i < full.length(); i++) {
+            char c = full.charAt(i);
+            switch (c) {
+                case '<': html.append("&lt;"); break;
+                case '>': html.append("&gt;"); break;
+                case '&': html.append("&amp;"); break;
+                case '\n': html.append("<br>"); break;
+                default: html.append(c);
+            }
+        }
+        return html.append("</body></html>").toString();
+    }
+
+    /**
+     * @return every loaded endpoint, ignoring the filter
+     */
+    public List<ApiEndpoint> getAllEndpoints() {
+        return allEndpoints;
+    }
+
     public int getFilterHitCount() {
         return filteredEndpoints.size();
     }
 
     public ApiEndpoint getEndpointAt(int modelIndex) {
         if (modelIndex >= 0 && modelIndex < filteredEndpoints.size()) {
-            return filteredEndpoints.get(modelIndex);
+            return filteredEndpoints.get(viewOrder != null ? viewOrder[modelIndex] : modelIndex);
         }
         return null;
     }
@@ -103,27 +697,104 @@ public class EndpointTableModel extends AbstractTableModel {
 
     @Override
     public Object getValueAt(int rowIndex, int columnIndex) {
-        ApiEndpoint e = getEndpointAt(rowIndex);
-        if (e == null) return "";
+        if (rowIndex < 0 || rowIndex >= filteredEndpoints.size()) return "";
+        int position = viewOrder != null ? viewOrder[rowIndex] : rowIndex;
+        if (filteredEndpoints instanceof EndpointCatalog) {
+            return catalogValue((EndpointCatalog) filteredEndpoints, position, columnIndex);
+        }
+        ApiEndpoint e = filteredEndpoints.get(position);
         switch (columnIndex) {
-            case COL_INDEX: return e.getIndex();
+            case COL_INDEX: return e.indexCell();
             case COL_SCHEME: return e.getScheme();
             case COL_METHOD: return e.getMethod();
             case COL_SERVER: return e.getServer();
             case COL_PATH: return e.getPath();
-            case COL_PARAMS: return formatParams(e.getParameters());
-            case COL_DESC: return e.getDescription();
+            case COL_PARAMS: return e.parametersCell();
+            case COL_DESC: return e.getDescriptionPreview();
+            case COL_SOURCE: return e.getSource();
+            case COL_BASELINE: return baselineCell(e.rowKey());
             default: return "";
         }
     }
 
-    private String formatParams(List<ApiEndpoint.ParameterInfo> params) {
-        if (params == null || params.isEmpty()) return "";
-        StringBuilder sb = new StringBuilder();
-        for (ApiEndpoint.ParameterInfo p : params) {
-            if (sb.length() > 0) sb.append(", ");
-            sb.append(p.getLocation().toUpperCase()).append(":").append(p.getName());
+    /**
+     * Reads a cell from the catalog's columns, so painting an unfiltered catalog builds no
+     * views even when a sorted order keeps evicting its view cache.
+     */
+    private Object catalogValue(EndpointCatalog catalog, int row, int columnIndex) {
+        switch (columnIndex) {
+            case COL_INDEX: return catalog.indexCell(row);
+            case COL_SCHEME: return catalog.scheme(row);
+            case COL_METHOD: return catalog.method(row);
+            case COL_SERVER: return catalog.server(row);
+            case COL_PATH: return catalog.pathCell(row);
+            case COL_PARAMS: return catalog.parametersCell(row);
+            case COL_DESC: return catalog.descriptionPreview(row);
+            case COL_SOURCE: return catalog.source(row);
+            case COL_BASELINE: return baselineCell(catalog.rowKey(row));
+            default: return "";
+        }
+    }
+
+    private String baselineCell(String rowKey) {
+        BaselineCrawler.Baseline b = baselines.get(rowKey);
+        return b != null ? b.getDisplay() : "";
+    }
+
+    /**
+     * The rows shown and the filter and sort that chose them, captured on the EDT.
+     */
+    public static final class Snapshot {
+        private final List<ApiEndpoint> rows;
+        private final String filter;
+        private final int sortColumn;
+
+        private Snapshot(List<ApiEndpoint> rows, String filter, int sortColumn) {
+            this.rows = rows;
+            this.filter = filter;
+            this.sortColumn = sortColumn;
+        }
+    }
+
+    /**
+     * A reloaded endpoint list, filtered, with the row events that lead to it.
+     */
+    public static final class Update {
+        private final Snapshot base;
+        private final List<ApiEndpoint> endpoints;
+        private final FieldIndex index;
+        private final List<ApiEndpoint> filtered;
+        private final String filterError;
+        /** Copy of the base rows the edits are replayed on; null with {@link #edits} for a whole refresh. */
+        private final List<ApiEndpoint> rows;
+        private final List<Edit> edits;
+
+        private Update(Snapshot base, List<ApiEndpoint> endpoints, FieldIndex index, List<ApiEndpoint> filtered,
+                       String filterError, List<ApiEndpoint> rows, List<Edit> edits) {
+            this.base = base;
+            this.endpoints = endpoints;
+            this.index = index;
+            this.filtered = filtered;
+            this.filterError = filterError;
+            this.rows = rows;
+            this.edits = edits;
+        }
+    }
+
+    /**
+     * One row event of an {@link Update}, with the rows an insert adds.
+     */
+    private static final class Edit {
+        final int type;
+        final int first;
+        final int last;
+        final List<ApiEndpoint> rows;
+
+        Edit(int type, int first, int last, List<ApiEndpoint> rows) {
+            this.type = type;
+            this.first = first;
+            this.last = last;
+            this.rows = rows;
         }
-        return sb.toString();
     }
 }
@@ -0,0 +1,152 @@
+package burp.openapilng;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-field indexes over one endpoint list, used by {@link FilterQuery} and the regex
+ * filter. Enumerated fields (method, scheme, source, tag, parameter) map each lower-cased
+ * value to the sorted rows that have it; text fields are served by two
+ * {@link TrigramIndex}es over {@code method path server}, one as written and one
+ * lower-cased.
+ * <p>
+ * Parameters are indexed three ways: {@code location:name}, {@code :name} for the name in
+ * any location, and {@code location:} for any parameter in that location.
+ * <p>
+ * Like {@link TrigramIndex}, everything is built on first use and immutable afterwards, so
+ * one instance can be shared with a background filter thread.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class FieldIndex {
+
+    static final String METHOD = "method";
+    static final String SCHEME = "scheme";
+    static final String SOURCE = "source";
+    static final String TAG = "tag";
+    static final String PARAM = "param";
+
+    private static final int[] NO_ROWS = new int[0];
+
+    private final List<ApiEndpoint> endpoints;
+    private final TrigramIndex text;
+    private final TrigramIndex foldedText;
+    private Map<String, Map<String, int[]>> fields;
+
+    /**
+     * @param endpoints endpoints to index; must not be modified afterwards
+     */
+    public FieldIndex(List<ApiEndpoint> endpoints) {
+        this.endpoints = endpoints;
+        this.text = new TrigramIndex(endpoints);
+        this.foldedText = new TrigramIndex(endpoints, TrigramIndex::foldedRowText);
+    }
+
+    public List<ApiEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * @return trigram index over {@code method path server} as written
+     */
+    public TrigramIndex text() {
+        return text;
+    }
+
+    /**
+     * @return trigram index over {@code method path server}, lower-cased
+     */
+    public TrigramIndex foldedText() {
+        return foldedText;
+    }
+
+    /**
+     * @return true once the field maps have been built by a lookup
+     */
+    public synchronized boolean isBuilt() {
+        return fields != null;
+    }
+
+    /**
+     * @param field one of {@code method}, {@code scheme}, {@code source}, {@code tag}, {@code param}
+     * @param value lower-cased value; for {@code param}, {@code location:name}, {@code :name},
+     *              or {@code location:}
+     * @return sorted rows with that value, possibly none
+     */
+    public int[] rows(String field, String value) {
+        int[] rows = values(field).get(value);
+        return rows != null ? rows : NO_ROWS;
+    }
+
+    /**
+     * @return every indexed value of the field and its rows, for matching values by pattern
+     */
+    public Map<String, int[]> values(String field) {
+        Map<String, int[]> values = fields().get(field);
+        return values != null ? values : Collections.emptyMap();
+    }
+
+    private synchronized Map<String, Map<String, int[]>> fields() {
+        if (fields != null) return fields;
+        Map<String, Map<String, Postings>> building = new HashMap<>();
+        for (String f : new String[]{METHOD, SCHEME, SOURCE, TAG, PARAM}) {
+            building.put(f, new HashMap<>());
+        }
+        for (int r = 0; r < endpoints.size(); r++) {
+            ApiEndpoint e = endpoints.get(r);
+            add(building.get(METHOD), e.getMethod(), r);
+            add(building.get(SCHEME), e.getScheme(), r);
+            add(building.get(SOURCE), e.getSource(), r);
+            for (String tag : e.getTags()) {
+                add(building.get(TAG), tag, r);
+            }
+            Map<String, Postings> params = building.get(PARAM);
+            for (ApiEndpoint.ParameterInfo p : e.getParameters()) {
+                String name = p.getName() != null ? p.getName() : "";
+                String location = p.getLocation() != null ? p.getLocation() : "";
+                add(params, location + ":" + name, r);
+                add(params, ":" + name, r);
+                add(params, location + ":", r);
+            }
+        }
+        Map<String, Map<String, int[]>> built = new HashMap<>();
+        for (Map.Entry<String, Map<String, Postings>> f : building.entrySet()) {
+            Map<String, int[]> values = new HashMap<>(f.getValue().size() * 2);
+            for (Map.Entry<String, Postings> v : f.getValue().entrySet()) {
+                values.put(v.getKey(), v.getValue().toArray());
+            }
+            built.put(f.getKey(), values);
+        }
+        fields = built;
+        return fields;
+    }
+
+    private static void add(Map<String, Postings> values, String value, int row) {
+        if (value == null || value.isEmpty()) return;
+        values.computeIfAbsent(value.toLowerCase(Locale.ROOT), k -> new Postings()).add(row);
+    }
+
+    /**
+     * Growable sorted row list; a row added twice in a row is kept once.
+     */
+    private static class Postings {
+        private int[] rows = new int[4];
+        private int size;
+
+        void add(int row) {
+            if (size > 0 && rows[size - 1] == row) return;
+            if (size == rows.length) rows = Arrays.copyOf(rows, size * 2);
+            rows[size++] = row;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(rows, size);
+        }
+    }
+}
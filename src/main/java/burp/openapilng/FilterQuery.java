@@ -0,0 +1,607 @@
+package burp.openapilng;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Structured endpoint filter, for example
+ * {@code method:POST param:cookie:session tag:billing !path:/health desc~"deprecated"}.
+ * <p>
+ * Terms are {@code field:value} or {@code field~regex}; a term without a field matches
+ * {@code method path server}. Terms next to each other must all match; {@code |} or
+ * {@code OR} means either, {@code !}, {@code -}, or {@code NOT} negates, and parentheses
+ * group. Values with spaces go in double quotes. All matching ignores case.
+ * <ul>
+ *   <li>{@code method}, {@code scheme}, {@code source}, {@code tag}: {@code :} matches the
+ *       whole value</li>
+ *   <li>{@code param}: {@code param:name}, {@code param:location:name}, or
+ *       {@code param:location:} for any parameter in that location</li>
+ *   <li>{@code path}, {@code server}, {@code desc}, and bare terms: {@code :} matches a
+ *       substring</li>
+ *   <li>{@code ~} takes a regex, matched anywhere in the field; for {@code param} it is
+ *       matched against parameter names</li>
+ * </ul>
+ * A query compiles to a predicate tree evaluated as sets of rows: enumerated fields are
+ * looked up in a {@link FieldIndex}, substrings are narrowed with its lower-cased trigram
+ * index, and only what is left is checked row by row, restricted to rows the rest of the
+ * query has not already ruled out.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class FilterQuery {
+
+    private static final Set<String> FIELDS = Set.of(
+            "method", "scheme", "source", "tag", "param", "path", "server", "desc");
+    /** Rows checked between cancellation checks. */
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final Node root;
+
+    private FilterQuery(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @return true if {@code text} uses a {@code field:} or {@code field~} term, so it is a
+     * query rather than a plain regex
+     */
+    public static boolean isQuery(String text) {
+        if (text == null) return false;
+        for (String token : text.trim().split("\\s+")) {
+            String t = token;
+            while (!t.isEmpty() && (t.charAt(0) == '!' || t.charAt(0) == '-' || t.charAt(0) == '(')) {
+                t = t.substring(1);
+            }
+            int op = 0;
+            while (op < t.length() && Character.isLetter(t.charAt(op))) op++;
+            if (op > 0 && op < t.length() && (t.charAt(op) == ':' || t.charAt(op) == '~')
+                    && FIELDS.contains(t.substring(0, op).toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param text query text
+     * @return the compiled query
+     * @throws IllegalArgumentException if the query or one of its regexes is malformed
+     */
+    public static FilterQuery parse(String text) {
+        Parser parser = new Parser(text != null ? text : "");
+        Node root = parser.parseOr();
+        parser.skipSpace();
+        if (!parser.atEnd()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.peek() + "' at " + parser.pos);
+        }
+        return new FilterQuery(root);
+    }
+
+    /**
+     * Checks one endpoint without an index.
+     */
+    public boolean matches(ApiEndpoint e) {
+        return root.matches(e, RegexGuard.forPass(LoadProgress.untracked()));
+    }
+
+    /**
+     * Filters with the default regex budgets; see {@link #filter(FieldIndex, RegexGuard)}.
+     */
+    public List<ApiEndpoint> filter(FieldIndex index, LoadProgress progress) {
+        return filter(index, RegexGuard.forPass(progress));
+    }
+
+    /**
+     * @param index index over the endpoints to filter
+     * @param guard bounds regex matching; its progress is checked while rows are scanned
+     * @return the matching endpoints, in order
+     * @throws java.util.concurrent.CancellationException if the guard's progress is cancelled
+     * @throws RegexGuard.BudgetExceededException if a {@code ~} regex exceeds the guard's budget
+     */
+    public List<ApiEndpoint> filter(FieldIndex index, RegexGuard guard) {
+        List<ApiEndpoint> endpoints = index.getEndpoints();
+        BitSet all = new BitSet(endpoints.size());
+        all.set(0, endpoints.size());
+        BitSet rows = root.select(index, all, guard);
+        List<ApiEndpoint> result = new ArrayList<>(rows.cardinality());
+        for (int r = rows.nextSetBit(0); r >= 0; r = rows.nextSetBit(r + 1)) {
+            result.add(endpoints.get(r));
+        }
+        return result;
+    }
+
+    /**
+     * Filters with the default regex budgets; see {@link #filter(List, RegexGuard)}.
+     */
+    public List<ApiEndpoint> filter(List<ApiEndpoint> endpoints, LoadProgress progress) {
+        return filter(endpoints, RegexGuard.forPass(progress));
+    }
+
+    /**
+     * @param endpoints endpoints to filter
+     * @param guard bounds regex matching; its progress is checked every few rows
+     * @return the matching endpoints, in order, found by checking each one
+     * @throws RegexGuard.BudgetExceededException if a {@code ~} regex exceeds the guard's budget
+     */
+    public List<ApiEndpoint> filter(List<ApiEndpoint> endpoints, RegexGuard guard) {
+        List<ApiEndpoint> result = new ArrayList<>();
+        for (int i = 0; i < endpoints.size(); i++) {
+            if (i % CHECK_INTERVAL == 0) guard.getProgress().checkCancelled();
+            if (root.matches(endpoints.get(i), guard)) result.add(endpoints.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * True if {@code text} contains {@code folded}, which is already lower-cased, ignoring case.
+     */
+    static boolean containsFolded(CharSequence text, String folded) {
+        int n = text.length() - folded.length();
+        for (int i = 0; i <= n; i++) {
+            int j = 0;
+            while (j < folded.length() && Character.toLowerCase(text.charAt(i + j)) == folded.charAt(j)) j++;
+            if (j == folded.length()) return true;
+        }
+        return false;
+    }
+
+    static String fold(String s) {
+        StringBuilder b = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            b.append(Character.toLowerCase(s.charAt(i)));
+        }
+        return b.toString();
+    }
+
+    /**
+     * A predicate over endpoints that can be checked one endpoint at a time or evaluated
+     * as a set of rows against an index.
+     */
+    private abstract static class Node {
+        abstract boolean matches(ApiEndpoint e, RegexGuard guard);
+
+        /**
+         * @param within rows still in play; not modified
+         * @return the rows of {@code within} that match
+         */
+        abstract BitSet select(FieldIndex index, BitSet within, RegexGuard guard);
+
+        /** Relative cost of {@link #select}, so conjunctions evaluate cheap terms first. */
+        abstract int cost();
+    }
+
+    private static class And extends Node {
+        private final List<Node> children;
+
+        And(List<Node> children) {
+            this.children = new ArrayList<>(children);
+            this.children.sort(Comparator.comparingInt(Node::cost));
+        }
+
+        @Override
+        boolean matches(ApiEndpoint e, RegexGuard guard) {
+            for (Node c : children) {
+                if (!c.matches(e, guard)) return false;
+            }
+            return true;
+        }
+
+        @Override
+        BitSet select(FieldIndex index, BitSet within, RegexGuard guard) {
+            BitSet rows = within;
+            for (Node c : children) {
+                if (rows.isEmpty()) break;
+                rows = c.select(index, rows, guard);
+            }
+            return rows == within ? (BitSet) within.clone() : rows;
+        }
+
+        @Override
+        int cost() {
+            return children.get(0).cost();
+        }
+    }
+
+    private static class Or extends Node {
+        private final List<Node> children;
+
+        Or(List<Node> children) {
+            this.children = children;
+        }
+
+        @Override
+        boolean matches(ApiEndpoint e, RegexGuard guard) {
+            for (Node c : children) {
+                if (c.matches(e, guard)) return true;
+            }
+            return false;
+        }
+
+        @Override
+        BitSet select(FieldIndex index, BitSet within, RegexGuard guard) {
+            BitSet rows = new BitSet();
+            BitSet rest = (BitSet) within.clone();
+            for (Node c : children) {
+                if (rest.isEmpty()) break;
+                BitSet hit = c.select(index, rest, guard);
+                rows.or(hit);
+                rest.andNot(hit);
+            }
+            return rows;
+        }
+
+        @Override
+        int cost() {
+            int max = 0;
+            for (Node c : children) max = Math.max(max, c.cost());
+            return max;
+        }
+    }
+
+    private static class Not extends Node {
+        private final Node child;
+
+        Not(Node child) {
+            this.child = child;
+        }
+
+        @Override
+        boolean matches(ApiEndpoint e, RegexGuard guard) {
+            return !child.matches(e, guard);
+        }
+
+        @Override
+        BitSet select(FieldIndex index, BitSet within, RegexGuard guard) {
+            BitSet rows = (BitSet) within.clone();
+            rows.andNot(child.select(index, within, guard));
+            return rows;
+        }
+
+        @Override
+        int cost() {
+            return child.cost();
+        }
+    }
+
+    /**
+     * {@code field:value} on an enumerated field, answered from the index alone.
+     */
+    private static class Lookup extends Node {
+        private final String field;
+        private final String value;
+
+        Lookup(String field, String value) {
+            this.field = field;
+            this.value = value;
+        }
+
+        @Override
+        boolean matches(ApiEndpoint e, RegexGuard guard) {
+            switch (field) {
+                case FieldIndex.METHOD: return e.getMethod().equalsIgnoreCase(value);
+                case FieldIndex.SCHEME: return e.getScheme().equalsIgnoreCase(value);
+                case FieldIndex.SOURCE: return e.getSource().equalsIgnoreCase(value);
+                case FieldIndex.TAG:
+                    for (String tag : e.getTags()) {
+                        if (tag.equalsIgnoreCase(value)) return true;
+                    }
+                    return false;
+                default:
+                    int colon = value.indexOf(':');
+                    String location = colon > 0 ? value.substring(0, colon) : null;
+                    String name = value.substring(colon + 1);
+                    for (ApiEndpoint.ParameterInfo p : e.getParameters()) {
+                        if ((location == null || location.equalsIgnoreCase(p.getLocation()))
+                                && (name.isEmpty() || name.equalsIgnoreCase(p.getName()))) {
+                            return true;
+                        }
+                    }
+                    return false;
+            }
+        }
+
+        @Override
+        BitSet select(FieldIndex index, BitSet within, RegexGuard guard) {
+            String key = FieldIndex.PARAM.equals(field) && value.indexOf(':') < 0 ? ":" + value : value;
+            return intersect(index.rows(field, fold(key)), within);
+        }
+
+        @Override
+        int cost() {
+            return 0;
+        }
+    }
+
+    /**
+     * {@code field~regex} on an enumerated field: the regex is matched against each distinct
+     * value in the index, not against every row.
+     */
+    private static class ValuePattern extends Node {
+        private final String field;
+        private final Pattern pattern;
+
+        ValuePattern(String field, Pattern pattern) {
+            this.field = field;
+            this.pattern = pattern;
+        }
+
+        @Override
+        boolean matches(ApiEndpoint e, RegexGuard guard) {
+            switch (field) {
+                case FieldIndex.METHOD: return pattern.matcher(guard.wrap(e.getMethod())).find();
+                case FieldIndex.SCHEME: return pattern.matcher(guard.wrap(e.getScheme())).find();
+                case FieldIndex.SOURCE: return pattern.matcher(guard.wrap(e.getSource())).find();
+                case FieldIndex.TAG:
+                    for (String tag : e.getTags()) {
+                        if (pattern.matcher(guard.wrap(tag)).find()) return true;
+                    }
+                    return false;
+                default:
+                    for (ApiEndpoint.ParameterInfo p : e.getParameters()) {
+                        if (p.getName() != null && pattern.matcher(guard.wrap(p.getName())).find()) return true;
+                    }
+                    return false;
+            }
+        }
+
+        @Override
+        BitSet select(FieldIndex index, BitSet within, RegexGuard guard) {
+            BitSet rows = new BitSet();
+            boolean param = FieldIndex.PARAM.equals(field);
+            for (Map.Entry<String, int[]> v : index.values(field).entrySet()) {
+                String key = v.getKey();
+                // Parameter names are indexed under ":name"
+                if (param && !key.startsWith(":")) continue;
+                if (pattern.matcher(guard.wrap(param ? key.substring(1) : key)).find()) {
+                    for (int r : v.getValue()) rows.set(r);
+                }
+            }
+            rows.and(within);
+            return rows;
+        }
+
+        @Override
+        int cost() {
+            return 1;
+        }
+    }
+
+    /**
+     * Substring or regex on a text field, narrowed with the lower-cased trigram index where
+     * the field is part of it and checked row by row otherwise.
+     */
+    private static class Text extends Node {
+        /** {@code path}, {@code server}, {@code desc}, or null for {@code method path server}. */
+        private final String field;
+        private final String folded;
+        private final Pattern pattern;
+
+        Text(String field, String value, Pattern pattern) {
+            this.field = field;
+            this.folded = pattern == null ? fold(value) : null;
+            this.pattern = pattern;
+        }
+
+        private CharSequence text(ApiEndpoint e, StringBuilder row) {
+            if (field == null) return TrigramIndex.rowText(e, row);
+            switch (field) {
+                case "path": return e.getPath();
+                case "server": return e.getServer();
+                default: return e.getDescription();
+            }
+        }
+
+        private boolean test(ApiEndpoint e, StringBuilder row, RegexGuard guard) {
+            CharSequence text = text(e, row);
+            return pattern != null ? pattern.matcher(guard.wrap(text)).find() : containsFolded(text, folded);
+        }
+
+        @Override
+        boolean matches(ApiEndpoint e, RegexGuard guard) {
+            return test(e, new StringBuilder(), guard);
+        }
+
+        @Override
+        BitSet select(FieldIndex index, BitSet within, RegexGuard guard) {
+            BitSet candidates = within;
+            if (!"desc".equals(field)) {
+                int[] rows = index.foldedText().candidates(literals());
+                if (rows != null) candidates = intersect(rows, within);
+            }
+            BitSet result = new BitSet();
+            StringBuilder row = new StringBuilder(128);
+            List<ApiEndpoint> endpoints = index.getEndpoints();
+            int checked = 0;
+            for (int r = candidates.nextSetBit(0); r >= 0; r = candidates.nextSetBit(r + 1)) {
+                if (checked++ % CHECK_INTERVAL == 0) guard.getProgress().checkCancelled();
+                if (test(endpoints.get(r), row, guard)) result.set(r);
+            }
+            return result;
+        }
+
+        /**
+         * Lower-cased literals the field must contain. Regex literals are only used when they
+         * are ASCII, where lower-casing agrees with the regex's case-insensitive matching.
+         */
+        private List<String> literals() {
+            if (pattern == null) return List.of(folded);
+            List<String> literals = new ArrayList<>();
+            for (String literal : TrigramIndex.requiredLiterals(pattern.pattern())) {
+                if (literal.chars().allMatch(c -> c < 128)) literals.add(fold(literal));
+            }
+            return literals;
+        }
+
+        @Override
+        int cost() {
+            return "desc".equals(field) ? 3 : 2;
+        }
+    }
+
+    private static BitSet intersect(int[] rows, BitSet within) {
+        BitSet result = new BitSet();
+        for (int r : rows) {
+            if (within.get(r)) result.set(r);
+        }
+        return result;
+    }
+
+    /**
+     * Recursive-descent parser: or := and ('|' and)*, and := unary+, unary := '!' unary |
+     * '(' or ')' | term.
+     */
+    private static class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Node parseOr() {
+            List<Node> children = new ArrayList<>();
+            children.add(parseAnd());
+            while (true) {
+                skipSpace();
+                if (peek() == '|') {
+                    pos++;
+                } else if (word("OR")) {
+                    pos += 2;
+                } else {
+                    break;
+                }
+                children.add(parseAnd());
+            }
+            return children.size() == 1 ? children.get(0) : new Or(children);
+        }
+
+        private Node parseAnd() {
+            List<Node> children = new ArrayList<>();
+            while (true) {
+                skipSpace();
+                if (atEnd() || peek() == ')' || peek() == '|' || word("OR")) break;
+                if (word("AND")) {
+                    pos += 3;
+                    continue;
+                }
+                if (peek() == '&') {
+                    pos++;
+                    continue;
+                }
+                children.add(parseUnary());
+            }
+            if (children.isEmpty()) throw new IllegalArgumentException("Expected a term at " + pos);
+            return children.size() == 1 ? children.get(0) : new And(children);
+        }
+
+        private Node parseUnary() {
+            skipSpace();
+            char c = peek();
+            if (c == '!' || (c == '-' && pos + 1 < text.length() && !Character.isWhitespace(text.charAt(pos + 1)))) {
+                pos++;
+                return new Not(parseUnary());
+            }
+            if (word("NOT")) {
+                pos += 3;
+                return new Not(parseUnary());
+            }
+            if (c == '(') {
+                pos++;
+                Node inner = parseOr();
+                skipSpace();
+                if (peek() != ')') throw new IllegalArgumentException("Missing ')' at " + pos);
+                pos++;
+                return inner;
+            }
+            return parseTerm();
+        }
+
+        private Node parseTerm() {
+            int start = pos;
+            while (pos < text.length() && Character.isLetter(text.charAt(pos))) pos++;
+            String field = text.substring(start, pos).toLowerCase(Locale.ROOT);
+            char op = peek();
+            if (!FIELDS.contains(field) || (op != ':' && op != '~')) {
+                pos = start;
+                return new Text(null, value(), null);
+            }
+            pos++;
+            String value = value();
+            if (op == '~') {
+                Pattern pattern;
+                try {
+                    pattern = Pattern.compile(value, Pattern.CASE_INSENSITIVE);
+                } catch (PatternSyntaxException e) {
+                    throw new IllegalArgumentException("Bad regex for " + field + ": " + e.getDescription(), e);
+                }
+                switch (field) {
+                    case "path":
+                    case "server":
+                    case "desc":
+                        return new Text(field, value, pattern);
+                    default:
+                        return new ValuePattern(field, pattern);
+                }
+            }
+            switch (field) {
+                case "path":
+                case "server":
+                case "desc":
+                    return new Text(field, value, null);
+                default:
+                    return new Lookup(field, value);
+            }
+        }
+
+        /**
+         * Reads a quoted string, with {@code \"} and {@code \\} escapes, or a bare word
+         * ending at whitespace or {@code )}.
+         */
+        private String value() {
+            StringBuilder b = new StringBuilder();
+            if (peek() == '"') {
+                pos++;
+                while (pos < text.length() && text.charAt(pos) != '"') {
+                    char c = text.charAt(pos++);
+                    if (c == '\\' && pos < text.length()) c = text.charAt(pos++);
+                    b.append(c);
+                }
+                if (pos >= text.length()) throw new IllegalArgumentException("Unterminated quote");
+                pos++;
+            } else {
+                while (pos < text.length() && !Character.isWhitespace(text.charAt(pos)) && text.charAt(pos) != ')') {
+                    b.append(text.charAt(pos++));
+                }
+            }
+            if (b.length() == 0) throw new IllegalArgumentException("Expected a value at " + pos);
+            return b.toString();
+        }
+
+        /** True if the keyword is next and followed by whitespace. */
+        private boolean word(String keyword) {
+            int end = pos + keyword.length();
+            return text.startsWith(keyword, pos) && end < text.length() && Character.isWhitespace(text.charAt(end));
+        }
+
+        void skipSpace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+
+        char peek() {
+            return pos < text.length() ? text.charAt(pos) : 0;
+        }
+
+        boolean atEnd() {
+            return pos >= text.length();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package burp.openapilng;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Time and allocation per stage of one spec load (read, prompt stripping, cache lookup,
+ * parse, operation walk, table update). Stages are timed with {@link System#nanoTime()};
+ * allocation is the bytes allocated by the timing thread, where the JVM supports it.
+ * <p>
+ * A stage entered several times, or from several threads as batch loads do, accumulates,
+ * so its time is a sum across threads rather than wall-clock time.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class LoadMetrics {
+
+    public static final String READ = "read";
+    public static final String STRIP = "strip prompt";
+    public static final String CACHE = "cache";
+    public static final String DECODE = "decode";
+    public static final String PARSE = "parse";
+    public static final String EXTRACT = "extract operations";
+    public static final String TABLE = "table update";
+
+    private static final com.sun.management.ThreadMXBean ALLOCATION = allocationBean();
+
+    private final Map<String, long[]> stages = new LinkedHashMap<>();
+
+    /**
+     * Starts timing a stage; close the returned span to record it.
+     *
+     * @param stage stage name, usually one of the constants on this class
+     * @return the running span
+     */
+    public Span begin(String stage) {
+        return new Span(stage);
+    }
+
+    /**
+     * Adds time and allocation to a stage.
+     */
+    public synchronized void record(String stage, long nanos, long allocatedBytes) {
+        long[] s = stages.computeIfAbsent(stage, k -> new long[3]);
+        s[0] += nanos;
+        s[1] += Math.max(0, allocatedBytes);
+        s[2]++;
+    }
+
+    /**
+     * @return recorded stages in the order they were first entered
+     */
+    public synchronized List<Stage> getStages() {
+        List<Stage> result = new ArrayList<>(stages.size());
+        for (Map.Entry<String, long[]> e : stages.entrySet()) {
+            long[] s = e.getValue();
+            result.add(new Stage(e.getKey(), s[0], s[1], (int) s[2]));
+        }
+        return result;
+    }
+
+    /**
+     * @return true if the JVM reports per-thread allocation
+     */
+    public static boolean isAllocationSupported() {
+        return ALLOCATION != null;
+    }
+
+    /**
+     * @return one line per stage with milliseconds and allocated megabytes
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        long totalNanos = 0;
+        long totalBytes = 0;
+        for (Stage s : getStages()) {
+            sb.append(String.format(Locale.ROOT, "%-20s %10.2f ms %10s%n", s.getName(), s.getNanos() / 1e6,
+                    isAllocationSupported() ? LoadProgress.formatBytes(s.getAllocatedBytes()) : "n/a"));
+            totalNanos += s.getNanos();
+            totalBytes += s.getAllocatedBytes();
+        }
+        sb.append(String.format(Locale.ROOT, "%-20s %10.2f ms %10s", "total", totalNanos / 1e6,
+                isAllocationSupported() ? LoadProgress.formatBytes(totalBytes) : "n/a"));
+        return sb.toString();
+    }
+
+    /**
+     * @return e.g. {@code read 1.2 ms, parse 340.0 ms (85.3 MB)}, for the extension log
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Stage s : getStages()) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(String.format(Locale.ROOT, "%s %.1f ms", s.getName(), s.getNanos() / 1e6));
+            if (isAllocationSupported()) {
+                sb.append(" (").append(LoadProgress.formatBytes(s.getAllocatedBytes())).append(')');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static long allocatedBytes() {
+        return ALLOCATION != null ? ALLOCATION.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+                if (sun.isThreadAllocatedMemorySupported()) {
+                    if (!sun.isThreadAllocatedMemoryEnabled()) sun.setThreadAllocatedMemoryEnabled(true);
+                    return sun;
+                }
+            }
+        } catch (RuntimeException | LinkageError e) {
+            // Not a HotSpot-compatible JVM; time only
+        }
+        return null;
+    }
+
+    /**
+     * A running stage timer, recorded on {@link #close()}.
+     */
+    public class Span implements AutoCloseable {
+        private final String stage;
+        private final long startNanos;
+        private final long startBytes;
+
+        private Span(String stage) {
+            this.stage = stage;
+            this.startBytes = allocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            long nanos = System.nanoTime() - startNanos;
+            record(stage, nanos, allocatedBytes() - startBytes);
+        }
+    }
+
+    /**
+     * Totals for one stage.
+     */
+    public static class Stage {
+        private final String name;
+        private final long nanos;
+        private final long allocatedBytes;
+        private final int count;
+
+        Stage(String name, long nanos, long allocatedBytes, int count) {
+            this.name = name;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.count = count;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * @return how many times the stage was entered
+         */
+        public int getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package burp.openapilng;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress and cancellation for one spec load. Parsers report bytes read and operations
+ * extracted as they go and call {@link #checkCancelled()} between units of work, so a
+ * superseded or cancelled load stops at the next check instead of running to completion.
+ * <p>
+ * Safe to update from several threads, as parallel extraction and batch loads do.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class LoadProgress {
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicInteger operations = new AtomicInteger();
+    private final LoadMetrics metrics = new LoadMetrics();
+    private volatile boolean cancelled;
+
+    /**
+     * @return a progress that is never cancelled, for callers that do not track loads
+     */
+    public static LoadProgress untracked() {
+        return new LoadProgress();
+    }
+
+    public void addBytesRead(long bytes) {
+        bytesRead.addAndGet(bytes);
+    }
+
+    public void operationExtracted() {
+        operations.incrementAndGet();
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return true if {@link #cancel()} was called
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws CancellationException if the load was cancelled or its thread interrupted
+     */
+    public void checkCancelled() {
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Load cancelled");
+        }
+    }
+
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    public int getOperations() {
+        return operations.get();
+    }
+
+    /**
+     * @return per-stage timings for this load
+     */
+    public LoadMetrics getMetrics() {
+        return metrics;
+    }
+
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * @return e.g. {@code 12.3 MB read, 4512 operations, 3.2 s}
+     */
+    public String describe() {
+        return String.format(Locale.ROOT, "%s read, %d operations, %.1f s",
+                formatBytes(getBytesRead()), getOperations(), getElapsedMillis() / 1000.0);
+    }
+
+    static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Wraps a stream so reads count towards {@link #getBytesRead()} and stop with a
+     * {@link CancellationException} once the load is cancelled.
+     */
+    TrackedStream track(InputStream in) {
+        return new TrackedStream(in);
+    }
+
+    /**
+     * A stream from {@link #track(InputStream)}, which also knows how many bytes it counted.
+     */
+    final class TrackedStream extends FilterInputStream {
+        private long counted;
+
+        private TrackedStream(InputStream in) {
+            super(in);
+        }
+
+        /**
+         * @return bytes read through this stream, all of them already in {@link #getBytesRead()}
+         */
+        long getCounted() {
+            return counted;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkCancelled();
+            int b = super.read();
+            if (b >= 0) {
+                counted++;
+                bytesRead.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkCancelled();
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                counted += n;
+                bytesRead.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
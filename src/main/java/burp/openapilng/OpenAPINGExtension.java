@@ -5,7 +5,8 @@ import burp.api.montoya.MontoyaApi;
 
 /**
  * OpenAPI-NG extension entry point. Registers the main tab with Burp Suite and wires up
- * the unloading handler.
+ * the unloading handler and the HTTP handler that tags proxy traffic with the endpoints it
+ * matches.
  * <p>
  * Load OpenAPI specs via URL, drag-and-drop, or file browse (including network drives).
  * Actively scan and send to Intruder with auto-highlighted payload positions.
@@ -23,6 +24,7 @@ public class OpenAPINGExtension implements BurpExtension {
         OpenAPINGTab tab = new OpenAPINGTab(api);
         api.userInterface().applyThemeToComponent(tab);
         api.userInterface().registerSuiteTab("OpenAPI-NG", tab);
+        api.http().registerHttpHandler(tab.getTrafficTagger());
 
         api.extension().registerUnloadingHandler(tab::unload);
 
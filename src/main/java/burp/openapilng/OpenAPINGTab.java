@@ -1,12 +1,14 @@
 package burp.openapilng;
 
 import burp.api.montoya.MontoyaApi;
+import burp.api.montoya.core.ByteArray;
 import burp.api.montoya.http.message.requests.HttpRequest;
-import burp.api.montoya.intruder.HttpRequestTemplate;
+import burp.api.montoya.http.message.responses.HttpResponse;
 import burp.api.montoya.logging.Logging;
 import burp.api.montoya.scanner.AuditConfiguration;
 import burp.api.montoya.scanner.BuiltInAuditConfiguration;
 import burp.api.montoya.ui.editor.HttpRequestEditor;
+import burp.api.montoya.ui.editor.HttpResponseEditor;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -23,8 +25,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Main OpenAPI-NG tab panel. Provides the UI for loading OpenAPI specs, viewing parsed
@@ -39,21 +44,66 @@ import java.util.concurrent.Executors;
  */
 public class OpenAPINGTab extends JPanel {
 
+    /** Sends between status bar updates during a bulk send. */
+    private static final int SEND_PROGRESS_STEP = 100;
+
     private final MontoyaApi api;
     private final Logging logging;
     private final OpenAPIParser parser = new OpenAPIParser();
     private final RequestGenerator requestGenerator = new RequestGenerator();
     private final EndpointTableModel tableModel = new EndpointTableModel();
     private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    /** Sends to Scanner, Repeater, and Intruder, kept apart from loads so neither waits on the other. */
+    private final ExecutorService sendExecutor = Executors.newSingleThreadExecutor();
+    /** Runs a "Baseline all" crawl, which can take minutes, so it never holds up {@link #sendExecutor}. */
+    private final ExecutorService baselineExecutor = Executors.newSingleThreadExecutor();
+    private final BackgroundFilter backgroundFilter =
+            new BackgroundFilter(BackgroundFilter.DEFAULT_DEBOUNCE_MILLIS, SwingUtilities::invokeLater);
+    private final EndpointSorter endpointSorter = new EndpointSorter(SwingUtilities::invokeLater);
+    /** Notes matching endpoints on proxy traffic; registered as an HTTP handler by the extension. */
+    private final TrafficTagger trafficTagger = new TrafficTagger();
+    private final ParseCache parseCache = new ParseCache(ParseCache.defaultDirectory(), ParseCache.DEFAULT_MAX_BYTES);
+    private final ConditionalSpecFetcher specFetcher;
 
     private JTextField urlOrPathField;
     private JTextArea rawSpecArea;
     private JTextField baseUrlOverrideField;
     private JTextField filterField;
     private JLabel filterHitsLabel;
+    /** Filter text last handed to {@link #backgroundFilter}. EDT only. */
+    private String requestedFilter = "";
+    /** Rows last handed to {@link #endpointSorter}, so repeated model events do not restart a sort. EDT only. */
+    private List<ApiEndpoint> requestedSortRows;
+    private int requestedSortColumn = -1;
+    private boolean requestedSortAscending;
     private JTable endpointTable;
     private HttpRequestEditor requestEditor;
+    private HttpResponseEditor responseEditor;
+    private JCheckBox showResponseCheck;
+    private JSplitPane editorSplit;
+    /** Baseline responses, created with the first crawl. Closed on unload. */
+    private volatile ResponseStore responseStore;
+    private JSpinner responseBudgetSpinner;
     private JLabel statusLabel;
+    private JCheckBox watchCheck;
+    private JSpinner scanAuditsSpinner;
+    private JButton baselineBtn;
+    private JSpinner baselineRateSpinner;
+    private JSpinner baselinePerHostSpinner;
+    /** The running baseline crawl, or null. EDT only. */
+    private LoadProgress baselineProgress;
+    private SpecFileWatcher watcher;
+    private JButton cancelLoadBtn;
+    private JButton diagnosticsBtn;
+    /** Stage timings of the last load that completed, shown by the Diagnostics button. */
+    private LoadMetrics lastMetrics;
+    private String lastMetricsLabel;
+    private Timer progressTimer;
+    /** Bumped by every new or cancelled load; results from older generations are dropped. */
+    private final AtomicLong loadGeneration = new AtomicLong();
+    private Future<?> currentLoad;
+    private LoadProgress currentProgress;
+    private String currentLoadLabel;
     private String defaultServer = "";
     private boolean hasScanner = false;
 
@@ -65,6 +115,9 @@ public class OpenAPINGTab extends JPanel {
         } catch (Exception e) {
             hasScanner = false;
         }
+        parser.setCache(parseCache);
+        specFetcher = new ConditionalSpecFetcher(ConditionalSpecFetcher.montoyaTransport(api.http()),
+                ConditionalSpecFetcher.defaultDirectory());
         buildUi();
     }
 
@@ -98,6 +151,28 @@ public class OpenAPINGTab extends JPanel {
         JButton loadBtn = new JButton("Load");
         loadBtn.addActionListener(e -> doLoad());
         inputRow.add(loadBtn);
+        JCheckBox streamingCheck = new JCheckBox("Streaming parse");
+        streamingCheck.setToolTipText("Read large OpenAPI 3.x specs without building the full model; falls back to Swagger Parser when needed");
+        streamingCheck.addActionListener(e -> parser.setStreaming(streamingCheck.isSelected()));
+        inputRow.add(streamingCheck);
+        JCheckBox parallelCheck = new JCheckBox("Parallel extraction");
+        parallelCheck.setToolTipText("Extract operations from large specs on all cores");
+        parallelCheck.addActionListener(e -> parser.setParallel(parallelCheck.isSelected()));
+        inputRow.add(parallelCheck);
+        JCheckBox lazyRefsCheck = new JCheckBox("Lazy $ref resolution");
+        lazyRefsCheck.setToolTipText("Resolve referenced parameters when an endpoint is first used instead of while parsing");
+        lazyRefsCheck.addActionListener(e -> parser.setLazyRefs(lazyRefsCheck.isSelected()));
+        inputRow.add(lazyRefsCheck);
+        JCheckBox cacheCheck = new JCheckBox("Cache parses", true);
+        cacheCheck.setToolTipText("Reuse parse results for unchanged specs (stored under " + ParseCache.defaultDirectory() + ")");
+        cacheCheck.addActionListener(e -> parser.setCache(cacheCheck.isSelected() ? parseCache : null));
+        inputRow.add(cacheCheck);
+        watchCheck = new JCheckBox("Watch file");
+        watchCheck.setToolTipText("Re-parse the loaded file when it changes on disk, keeping selection and scroll position");
+        watchCheck.addActionListener(e -> {
+            if (!watchCheck.isSelected()) stopWatching();
+        });
+        inputRow.add(watchCheck);
         topPanel.add(inputRow, BorderLayout.CENTER);
 
         // Base URL override + Raw spec paste
@@ -108,6 +183,14 @@ public class OpenAPINGTab extends JPanel {
         baseUrlOverrideField = new JTextField(40);
         baseUrlOverrideField.setToolTipText("Override server URL from spec (e.g. https://api.target.com)");
         overrideRow.add(baseUrlOverrideField);
+        overrideRow.add(new JLabel("Scan audits:"));
+        scanAuditsSpinner = new JSpinner(new SpinnerNumberModel(ScanBatch.DEFAULT_AUDITS, 1, ScanBatch.MAX_AUDITS, 1));
+        scanAuditsSpinner.setToolTipText("Number of Scanner audits an Active Scan of the selection is split across");
+        overrideRow.add(scanAuditsSpinner);
+        JCheckBox tagTrafficCheck = new JCheckBox("Tag proxy traffic", trafficTagger.isEnabled());
+        tagTrafficCheck.setToolTipText("Add the matching endpoint, e.g. \"OpenAPI: GET /users/{id}\", to the notes of proxied requests");
+        tagTrafficCheck.addActionListener(e -> trafficTagger.setEnabled(tagTrafficCheck.isSelected()));
+        overrideRow.add(tagTrafficCheck);
         southPanel.add(overrideRow);
 
         JPanel pastePanel = new JPanel(new BorderLayout(5, 5));
@@ -148,40 +231,106 @@ public class OpenAPINGTab extends JPanel {
         // Filter row and table/editor
         JPanel centerPanel = new JPanel(new BorderLayout(0, 5));
         JPanel filterRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 5));
-        filterRow.add(new JLabel("Filter (regex, case-sensitive):"));
+        filterRow.add(new JLabel("Filter (regex or query):"));
         filterField = new JTextField(25);
+        filterField.setToolTipText("<html>A case-sensitive regex over method, path, and server, or a query such as<br>"
+                + "<code>method:POST param:cookie:session tag:billing !path:/health desc~\"deprecated\"</code><br>"
+                + "Fields: method, scheme, source, tag, param, path, server, desc. "
+                + "<code>:</code> matches a value, <code>~</code> a regex.<br>"
+                + "Terms all have to match; use <code>|</code> for either, <code>!</code> to negate, and parentheses "
+                + "to group. Queries ignore case.</html>");
         filterField.addKeyListener(new KeyAdapter() {
             @Override
             public void keyReleased(KeyEvent e) {
-                tableModel.setFilter(filterField.getText());
-                updateFilterHits();
+                requestFilter();
             }
         });
         filterRow.add(filterField);
         filterHitsLabel = new JLabel("0 hits");
         filterRow.add(filterHitsLabel);
+        baselineBtn = new JButton("Baseline all");
+        baselineBtn.setToolTipText("Send every endpoint once and record status, size, and time in the Baseline column");
+        baselineBtn.addActionListener(e -> doBaselineAll());
+        filterRow.add(baselineBtn);
+        filterRow.add(new JLabel("Rate/s:"));
+        baselineRateSpinner = new JSpinner(new SpinnerNumberModel((int) BaselineCrawler.DEFAULT_RATE, 1, 10_000, 10));
+        baselineRateSpinner.setToolTipText("Maximum baseline requests per second across all hosts");
+        filterRow.add(baselineRateSpinner);
+        filterRow.add(new JLabel("Per host:"));
+        baselinePerHostSpinner = new JSpinner(new SpinnerNumberModel(BaselineCrawler.DEFAULT_PER_HOST, 1, 256, 1));
+        baselinePerHostSpinner.setToolTipText("Maximum baseline requests in flight to one host");
+        filterRow.add(baselinePerHostSpinner);
+        filterRow.add(new JLabel("Keep MB:"));
+        responseBudgetSpinner = new JSpinner(new SpinnerNumberModel(
+                (int) (ResponseStore.DEFAULT_MAX_BYTES / (1024 * 1024)), 1, 16_384, 64));
+        responseBudgetSpinner.setToolTipText("Disk budget for compressed baseline responses; the oldest are dropped beyond it");
+        responseBudgetSpinner.addChangeListener(e -> applyResponseBudget());
+        filterRow.add(responseBudgetSpinner);
+        showResponseCheck = new JCheckBox("Show response");
+        showResponseCheck.setToolTipText("Show the selected endpoint's baseline response next to the request");
+        showResponseCheck.addActionListener(e -> {
+            responseEditor.uiComponent().setVisible(showResponseCheck.isSelected());
+            editorSplit.resetToPreferredSizes();
+            updateRequestPreview();
+        });
+        filterRow.add(showResponseCheck);
         centerPanel.add(filterRow, BorderLayout.NORTH);
 
         // Table and request preview
         JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT);
-        endpointTable = new JTable(tableModel);
+        endpointTable = new JTable(tableModel) {
+            @Override
+            public String getToolTipText(MouseEvent e) {
+                // Full descriptions are read only for the row under the pointer
+                int row = rowAtPoint(e.getPoint());
+                int column = columnAtPoint(e.getPoint());
+                if (row >= 0 && column >= 0 && convertColumnIndexToModel(column) == EndpointTableModel.COL_DESC) {
+                    return tableModel.getDescriptionToolTip(row);
+                }
+                return super.getToolTipText(e);
+            }
+        };
         endpointTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         endpointTable.getSelectionModel().addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) updateRequestPreview();
         });
         setupContextMenu();
         setupKeyBinding();
+        setupSorting();
         JScrollPane tableScroll = new JScrollPane(endpointTable);
         split.setTopComponent(tableScroll);
 
         requestEditor = api.userInterface().createHttpRequestEditor();
-        split.setBottomComponent(requestEditor.uiComponent());
+        responseEditor = api.userInterface().createHttpResponseEditor();
+        responseEditor.uiComponent().setVisible(false);
+        editorSplit = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, requestEditor.uiComponent(), responseEditor.uiComponent());
+        editorSplit.setResizeWeight(0.5);
+        split.setBottomComponent(editorSplit);
         split.setResizeWeight(0.6);
         centerPanel.add(split, BorderLayout.CENTER);
         add(centerPanel, BorderLayout.CENTER);
 
+        JPanel statusRow = new JPanel(new BorderLayout(5, 0));
         statusLabel = new JLabel(" ");
-        add(statusLabel, BorderLayout.SOUTH);
+        statusRow.add(statusLabel, BorderLayout.CENTER);
+        cancelLoadBtn = new JButton("Cancel");
+        cancelLoadBtn.setToolTipText("Stop the load in progress");
+        cancelLoadBtn.setEnabled(false);
+        cancelLoadBtn.addActionListener(e -> doCancelLoad());
+        diagnosticsBtn = new JButton("Diagnostics");
+        diagnosticsBtn.setToolTipText("Show time and memory per stage of the last load");
+        diagnosticsBtn.setEnabled(false);
+        diagnosticsBtn.addActionListener(e -> showDiagnostics());
+        JPanel statusButtons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        statusButtons.add(diagnosticsBtn);
+        statusButtons.add(cancelLoadBtn);
+        statusRow.add(statusButtons, BorderLayout.EAST);
+        add(statusRow, BorderLayout.SOUTH);
+        progressTimer = new Timer(250, e -> {
+            if (currentProgress != null) {
+                setStatus("Loading " + currentLoadLabel + "... " + currentProgress.describe());
+            }
+        });
     }
 
     private void setupDropTarget(JComponent dropZone) {
@@ -195,7 +344,7 @@ public class OpenAPINGTab extends JPanel {
                             evt.getTransferable().getTransferData(DataFlavor.javaFileListFlavor);
                     if (files != null && !files.isEmpty()) {
                         java.io.File f = files.get(0);
-                        if (f.isFile()) {
+                        if (f.isFile() || f.isDirectory()) {
                             urlOrPathField.setText(f.getAbsolutePath());
                             doLoad();
                         }
@@ -211,8 +360,8 @@ public class OpenAPINGTab extends JPanel {
 
     private void doBrowse() {
         JFileChooser chooser = new JFileChooser();
-        chooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
-        chooser.setDialogTitle("Select OpenAPI spec (JSON, YAML, TXT)");
+        chooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+        chooser.setDialogTitle("Select OpenAPI spec (JSON, YAML, TXT) or a directory of specs");
         java.awt.Frame parent = api.userInterface().swingUtils().suiteFrame();
         if (chooser.showOpenDialog(parent) == JFileChooser.APPROVE_OPTION) {
             urlOrPathField.setText(chooser.getSelectedFile().getAbsolutePath());
@@ -228,55 +377,143 @@ public class OpenAPINGTab extends JPanel {
             return;
         }
         if (input == null || input.isBlank()) {
-            setStatus("Parsing...");
+            stopWatching();
             parseInBackground(rawContent.trim(), "pasted");
             return;
         }
         final String source = input.trim();
-        setStatus("Loading...");
 
         if (looksLikeUrl(source)) {
-            executor.submit(() -> {
-                try {
-                    loadFromUrl(source);
-                } catch (Throwable t) {
-                    logging.logToError("Load from URL failed: " + t.getMessage());
-                    java.io.StringWriter sw = new java.io.StringWriter();
-                    t.printStackTrace(new java.io.PrintWriter(sw));
-                    logging.logToError(sw.toString());
-                    SwingUtilities.invokeLater(() -> setStatus("Load failed: " + t.getMessage()));
-                }
-            });
+            stopWatching();
+            startLoad(source, progress -> loadFromUrl(source, progress));
+        } else if (BatchSpecLoader.isBatchInput(source)) {
+            stopWatching();
+            startLoad(source, progress -> loadBatch(source, progress));
         } else {
-            executor.submit(() -> {
-                try {
-                    loadFromFile(source);
-                } catch (Throwable t) {
-                    logging.logToError("Load from file failed: " + t.getMessage());
+            startLoad(source, progress -> loadFromFile(source, null, progress));
+        }
+    }
+
+    /**
+     * Work for one load, run off the EDT. Returns the UI update to apply on the EDT, which
+     * is dropped if another load has started or the load was cancelled in the meantime.
+     */
+    @FunctionalInterface
+    private interface LoadWork {
+        Runnable run(LoadProgress progress) throws Exception;
+    }
+
+    /**
+     * Starts a load in the background (BApp Store criterion: use threads for slow
+     * operations), cancelling and interrupting any load still in flight. Call on the EDT.
+     */
+    private void startLoad(String label, LoadWork work) {
+        cancelCurrentLoad();
+        long generation = loadGeneration.incrementAndGet();
+        LoadProgress progress = new LoadProgress();
+        currentProgress = progress;
+        currentLoadLabel = label;
+        setStatus("Loading " + label + "...");
+        cancelLoadBtn.setEnabled(true);
+        progressTimer.restart();
+        currentLoad = executor.submit(() -> {
+            Runnable update;
+            try {
+                update = work.run(progress);
+            } catch (Throwable t) {
+                if (progress.isCancelled()) {
+                    // Cancelled by the user or superseded; the EDT still has to finish the load
+                    update = null;
+                } else {
+                    String message = t.getMessage() != null ? t.getMessage() : t.getClass().getSimpleName();
+                    logging.logToError("Load of " + label + " failed: " + message);
                     java.io.StringWriter sw = new java.io.StringWriter();
                     t.printStackTrace(new java.io.PrintWriter(sw));
                     logging.logToError(sw.toString());
-                    SwingUtilities.invokeLater(() -> setStatus("Load failed: " + t.getMessage()));
+                    update = () -> setStatus("Load failed: " + message);
                 }
+            }
+            Runnable apply = update;
+            SwingUtilities.invokeLater(() -> {
+                if (generation != loadGeneration.get()) return; // Superseded or cancelled
+                finishLoad();
+                if (apply != null) {
+                    try (LoadMetrics.Span ignored = progress.getMetrics().begin(LoadMetrics.TABLE)) {
+                        apply.run();
+                    }
+                }
+                recordMetrics(label, progress.getMetrics());
             });
-        }
+        });
+    }
+
+    private void recordMetrics(String label, LoadMetrics metrics) {
+        if (metrics.getStages().isEmpty()) return;
+        lastMetrics = metrics;
+        lastMetricsLabel = label;
+        diagnosticsBtn.setEnabled(true);
+        logging.logToOutput("Load metrics for " + label + ": " + metrics.summary());
+    }
+
+    private void showDiagnostics() {
+        if (lastMetrics == null) return;
+        String text = "Last load: " + lastMetricsLabel + "\n\n" + lastMetrics.format()
+                + (LoadMetrics.isAllocationSupported() ? "" : "\n\nPer-thread allocation is not supported by this JVM.");
+        JTextArea area = new JTextArea(text);
+        area.setEditable(false);
+        area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, area.getFont().getSize()));
+        JOptionPane.showMessageDialog(this, new JScrollPane(area), "Load diagnostics", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private void finishLoad() {
+        progressTimer.stop();
+        cancelLoadBtn.setEnabled(false);
+        currentLoad = null;
+        currentProgress = null;
+    }
+
+    private void cancelCurrentLoad() {
+        if (currentProgress != null) currentProgress.cancel();
+        if (currentLoad != null) currentLoad.cancel(true);
+        finishLoad();
+    }
+
+    private void doCancelLoad() {
+        if (currentLoad == null) return;
+        String label = currentLoadLabel;
+        cancelCurrentLoad();
+        loadGeneration.incrementAndGet();
+        setStatus("Cancelled loading " + label);
     }
 
     private boolean looksLikeUrl(String s) {
         return s.startsWith("http://") || s.startsWith("https://");
     }
 
-    private void loadFromUrl(String url) {
+    private Runnable loadFromUrl(String url, LoadProgress progress) {
         try {
-            var response = api.http().sendRequest(HttpRequest.httpRequestFromUrl(url));
-            var httpResponse = response.response();
-            if (httpResponse == null) throw new IOException("No response");
-            byte[] body = httpResponse.body().getBytes();
-            String content = new String(body, StandardCharsets.UTF_8);
-            parseInBackground(content, url);
+            ConditionalSpecFetcher.Fetched fetched;
+            try (LoadMetrics.Span ignored = progress.getMetrics().begin(LoadMetrics.READ)) {
+                fetched = specFetcher.fetch(url);
+            }
+            progress.checkCancelled();
+            ParseCache parseCache = parser.getCache();
+            String resultKey = fetched.getResultKey();
+            // If the result was evicted since, the stored body is parsed again below
+            OpenAPIParser.ParseResult cached = resultKey != null && parseCache != null
+                    ? parseCache.get(resultKey) : null;
+            if (cached != null) {
+                return () -> applyParseResult(cached, url + " (not modified)", null);
+            }
+            OpenAPIParser.ParseResult result = parser.parseSource(url, fetched.getContent(), progress);
+            specFetcher.remember(url, result);
+            return () -> applyParseResult(result, url, null);
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
+            if (progress.isCancelled()) throw new CancellationException();
             logging.logToError("Failed to load URL: " + e.getMessage());
-            SwingUtilities.invokeLater(() -> fallbackToRawPasteOrSetError("Unable to load from URL: " + e.getMessage()));
+            return () -> fallbackToRawPasteOrSetError("Unable to load from URL: " + e.getMessage());
         }
     }
 
@@ -290,49 +527,115 @@ public class OpenAPINGTab extends JPanel {
         }
     }
 
-    private void loadFromFile(String pathStr) {
+    /**
+     * @param reload the table's rows when a watched file changed, or null for a fresh load
+     */
+    private Runnable loadFromFile(String pathStr, EndpointTableModel.Snapshot reload, LoadProgress progress) {
         try {
             Path path = Paths.get(pathStr);
             if (!Files.exists(path) || !Files.isRegularFile(path)) {
-                SwingUtilities.invokeLater(() -> fallbackToRawPasteOrSetError("File not found: " + pathStr));
-                return;
+                if (reload != null) {
+                    // Mid-replace; the watcher fires again once the new file lands
+                    return () -> setStatus("Waiting for " + pathStr + " to be replaced...");
+                }
+                return () -> fallbackToRawPasteOrSetError("File not found: " + pathStr);
+            }
+            SpecSource content;
+            try (LoadMetrics.Span ignored = progress.getMetrics().begin(LoadMetrics.READ)) {
+                content = SpecSource.of(path);
+            }
+            OpenAPIParser.ParseResult result = parser.parseSource(pathStr, content, progress);
+            if (reload == null) {
+                return () -> {
+                    if (watchCheck.isSelected()) startWatching(path, pathStr);
+                    applyParseResult(result, pathStr, null);
+                };
+            }
+            if (result.getEndpoints().isEmpty()) {
+                // A half-written file parses to nothing; keep the last good list
+                return () -> setStatus("Reload of " + pathStr + " produced no endpoints; keeping previous list");
             }
-            byte[] bytes = Files.readAllBytes(path);
-            String content = new String(bytes, StandardCharsets.UTF_8);
-            parseInBackground(content, pathStr);
+            EndpointTableModel.Update update = EndpointTableModel.diff(reload, result.getEndpoints(), progress);
+            return () -> applyParseResult(result, pathStr, update);
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
+            if (progress.isCancelled()) throw new CancellationException();
             logging.logToError("Failed to load file: " + e.getMessage());
-            SwingUtilities.invokeLater(() -> fallbackToRawPasteOrSetError("Unable to read file: " + e.getMessage()));
+            return () -> fallbackToRawPasteOrSetError("Unable to read file: " + e.getMessage());
         }
     }
 
     /**
-     * Parses spec content in a background thread to keep the UI responsive (BApp Store
-     * criterion: use threads for slow operations). Updates the UI on the EDT when done.
+     * Loads every spec in a directory or glob on the batch loader's own pool. Runs on
+     * {@link #executor}, which waits for the batch so loads stay serialized.
      */
-    private void parseInBackground(String content, String source) {
-        executor.submit(() -> {
-            try {
-                OpenAPIParser.ParseResult result = parser.parse(source, content);
-                SwingUtilities.invokeLater(() -> applyParseResult(result, source));
-            } catch (Throwable t) {
-                logging.logToError("Parse failed: " + t.getMessage());
-                java.io.StringWriter sw = new java.io.StringWriter();
-                t.printStackTrace(new java.io.PrintWriter(sw));
-                logging.logToError(sw.toString());
-                SwingUtilities.invokeLater(() -> setStatus("Parse failed: " + t.getMessage()));
+    private Runnable loadBatch(String input, LoadProgress progress) throws IOException {
+        BatchSpecLoader loader = new BatchSpecLoader(parser, BatchSpecLoader.DEFAULT_THREADS);
+        BatchSpecLoader.BatchResult result = loader.load(input, (outcome, done, total) -> {
+            if (outcome.isFailed()) {
+                String reason = outcome.getMessages().isEmpty() ? "no endpoints" : outcome.getMessages().get(0);
+                logging.logToError("Batch load: " + outcome.getSource() + ": " + reason);
             }
-        });
+            SwingUtilities.invokeLater(() -> {
+                if (currentProgress == progress) currentLoadLabel = input + " (" + done + "/" + total + " specs)";
+            });
+        }, progress);
+        return () -> applyBatchResult(result, input);
     }
 
-    private void applyParseResult(OpenAPIParser.ParseResult result, String source) {
+    private void applyBatchResult(BatchSpecLoader.BatchResult result, String input) {
+        clearResponses();
         tableModel.setEndpoints(result.getEndpoints());
+        trafficTagger.setEndpoints(result.getEndpoints());
+        tableModel.setFilter(filterField.getText());
+        updateFilterHits();
+        updateRequestPreview();
+        int specs = result.getSpecs().size();
+        if (specs == 0) {
+            setStatus("No JSON or YAML specs found in " + input);
+            return;
+        }
+        int failed = result.getFailedCount();
+        setStatus("Loaded " + result.getEndpoints().size() + " endpoints from " + (specs - failed) + " of "
+                + specs + " specs in " + input + (failed > 0 ? " (" + failed + " failed, see extension log)" : "")
+                + cacheStatus());
+    }
+
+    /**
+     * Parses pasted spec content as a load of its own.
+     */
+    private void parseInBackground(String content, String source) {
+        startLoad(source, progress -> {
+            OpenAPIParser.ParseResult result = parser.parse(source, content, progress);
+            return () -> applyParseResult(result, source, null);
+        });
+    }
+
+    /**
+     * Applies a parse result to the table. Reloads of a watched file keep the current filter
+     * and update only the rows that changed.
+     *
+     * @param update for a reload, the row changes computed off the EDT; null for a fresh load
+     */
+    private void applyParseResult(OpenAPIParser.ParseResult result, String source, EndpointTableModel.Update update) {
+        boolean reload = update != null;
+        if (reload) {
+            tableModel.applyUpdate(update);
+        } else {
+            tableModel.setEndpoints(result.getEndpoints());
+        }
+        trafficTagger.setEndpoints(result.getEndpoints());
+        // Stored responses are keyed by endpoint index, which a new list reuses
+        clearResponses();
         defaultServer = result.getDefaultServer();
         String existingOverride = baseUrlOverrideField.getText();
         if (!defaultServer.isEmpty() && (existingOverride == null || existingOverride.isBlank())) {
             baseUrlOverrideField.setText(defaultServer);
         }
-        tableModel.setFilter(filterField.getText());
+        if (!reload) {
+            tableModel.setFilter(filterField.getText());
+        }
         updateFilterHits();
         updateRequestPreview();
 
@@ -350,12 +653,119 @@ public class OpenAPINGTab extends JPanel {
             }
             setStatus(errMsg);
         } else {
-            setStatus("Loaded " + result.getEndpoints().size() + " endpoints from " + source);
+            setStatus((reload ? "Reloaded " : "Loaded ") + result.getEndpoints().size() + " endpoints from " + source
+                    + cacheStatus() + (watcher != null ? " (watching)" : ""));
+        }
+    }
+
+    private String cacheStatus() {
+        ParseCache cache = parser.getCache();
+        if (cache == null) return "";
+        return " (parse cache: " + cache.getHits() + " hits, " + cache.getMisses() + " misses)";
+    }
+
+    private void startWatching(Path path, String pathStr) {
+        stopWatching();
+        try {
+            watcher = new SpecFileWatcher(path, SpecFileWatcher.DEFAULT_DEBOUNCE_MILLIS,
+                    () -> SwingUtilities.invokeLater(() -> {
+                        EndpointTableModel.Snapshot shown = tableModel.snapshot();
+                        startLoad(pathStr, progress -> loadFromFile(pathStr, shown, progress));
+                    }));
+        } catch (IOException e) {
+            logging.logToError("Cannot watch " + pathStr + ": " + e.getMessage());
+            setStatus("Cannot watch file: " + e.getMessage());
+        }
+    }
+
+    private void stopWatching() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    /**
+     * Filters in the background once typing pauses; keys that do not change the text are ignored.
+     */
+    private void requestFilter() {
+        String text = filterField.getText();
+        if (text.equals(requestedFilter)) return;
+        requestedFilter = text;
+        backgroundFilter.request(tableModel.getIndex(), text, new BackgroundFilter.Listener() {
+            @Override
+            public void filtered(String regex, List<ApiEndpoint> source, List<ApiEndpoint> filtered) {
+                tableModel.setFilterResult(regex, source, filtered);
+                updateFilterHits();
+            }
+
+            @Override
+            public void rejected(String regex, String reason) {
+                filterHitsLabel.setText("rejected");
+                setStatus("Filter rejected: " + reason);
+            }
+        });
+    }
+
+    /**
+     * Clicking a column header sorts ascending, then descending, then back to filter order.
+     * Lists too large to sort on the EDT are sorted by {@link #endpointSorter} whenever the
+     * model reports a pending sort.
+     */
+    private void setupSorting() {
+        endpointTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (!SwingUtilities.isLeftMouseButton(e)) return;
+                int viewColumn = endpointTable.columnAtPoint(e.getPoint());
+                if (viewColumn < 0) return;
+                int column = endpointTable.convertColumnIndexToModel(viewColumn);
+                requestedSortRows = null;
+                if (column != tableModel.getSortColumn()) {
+                    tableModel.setSort(column, true);
+                } else if (tableModel.isSortAscending()) {
+                    tableModel.setSort(column, false);
+                } else {
+                    tableModel.setSort(-1, true);
+                }
+                updateSortHeaders();
+            }
+        });
+        tableModel.addTableModelListener(e -> {
+            if (tableModel.isSortPending()) requestSort();
+        });
+    }
+
+    private void requestSort() {
+        List<ApiEndpoint> rows = tableModel.getFilteredEndpoints();
+        int column = tableModel.getSortColumn();
+        boolean ascending = tableModel.isSortAscending();
+        if (rows == requestedSortRows && column == requestedSortColumn && ascending == requestedSortAscending) return;
+        requestedSortRows = rows;
+        requestedSortColumn = column;
+        requestedSortAscending = ascending;
+        endpointSorter.request(tableModel.getSortKeys(), rows, column, ascending, tableModel.getBaselineSnapshot(), tableModel::setSortResult);
+    }
+
+    private void updateSortHeaders() {
+        for (int v = 0; v < endpointTable.getColumnCount(); v++) {
+            int column = endpointTable.convertColumnIndexToModel(v);
+            String name = tableModel.getColumnName(column);
+            if (column == tableModel.getSortColumn()) {
+                name += tableModel.isSortAscending() ? " \u25B2" : " \u25BC";
+            }
+            endpointTable.getColumnModel().getColumn(v).setHeaderValue(name);
         }
+        endpointTable.getTableHeader().repaint();
     }
 
     private void updateFilterHits() {
-        filterHitsLabel.setText(tableModel.getFilterHitCount() + " hits");
+        if (tableModel.getFilterError() == null) {
+            filterHitsLabel.setText(tableModel.getFilterHitCount() + " hits");
+        } else {
+            filterHitsLabel.setText("rejected");
+            setStatus("Filter rejected, showing all endpoints: " + tableModel.getFilterError());
+        }
     }
 
     private void updateRequestPreview() {
@@ -365,9 +775,69 @@ public class OpenAPINGTab extends JPanel {
             if (ep != null) {
                 HttpRequest req = requestGenerator.buildRequest(ep, getBaseUrlOverride());
                 requestEditor.setRequest(req);
+                updateResponsePreview(ep);
             }
         } else {
             requestEditor.setRequest(null);
+            updateResponsePreview(null);
+        }
+    }
+
+    /**
+     * Reads the selected endpoint's stored response, if the response pane is showing. Only
+     * that one response is brought onto the heap.
+     */
+    private void updateResponsePreview(ApiEndpoint ep) {
+        if (!showResponseCheck.isSelected()) return;
+        ResponseStore store = responseStore;
+        byte[] raw = null;
+        if (ep != null && store != null) {
+            try {
+                raw = store.getResponse(ep.getIndex());
+            } catch (IOException e) {
+                logging.logToError("Failed to read stored response: " + e.getMessage());
+            }
+        }
+        responseEditor.setResponse(raw != null ? HttpResponse.httpResponse(ByteArray.byteArray(raw)) : null);
+    }
+
+    private ResponseStore responseStore() throws IOException {
+        if (responseStore == null) {
+            responseStore = ResponseStore.temporary(responseBudgetBytes());
+        }
+        return responseStore;
+    }
+
+    private long responseBudgetBytes() {
+        return (Integer) responseBudgetSpinner.getValue() * 1024L * 1024L;
+    }
+
+    private void applyResponseBudget() {
+        ResponseStore store = responseStore;
+        if (store == null) return;
+        try {
+            store.setMaxBytes(responseBudgetBytes());
+        } catch (IOException e) {
+            logging.logToError("Failed to apply response budget: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drops stored responses when a new spec is loaded, since endpoint indexes are reused.
+     * A running baseline is stopped first; anything it still writes is dropped as stale.
+     */
+    private void clearResponses() {
+        if (baselineProgress != null) {
+            baselineProgress.cancel();
+            baselineProgress = null;
+            baselineBtn.setText("Baseline all");
+        }
+        ResponseStore store = responseStore;
+        if (store == null) return;
+        try {
+            store.clear();
+        } catch (IOException e) {
+            logging.logToError("Failed to clear stored responses: " + e.getMessage());
         }
     }
 
@@ -438,19 +908,13 @@ public class OpenAPINGTab extends JPanel {
             return;
         }
         List<ApiEndpoint> endpoints = tableModel.getSelectedEndpoints(rows);
-        String override = getBaseUrlOverride();
-        try {
-            for (ApiEndpoint ep : endpoints) {
-                HttpRequest req = requestGenerator.buildRequest(ep, override);
-                api.scanner()
-                        .startAudit(AuditConfiguration.auditConfiguration(BuiltInAuditConfiguration.LEGACY_ACTIVE_AUDIT_CHECKS))
-                        .addRequest(req);
-            }
-            setStatus("Started active scan for " + endpoints.size() + " endpoints.");
-        } catch (Exception ex) {
-            logging.logToError("Actively scan failed: " + ex.getMessage());
-            setStatus("Scan failed: " + ex.getMessage());
-        }
+        int audits = Math.min((Integer) scanAuditsSpinner.getValue(), endpoints.size());
+        ScanBatch batch = new ScanBatch(() -> api.scanner()
+                .startAudit(AuditConfiguration.auditConfiguration(BuiltInAuditConfiguration.LEGACY_ACTIVE_AUDIT_CHECKS)),
+                audits, endpoints.size());
+        startSend("Actively scan", "Scanning", endpoints, false, batch::add,
+                "Started active scan for " + endpoints.size() + " endpoints in " + audits
+                        + (audits == 1 ? " audit." : " audits."));
     }
 
     private void doSendToRepeater() {
@@ -460,19 +924,12 @@ public class OpenAPINGTab extends JPanel {
             return;
         }
         List<ApiEndpoint> endpoints = tableModel.getSelectedEndpoints(rows);
-        String override = getBaseUrlOverride();
-        try {
-            for (ApiEndpoint ep : endpoints) {
-                HttpRequest req = requestGenerator.buildRequest(ep, override);
-                String tabName = ep.getMethod() + " " + ep.getPath();
-                if (tabName.length() > 50) tabName = tabName.substring(0, 47) + "...";
-                api.repeater().sendToRepeater(req, tabName);
-            }
-            setStatus("Sent " + endpoints.size() + " endpoints to Repeater. Right-click in Repeater → Scan to scan.");
-        } catch (Exception ex) {
-            logging.logToError("Send to Repeater failed: " + ex.getMessage());
-            setStatus("Repeater failed: " + ex.getMessage());
-        }
+        startSend("Send to Repeater", "Sending to Repeater", endpoints, false, (index, built) -> {
+            ApiEndpoint ep = built.getEndpoint();
+            String tabName = ep.getMethod() + " " + ep.getPath();
+            if (tabName.length() > 50) tabName = tabName.substring(0, 47) + "...";
+            api.repeater().sendToRepeater(built.getRequest(), tabName);
+        }, "Sent " + endpoints.size() + " endpoints to Repeater. Right-click in Repeater → Scan to scan.");
     }
 
     private void doSendToIntruder() {
@@ -482,27 +939,151 @@ public class OpenAPINGTab extends JPanel {
             return;
         }
         List<ApiEndpoint> endpoints = tableModel.getSelectedEndpoints(rows);
+        startSend("Send to Intruder", "Sending to Intruder", endpoints, true, (index, built) -> {
+            ApiEndpoint ep = built.getEndpoint();
+            String tabName = ep.getMethod() + " " + ep.getPath();
+            if (tabName.length() > 70) tabName = tabName.substring(0, 67) + "...";
+            api.intruder().sendToIntruder(built.getRequest().httpService(), built.getIntruderTemplate(), tabName);
+        }, "Sent " + endpoints.size() + " endpoints to Intruder.");
+    }
+
+    /**
+     * Sends every loaded endpoint once through Burp and records the responses in the
+     * Baseline column. Clicking again while it runs stops it.
+     */
+    private void doBaselineAll() {
+        if (baselineProgress != null) {
+            baselineProgress.cancel();
+            return;
+        }
+        // The model replaces this list on reload rather than changing it, so no copy is needed
+        List<ApiEndpoint> endpoints = tableModel.getAllEndpoints();
+        if (endpoints.isEmpty()) {
+            setStatus("Load a spec before baselining.");
+            return;
+        }
         String override = getBaseUrlOverride();
+        ResponseStore store;
         try {
-            for (ApiEndpoint ep : endpoints) {
-                HttpRequest req = requestGenerator.buildRequest(ep, override);
-                HttpRequestTemplate template = requestGenerator.buildIntruderTemplate(ep, override);
-                String tabName = ep.getMethod() + " " + ep.getPath();
-                if (tabName.length() > 70) tabName = tabName.substring(0, 67) + "...";
-                api.intruder().sendToIntruder(req.httpService(), template, tabName);
-            }
-            setStatus("Sent " + endpoints.size() + " endpoints to Intruder.");
-        } catch (Exception ex) {
-            logging.logToError("Send to Intruder failed: " + ex.getMessage());
-            setStatus("Intruder failed: " + ex.getMessage());
+            store = responseStore();
+        } catch (IOException e) {
+            logging.logToError("Failed to create response store: " + e.getMessage());
+            setStatus("Baseline failed: " + e.getMessage());
+            return;
         }
+        int generation = store.getGeneration();
+        BaselineCrawler crawler = new BaselineCrawler(ep -> {
+            HttpResponse response = api.http().sendRequest(requestGenerator.buildRequest(ep, override)).response();
+            if (response == null) throw new IOException("No response");
+            store.putIfCurrent(generation, ep.getIndex(), response.statusCode(), response.headerValue("Content-Type"),
+                    response.toByteArray().getBytes(), response.bodyOffset());
+            return BaselineCrawler.Baseline.response(response.statusCode(), response.body().length());
+        }, (Integer) baselineRateSpinner.getValue(), (Integer) baselinePerHostSpinner.getValue(),
+                BaselineCrawler.DEFAULT_RETRIES, BaselineCrawler.DEFAULT_BACKOFF_MILLIS);
+        LoadProgress progress = new LoadProgress();
+        baselineProgress = progress;
+        baselineBtn.setText("Stop baseline");
+        int total = endpoints.size();
+        setStatus("Baselining 0/" + total + "...");
+        baselineExecutor.submit(() -> {
+            String message;
+            try {
+                BaselineCrawler.Baseline[] results = crawler.crawl(endpoints,
+                        ep -> new String(RequestTemplate.hostHeader(RequestTemplate.serverFor(ep, override)), StandardCharsets.UTF_8),
+                        (ep, baseline, done, count) -> {
+                            store.setNanosIfCurrent(generation, ep.getIndex(), baseline.getNanos());
+                            SwingUtilities.invokeLater(() -> {
+                                // A load since the crawl started has replaced these endpoints
+                                if (baselineProgress != progress) return;
+                                tableModel.setBaseline(ep, baseline);
+                                if (done % SEND_PROGRESS_STEP == 0 && done < count) {
+                                    setStatus("Baselining " + done + "/" + count + "...");
+                                }
+                            });
+                        }, progress);
+                int failed = 0;
+                for (BaselineCrawler.Baseline b : results) {
+                    if (b.getError() != null) failed++;
+                }
+                message = "Baselined " + total + " endpoints" + (failed > 0 ? " (" + failed + " without a response)" : "");
+            } catch (CancellationException e) {
+                message = "Baseline stopped";
+            } catch (Exception ex) {
+                logging.logToError("Baseline failed: " + ex.getMessage());
+                message = "Baseline failed: " + ex.getMessage();
+            }
+            String status = message;
+            SwingUtilities.invokeLater(() -> {
+                // Stopped by a load, which has already reset the button and set its own status
+                if (baselineProgress != progress) return;
+                baselineProgress = null;
+                baselineBtn.setText("Baseline all");
+                setStatus(status);
+            });
+        });
+    }
+
+    /**
+     * Builds the selected endpoints' requests in parallel and hands each to Burp in
+     * selection order on {@link #sendExecutor}, so large selections do not block the EDT.
+     * The status bar shows how many have been sent. Call on the EDT.
+     */
+    private void startSend(String action, String verb, List<ApiEndpoint> endpoints, boolean intruderTemplates,
+                           RequestGenerator.BulkConsumer<RequestGenerator.BuiltRequest> send, String doneMessage) {
+        String override = getBaseUrlOverride();
+        int total = endpoints.size();
+        setStatus(verb + " 0/" + total + "...");
+        sendExecutor.submit(() -> {
+            try {
+                requestGenerator.buildAll(endpoints, override, intruderTemplates, (index, built) -> {
+                    send.accept(index, built);
+                    int done = index + 1;
+                    if (done % SEND_PROGRESS_STEP == 0 && done < total) {
+                        SwingUtilities.invokeLater(() -> setStatus(verb + " " + done + "/" + total + "..."));
+                    }
+                });
+                SwingUtilities.invokeLater(() -> setStatus(doneMessage));
+            } catch (CancellationException e) {
+                // Extension unloading
+            } catch (Exception ex) {
+                logging.logToError(action + " failed: " + ex.getMessage());
+                SwingUtilities.invokeLater(() -> setStatus(action + " failed: " + ex.getMessage()));
+            }
+        });
     }
 
     private void setStatus(String msg) {
         statusLabel.setText(msg);
     }
 
+    /**
+     * @return the handler that tags proxy traffic with the loaded endpoints
+     */
+    public TrafficTagger getTrafficTagger() {
+        return trafficTagger;
+    }
+
     public void unload() {
+        SwingUtilities.invokeLater(() -> {
+            stopWatching();
+            cancelCurrentLoad();
+            if (baselineProgress != null) baselineProgress.cancel();
+            ResponseStore store = responseStore;
+            responseStore = null;
+            if (store != null) {
+                try {
+                    store.close();
+                } catch (IOException e) {
+                    logging.logToError("Failed to delete stored responses: " + e.getMessage());
+                }
+            }
+        });
+        backgroundFilter.close();
+        endpointSorter.close();
+        trafficTagger.close();
+        parseCache.close();
         executor.shutdown();
+        sendExecutor.shutdownNow();
+        baselineExecutor.shutdownNow();
     }
 }
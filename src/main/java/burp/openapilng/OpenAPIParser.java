@@ -1,5 +1,6 @@
 package burp.openapilng;
 
+import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
@@ -10,13 +11,27 @@ import io.swagger.v3.parser.core.models.SwaggerParseResult;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 
 /**
  * Parses OpenAPI 2.0 (Swagger) and 3.x specifications into {@link ApiEndpoint} lists.
  * Uses Swagger Parser for JSON and YAML. Strips leading shell prompts from pasted content.
+ * <p>
+ * In streaming mode, OpenAPI 3.x documents are first read with {@link StreamingSpecParser},
+ * which does not build the Swagger object model; Swagger Parser is only used when the
+ * streaming parser meets something it cannot handle.
+ * <p>
+ * Parameter {@code $ref}s are resolved against {@code components/parameters} by a
+ * {@link ParameterRefResolver}; in lazy mode that happens the first time a parameter is
+ * read rather than while the endpoint list is built.
  *
  * @author jabberwock
  * @since 1.0
@@ -24,18 +39,201 @@ import java.util.Map;
  */
 public class OpenAPIParser {
 
+    /**
+     * Version of the endpoint extraction logic. Bump when parsing changes what ends up in a
+     * {@link ParseResult} so {@link ParseCache} entries from older builds are not reused.
+     */
+    public static final int PARSER_VERSION = 1;
+
+    /** Below this many paths, forking costs more than the sequential walk. */
+    private static final int PARALLEL_MIN_PATHS = 512;
+    private static final int PARALLEL_CHUNK = 64;
+
+    private volatile boolean streaming = false;
+    private volatile boolean parallel = false;
+    private volatile boolean lazyRefs = false;
+    private volatile ParseCache cache;
+
+    /**
+     * Enables or disables streaming mode for subsequent parses.
+     *
+     * @param streaming true to try {@link StreamingSpecParser} before Swagger Parser
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Enables or disables parallel operation extraction for subsequent parses. Applies to
+     * the Swagger Parser path; streaming parses read the document sequentially.
+     *
+     * @param parallel true to split the paths map across the common ForkJoin pool
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Enables or disables lazy {@code $ref} resolution for subsequent parses.
+     *
+     * @param lazyRefs true to build endpoints from unresolved parameter references
+     */
+    public void setLazyRefs(boolean lazyRefs) {
+        this.lazyRefs = lazyRefs;
+    }
+
+    public boolean isLazyRefs() {
+        return lazyRefs;
+    }
+
+    /**
+     * @return the settings that change what a parse returns, so results parsed in one mode
+     *         are not served from the cache in another
+     */
+    String cacheMode() {
+        return "streaming=" + streaming + ",lazyRefs=" + lazyRefs + ",parallel=" + parallel;
+    }
+
+    /**
+     * Sets the cache consulted before parsing and filled after successful parses.
+     *
+     * @param cache the cache, or null to disable caching
+     */
+    public void setCache(ParseCache cache) {
+        this.cache = cache;
+    }
+
+    public ParseCache getCache() {
+        return cache;
+    }
+
     public ParseResult parse(String location, String specContent) {
+        return parse(location, specContent, LoadProgress.untracked());
+    }
+
+    /**
+     * Parses spec content through {@link #parseSource} as UTF-8, reporting progress and stopping with a
+     * {@link java.util.concurrent.CancellationException} once {@code progress} is cancelled.
+     * Swagger Parser's own read cannot be interrupted, so cancellation takes effect before or
+     * after it; streaming parses stop at the next read.
+     */
+    public ParseResult parse(String location, String specContent, LoadProgress progress) {
+        if (specContent == null || specContent.isBlank()) {
+            return emptyContentResult();
+        }
+        return parseSource(location, SpecSource.of(specContent.getBytes(StandardCharsets.UTF_8)), progress);
+    }
+
+    /**
+     * Parses spec bytes without first decoding them to a string. Trimming and shell prompt
+     * stripping narrow the view; the bytes are only decoded if Swagger Parser has to read them.
+     *
+     * @param location source label, as for {@link #parse(String, String)}
+     * @param source spec bytes
+     * @return the parse result
+     */
+    public ParseResult parseSource(String location, SpecSource source) {
+        return parseSource(location, source, LoadProgress.untracked());
+    }
+
+    /**
+     * Byte form of {@link #parse(String, String, LoadProgress)}.
+     */
+    public ParseResult parseSource(String location, SpecSource source, LoadProgress progress) {
+        if (source == null || source.isBlank()) {
+            return emptyContentResult();
+        }
+        SpecSource cleaned;
+        try (LoadMetrics.Span ignored = progress.getMetrics().begin(LoadMetrics.STRIP)) {
+            cleaned = stripLeadingShellPrompt(source.trim());
+        }
+        ParseCache parseCache = cache;
+        return parseCached(parseCache, parseCache != null ? () -> parseCache.key(cleaned, cacheMode()) : null,
+                () -> parseCleaned(cleaned, progress), progress);
+    }
+
+    private static ParseResult emptyContentResult() {
+        List<String> errors = new ArrayList<>();
+        errors.add("Spec content is empty");
+        return new ParseResult(new ArrayList<>(), errors, "");
+    }
+
+    private static ParseResult parseCached(ParseCache parseCache, Supplier<String> key, Supplier<ParseResult> parse,
+                                           LoadProgress progress) {
+        if (parseCache == null) {
+            return parse.get();
+        }
+        String k;
+        ParseResult cached;
+        try (LoadMetrics.Span ignored = progress.getMetrics().begin(LoadMetrics.CACHE)) {
+            k = key.get();
+            cached = parseCache.get(k);
+        }
+        if (cached != null) {
+            cached.cacheKey = k;
+            return cached;
+        }
+        ParseResult result = parse.get();
+        if (!result.getEndpoints().isEmpty()) {
+            try (LoadMetrics.Span ignored = progress.getMetrics().begin(LoadMetrics.CACHE)) {
+                result.cacheKey = k;
+                parseCache.putLater(k, result);
+            }
+        }
+        return result;
+    }
+
+    private ParseResult parseCleaned(SpecSource cleaned, LoadProgress progress) {
+        if (streaming) {
+            StreamingSpecParser streamingParser = new StreamingSpecParser(lazyRefs, progress);
+            try {
+                // Streaming reads and extracts in one pass, so it is timed as a single stage
+                try (LoadMetrics.Span ignored = progress.getMetrics().begin(LoadMetrics.PARSE)) {
+                    return streamingParser.parse(cleaned);
+                }
+            } catch (StreamingSpecParser.UnsupportedSpecException e) {
+                // Bytes the streaming pass already counted are not counted again
+                ParseResult result = parseWithSwagger(
+                        decode(cleaned, progress, cleaned.length() - streamingParser.getBytesRead()), progress);
+                result.getMessages().add("Streaming parse fell back to Swagger Parser: " + e.getMessage());
+                return result;
+            }
+        }
+        return parseWithSwagger(decode(cleaned, progress, cleaned.length()), progress);
+    }
+
+    /**
+     * @param uncounted bytes of {@code cleaned} not yet added to the progress's bytes read
+     */
+    private static String decode(SpecSource cleaned, LoadProgress progress, long uncounted) {
+        progress.checkCancelled();
+        String content;
+        try (LoadMetrics.Span ignored = progress.getMetrics().begin(LoadMetrics.DECODE)) {
+            content = cleaned.decode();
+        }
+        progress.addBytesRead(Math.max(0, uncounted));
+        return content;
+    }
+
+    private ParseResult parseWithSwagger(String cleaned, LoadProgress progress) {
         List<ApiEndpoint> endpoints = new ArrayList<>();
         List<String> errors = new ArrayList<>();
         String defaultServer = "";
 
-        if (specContent == null || specContent.isBlank()) {
-            errors.add("Spec content is empty");
-            return new ParseResult(endpoints, errors, defaultServer);
+        progress.checkCancelled();
+        SwaggerParseResult parseResult;
+        try (LoadMetrics.Span ignored = progress.getMetrics().begin(LoadMetrics.PARSE)) {
+            parseResult = new OpenAPIV3Parser().readContents(cleaned, null, null);
         }
-
-        String cleaned = stripLeadingShellPrompt(specContent.trim());
-        SwaggerParseResult parseResult = new OpenAPIV3Parser().readContents(cleaned, null, null);
+        progress.checkCancelled();
         OpenAPI openAPI = parseResult.getOpenAPI();
 
         if (openAPI == null) {
@@ -58,46 +256,131 @@ public class OpenAPIParser {
             return new ParseResult(endpoints, errors, defaultServer);
         }
 
+        try (LoadMetrics.Span ignored = progress.getMetrics().begin(LoadMetrics.EXTRACT)) {
+            extract(paths, defaultServer, new Extraction(resolverFor(openAPI), lazyRefs, progress), endpoints);
+        }
+        return new ParseResult(endpoints, errors, defaultServer);
+    }
+
+    private void extract(Map<String, PathItem> paths, String defaultServer, Extraction refs, List<ApiEndpoint> endpoints) {
+        String scheme = extractScheme(defaultServer);
+        if (parallel && paths.size() >= PARALLEL_MIN_PATHS) {
+            endpoints.addAll(extractParallel(new ArrayList<>(paths.entrySet()), scheme, defaultServer, refs));
+            return;
+        }
+
         int index = 1;
         for (Map.Entry<String, PathItem> pathEntry : paths.entrySet()) {
             String path = pathEntry.getKey();
             PathItem pathItem = pathEntry.getValue();
             if (pathItem == null) continue;
+            refs.progress.checkCancelled();
 
             Map<PathItem.HttpMethod, Operation> operations = pathItem.readOperationsMap();
             if (operations == null) continue;
 
             for (Map.Entry<PathItem.HttpMethod, Operation> opEntry : operations.entrySet()) {
-                PathItem.HttpMethod httpMethod = opEntry.getKey();
                 Operation operation = opEntry.getValue();
                 if (operation == null) continue;
+                endpoints.add(buildEndpoint(index++, opEntry.getKey(), operation, path, scheme, defaultServer, refs));
+            }
+        }
+    }
+
+    /**
+     * Extracts endpoints from the paths map on the common ForkJoin pool. A first pass reads
+     * each path's operations and a prefix sum over the operation counts gives every path its
+     * first endpoint index, so numbering matches the sequential walk exactly.
+     */
+    private List<ApiEndpoint> extractParallel(List<Map.Entry<String, PathItem>> entries, String scheme, String server,
+                                              Extraction refs) {
+        int n = entries.size();
+        @SuppressWarnings("unchecked")
+        Map<PathItem.HttpMethod, Operation>[] operations = new Map[n];
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        pool.invoke(new RangeTask(0, n, i -> {
+            PathItem pathItem = entries.get(i).getValue();
+            operations[i] = pathItem != null ? pathItem.readOperationsMap() : null;
+        }));
 
-                String method = httpMethod.name();
-                String scheme = extractScheme(defaultServer);
-                String server = defaultServer;
-                String description = operation.getSummary() != null ? operation.getSummary()
-                        : (operation.getDescription() != null ? operation.getDescription() : "");
-
-                List<ApiEndpoint.ParameterInfo> params = new ArrayList<>();
-                if (operation.getParameters() != null) {
-                    for (Parameter p : operation.getParameters()) {
-                        if (p == null) continue;
-                        String paramName = p.getName();
-                        String paramIn = p.getIn() != null ? p.getIn().toLowerCase() : "query";
-                        String placeholder = "1";
-                        if ("query".equals(paramIn) || "header".equals(paramIn) || "cookie".equals(paramIn)) {
-                            placeholder = "";
-                        }
-                        params.add(new ApiEndpoint.ParameterInfo(paramName, paramIn, placeholder));
-                    }
+        int[] firstIndex = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int count = 0;
+            if (operations[i] != null) {
+                for (Operation op : operations[i].values()) {
+                    if (op != null) count++;
                 }
+            }
+            firstIndex[i + 1] = firstIndex[i] + count;
+        }
+
+        ApiEndpoint[] out = new ApiEndpoint[firstIndex[n]];
+        pool.invoke(new RangeTask(0, n, i -> {
+            if (operations[i] == null) return;
+            refs.progress.checkCancelled();
+            String path = entries.get(i).getKey();
+            int slot = firstIndex[i];
+            for (Map.Entry<PathItem.HttpMethod, Operation> opEntry : operations[i].entrySet()) {
+                if (opEntry.getValue() == null) continue;
+                out[slot] = buildEndpoint(slot + 1, opEntry.getKey(), opEntry.getValue(), path, scheme, server, refs);
+                slot++;
+            }
+        }));
+        return Arrays.asList(out);
+    }
+
+    private ApiEndpoint buildEndpoint(int index, PathItem.HttpMethod httpMethod, Operation operation,
+                                      String path, String scheme, String server, Extraction refs) {
+        String description = operation.getSummary() != null ? operation.getSummary()
+                : (operation.getDescription() != null ? operation.getDescription() : "");
 
-                ApiEndpoint endpoint = new ApiEndpoint(index++, scheme, method, server, path, params, description);
-                endpoints.add(endpoint);
+        List<ApiEndpoint.ParameterInfo> params = new ArrayList<>();
+        if (operation.getParameters() != null) {
+            for (Parameter p : operation.getParameters()) {
+                if (p == null) continue;
+                if (p.get$ref() != null) {
+                    params.add(refs.lazy
+                            ? ApiEndpoint.ParameterInfo.reference(p.get$ref(), refs.resolver)
+                            : refs.resolver.resolve(p.get$ref()));
+                } else {
+                    params.add(toParameterInfo(p.getName(), p.getIn()));
+                }
             }
         }
+        refs.progress.operationExtracted();
+        return new ApiEndpoint(index, scheme, httpMethod.name(), server, path, params, description, "",
+                operation.getTags() != null ? new ArrayList<>(operation.getTags()) : null);
+    }
+
+    /**
+     * Builds parameter info with the placeholder value used for request generation:
+     * {@code 1} for path parameters, empty for query, header, and cookie parameters.
+     */
+    static ApiEndpoint.ParameterInfo toParameterInfo(String name, String in) {
+        String paramIn = in != null ? in.toLowerCase() : "query";
+        String placeholder = "1";
+        if ("query".equals(paramIn) || "header".equals(paramIn) || "cookie".equals(paramIn)) {
+            placeholder = "";
+        }
+        return new ApiEndpoint.ParameterInfo(name, paramIn, placeholder);
+    }
 
-        return new ParseResult(endpoints, errors, defaultServer);
+    /**
+     * Copies name, location, and nested reference of each component parameter so the
+     * Swagger model is not retained by unresolved references.
+     */
+    private static ParameterRefResolver resolverFor(OpenAPI openAPI) {
+        ParameterRefResolver resolver = new ParameterRefResolver();
+        Components components = openAPI.getComponents();
+        if (components != null && components.getParameters() != null) {
+            for (Map.Entry<String, Parameter> e : components.getParameters().entrySet()) {
+                Parameter p = e.getValue();
+                if (p != null) {
+                    resolver.define(e.getKey(), p.getName(), p.getIn(), p.get$ref());
+                }
+            }
+        }
+        return resolver;
     }
 
     private String resolveDefaultServer(OpenAPI openAPI) {
@@ -112,7 +395,7 @@ public class OpenAPIParser {
         return "";
     }
 
-    private String normalizeServerUrl(String url) {
+    static String normalizeServerUrl(String url) {
         if (url == null) return "";
         url = url.trim();
         if (url.endsWith("/")) {
@@ -123,25 +406,41 @@ public class OpenAPIParser {
 
     /**
      * Strips leading lines that look like shell prompts or commands (e.g.
-     * {@code anon@MBPC:/mnt/d$ cat openapi.json}) until the first line matching
-     * {@code openapi:}, {@code swagger:}, or a JSON opening brace.
+     * {@code anon@MBPC:/mnt/d$ cat openapi.json}) with one forward scan for the first line
+     * starting with {@code openapi:}, {@code swagger:}, or a brace.
      *
-     * @param content raw pasted content
-     * @return content starting from the first OpenAPI/Swagger line, or original if none found
-     */
-    private static String stripLeadingShellPrompt(String content) {
-        if (content == null || content.isEmpty()) return content;
-        String[] lines = content.split("\\r?\\n");
-        for (int i = 0; i < lines.length; i++) {
-            String line = lines[i].trim();
-            if (line.startsWith("openapi:") || line.startsWith("swagger:") || line.startsWith("{")) {
-                return String.join("\n", java.util.Arrays.copyOfRange(lines, i, lines.length));
+     * @param content raw spec bytes
+     * @return a view starting at that line, or {@code content} if none is found
+     */
+    static SpecSource stripLeadingShellPrompt(SpecSource content) {
+        int n = content.length();
+        int lineStart = 0;
+        while (lineStart < n) {
+            int i = lineStart;
+            byte b;
+            while (i < n && (b = content.byteAt(i)) != '\n' && (b & 0xFF) <= ' ') i++;
+            if (startsSpec(content, i)) {
+                return lineStart == 0 ? content : content.slice(lineStart, n);
             }
+            while (i < n && content.byteAt(i) != '\n') i++;
+            lineStart = i + 1;
         }
         return content;
     }
 
-    private String extractScheme(String serverUrl) {
+    private static boolean startsSpec(SpecSource s, int i) {
+        return i < s.length() && s.byteAt(i) == '{' || startsWith(s, i, "openapi:") || startsWith(s, i, "swagger:");
+    }
+
+    private static boolean startsWith(SpecSource s, int i, String ascii) {
+        if (i + ascii.length() > s.length()) return false;
+        for (int k = 0; k < ascii.length(); k++) {
+            if (s.byteAt(i + k) != ascii.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    static String extractScheme(String serverUrl) {
         if (serverUrl == null || serverUrl.isBlank()) return "https";
         try {
             URI uri = new URI(serverUrl);
@@ -152,6 +451,47 @@ public class OpenAPIParser {
         }
     }
 
+    /** Per-parse state shared by every endpoint built from one document. */
+    private static class Extraction {
+        final ParameterRefResolver resolver;
+        final boolean lazy;
+        final LoadProgress progress;
+
+        Extraction(ParameterRefResolver resolver, boolean lazy, LoadProgress progress) {
+            this.resolver = resolver;
+            this.lazy = lazy;
+            this.progress = progress;
+        }
+    }
+
+    /**
+     * Applies an action to every index in a range, splitting in halves until chunks are
+     * small enough to run directly.
+     */
+    private static class RangeTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        RangeTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                for (int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, action), new RangeTask(mid, to, action));
+        }
+    }
+
     /**
      * Result of parsing an OpenAPI specification. Contains the parsed endpoints,
      * any warning or error messages from the parser, and the default server URL.
@@ -160,9 +500,14 @@ public class OpenAPIParser {
         private final List<ApiEndpoint> endpoints;
         private final List<String> messages;
         private final String defaultServer;
+        /** Set by the parser before the result is returned, once the parse cache holds it. */
+        private String cacheKey;
 
+        /**
+         * @param endpoints parsed endpoints; kept as an {@link EndpointCatalog}
+         */
         public ParseResult(List<ApiEndpoint> endpoints, List<String> messages, String defaultServer) {
-            this.endpoints = endpoints;
+            this.endpoints = EndpointCatalog.of(endpoints);
             this.messages = messages;
             this.defaultServer = defaultServer;
         }
@@ -178,5 +523,12 @@ public class OpenAPIParser {
         public String getDefaultServer() {
             return defaultServer;
         }
+
+        /**
+         * @return the key the parse cache holds this result under, or null if it is not cached
+         */
+        public String getCacheKey() {
+            return cacheKey;
+        }
     }
 }
@@ -0,0 +1,96 @@
+package burp.openapilng;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves {@code #/components/parameters/...} references for one parsed spec. Only the
+ * name, location, and nested reference of each component parameter are kept, so the rest
+ * of the spec's components can be discarded after parsing. Each reference is resolved
+ * the first time it is asked for and memoized.
+ * <p>
+ * References that cannot be resolved (external files, missing components, cycles) resolve
+ * to a nameless query parameter, matching how an unresolved Swagger {@code Parameter}
+ * was previously reported.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class ParameterRefResolver {
+
+    private static final String PREFIX = "#/components/parameters/";
+    private static final int MAX_DEPTH = 16;
+
+    private final Map<String, Definition> definitions = new ConcurrentHashMap<>();
+    private final Map<String, ApiEndpoint.ParameterInfo> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * Records a component parameter.
+     *
+     * @param componentName key under {@code components/parameters}
+     * @param name the parameter's {@code name}
+     * @param in the parameter's {@code in}
+     * @param ref the parameter's own {@code $ref}, if it is itself a reference
+     */
+    public void define(String componentName, String name, String in, String ref) {
+        if (componentName == null) return;
+        definitions.put(componentName, new Definition(name, in, ref));
+    }
+
+    /**
+     * @param ref a {@code $ref} value such as {@code #/components/parameters/Limit}
+     * @return the resolved parameter, memoized per reference
+     */
+    public ApiEndpoint.ParameterInfo resolve(String ref) {
+        return resolved.computeIfAbsent(ref, this::resolveUncached);
+    }
+
+    /**
+     * @return the recorded component parameters by component name, for storing the resolver
+     *         with the references that use it
+     */
+    Map<String, Definition> getDefinitions() {
+        return Collections.unmodifiableMap(definitions);
+    }
+
+    /**
+     * @return the number of distinct references resolved so far
+     */
+    public int getResolvedCount() {
+        return resolved.size();
+    }
+
+    private ApiEndpoint.ParameterInfo resolveUncached(String ref) {
+        String current = ref;
+        for (int depth = 0; depth < MAX_DEPTH && current != null; depth++) {
+            if (!current.startsWith(PREFIX)) break;
+            Definition d = definitions.get(unescape(current.substring(PREFIX.length())));
+            if (d == null) break;
+            if (d.ref == null) {
+                return OpenAPIParser.toParameterInfo(d.name, d.in);
+            }
+            current = d.ref;
+        }
+        return OpenAPIParser.toParameterInfo(null, null);
+    }
+
+    /** Undoes JSON Pointer escaping ({@code ~1} is {@code /}, {@code ~0} is {@code ~}). */
+    private static String unescape(String token) {
+        if (token.indexOf('~') < 0) return token;
+        return token.replace("~1", "/").replace("~0", "~");
+    }
+
+    static final class Definition {
+        final String name;
+        final String in;
+        final String ref;
+
+        Definition(String name, String in, String ref) {
+            this.name = name;
+            this.in = in;
+            this.ref = ref;
+        }
+    }
+}
@@ -0,0 +1,498 @@
+package burp.openapilng;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content-addressed on-disk cache of {@link OpenAPIParser.ParseResult}s. Entries are keyed by
+ * a SHA-256 of the cleaned spec, {@link OpenAPIParser#PARSER_VERSION}, and the parser's
+ * mode (streaming, lazy references, parallel extraction), stored as
+ * deflated binary files, and evicted least-recently-used once the directory exceeds its
+ * size budget.
+ * <p>
+ * The cache is best-effort: I/O failures are treated as misses and never fail a parse.
+ * Entries are written as the parse left them: parameters that are unresolved {@code $ref}s
+ * are stored as references, with the component parameters they resolve against, and
+ * descriptions as the catalog's previews plus its still-compressed {@link TextStore}, so
+ * storing a result neither resolves nor inflates anything. {@link #putLater} writes on
+ * the cache's own thread so a load does not wait for the disk.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class ParseCache implements AutoCloseable {
+
+    /** Bumped whenever the entry layout changes so older files are never read. */
+    static final int FORMAT_VERSION = 3;
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private static final int MAGIC = 0x4F414E47; // "OANG"
+    private static final String SUFFIX = ".bin";
+    private static final int MAX_STRING_BYTES = 64 * 1024 * 1024;
+    private static final int MAX_COUNT = 50_000_000;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final byte PLAIN = 0;
+    private static final byte REFERENCE = 1;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    /** Results queued by {@link #putLater} and not yet written, answered from memory meanwhile. */
+    private final Map<String, OpenAPIParser.ParseResult> pending = new ConcurrentHashMap<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "OpenAPI-NG parse cache");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ParseCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return {@code ~/.openapi-ng/parse-cache}
+     */
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".openapi-ng", "parse-cache");
+    }
+
+    /**
+     * Computes the cache key for cleaned spec content. The content is encoded to UTF-8 in
+     * small chunks so large specs are not copied into a second byte array.
+     *
+     * @param cleanedContent spec content after trimming and shell prompt stripping
+     * @return lowercase hex SHA-256
+     */
+    public String key(CharSequence cleanedContent) {
+        return key(cleanedContent, "");
+    }
+
+    /**
+     * As {@link #key(CharSequence)}, for results parsed in a given mode.
+     *
+     * @param mode the parser settings that shape the result, from {@link OpenAPIParser#cacheMode()}
+     */
+    public String key(CharSequence cleanedContent, String mode) {
+        MessageDigest md = newDigest(mode);
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer in = CharBuffer.wrap(cleanedContent);
+        ByteBuffer out = ByteBuffer.allocate(64 * 1024);
+        CoderResult r;
+        do {
+            r = encoder.encode(in, out, true);
+            out.flip();
+            md.update(out);
+            out.clear();
+        } while (r.isOverflow());
+        encoder.flush(out);
+        out.flip();
+        md.update(out);
+        return hex(md.digest());
+    }
+
+    /**
+     * Computes the cache key for cleaned spec bytes. Matches {@link #key(CharSequence)} for
+     * the same content decoded as UTF-8.
+     *
+     * @param cleanedContent spec bytes after trimming and shell prompt stripping
+     * @return lowercase hex SHA-256
+     */
+    public String key(SpecSource cleanedContent) {
+        return key(cleanedContent, "");
+    }
+
+    /**
+     * As {@link #key(SpecSource)}, for results parsed in a given mode. Matches
+     * {@link #key(CharSequence, String)} for the same content and mode.
+     *
+     * @param mode the parser settings that shape the result, from {@link OpenAPIParser#cacheMode()}
+     */
+    public String key(SpecSource cleanedContent, String mode) {
+        MessageDigest md = newDigest(mode);
+        cleanedContent.digest(md);
+        return hex(md.digest());
+    }
+
+    private MessageDigest newDigest(String mode) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(("openapi-ng/" + OpenAPIParser.PARSER_VERSION + "/" + FORMAT_VERSION + "/" + mode + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            return md;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Looks up a cached result and marks it as recently used.
+     *
+     * @param key key from {@link #key(CharSequence)}
+     * @return the cached result, or null on a miss or unreadable entry
+     */
+    public OpenAPIParser.ParseResult get(String key) {
+        OpenAPIParser.ParseResult queued = pending.get(key);
+        if (queued != null) {
+            hits.incrementAndGet();
+            return copy(queued);
+        }
+        Path file = directory.resolve(key + SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(raw), 64 * 1024))) {
+            OpenAPIParser.ParseResult result = read(in);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            hits.incrementAndGet();
+            return result;
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Queues a result to be stored on the cache's own thread. Until it is written,
+     * {@link #get(String)} answers it from memory.
+     *
+     * @param key key from {@link #key(CharSequence)}
+     * @param result the parse result to store; its messages are copied now
+     */
+    public void putLater(String key, OpenAPIParser.ParseResult result) {
+        OpenAPIParser.ParseResult queued = copy(result);
+        pending.put(key, queued);
+        try {
+            writer.execute(() -> {
+                try {
+                    put(key, queued);
+                } finally {
+                    pending.remove(key, queued);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Closed; the result is simply not cached
+            pending.remove(key, queued);
+        }
+    }
+
+    /**
+     * Stores a result, then evicts least-recently-used entries beyond the size budget.
+     * Results whose endpoints did not fit an {@link EndpointCatalog} are not stored.
+     *
+     * @param key key from {@link #key(CharSequence)}
+     * @param result the parse result to store
+     */
+    public void put(String key, OpenAPIParser.ParseResult result) {
+        if (!(result.getEndpoints() instanceof EndpointCatalog)) return;
+        Path file = directory.resolve(key + SUFFIX);
+        Path tmp = null;
+        try {
+            Files.createDirectories(directory);
+            tmp = Files.createTempFile(directory, key, ".tmp");
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (OutputStream raw = Files.newOutputStream(tmp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                         new DeflaterOutputStream(raw, deflater), 64 * 1024))) {
+                write(out, result);
+            } finally {
+                deflater.end();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            evict();
+        } catch (IOException | RuntimeException e) {
+            if (tmp != null) deleteQuietly(tmp);
+        }
+    }
+
+    /**
+     * Stops accepting writes; results already queued are still written.
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private void evict() throws IOException {
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(directory)) {
+            entries = new ArrayList<>(files.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).toList());
+        }
+        Map<Path, long[]> stats = new HashMap<>();
+        long total = 0;
+        for (Path p : entries) {
+            long size = Files.size(p);
+            stats.put(p, new long[]{size, Files.getLastModifiedTime(p).toMillis()});
+            total += size;
+        }
+        if (total <= maxBytes) return;
+        entries.sort(Comparator.comparingLong(p -> stats.get(p)[1]));
+        for (Path p : entries) {
+            if (total <= maxBytes) break;
+            total -= stats.get(p)[0];
+            deleteQuietly(p);
+        }
+    }
+
+    private static OpenAPIParser.ParseResult copy(OpenAPIParser.ParseResult result) {
+        return new OpenAPIParser.ParseResult(result.getEndpoints(), new ArrayList<>(result.getMessages()),
+                result.getDefaultServer());
+    }
+
+    private static void deleteQuietly(Path p) {
+        try {
+            Files.deleteIfExists(p);
+        } catch (IOException ignored) {
+            // Best-effort; a stale entry is harmless.
+        }
+    }
+
+    private static void write(DataOutputStream out, OpenAPIParser.ParseResult result) throws IOException {
+        EndpointCatalog catalog = (EndpointCatalog) result.getEndpoints();
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        Map<String, Integer> shared = new HashMap<>();
+        Map<ParameterRefResolver, Integer> resolvers = new HashMap<>();
+        writeString(out, result.getDefaultServer());
+        out.writeInt(result.getMessages().size());
+        for (String m : result.getMessages()) {
+            writeString(out, m);
+        }
+        out.writeInt(catalog.size());
+        for (int row = 0; row < catalog.size(); row++) {
+            ApiEndpoint e = catalog.get(row);
+            out.writeInt(e.getIndex());
+            writeShared(out, e.getScheme(), shared);
+            writeShared(out, e.getMethod(), shared);
+            writeShared(out, e.getServer(), shared);
+            writeString(out, e.getPath());
+            writeShared(out, catalog.descriptionPreview(row), shared);
+            out.writeInt(catalog.fullDescriptionId(row));
+            out.writeInt(catalog.descriptionHash(row));
+            out.writeInt(e.getParameters().size());
+            for (ApiEndpoint.ParameterInfo p : e.getParameters()) {
+                if (p.getRef() != null) {
+                    // Reading a reference would resolve it; store it with its resolver instead
+                    out.writeByte(REFERENCE);
+                    writeResolver(out, p.getResolver(), resolvers, shared);
+                    writeShared(out, p.getRef(), shared);
+                } else {
+                    out.writeByte(PLAIN);
+                    writeShared(out, p.getName(), shared);
+                    writeShared(out, p.getLocation(), shared);
+                    writeShared(out, p.getPlaceholderValue(), shared);
+                }
+            }
+            out.writeInt(e.getTags().size());
+            for (String tag : e.getTags()) {
+                writeShared(out, tag, shared);
+            }
+        }
+        catalog.descriptionStore().write(out);
+    }
+
+    private static OpenAPIParser.ParseResult read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Not a parse cache entry");
+        }
+        List<String> shared = new ArrayList<>();
+        List<ParameterRefResolver> resolvers = new ArrayList<>();
+        String defaultServer = readString(in);
+        int messageCount = readCount(in);
+        List<String> messages = new ArrayList<>(messageCount);
+        for (int i = 0; i < messageCount; i++) {
+            messages.add(readString(in));
+        }
+        int endpointCount = readCount(in);
+        List<ApiEndpoint> endpoints = new ArrayList<>(endpointCount);
+        int[] fullDescriptionIds = new int[endpointCount];
+        int[] descriptionHashes = new int[endpointCount];
+        for (int i = 0; i < endpointCount; i++) {
+            int index = in.readInt();
+            String scheme = readShared(in, shared);
+            String method = readShared(in, shared);
+            String server = readShared(in, shared);
+            String path = readString(in);
+            String preview = readShared(in, shared);
+            fullDescriptionIds[i] = in.readInt();
+            descriptionHashes[i] = in.readInt();
+            int paramCount = readCount(in);
+            List<ApiEndpoint.ParameterInfo> params = new ArrayList<>(paramCount);
+            for (int j = 0; j < paramCount; j++) {
+                byte kind = in.readByte();
+                if (kind == REFERENCE) {
+                    ParameterRefResolver resolver = readResolver(in, resolvers, shared);
+                    params.add(ApiEndpoint.ParameterInfo.reference(readShared(in, shared), resolver));
+                } else if (kind == PLAIN) {
+                    String name = readShared(in, shared);
+                    String location = readShared(in, shared);
+                    String placeholder = readShared(in, shared);
+                    params.add(new ApiEndpoint.ParameterInfo(name, location, placeholder));
+                } else {
+                    throw new IOException("Corrupt parameter kind");
+                }
+            }
+            int tagCount = readCount(in);
+            List<String> tags = new ArrayList<>(tagCount);
+            for (int j = 0; j < tagCount; j++) {
+                tags.add(readShared(in, shared));
+            }
+            endpoints.add(new ApiEndpoint(index, scheme, method, server, path, params, preview, "", tags));
+        }
+        TextStore descriptions = TextStore.read(in);
+        for (int id : fullDescriptionIds) {
+            if (id < -1 || id >= descriptions.size()) throw new IOException("Corrupt description id");
+        }
+        EndpointCatalog catalog = EndpointCatalog.restore(endpoints, fullDescriptionIds, descriptionHashes, descriptions);
+        if (catalog == null) throw new IOException("Entry does not fit a catalog");
+        return new OpenAPIParser.ParseResult(catalog, messages, defaultServer);
+    }
+
+    /** Writes a resolver as a table id, inlining its component parameters on first use. */
+    private static void writeResolver(DataOutputStream out, ParameterRefResolver resolver,
+                                      Map<ParameterRefResolver, Integer> table, Map<String, Integer> shared)
+            throws IOException {
+        Integer id = table.get(resolver);
+        if (id != null) {
+            out.writeInt(id);
+            return;
+        }
+        id = table.size();
+        table.put(resolver, id);
+        out.writeInt(id);
+        Map<String, ParameterRefResolver.Definition> definitions = resolver.getDefinitions();
+        out.writeInt(definitions.size());
+        for (Map.Entry<String, ParameterRefResolver.Definition> d : definitions.entrySet()) {
+            writeShared(out, d.getKey(), shared);
+            writeShared(out, d.getValue().name, shared);
+            writeShared(out, d.getValue().in, shared);
+            writeShared(out, d.getValue().ref, shared);
+        }
+    }
+
+    private static ParameterRefResolver readResolver(DataInputStream in, List<ParameterRefResolver> table,
+                                                     List<String> shared) throws IOException {
+        int id = in.readInt();
+        if (id >= 0 && id < table.size()) return table.get(id);
+        if (id != table.size()) throw new IOException("Corrupt resolver table");
+        ParameterRefResolver resolver = new ParameterRefResolver();
+        int count = readCount(in);
+        for (int i = 0; i < count; i++) {
+            String componentName = readShared(in, shared);
+            String name = readShared(in, shared);
+            String parameterIn = readShared(in, shared);
+            String ref = readShared(in, shared);
+            resolver.define(componentName, name, parameterIn, ref);
+        }
+        table.add(resolver);
+        return resolver;
+    }
+
+    /** Writes a string that repeats across endpoints as a table id, inlining it on first use. */
+    private static void writeShared(DataOutputStream out, String s, Map<String, Integer> table) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        Integer id = table.get(s);
+        if (id != null) {
+            out.writeInt(id);
+            return;
+        }
+        id = table.size();
+        table.put(s, id);
+        out.writeInt(id);
+        writeString(out, s);
+    }
+
+    private static String readShared(DataInputStream in, List<String> table) throws IOException {
+        int id = in.readInt();
+        if (id < 0) return null;
+        if (id < table.size()) return table.get(id);
+        if (id != table.size()) throw new IOException("Corrupt string table");
+        String s = readString(in);
+        table.add(s);
+        return s;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) return null;
+        if (len > MAX_STRING_BYTES) throw new IOException("Corrupt string length");
+        byte[] bytes = new byte[len];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_COUNT) throw new IOException("Corrupt count");
+        return count;
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            out[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            out[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(out);
+    }
+}
@@ -0,0 +1,283 @@
+package burp.openapilng;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Matches concrete requests such as {@code GET /v1/users/42/orders} back to the endpoint
+ * whose path template they fit, {@code /users/{id}/orders} under server
+ * {@code https://api.test/v1}.
+ * <p>
+ * Templates are compiled into one trie per method and server host, with the server's base
+ * path as leading segments. At each segment a literal child is tried first (binary search
+ * over sorted literals), then segments mixing text and a parameter such as
+ * {@code {id}.json}, then a plain parameter, backtracking if a deeper segment fails, so the
+ * most specific template wins. Endpoints whose server has no usable host are matched
+ * against any host. Scheme and port are not compared, since a proxy often sees one API on
+ * several.
+ * <p>
+ * Matching walks the request path in place: it allocates nothing, and costs one hash
+ * lookup per method and host plus a binary search per segment. Empty segments are skipped,
+ * so {@code /users/} matches {@code /users}. Immutable once built and safe to share
+ * between threads.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class PathTemplateTrie {
+
+    /** Host key for endpoints whose server names no host. */
+    private static final String ANY_HOST = "";
+    /** Endpoints added between cancellation checks. */
+    private static final int CHECK_INTERVAL = 4096;
+
+    /** Upper-case method, then lower-case host, to the root of that trie. */
+    private final Map<String, Map<String, Node>> roots;
+    private final int size;
+
+    /**
+     * The endpoint a template ends at, with the note tagged onto matching traffic.
+     */
+    public static final class Match {
+        private final ApiEndpoint endpoint;
+        private final String note;
+
+        Match(ApiEndpoint endpoint) {
+            this.endpoint = endpoint;
+            this.note = "OpenAPI: " + endpoint.getMethod() + " " + endpoint.getPath()
+                    + (endpoint.getSource().isEmpty() ? "" : " (" + endpoint.getSource() + ")");
+        }
+
+        public ApiEndpoint getEndpoint() {
+            return endpoint;
+        }
+
+        /**
+         * @return e.g. {@code OpenAPI: GET /users/{id} (users.yaml)}
+         */
+        public String getNote() {
+            return note;
+        }
+    }
+
+    /**
+     * One path segment. Children are collected in maps while building and then frozen into
+     * arrays for matching.
+     */
+    private static final class Node {
+        Map<String, Node> literalMap = new TreeMap<>();
+        Map<String, Node> patternMap = new TreeMap<>();
+        Node param;
+        Match match;
+
+        String[] literals;
+        Node[] literalChildren;
+        String[] prefixes;
+        String[] suffixes;
+        Node[] patternChildren;
+
+        Node child(String segment) {
+            int open = segment.indexOf('{');
+            int close = segment.lastIndexOf('}');
+            if (open < 0 || close < open) {
+                return literalMap.computeIfAbsent(segment, k -> new Node());
+            }
+            if (open == 0 && close == segment.length() - 1) {
+                if (param == null) param = new Node();
+                return param;
+            }
+            // Text around a parameter; keyed by the text, since parameter names do not matter
+            return patternMap.computeIfAbsent(segment.substring(0, open) + "{}" + segment.substring(close + 1),
+                    k -> new Node());
+        }
+
+        void freeze() {
+            literals = literalMap.keySet().toArray(new String[0]);
+            literalChildren = literalMap.values().toArray(new Node[0]);
+            prefixes = new String[patternMap.size()];
+            suffixes = new String[patternMap.size()];
+            patternChildren = patternMap.values().toArray(new Node[0]);
+            int i = 0;
+            for (String key : patternMap.keySet()) {
+                int split = key.indexOf("{}");
+                prefixes[i] = key.substring(0, split);
+                suffixes[i] = key.substring(split + 2);
+                i++;
+            }
+            literalMap = null;
+            patternMap = null;
+            for (Node child : literalChildren) child.freeze();
+            for (Node child : patternChildren) child.freeze();
+            if (param != null) param.freeze();
+        }
+    }
+
+    private PathTemplateTrie(Map<String, Map<String, Node>> roots, int size) {
+        this.roots = roots;
+        this.size = size;
+    }
+
+    /**
+     * Compiles the templates of every endpoint. Where two endpoints share method, host, and
+     * template, the first is kept.
+     *
+     * @param endpoints endpoints to match against
+     * @param progress checked while templates are added
+     * @return the compiled trie
+     */
+    public static PathTemplateTrie build(List<ApiEndpoint> endpoints, LoadProgress progress) {
+        Map<String, Map<String, Node>> roots = new HashMap<>();
+        List<String> segments = new ArrayList<>();
+        int size = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            if (i % CHECK_INTERVAL == 0) progress.checkCancelled();
+            ApiEndpoint e = endpoints.get(i);
+            String server = e.getServer();
+            int hostStart = server.indexOf("://");
+            hostStart = hostStart < 0 ? 0 : hostStart + 3;
+            int hostEnd = hostStart;
+            while (hostEnd < server.length() && server.charAt(hostEnd) != '/') hostEnd++;
+            String host = hostStart == 0 ? ANY_HOST : hostOf(server.substring(hostStart, hostEnd));
+            Node node = roots.computeIfAbsent(e.getMethod().toUpperCase(Locale.ROOT), k -> new HashMap<>())
+                    .computeIfAbsent(host, k -> new Node());
+            segments.clear();
+            addSegments(segments, server, hostEnd, server.length());
+            addSegments(segments, e.getPath(), 0, e.getPath().length());
+            for (String segment : segments) {
+                node = node.child(segment);
+            }
+            if (node.match == null) {
+                node.match = new Match(e);
+                size++;
+            }
+        }
+        for (Map<String, Node> hosts : roots.values()) {
+            for (Node root : hosts.values()) root.freeze();
+        }
+        return new PathTemplateTrie(roots, size);
+    }
+
+    /**
+     * @return the lower-cased host without port or credentials, or {@link #ANY_HOST} if it
+     *         is templated
+     */
+    private static String hostOf(String authority) {
+        String host = authority.substring(authority.lastIndexOf('@') + 1);
+        if (host.startsWith("[")) {
+            int end = host.indexOf(']');
+            host = end > 0 ? host.substring(0, end + 1) : host;
+        } else if (host.indexOf(':') >= 0) {
+            host = host.substring(0, host.indexOf(':'));
+        }
+        return host.isEmpty() || host.indexOf('{') >= 0 ? ANY_HOST : host.toLowerCase(Locale.ROOT);
+    }
+
+    private static void addSegments(List<String> segments, String path, int from, int to) {
+        int start = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || path.charAt(i) == '/') {
+                if (i > start) segments.add(path.substring(start, i));
+                start = i + 1;
+            }
+        }
+    }
+
+    /**
+     * @return the number of distinct templates compiled
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param method request method
+     * @param host request host, as in the {@code Host} header without port
+     * @param path request path; a query string or fragment is ignored
+     * @return the best matching endpoint, or null
+     */
+    public Match match(String method, String host, String path) {
+        Map<String, Node> hosts = roots.get(method);
+        if (hosts == null) {
+            hosts = roots.get(method.toUpperCase(Locale.ROOT));
+            if (hosts == null) return null;
+        }
+        int end = path.length();
+        for (int i = 0; i < end; i++) {
+            char c = path.charAt(i);
+            if (c == '?' || c == '#') {
+                end = i;
+                break;
+            }
+        }
+        Node root = hosts.get(host);
+        if (root == null && host != null && !host.isEmpty()) {
+            root = hosts.get(host.toLowerCase(Locale.ROOT));
+        }
+        if (root != null) {
+            Match m = match(root, path, 0, end);
+            if (m != null) return m;
+        }
+        Node any = hosts.get(ANY_HOST);
+        return any != null ? match(any, path, 0, end) : null;
+    }
+
+    private static Match match(Node node, String path, int pos, int end) {
+        while (pos < end && path.charAt(pos) == '/') pos++;
+        if (pos == end) return node.match;
+        int segEnd = pos;
+        while (segEnd < end && path.charAt(segEnd) != '/') segEnd++;
+
+        int literal = find(node.literals, path, pos, segEnd);
+        if (literal >= 0) {
+            Match m = match(node.literalChildren[literal], path, segEnd, end);
+            if (m != null) return m;
+        }
+        int length = segEnd - pos;
+        for (int i = 0; i < node.patternChildren.length; i++) {
+            String prefix = node.prefixes[i];
+            String suffix = node.suffixes[i];
+            if (length > prefix.length() + suffix.length()
+                    && path.startsWith(prefix, pos)
+                    && path.startsWith(suffix, segEnd - suffix.length())) {
+                Match m = match(node.patternChildren[i], path, segEnd, end);
+                if (m != null) return m;
+            }
+        }
+        return node.param != null ? match(node.param, path, segEnd, end) : null;
+    }
+
+    /**
+     * Binary search of sorted literals for {@code path[from, to)}, in {@link String#compareTo} order.
+     */
+    private static int find(String[] literals, String path, int from, int to) {
+        int lo = 0;
+        int hi = literals.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compare(literals[mid], path, from, to);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static int compare(String literal, String path, int from, int to) {
+        int length = to - from;
+        int n = Math.min(literal.length(), length);
+        for (int i = 0; i < n; i++) {
+            int d = literal.charAt(i) - path.charAt(from + i);
+            if (d != 0) return d;
+        }
+        return literal.length() - length;
+    }
+}
@@ -0,0 +1,108 @@
+package burp.openapilng;
+
+/**
+ * Bounds the work regex matching may spend on each row of a filter pass. The text of each
+ * row is matched through this guard, a {@link CharSequence} that counts every character the
+ * regex engine reads. A row that needs more than a step budget stops the pass with
+ * {@link BudgetExceededException}, so a catastrophic pattern such as {@code (.*a){15}} costs
+ * a bounded amount of CPU instead of minutes. The budget is per match rather than a time
+ * limit on the pass, so an ordinary regex is never rejected because the catalog is large or
+ * an index was built first.
+ * <p>
+ * The guard also checks the pass's {@link LoadProgress} as it counts, so a superseded pass
+ * stops even in the middle of one slow row.
+ * <p>
+ * Not thread-safe: use one guard per pass.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class RegexGuard implements CharSequence {
+
+    /** Characters the engine may read for one row; ordinary filters need a few hundred. */
+    public static final long DEFAULT_ROW_STEPS = 1_000_000;
+    /** Reads between budget and cancellation checks. */
+    private static final int CHECK_INTERVAL = 4096;
+
+    private final LoadProgress progress;
+    private final long rowSteps;
+    private CharSequence text = "";
+    /** Reads for the current row. */
+    private long steps;
+    /** Reads for the whole pass, so many short rows still reach the cancellation check. */
+    private long total;
+
+    /**
+     * Thrown from the regex engine when a row exceeds its budget.
+     */
+    public static class BudgetExceededException extends RuntimeException {
+        BudgetExceededException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * @param progress checked while matching; may be cancelled to stop the pass
+     * @param rowSteps characters the engine may read for one row
+     */
+    public RegexGuard(LoadProgress progress, long rowSteps) {
+        this.progress = progress;
+        this.rowSteps = rowSteps;
+    }
+
+    /**
+     * @return a guard with the default budget
+     */
+    public static RegexGuard forPass(LoadProgress progress) {
+        return new RegexGuard(progress, DEFAULT_ROW_STEPS);
+    }
+
+    public LoadProgress getProgress() {
+        return progress;
+    }
+
+    /**
+     * Starts a new row with a fresh step budget.
+     *
+     * @param row text to match; read through this guard until the next call
+     * @return this guard, to pass to {@link java.util.regex.Matcher#reset(CharSequence)}
+     */
+    public RegexGuard wrap(CharSequence row) {
+        text = row;
+        steps = 0;
+        return this;
+    }
+
+    @Override
+    public char charAt(int index) {
+        steps++;
+        if (++total % CHECK_INTERVAL == 0) {
+            check();
+        }
+        return text.charAt(index);
+    }
+
+    private void check() {
+        progress.checkCancelled();
+        if (steps > rowSteps) {
+            throw new BudgetExceededException("Filter regex needs more than " + rowSteps
+                    + " steps on one row; simplify nested repeats such as (.*a){15}");
+        }
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return text.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+}
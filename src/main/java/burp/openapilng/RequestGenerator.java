@@ -1,22 +1,30 @@
 package burp.openapilng;
 
+import burp.api.montoya.core.ByteArray;
 import burp.api.montoya.core.Range;
 import burp.api.montoya.http.HttpService;
 import burp.api.montoya.http.message.requests.HttpRequest;
 import burp.api.montoya.intruder.HttpRequestTemplate;
 import burp.api.montoya.intruder.HttpRequestTemplateGenerationOptions;
 
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 /**
  * Builds {@link HttpRequest} and {@link HttpRequestTemplate} from {@link ApiEndpoint}s.
  * Handles path/query param substitution, insertion point ranges for Scanner, and
  * Intruder templates with auto-marked insertion points.
+ * <p>
+ * Each endpoint is compiled once into a {@link RequestTemplate}, and each base URL's host
+ * header is computed once, so building a request is a single array copy.
  *
  * @author jabberwock
  * @since 1.0
@@ -24,8 +32,12 @@ import java.util.regex.Pattern;
  */
 public class RequestGenerator {
 
-    private static final String PATH_PARAM_PLACEHOLDER = "1";
-    private static final String BODY_PLACEHOLDER = "{}";
+    /** Distinct base URLs remembered; typing overrides should not grow the map unbounded. */
+    private static final int MAX_TARGETS = 256;
+    /** Endpoints per parallel task in bulk builds; small enough to stream results promptly. */
+    static final int BULK_CHUNK = 64;
+
+    private final Map<String, Target> targets = new ConcurrentHashMap<>();
 
     /**
      * Builds raw HTTP request bytes for the given endpoint. Uses UTF-8 encoding.
@@ -37,60 +49,7 @@ public class RequestGenerator {
      * @return raw HTTP request bytes
      */
     public byte[] buildRequestBytes(ApiEndpoint endpoint, String baseUrlOverride) {
-        String requestStr = buildRequestString(endpoint, baseUrlOverride);
-        return requestStr.getBytes(StandardCharsets.UTF_8);
-    }
-
-    private String buildRequestString(ApiEndpoint endpoint, String baseUrlOverride) {
-        String server = (baseUrlOverride != null && !baseUrlOverride.isBlank())
-                ? baseUrlOverride
-                : endpoint.getServer();
-        if (server == null || server.isEmpty()) {
-            server = "https://localhost";
-        }
-        server = server.endsWith("/") ? server.substring(0, server.length() - 1) : server;
-
-        String path = substitutePathParams(endpoint.getPath(), endpoint.getParameters());
-        StringBuilder query = new StringBuilder();
-        for (ApiEndpoint.ParameterInfo p : endpoint.getParameters()) {
-            if ("query".equals(p.getLocation())) {
-                if (query.length() > 0) query.append("&");
-                query.append(p.getName()).append("=").append(p.getPlaceholderValue());
-            }
-        }
-        String pathWithQuery = path + (query.length() > 0 ? "?" + query : "");
-
-        boolean hasBody = "POST".equalsIgnoreCase(endpoint.getMethod())
-                || "PUT".equalsIgnoreCase(endpoint.getMethod())
-                || "PATCH".equalsIgnoreCase(endpoint.getMethod());
-
-        StringBuilder request = new StringBuilder();
-        request.append(endpoint.getMethod()).append(" ").append(pathWithQuery).append(" HTTP/1.1\r\n");
-        try {
-            URI uri = new URI(server);
-            String host = uri.getHost();
-            int port = uri.getPort();
-            boolean secure = "https".equalsIgnoreCase(uri.getScheme());
-            if (port <= 0) port = secure ? 443 : 80;
-            request.append("Host: ").append(host);
-            if ((secure && port != 443) || (!secure && port != 80)) {
-                request.append(":").append(port);
-            }
-            request.append("\r\n");
-        } catch (URISyntaxException e) {
-            request.append("Host: localhost\r\n");
-        }
-        request.append("User-Agent: OpenAPI-NG/1.0\r\n");
-        if (hasBody) {
-            request.append("Content-Type: application/json\r\n");
-            request.append("Content-Length: 2\r\n");
-        }
-        request.append("\r\n");
-        if (hasBody) {
-            request.append(BODY_PLACEHOLDER);
-        }
-
-        return request.toString();
+        return endpoint.template().render(target(endpoint, baseUrlOverride).host);
     }
 
     /**
@@ -101,12 +60,107 @@ public class RequestGenerator {
      * @return the constructed HttpRequest
      */
     public HttpRequest buildRequest(ApiEndpoint endpoint, String baseUrlOverride) {
-        String requestStr = buildRequestString(endpoint, baseUrlOverride);
-        String server = (baseUrlOverride != null && !baseUrlOverride.isBlank())
-                ? baseUrlOverride
-                : (endpoint.getServer() != null && !endpoint.getServer().isEmpty() ? endpoint.getServer() : "https://localhost");
-        server = server.endsWith("/") ? server.substring(0, server.length() - 1) : server;
-        return HttpRequest.httpRequest(HttpService.httpService(server), requestStr);
+        Target target = target(endpoint, baseUrlOverride);
+        byte[] raw = endpoint.template().render(target.host);
+        return HttpRequest.httpRequest(target.service(), ByteArray.byteArray(raw));
+    }
+
+    /**
+     * Receives bulk build results in selection order. Called on the thread that started
+     * the build.
+     */
+    public interface BulkConsumer<T> {
+        void accept(int index, T built);
+    }
+
+    /**
+     * Builds requests, insertion points, and optionally Intruder templates for many
+     * endpoints on the common ForkJoin pool, handing each to {@code consumer} in list order
+     * as soon as it and every earlier one are ready. Call off the EDT.
+     *
+     * @param endpoints endpoints to build, in the order results should arrive
+     * @param baseUrlOverride optional base URL; if null/blank, uses each endpoint's server
+     * @param intruderTemplates true to also build each request's Intruder template
+     * @param consumer receives each result
+     * @throws java.util.concurrent.CancellationException if the calling thread is interrupted
+     */
+    public void buildAll(List<ApiEndpoint> endpoints, String baseUrlOverride, boolean intruderTemplates,
+                         BulkConsumer<BuiltRequest> consumer) {
+        buildAll(endpoints, ep -> {
+            BuiltRequest built = buildRequestWithInsertionPoints(ep, baseUrlOverride);
+            return intruderTemplates ? built.withIntruderTemplate(buildIntruderTemplate(built.getRequest())) : built;
+        }, consumer);
+    }
+
+    /**
+     * Builds in chunks of {@link #BULK_CHUNK}, keeping at most two chunks per pool thread in
+     * flight so memory stays bounded however many endpoints are selected.
+     */
+    static <T> void buildAll(List<ApiEndpoint> endpoints, Function<ApiEndpoint, T> builder, BulkConsumer<T> consumer) {
+        int n = endpoints.size();
+        if (n <= BULK_CHUNK) {
+            for (int i = 0; i < n; i++) {
+                checkInterrupted();
+                consumer.accept(i, builder.apply(endpoints.get(i)));
+            }
+            return;
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int window = Math.max(2, pool.getParallelism() * 2);
+        // CompletableFuture rather than ForkJoinTask: ForkJoinTask.get() may rethrow a
+        // worker's exception as a new copy wrapping it, changing its message
+        ArrayDeque<CompletableFuture<List<T>>> inFlight = new ArrayDeque<>();
+        int next = 0;
+        int delivered = 0;
+        try {
+            while (delivered < n) {
+                while (inFlight.size() < window && next < n) {
+                    int from = next;
+                    int to = Math.min(n, from + BULK_CHUNK);
+                    inFlight.add(CompletableFuture.supplyAsync(() -> {
+                        List<T> out = new ArrayList<>(to - from);
+                        for (int i = from; i < to; i++) {
+                            out.add(builder.apply(endpoints.get(i)));
+                        }
+                        return out;
+                    }, pool));
+                    next = to;
+                }
+                for (T built : inFlight.poll().get()) {
+                    checkInterrupted();
+                    consumer.accept(delivered++, built);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Bulk build interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        } finally {
+            for (CompletableFuture<List<T>> task : inFlight) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    private static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Bulk build interrupted");
+        }
+    }
+
+    private Target target(ApiEndpoint endpoint, String baseUrlOverride) {
+        String server = RequestTemplate.serverFor(endpoint, baseUrlOverride);
+        Target target = targets.get(server);
+        if (target == null) {
+            if (targets.size() >= MAX_TARGETS) targets.clear();
+            target = new Target(server);
+            targets.put(server, target);
+        }
+        return target;
     }
 
     /**
@@ -118,16 +172,42 @@ public class RequestGenerator {
      * @return the HttpRequestTemplate ready for Intruder
      */
     public HttpRequestTemplate buildIntruderTemplate(ApiEndpoint endpoint, String baseUrlOverride) {
-        HttpRequest request = buildRequest(endpoint, baseUrlOverride);
+        return buildIntruderTemplate(buildRequest(endpoint, baseUrlOverride));
+    }
+
+    /**
+     * Builds an Intruder template from a request already built with
+     * {@link #buildRequest(ApiEndpoint, String)}, so sending to Intruder builds it once.
+     *
+     * @param request the endpoint's request
+     * @return the HttpRequestTemplate ready for Intruder
+     */
+    public HttpRequestTemplate buildIntruderTemplate(HttpRequest request) {
         return HttpRequestTemplate.httpRequestTemplate(
                 request,
                 HttpRequestTemplateGenerationOptions.REPLACE_BASE_PARAMETER_VALUE_WITH_OFFSETS
         );
     }
 
+    /**
+     * Builds a request together with the exact insertion point ranges recorded while its
+     * template was written, for {@code Audit.addRequest(request, ranges)}.
+     *
+     * @param endpoint the endpoint to build a request for
+     * @param baseUrlOverride optional base URL; if null/blank, uses endpoint server
+     * @return the request and its insertion points
+     */
+    public BuiltRequest buildRequestWithInsertionPoints(ApiEndpoint endpoint, String baseUrlOverride) {
+        Target target = target(endpoint, baseUrlOverride);
+        RequestTemplate template = endpoint.template();
+        HttpRequest request = HttpRequest.httpRequest(target.service(), ByteArray.byteArray(template.render(target.host)));
+        return new BuiltRequest(endpoint, request, toRanges(template.insertionPoints(target.host)), null);
+    }
+
     /**
      * Builds insertion point ranges for Audit Scanner based on OpenAPI parameter definitions.
-     * Returns ranges for path params, query params, and the request body (for POST/PUT/PATCH).
+     * Returns ranges for path, query, header, and cookie parameter values and the request
+     * body (for POST/PUT/PATCH).
      *
      * @param request the HTTP request (used to resolve byte offsets)
      * @param endpoint the endpoint with parameter definitions
@@ -140,67 +220,90 @@ public class RequestGenerator {
     /**
      * Package-visible for testing without Montoya {@link HttpRequest}.
      *
-     * @param raw raw request bytes
+     * @param raw raw request bytes, as built for {@code endpoint} with any base URL
      * @param endpoint endpoint with parameter definitions
-     * @return list of insertion point ranges
+     * @return list of insertion point ranges, or empty if {@code raw} was not built from
+     * the endpoint (for example, edited since)
      */
     List<Range> buildInsertionPointRanges(byte[] raw, ApiEndpoint endpoint) {
-        List<Range> ranges = new ArrayList<>();
-        String rawStr = new String(raw, StandardCharsets.UTF_8);
-
-        // Find path parameter placeholder positions (e.g. "1" in /users/1)
-        String path = substitutePathParams(endpoint.getPath(), endpoint.getParameters());
-        for (ApiEndpoint.ParameterInfo p : endpoint.getParameters()) {
-            if ("path".equals(p.getLocation())) {
-                String placeholder = p.getPlaceholderValue();
-                if (placeholder == null || placeholder.isEmpty()) placeholder = PATH_PARAM_PLACEHOLDER;
-                int idx = rawStr.indexOf(placeholder);
-                if (idx >= 0) {
-                    ranges.add(Range.range(idx, idx + placeholder.length()));
-                }
-            }
+        RequestTemplate template = endpoint.template();
+        byte[] host = template.matchHost(raw);
+        if (host == null) {
+            return new ArrayList<>();
         }
+        return toRanges(template.insertionPoints(host));
+    }
 
-        // Query params: find name=value positions
-        for (ApiEndpoint.ParameterInfo p : endpoint.getParameters()) {
-            if ("query".equals(p.getLocation())) {
-                String search = p.getName() + "=" + p.getPlaceholderValue();
-                int idx = rawStr.indexOf(search);
-                if (idx >= 0) {
-                    int valueStart = idx + p.getName().length() + 1;
-                    ranges.add(Range.range(valueStart, valueStart + p.getPlaceholderValue().length()));
-                }
-            }
+    private static List<Range> toRanges(int[] points) {
+        List<Range> ranges = new ArrayList<>(points.length / 2);
+        for (int i = 0; i < points.length; i += 2) {
+            ranges.add(Range.range(points[i], points[i + 1]));
+        }
+        return ranges;
+    }
+
+    /**
+     * A request and the insertion points recorded while building it.
+     */
+    public static class BuiltRequest {
+        private final ApiEndpoint endpoint;
+        private final HttpRequest request;
+        private final List<Range> insertionPoints;
+        private final HttpRequestTemplate intruderTemplate;
+
+        BuiltRequest(ApiEndpoint endpoint, HttpRequest request, List<Range> insertionPoints,
+                     HttpRequestTemplate intruderTemplate) {
+            this.endpoint = endpoint;
+            this.request = request;
+            this.insertionPoints = insertionPoints;
+            this.intruderTemplate = intruderTemplate;
         }
 
-        // Body placeholder
-        if ("POST".equalsIgnoreCase(endpoint.getMethod())
-                || "PUT".equalsIgnoreCase(endpoint.getMethod())
-                || "PATCH".equalsIgnoreCase(endpoint.getMethod())) {
-            int bodyIdx = rawStr.indexOf("\r\n\r\n");
-            if (bodyIdx >= 0) {
-                bodyIdx += 4;
-                int bodyEnd = rawStr.length();
-                if (bodyEnd > bodyIdx) {
-                    ranges.add(Range.range(bodyIdx, bodyEnd));
-                }
-            }
+        BuiltRequest withIntruderTemplate(HttpRequestTemplate template) {
+            return new BuiltRequest(endpoint, request, insertionPoints, template);
         }
 
-        return ranges;
+        public ApiEndpoint getEndpoint() {
+            return endpoint;
+        }
+
+        public HttpRequest getRequest() {
+            return request;
+        }
+
+        public List<Range> getInsertionPoints() {
+            return insertionPoints;
+        }
+
+        /**
+         * @return the Intruder template, or null unless requested from a bulk build
+         */
+        public HttpRequestTemplate getIntruderTemplate() {
+            return intruderTemplate;
+        }
     }
 
-    private String substitutePathParams(String path, List<ApiEndpoint.ParameterInfo> params) {
-        String result = path;
-        for (ApiEndpoint.ParameterInfo p : params) {
-            if ("path".equals(p.getLocation())) {
-                String placeholder = p.getPlaceholderValue();
-                if (placeholder == null || placeholder.isEmpty()) placeholder = PATH_PARAM_PLACEHOLDER;
-                result = result.replace("{" + p.getName() + "}", placeholder);
+    /**
+     * A base URL's host header value, and its {@link HttpService} once a Montoya request
+     * needs one.
+     */
+    private static class Target {
+        private final String server;
+        private final byte[] host;
+        private volatile HttpService service;
+
+        Target(String server) {
+            this.server = server;
+            this.host = RequestTemplate.hostHeader(server);
+        }
+
+        HttpService service() {
+            HttpService s = service;
+            if (s == null) {
+                s = HttpService.httpService(server);
+                service = s;
             }
+            return s;
         }
-        // Replace any remaining {param} with 1
-        result = Pattern.compile("\\{[^}]+\\}").matcher(result).replaceAll(PATH_PARAM_PLACEHOLDER);
-        return result;
     }
 }
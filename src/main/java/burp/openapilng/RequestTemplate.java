@@ -0,0 +1,267 @@
+package burp.openapilng;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * An endpoint's request compiled to bytes once, with a single slot for the {@code Host}
+ * header value. Method, path, query, headers, and body do not depend on the base URL, so
+ * rendering for a target is one copy of the fixed segments and the host into an array of
+ * the exact size.
+ * <p>
+ * Insertion points for every path, query, header, and cookie parameter value and for the
+ * body are recorded as byte offsets while the template is written, so they are exact even
+ * when a placeholder also appears elsewhere in the request.
+ * <p>
+ * Immutable and safe to share between threads.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class RequestTemplate {
+
+    static final String PATH_PARAM_PLACEHOLDER = "1";
+    static final String BODY_PLACEHOLDER = "{}";
+    static final String DEFAULT_SERVER = "https://localhost";
+
+    /**
+     * Header parameters not written: ones the request already sets, and the ones OpenAPI
+     * says to ignore because they are described elsewhere in the spec.
+     */
+    private static final Set<String> RESERVED_HEADERS = Set.of(
+            "host", "user-agent", "content-type", "content-length", "cookie", "accept", "authorization");
+
+    /** Request line and {@code "Host: "}. */
+    private final byte[] head;
+    /** Everything after the host value: remaining headers, blank line, and body. */
+    private final byte[] tail;
+    /** Start/end pairs of insertion points, offsets into {@link #head}. */
+    private final int[] headPoints;
+    /** Start/end pairs of insertion points, offsets into {@link #tail}. */
+    private final int[] tailPoints;
+
+    private RequestTemplate(byte[] head, byte[] tail, int[] headPoints, int[] tailPoints) {
+        this.head = head;
+        this.tail = tail;
+        this.headPoints = headPoints;
+        this.tailPoints = tailPoints;
+    }
+
+    /**
+     * @param endpoint endpoint to compile
+     * @return the endpoint's template
+     */
+    public static RequestTemplate compile(ApiEndpoint endpoint) {
+        List<ApiEndpoint.ParameterInfo> params = endpoint.getParameters();
+        Writer w = new Writer(128 + endpoint.getPath().length());
+        w.append(endpoint.getMethod()).append(" ");
+        writePath(w, endpoint.getPath(), params);
+        char separator = '?';
+        for (ApiEndpoint.ParameterInfo p : params) {
+            if ("query".equals(p.getLocation())) {
+                w.append(String.valueOf(separator)).append(p.getName()).append("=").value(p.getPlaceholderValue());
+                separator = '&';
+            }
+        }
+        w.append(" HTTP/1.1\r\nHost: ");
+        byte[] head = w.toBytes();
+        int[] headPoints = w.points();
+
+        boolean hasBody = hasBody(endpoint.getMethod());
+        w = new Writer(128);
+        w.append("\r\nUser-Agent: OpenAPI-NG/1.0\r\n");
+        for (ApiEndpoint.ParameterInfo p : params) {
+            if ("header".equals(p.getLocation()) && p.getName() != null
+                    && !RESERVED_HEADERS.contains(p.getName().toLowerCase(Locale.ROOT))) {
+                w.append(p.getName()).append(": ").value(p.getPlaceholderValue()).append("\r\n");
+            }
+        }
+        String cookieSeparator = "Cookie: ";
+        for (ApiEndpoint.ParameterInfo p : params) {
+            if ("cookie".equals(p.getLocation()) && p.getName() != null) {
+                w.append(cookieSeparator).append(p.getName()).append("=").value(p.getPlaceholderValue());
+                cookieSeparator = "; ";
+            }
+        }
+        if (!"Cookie: ".equals(cookieSeparator)) {
+            w.append("\r\n");
+        }
+        if (hasBody) {
+            w.append("Content-Type: application/json\r\n");
+            w.append("Content-Length: 2\r\n");
+        }
+        w.append("\r\n");
+        if (hasBody) {
+            w.value(BODY_PLACEHOLDER);
+        }
+        return new RequestTemplate(head, w.toBytes(), headPoints, w.points());
+    }
+
+    /**
+     * Writes the path with each {@code {name}} replaced by its parameter's placeholder, or
+     * {@code 1} for variables the spec does not declare, recording each as an insertion point.
+     */
+    private static void writePath(Writer w, String path, List<ApiEndpoint.ParameterInfo> params) {
+        int from = 0;
+        int open;
+        while ((open = path.indexOf('{', from)) >= 0) {
+            int close = path.indexOf('}', open + 1);
+            if (close < 0) break;
+            if (close == open + 1) {
+                // Empty braces name no variable; keep them as literal text
+                w.append(path.substring(from, close + 1));
+                from = close + 1;
+                continue;
+            }
+            w.append(path.substring(from, open));
+            w.value(pathPlaceholder(path.substring(open + 1, close), params));
+            from = close + 1;
+        }
+        w.append(path.substring(from));
+    }
+
+    private static String pathPlaceholder(String name, List<ApiEndpoint.ParameterInfo> params) {
+        for (ApiEndpoint.ParameterInfo p : params) {
+            if ("path".equals(p.getLocation()) && name.equals(p.getName())) {
+                String placeholder = p.getPlaceholderValue();
+                return placeholder == null || placeholder.isEmpty() ? PATH_PARAM_PLACEHOLDER : placeholder;
+            }
+        }
+        return PATH_PARAM_PLACEHOLDER;
+    }
+
+    /**
+     * @param host {@code Host} header value from {@link #hostHeader(String)}
+     * @return raw request bytes
+     */
+    public byte[] render(byte[] host) {
+        byte[] out = new byte[head.length + host.length + tail.length];
+        System.arraycopy(head, 0, out, 0, head.length);
+        System.arraycopy(host, 0, out, head.length, host.length);
+        System.arraycopy(tail, 0, out, head.length + host.length, tail.length);
+        return out;
+    }
+
+    /**
+     * @param host {@code Host} header value the request was rendered with
+     * @return start (inclusive) and end (exclusive) offsets of each insertion point, in pairs,
+     * in the order they appear in the request
+     */
+    public int[] insertionPoints(byte[] host) {
+        int[] points = Arrays.copyOf(headPoints, headPoints.length + tailPoints.length);
+        int shift = head.length + host.length;
+        for (int i = 0; i < tailPoints.length; i++) {
+            points[headPoints.length + i] = tailPoints[i] + shift;
+        }
+        return points;
+    }
+
+    /**
+     * @param raw request bytes
+     * @return the host value if {@code raw} is exactly this template rendered for some host,
+     * otherwise null
+     */
+    byte[] matchHost(byte[] raw) {
+        int hostLength = raw.length - head.length - tail.length;
+        if (hostLength < 0
+                || !Arrays.equals(raw, 0, head.length, head, 0, head.length)
+                || !Arrays.equals(raw, raw.length - tail.length, raw.length, tail, 0, tail.length)) {
+            return null;
+        }
+        return Arrays.copyOfRange(raw, head.length, head.length + hostLength);
+    }
+
+    /**
+     * Computes the {@code Host} header value for a server URL, with the port only when it
+     * is not the scheme's default.
+     *
+     * @param server normalized server URL, as from {@link #serverFor(ApiEndpoint, String)}
+     * @return UTF-8 host header value
+     */
+    public static byte[] hostHeader(String server) {
+        String host;
+        try {
+            URI uri = new URI(server);
+            int port = uri.getPort();
+            boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+            if (port <= 0) port = secure ? 443 : 80;
+            host = uri.getHost();
+            if ((secure && port != 443) || (!secure && port != 80)) {
+                host = host + ":" + port;
+            }
+        } catch (URISyntaxException e) {
+            host = "localhost";
+        }
+        return String.valueOf(host).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param endpoint the endpoint
+     * @param baseUrlOverride base URL to use instead of the endpoint's server, or null/blank
+     * @return the server URL requests go to, without a trailing slash
+     */
+    public static String serverFor(ApiEndpoint endpoint, String baseUrlOverride) {
+        String server = (baseUrlOverride != null && !baseUrlOverride.isBlank())
+                ? baseUrlOverride
+                : endpoint.getServer();
+        if (server == null || server.isEmpty()) {
+            server = DEFAULT_SERVER;
+        }
+        return server.endsWith("/") ? server.substring(0, server.length() - 1) : server;
+    }
+
+    static boolean hasBody(String method) {
+        return "POST".equalsIgnoreCase(method)
+                || "PUT".equalsIgnoreCase(method)
+                || "PATCH".equalsIgnoreCase(method);
+    }
+
+    /**
+     * Appends UTF-8 bytes and records where parameter values start and end.
+     */
+    private static class Writer {
+        private byte[] buf;
+        private int size;
+        private int[] points = new int[8];
+        private int pointCount;
+
+        Writer(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        Writer append(String s) {
+            byte[] bytes = String.valueOf(s).getBytes(StandardCharsets.UTF_8);
+            if (size + bytes.length > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + bytes.length));
+            }
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+            return this;
+        }
+
+        Writer value(String s) {
+            int start = size;
+            append(s == null ? "" : s);
+            if (pointCount + 2 > points.length) {
+                points = Arrays.copyOf(points, points.length * 2);
+            }
+            points[pointCount++] = start;
+            points[pointCount++] = size;
+            return this;
+        }
+
+        byte[] toBytes() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        int[] points() {
+            return Arrays.copyOf(points, pointCount);
+        }
+    }
+}
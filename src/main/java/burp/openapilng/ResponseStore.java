@@ -0,0 +1,395 @@
+package burp.openapilng;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Baseline responses by {@link ApiEndpoint#getIndex()}, kept off the Java heap. Status,
+ * body length, content type, body hash, and latency live in primitive arrays; the raw
+ * responses are deflated into append-only log segments on disk and read back one at a
+ * time when the user looks at them.
+ * <p>
+ * The segments together stay under a byte budget. When a new response does not fit, the
+ * oldest segment is deleted and the responses in it are evicted; their metadata stays.
+ * <p>
+ * Safe to use from several threads.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class ResponseStore implements Closeable {
+
+    /** 256 MB of compressed responses. */
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    /** Segments are a quarter of the budget, so eviction frees space in coarse steps. */
+    private static final int SEGMENTS_PER_BUDGET = 4;
+    private static final long MIN_SEGMENT_BYTES = 1024 * 1024;
+
+    private final Path directory;
+    private final boolean deleteDirectory;
+    private long maxBytes;
+
+    private final BitSet present = new BitSet();
+    private int[] status = new int[0];
+    private long[] bodyLength = new long[0];
+    private int[] contentType = new int[0];
+    private long[] bodyHash = new long[0];
+    private long[] nanos = new long[0];
+    /** Segment holding the response, or -1 if only metadata is kept. */
+    private int[] segment = new int[0];
+    private long[] offset = new long[0];
+    private int[] storedLength = new int[0];
+    private int[] rawLength = new int[0];
+
+    private final List<String> contentTypes = new ArrayList<>();
+    private final Map<String, Integer> contentTypeIds = new HashMap<>();
+
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private int nextSegmentId;
+    private long storedBytes;
+    /** Bumped by {@link #clear()}, so writers that started before it can tell their indexes are stale. */
+    private int generation;
+
+    /**
+     * @param directory where log segments are written; created if missing
+     * @param maxBytes budget for compressed responses on disk
+     */
+    public ResponseStore(Path directory, long maxBytes) throws IOException {
+        this(directory, maxBytes, false);
+    }
+
+    private ResponseStore(Path directory, long maxBytes, boolean deleteDirectory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxBytes = Math.max(0, maxBytes);
+        this.deleteDirectory = deleteDirectory;
+    }
+
+    /**
+     * @return a store in a new temporary directory, deleted on {@link #close()}
+     */
+    public static ResponseStore temporary(long maxBytes) throws IOException {
+        return new ResponseStore(Files.createTempDirectory("openapi-ng-responses"), maxBytes, true);
+    }
+
+    /**
+     * Stores a response, replacing any earlier one for the same index.
+     *
+     * @param index endpoint index
+     * @param statusCode HTTP status
+     * @param type {@code Content-Type} header value, or null
+     * @param raw full response: status line, headers, and body
+     * @param bodyOffset where the body starts in {@code raw}
+     */
+    public void put(int index, int statusCode, String type, byte[] raw, int bodyOffset) throws IOException {
+        store(false, 0, index, statusCode, type, raw, bodyOffset);
+    }
+
+    /**
+     * Stores a response unless the store has been cleared since {@code generation} was read.
+     *
+     * @param generation value of {@link #getGeneration()} when the caller started writing
+     * @return false if the response was dropped as stale
+     * @see #put(int, int, String, byte[], int)
+     */
+    public boolean putIfCurrent(int generation, int index, int statusCode, String type, byte[] raw,
+                                int bodyOffset) throws IOException {
+        return store(true, generation, index, statusCode, type, raw, bodyOffset);
+    }
+
+    /**
+     * Hashes and deflates outside the lock, so concurrent writers only queue for the append.
+     */
+    private boolean store(boolean checkGeneration, int generation, int index, int statusCode, String type,
+                          byte[] raw, int bodyOffset) throws IOException {
+        int bodyStart = Math.max(0, Math.min(bodyOffset, raw.length));
+        long hash = fnv1a(raw, bodyStart, raw.length);
+        byte[] compressed = deflate(raw);
+        synchronized (this) {
+            if (checkGeneration && generation != this.generation) return false;
+            ensureCapacity(index + 1);
+            present.set(index);
+            status[index] = statusCode;
+            bodyLength[index] = raw.length - bodyStart;
+            contentType[index] = contentTypeId(type);
+            bodyHash[index] = hash;
+            nanos[index] = 0;
+            segment[index] = -1;
+
+            if (compressed.length > maxBytes) {
+                return true; // Bigger than the whole budget; keep metadata only
+            }
+            Segment target = segments.peekLast();
+            if (target == null || target.size + compressed.length > segmentBytes()) {
+                target = new Segment(nextSegmentId++, directory);
+                segments.addLast(target);
+            }
+            while (storedBytes + compressed.length > maxBytes && segments.peekFirst() != target) {
+                evictOldest();
+            }
+            long at = target.append(compressed);
+            storedBytes += compressed.length;
+            segment[index] = target.id;
+            offset[index] = at;
+            storedLength[index] = compressed.length;
+            rawLength[index] = raw.length;
+            return true;
+        }
+    }
+
+    /**
+     * Records how long the response took, once the caller has timed it.
+     */
+    public synchronized void setNanos(int index, long elapsedNanos) {
+        setNanosIfCurrent(generation, index, elapsedNanos);
+    }
+
+    /**
+     * Records how long the response took, unless the store has been cleared since
+     * {@code generation} was read.
+     */
+    public synchronized void setNanosIfCurrent(int generation, int index, long elapsedNanos) {
+        if (generation == this.generation && contains(index)) nanos[index] = elapsedNanos;
+    }
+
+    /**
+     * @return the current generation, which {@link #clear()} advances
+     */
+    public synchronized int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return true if metadata is stored for the index
+     */
+    public synchronized boolean contains(int index) {
+        return index >= 0 && present.get(index);
+    }
+
+    public synchronized int getStatus(int index) {
+        return contains(index) ? status[index] : 0;
+    }
+
+    public synchronized long getBodyLength(int index) {
+        return contains(index) ? bodyLength[index] : 0;
+    }
+
+    /**
+     * @return the response's {@code Content-Type}, or null
+     */
+    public synchronized String getContentType(int index) {
+        if (!contains(index) || contentType[index] < 0) return null;
+        return contentTypes.get(contentType[index]);
+    }
+
+    /**
+     * @return 64-bit FNV-1a hash of the body, for spotting identical responses
+     */
+    public synchronized long getBodyHash(int index) {
+        return contains(index) ? bodyHash[index] : 0;
+    }
+
+    public synchronized long getMillis(int index) {
+        return contains(index) ? TimeUnit.NANOSECONDS.toMillis(nanos[index]) : 0;
+    }
+
+    /**
+     * Reads one stored response back from disk.
+     *
+     * @return the raw response, or null if none was stored or it has been evicted
+     */
+    public synchronized byte[] getResponse(int index) throws IOException {
+        if (!contains(index) || segment[index] < 0) return null;
+        Segment s = find(segment[index]);
+        if (s == null) return null;
+        byte[] compressed = s.read(offset[index], storedLength[index]);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength[index]];
+            int n = 0;
+            while (n < raw.length && !inflater.finished()) {
+                int read = inflater.inflate(raw, n, raw.length - n);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                n += read;
+            }
+            if (n != raw.length) throw new IOException("Truncated response for endpoint " + index);
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt response for endpoint " + index, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * @return compressed bytes currently on disk
+     */
+    public synchronized long getStoredBytes() {
+        return storedBytes;
+    }
+
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Changes the budget, evicting the oldest responses at once if the store is over it.
+     */
+    public synchronized void setMaxBytes(long maxBytes) throws IOException {
+        this.maxBytes = Math.max(0, maxBytes);
+        while (storedBytes > this.maxBytes && !segments.isEmpty()) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * Forgets every response, for when a new spec reuses endpoint indexes.
+     */
+    public synchronized void clear() throws IOException {
+        while (!segments.isEmpty()) {
+            evictOldest();
+        }
+        present.clear();
+        Arrays.fill(segment, -1);
+        generation++;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        clear();
+        if (deleteDirectory) {
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private long segmentBytes() {
+        return Math.max(MIN_SEGMENT_BYTES, maxBytes / SEGMENTS_PER_BUDGET);
+    }
+
+    private void evictOldest() throws IOException {
+        Segment oldest = segments.pollFirst();
+        if (oldest == null) return;
+        storedBytes -= oldest.size;
+        oldest.delete();
+    }
+
+    private Segment find(int id) {
+        // Few segments, and ids increase from oldest to newest
+        for (Segment s : segments) {
+            if (s.id == id) return s;
+            if (s.id > id) return null;
+        }
+        return null;
+    }
+
+    /** Uses a deflater of its own per call, so writers on different threads compress in parallel. */
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buf = new byte[Math.max(64, raw.length / 2)];
+            int n = 0;
+            while (!deflater.finished()) {
+                if (n == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+                n += deflater.deflate(buf, n, buf.length - n);
+            }
+            return Arrays.copyOf(buf, n);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private int contentTypeId(String type) {
+        if (type == null) return -1;
+        Integer id = contentTypeIds.get(type);
+        if (id == null) {
+            id = contentTypes.size();
+            contentTypes.add(type);
+            contentTypeIds.put(type, id);
+        }
+        return id;
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= status.length) return;
+        int n = Math.max(size, Math.max(16, status.length * 2));
+        int old = status.length;
+        status = Arrays.copyOf(status, n);
+        bodyLength = Arrays.copyOf(bodyLength, n);
+        contentType = Arrays.copyOf(contentType, n);
+        bodyHash = Arrays.copyOf(bodyHash, n);
+        nanos = Arrays.copyOf(nanos, n);
+        segment = Arrays.copyOf(segment, n);
+        Arrays.fill(segment, old, n, -1);
+        offset = Arrays.copyOf(offset, n);
+        storedLength = Arrays.copyOf(storedLength, n);
+        rawLength = Arrays.copyOf(rawLength, n);
+    }
+
+    static long fnv1a(byte[] data, int from, int to) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            h ^= data[i] & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * One append-only log file.
+     */
+    private static class Segment {
+        private final int id;
+        private final Path file;
+        private final FileChannel channel;
+        private long size;
+
+        Segment(int id, Path directory) throws IOException {
+            this.id = id;
+            this.file = directory.resolve("responses-" + id + ".log");
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        long append(byte[] data) throws IOException {
+            long at = size;
+            ByteBuffer buf = ByteBuffer.wrap(data);
+            while (buf.hasRemaining()) {
+                channel.write(buf, at + buf.position());
+            }
+            size += data.length;
+            return at;
+        }
+
+        byte[] read(long at, int length) throws IOException {
+            ByteBuffer buf = ByteBuffer.allocate(length);
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, at + buf.position()) < 0) throw new IOException("Unexpected end of " + file);
+            }
+            return buf.array();
+        }
+
+        void delete() throws IOException {
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+    }
+}
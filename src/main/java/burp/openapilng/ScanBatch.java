@@ -0,0 +1,76 @@
+package burp.openapilng;
+
+import burp.api.montoya.scanner.audit.Audit;
+
+import java.util.function.Supplier;
+
+/**
+ * Spreads one Active Scan selection over a small, fixed number of Scanner audits instead
+ * of starting an audit per endpoint. Endpoints go to audits in contiguous blocks, so each
+ * audit covers a run of neighbouring paths. Audits are started on first use.
+ * <p>
+ * Requests are added with the spec's insertion points, so Scanner only fuzzes declared
+ * parameters; a request with none is added without ranges and Scanner picks its own.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class ScanBatch {
+
+    /** Audits per scan unless the user asks for more. */
+    public static final int DEFAULT_AUDITS = 1;
+    public static final int MAX_AUDITS = 16;
+
+    private final Supplier<Audit> startAudit;
+    private final int total;
+    private final Audit[] audits;
+    private int added;
+
+    /**
+     * @param startAudit starts a new Scanner audit
+     * @param audits number of audits to spread the batch over, clamped to 1..{@link #MAX_AUDITS}
+     * @param total number of requests that will be added
+     */
+    public ScanBatch(Supplier<Audit> startAudit, int audits, int total) {
+        this.startAudit = startAudit;
+        this.total = Math.max(1, total);
+        this.audits = new Audit[Math.max(1, Math.min(Math.min(audits, MAX_AUDITS), this.total))];
+    }
+
+    /**
+     * Adds the request at {@code index} in the selection to its audit.
+     *
+     * @param index position in the selection, 0-based
+     * @param built request and insertion points
+     */
+    public void add(int index, RequestGenerator.BuiltRequest built) {
+        int shard = (int) ((long) Math.min(Math.max(index, 0), total - 1) * audits.length / total);
+        Audit audit = audits[shard];
+        if (audit == null) {
+            audit = startAudit.get();
+            audits[shard] = audit;
+        }
+        if (built.getInsertionPoints().isEmpty()) {
+            audit.addRequest(built.getRequest());
+        } else {
+            audit.addRequest(built.getRequest(), built.getInsertionPoints());
+        }
+        added++;
+    }
+
+    /**
+     * @return audits started so far
+     */
+    public int getAuditCount() {
+        int started = 0;
+        for (Audit a : audits) {
+            if (a != null) started++;
+        }
+        return started;
+    }
+
+    public int getAddedCount() {
+        return added;
+    }
+}
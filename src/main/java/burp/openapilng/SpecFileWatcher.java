@@ -0,0 +1,113 @@
+package burp.openapilng;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a single spec file with {@link WatchService} and runs a callback once changes
+ * have settled. The parent directory is watched so editors and CI jobs that replace the
+ * file (write to a temp file, then rename) are picked up as well as in-place writes.
+ * <p>
+ * Bursts of events within the debounce window collapse into one callback, run on the
+ * watcher's own scheduler thread.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class SpecFileWatcher implements Closeable {
+
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+
+    private final Path file;
+    private final long debounceMillis;
+    private final Runnable onChange;
+    private final WatchService watchService;
+    private final ScheduledExecutorService scheduler;
+    private final Thread pollThread;
+    private ScheduledFuture<?> pending;
+
+    /**
+     * Starts watching immediately.
+     *
+     * @param file the spec file to watch
+     * @param debounceMillis quiet period after the last event before {@code onChange} runs
+     * @param onChange callback run once per settled burst of changes
+     * @throws IOException if the parent directory cannot be watched
+     */
+    public SpecFileWatcher(Path file, long debounceMillis, Runnable onChange) throws IOException {
+        this.file = file.toAbsolutePath().normalize();
+        this.debounceMillis = debounceMillis;
+        this.onChange = onChange;
+        Path dir = this.file.getParent();
+        if (dir == null) throw new IOException("No parent directory for " + file);
+        this.watchService = FileSystems.getDefault().newWatchService();
+        try {
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "OpenAPI-NG spec watch");
+            t.setDaemon(true);
+            return t;
+        });
+        this.pollThread = new Thread(this::poll, "OpenAPI-NG spec watch poll");
+        this.pollThread.setDaemon(true);
+        this.pollThread.start();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private void poll() {
+        Path name = file.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean relevant = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context())) {
+                        relevant = true;
+                    }
+                }
+                if (relevant) schedule();
+                if (!key.reset()) return;
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    private synchronized void schedule() {
+        if (scheduler.isShutdown()) return;
+        if (pending != null) pending.cancel(false);
+        pending = scheduler.schedule(onChange, debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            scheduler.shutdownNow();
+        }
+        pollThread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // Nothing left to release
+        }
+    }
+}
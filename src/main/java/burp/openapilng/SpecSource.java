@@ -0,0 +1,264 @@
+package burp.openapilng;
+
+import burp.api.montoya.core.ByteArray;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+/**
+ * Read-only view over the raw bytes of a spec, so files and HTTP bodies reach the parser
+ * without being copied into intermediate arrays and strings. Trimming and shell prompt
+ * stripping narrow the view instead of copying it.
+ * <p>
+ * Files are memory-mapped, except on Windows where a mapping keeps the file locked until
+ * it is garbage collected and would block editors and watch mode from replacing it.
+ * Montoya {@link ByteArray}s are read in place through {@link ByteArray#getByte(int)}.
+ * Content is expected to be UTF-8.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public abstract class SpecSource {
+
+    private static final boolean WINDOWS = File.separatorChar == '\\';
+    private static final int CHUNK = 64 * 1024;
+
+    final int offset;
+    final int length;
+
+    SpecSource(int offset, int length) {
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * @param file spec file
+     * @return a mapped view of the file (a heap copy on Windows)
+     * @throws IOException if the file cannot be read or is larger than 2 GB
+     */
+    public static SpecSource of(Path file) throws IOException {
+        if (WINDOWS) {
+            return of(Files.readAllBytes(file));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Spec file too large: " + size + " bytes");
+            }
+            // The mapping stays valid after the channel is closed
+            return new BufferSource(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), 0, (int) size);
+        }
+    }
+
+    /**
+     * @param bytes spec bytes, not copied
+     */
+    public static SpecSource of(byte[] bytes) {
+        return new BufferSource(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    /**
+     * @param bytes spec bytes from a Montoya message, not copied
+     */
+    public static SpecSource of(ByteArray bytes) {
+        return new MontoyaSource(bytes, 0, bytes.length());
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @param index position within this view
+     * @return the byte at that position
+     */
+    public abstract byte byteAt(int index);
+
+    /**
+     * @param from start position within this view
+     * @param to end position within this view, exclusive
+     * @return a view of the range sharing the same bytes
+     */
+    public abstract SpecSource slice(int from, int to);
+
+    /**
+     * @return a stream over this view's bytes
+     */
+    public abstract InputStream openStream();
+
+    /**
+     * Feeds this view's bytes to a digest in chunks.
+     */
+    abstract void digest(MessageDigest md);
+
+    /**
+     * Decodes the view as UTF-8. This is the one full copy made when Swagger Parser, which
+     * only accepts strings, has to read the spec.
+     */
+    public abstract String decode();
+
+    /**
+     * @return the view without leading and trailing bytes at or below space (as
+     * {@link String#trim()}) and without a leading UTF-8 byte order mark
+     */
+    public SpecSource trim() {
+        int start = 0;
+        int end = length;
+        if (end >= 3 && byteAt(0) == (byte) 0xEF && byteAt(1) == (byte) 0xBB && byteAt(2) == (byte) 0xBF) {
+            start = 3;
+        }
+        while (start < end && (byteAt(start) & 0xFF) <= ' ') start++;
+        while (end > start && (byteAt(end - 1) & 0xFF) <= ' ') end--;
+        return start == 0 && end == length ? this : slice(start, end);
+    }
+
+    public boolean isBlank() {
+        return trim().length() == 0;
+    }
+
+    private static final class BufferSource extends SpecSource {
+        private final ByteBuffer buffer;
+
+        BufferSource(ByteBuffer buffer, int offset, int length) {
+            super(offset, length);
+            this.buffer = buffer;
+        }
+
+        @Override
+        public byte byteAt(int index) {
+            return buffer.get(offset + index);
+        }
+
+        @Override
+        public SpecSource slice(int from, int to) {
+            return new BufferSource(buffer, offset + from, to - from);
+        }
+
+        @Override
+        public InputStream openStream() {
+            if (buffer.hasArray()) {
+                return new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + offset, length);
+            }
+            ByteBuffer view = view();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return view.hasRemaining() ? view.get() & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (len == 0) return 0;
+                    if (!view.hasRemaining()) return -1;
+                    int n = Math.min(len, view.remaining());
+                    view.get(b, off, n);
+                    return n;
+                }
+
+                @Override
+                public int available() {
+                    return view.remaining();
+                }
+            };
+        }
+
+        @Override
+        void digest(MessageDigest md) {
+            md.update(view());
+        }
+
+        @Override
+        public String decode() {
+            if (buffer.hasArray()) {
+                return new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+            }
+            return StandardCharsets.UTF_8.decode(view()).toString();
+        }
+
+        private ByteBuffer view() {
+            ByteBuffer view = buffer.duplicate();
+            view.limit(offset + length).position(offset);
+            return view;
+        }
+    }
+
+    private static final class MontoyaSource extends SpecSource {
+        private final ByteArray bytes;
+
+        MontoyaSource(ByteArray bytes, int offset, int length) {
+            super(offset, length);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public byte byteAt(int index) {
+            return bytes.getByte(offset + index);
+        }
+
+        @Override
+        public SpecSource slice(int from, int to) {
+            return new MontoyaSource(bytes, offset + from, to - from);
+        }
+
+        @Override
+        public InputStream openStream() {
+            return new InputStream() {
+                private int pos = offset;
+                private final int end = offset + length;
+
+                @Override
+                public int read() {
+                    return pos < end ? bytes.getByte(pos++) & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (len == 0) return 0;
+                    if (pos >= end) return -1;
+                    int n = Math.min(len, end - pos);
+                    for (int i = 0; i < n; i++) {
+                        b[off + i] = bytes.getByte(pos++);
+                    }
+                    return n;
+                }
+
+                @Override
+                public int available() {
+                    return end - pos;
+                }
+            };
+        }
+
+        @Override
+        void digest(MessageDigest md) {
+            byte[] chunk = new byte[Math.min(CHUNK, Math.max(length, 1))];
+            for (int pos = 0; pos < length; ) {
+                int n = Math.min(chunk.length, length - pos);
+                for (int i = 0; i < n; i++) {
+                    chunk[i] = bytes.getByte(offset + pos + i);
+                }
+                md.update(chunk, 0, n);
+                pos += n;
+            }
+        }
+
+        @Override
+        public String decode() {
+            try (InputStream in = openStream()) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
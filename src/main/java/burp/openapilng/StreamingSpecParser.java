@@ -0,0 +1,407 @@
+package burp.openapilng;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token-stream parser for OpenAPI 3.x documents. Walks {@code paths} and builds an
+ * {@link ApiEndpoint} as each operation is met, without materializing the Swagger object
+ * model, so memory use depends on the largest single operation rather than the document.
+ * <p>
+ * Only reads what {@link OpenAPIParser} reads (servers, operations, summaries and
+ * parameters). Parameter references are resolved against {@code components/parameters}
+ * once the whole document has been read, or left for {@link ParameterRefResolver} to
+ * resolve on demand in lazy mode. Anything that would change the result if skipped
+ * (Swagger 2.0, {@code $ref} path items, YAML merge keys or aliases) raises
+ * {@link UnsupportedSpecException} so the caller can fall back to Swagger Parser. Aliases
+ * are rejected wherever a value is read, since Jackson reports one as a string holding the
+ * alias name rather than the anchored value.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class StreamingSpecParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final JsonFactory YAML_FACTORY = new YAMLFactory();
+
+    /** Operation keys in the order Swagger's {@code PathItem.readOperationsMap()} returns them. */
+    private static final String[] OPERATION_ORDER = {"get", "put", "post", "delete", "patch", "head", "options", "trace"};
+    /** {@link #OPERATION_ORDER} as method names, spelled out so no locale can change them. */
+    private static final String[] METHOD_NAMES = {"GET", "PUT", "POST", "DELETE", "PATCH", "HEAD", "OPTIONS", "TRACE"};
+
+    private final boolean lazyRefs;
+    private final LoadProgress progress;
+    private final ParameterRefResolver resolver = new ParameterRefResolver();
+    /** Bytes the last {@link #parse(SpecSource)} read and counted towards {@link #progress}. */
+    private long bytesRead;
+
+    public StreamingSpecParser() {
+        this(false);
+    }
+
+    /**
+     * @param lazyRefs true to leave parameter references unresolved until first read
+     */
+    public StreamingSpecParser(boolean lazyRefs) {
+        this(lazyRefs, LoadProgress.untracked());
+    }
+
+    /**
+     * @param lazyRefs true to leave parameter references unresolved until first read
+     * @param progress receives bytes read and operations; reading stops once it is cancelled
+     */
+    public StreamingSpecParser(boolean lazyRefs, LoadProgress progress) {
+        this.lazyRefs = lazyRefs;
+        this.progress = progress;
+    }
+
+    /**
+     * Parses cleaned spec content (already trimmed and stripped of shell prompts).
+     *
+     * @param content spec content, JSON if it starts with a brace, YAML otherwise
+     * @return parsed endpoints and default server; messages are always empty
+     * @throws UnsupportedSpecException if the document needs the full Swagger Parser
+     */
+    public OpenAPIParser.ParseResult parse(String content) throws UnsupportedSpecException {
+        JsonFactory factory = content.startsWith("{") ? JSON_FACTORY : YAML_FACTORY;
+        try (JsonParser p = factory.createParser(content)) {
+            return readDocument(p);
+        } catch (IOException e) {
+            throw new UnsupportedSpecException("unreadable document: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses cleaned spec bytes directly, without decoding them to a string first.
+     *
+     * @param content spec bytes, JSON if the first byte is a brace, YAML otherwise
+     * @return parsed endpoints and default server; messages are always empty
+     * @throws UnsupportedSpecException if the document needs the full Swagger Parser
+     */
+    public OpenAPIParser.ParseResult parse(SpecSource content) throws UnsupportedSpecException {
+        boolean json = content.length() > 0 && content.byteAt(0) == '{';
+        JsonFactory factory = json ? JSON_FACTORY : YAML_FACTORY;
+        LoadProgress.TrackedStream in = progress.track(content.openStream());
+        try (JsonParser p = factory.createParser(in)) {
+            return readDocument(p);
+        } catch (IOException e) {
+            throw new UnsupportedSpecException("unreadable document: " + e.getMessage());
+        } finally {
+            bytesRead = in.getCounted();
+        }
+    }
+
+    /**
+     * @return bytes the last {@link #parse(SpecSource)} read, already counted towards the
+     *         progress, so a fallback parse of the same bytes does not count them twice
+     */
+    long getBytesRead() {
+        return bytesRead;
+    }
+
+    private OpenAPIParser.ParseResult readDocument(JsonParser p) throws IOException, UnsupportedSpecException {
+        expect(next(p), JsonToken.START_OBJECT, "document");
+
+        String version = null;
+        String defaultServer = "";
+        boolean pathsSeen = false;
+        boolean serversAfterPaths = false;
+        List<ApiEndpoint> endpoints = new ArrayList<>();
+
+        while (next(p) == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = next(p);
+            switch (field) {
+                case "openapi":
+                    version = p.getText();
+                    break;
+                case "swagger":
+                    throw new UnsupportedSpecException("Swagger 2.0 documents need conversion");
+                case "servers":
+                    defaultServer = readDefaultServer(p, value);
+                    serversAfterPaths = pathsSeen;
+                    break;
+                case "paths":
+                    readPaths(p, value, defaultServer, endpoints);
+                    pathsSeen = true;
+                    break;
+                case "components":
+                    readComponents(p, value);
+                    break;
+                case "<<":
+                    throw new UnsupportedSpecException("YAML merge keys");
+                default:
+                    p.skipChildren();
+            }
+        }
+
+        if (version == null || !version.startsWith("3")) {
+            throw new UnsupportedSpecException("missing or unsupported openapi version");
+        }
+
+        if (serversAfterPaths && !defaultServer.isEmpty()) {
+            endpoints = withServer(endpoints, defaultServer);
+        }
+        if (!lazyRefs) {
+            resolveReferences(endpoints);
+        }
+        return new OpenAPIParser.ParseResult(endpoints, new ArrayList<>(), defaultServer);
+    }
+
+    private String readDefaultServer(JsonParser p, JsonToken value) throws IOException, UnsupportedSpecException {
+        if (value == JsonToken.VALUE_NULL) return "";
+        expect(value, JsonToken.START_ARRAY, "servers");
+        String url = null;
+        boolean first = true;
+        JsonToken t;
+        while ((t = next(p)) != JsonToken.END_ARRAY) {
+            if (first && t == JsonToken.START_OBJECT) {
+                while (next(p) == JsonToken.FIELD_NAME) {
+                    String field = p.currentName();
+                    JsonToken v = next(p);
+                    if ("url".equals(field) && v != JsonToken.VALUE_NULL) {
+                        url = p.getText();
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+            } else {
+                p.skipChildren();
+            }
+            first = false;
+        }
+        if (url == null || url.isBlank()) return "";
+        return OpenAPIParser.normalizeServerUrl(url);
+    }
+
+    private void readComponents(JsonParser p, JsonToken value) throws IOException, UnsupportedSpecException {
+        if (value == JsonToken.VALUE_NULL) return;
+        expect(value, JsonToken.START_OBJECT, "components");
+        while (next(p) == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken section = next(p);
+            if (!"parameters".equals(field) || section == JsonToken.VALUE_NULL) {
+                p.skipChildren();
+                continue;
+            }
+            expect(section, JsonToken.START_OBJECT, "components/parameters");
+            while (next(p) == JsonToken.FIELD_NAME) {
+                String componentName = p.currentName();
+                JsonToken def = next(p);
+                if (def == JsonToken.VALUE_NULL) continue;
+                expect(def, JsonToken.START_OBJECT, "components/parameters/" + componentName);
+                String[] fields = readParameterFields(p, componentName);
+                resolver.define(componentName, fields[0], fields[1], fields[2]);
+            }
+        }
+    }
+
+    private void readPaths(JsonParser p, JsonToken value, String server, List<ApiEndpoint> endpoints)
+            throws IOException, UnsupportedSpecException {
+        if (value == JsonToken.VALUE_NULL) return;
+        expect(value, JsonToken.START_OBJECT, "paths");
+        String scheme = OpenAPIParser.extractScheme(server);
+        while (next(p) == JsonToken.FIELD_NAME) {
+            String path = p.currentName();
+            JsonToken item = next(p);
+            if (item == JsonToken.VALUE_NULL) continue;
+            expect(item, JsonToken.START_OBJECT, "path item " + path);
+            progress.checkCancelled();
+            readPathItem(p, path, scheme, server, endpoints);
+        }
+    }
+
+    private void readPathItem(JsonParser p, String path, String scheme, String server, List<ApiEndpoint> endpoints)
+            throws IOException, UnsupportedSpecException {
+        OperationData[] operations = new OperationData[OPERATION_ORDER.length];
+        while (next(p) == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = next(p);
+            if ("$ref".equals(field) || "<<".equals(field)) {
+                throw new UnsupportedSpecException("referenced path item " + path);
+            }
+            int slot = operationSlot(field);
+            if (slot < 0 || value == JsonToken.VALUE_NULL) {
+                p.skipChildren();
+                continue;
+            }
+            expect(value, JsonToken.START_OBJECT, "operation " + field + " " + path);
+            operations[slot] = readOperation(p, path);
+        }
+
+        for (int i = 0; i < operations.length; i++) {
+            OperationData op = operations[i];
+            if (op == null) continue;
+            String description = op.summary != null ? op.summary
+                    : (op.description != null ? op.description : "");
+            endpoints.add(new ApiEndpoint(endpoints.size() + 1, scheme, METHOD_NAMES[i],
+                    server, path, op.parameters, description, "", op.tags));
+            progress.operationExtracted();
+        }
+    }
+
+    private OperationData readOperation(JsonParser p, String path) throws IOException, UnsupportedSpecException {
+        OperationData op = new OperationData();
+        while (next(p) == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = next(p);
+            switch (field) {
+                case "summary":
+                    op.summary = value == JsonToken.VALUE_NULL ? null : p.getText();
+                    break;
+                case "description":
+                    op.description = value == JsonToken.VALUE_NULL ? null : p.getText();
+                    break;
+                case "tags":
+                    if (value != JsonToken.VALUE_NULL) {
+                        expect(value, JsonToken.START_ARRAY, "tags of " + path);
+                        readTags(p, op.tags);
+                    }
+                    break;
+                case "parameters":
+                    if (value != JsonToken.VALUE_NULL) {
+                        expect(value, JsonToken.START_ARRAY, "parameters of " + path);
+                        readParameters(p, path, op.parameters);
+                    }
+                    break;
+                case "<<":
+                    throw new UnsupportedSpecException("YAML merge keys");
+                default:
+                    p.skipChildren();
+            }
+        }
+        return op;
+    }
+
+    private void readParameters(JsonParser p, String path, List<ApiEndpoint.ParameterInfo> params)
+            throws IOException, UnsupportedSpecException {
+        JsonToken t;
+        while ((t = next(p)) != JsonToken.END_ARRAY) {
+            if (t == JsonToken.VALUE_NULL) continue;
+            expect(t, JsonToken.START_OBJECT, "parameter of " + path);
+            String[] fields = readParameterFields(p, path);
+            if (fields[2] != null) {
+                params.add(ApiEndpoint.ParameterInfo.reference(fields[2], resolver));
+            } else {
+                params.add(OpenAPIParser.toParameterInfo(fields[0], fields[1]));
+            }
+        }
+    }
+
+    private static void readTags(JsonParser p, List<String> tags) throws IOException, UnsupportedSpecException {
+        JsonToken t;
+        while ((t = next(p)) != JsonToken.END_ARRAY) {
+            if (t == JsonToken.VALUE_STRING) {
+                tags.add(p.getText());
+            } else {
+                p.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Reads a parameter object positioned after its START_OBJECT.
+     *
+     * @return {@code {name, in, $ref}}, any of which may be null
+     */
+    private static String[] readParameterFields(JsonParser p, String context) throws IOException, UnsupportedSpecException {
+        String[] fields = new String[3];
+        while (next(p) == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = next(p);
+            if ("<<".equals(field)) {
+                throw new UnsupportedSpecException("YAML merge keys in parameter of " + context);
+            } else if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "name":
+                    fields[0] = p.getText();
+                    break;
+                case "in":
+                    fields[1] = p.getText();
+                    break;
+                case "$ref":
+                    fields[2] = p.getText();
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+        return fields;
+    }
+
+    /** Replaces parameter references with their resolved parameters, in place. */
+    private void resolveReferences(List<ApiEndpoint> endpoints) {
+        for (ApiEndpoint e : endpoints) {
+            List<ApiEndpoint.ParameterInfo> params = e.getParameters();
+            for (int i = 0; i < params.size(); i++) {
+                String ref = params.get(i).getRef();
+                if (ref != null) {
+                    params.set(i, resolver.resolve(ref));
+                }
+            }
+        }
+    }
+
+    private static int operationSlot(String field) {
+        for (int i = 0; i < OPERATION_ORDER.length; i++) {
+            if (OPERATION_ORDER[i].equals(field)) return i;
+        }
+        return -1;
+    }
+
+    private static List<ApiEndpoint> withServer(List<ApiEndpoint> endpoints, String server) {
+        String scheme = OpenAPIParser.extractScheme(server);
+        List<ApiEndpoint> result = new ArrayList<>(endpoints.size());
+        for (ApiEndpoint e : endpoints) {
+            result.add(new ApiEndpoint(e.getIndex(), scheme, e.getMethod(), server, e.getPath(),
+                    e.getParameters(), e.getDescription(), e.getSource(), e.getTags()));
+        }
+        return result;
+    }
+
+    /**
+     * @return the next token
+     * @throws UnsupportedSpecException if the token is a YAML alias
+     */
+    private static JsonToken next(JsonParser p) throws IOException, UnsupportedSpecException {
+        JsonToken t = p.nextToken();
+        if (p instanceof YAMLParser && ((YAMLParser) p).isCurrentAlias()) {
+            throw new UnsupportedSpecException("YAML alias");
+        }
+        return t;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, String what) throws UnsupportedSpecException {
+        if (actual != expected) {
+            throw new UnsupportedSpecException("unexpected " + actual + " for " + what);
+        }
+    }
+
+    private static class OperationData {
+        String summary;
+        String description;
+        final List<String> tags = new ArrayList<>();
+        final List<ApiEndpoint.ParameterInfo> parameters = new ArrayList<>();
+    }
+
+    /**
+     * Raised when the document uses a construct the streaming parser does not handle and
+     * the full Swagger Parser should be used instead.
+     */
+    public static class UnsupportedSpecException extends Exception {
+        public UnsupportedSpecException(String message) {
+            super(message);
+        }
+    }
+}
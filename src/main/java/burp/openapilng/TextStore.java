@@ -0,0 +1,273 @@
+package burp.openapilng;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressed, read-only store for long texts that are rarely read in full, such as
+ * operation descriptions. Texts are encoded as UTF-8 and packed into blocks of about
+ * {@value #BLOCK_BYTES} bytes, each deflated on its own, so reading one text inflates only
+ * its block. The last block read is kept, so a pass over consecutive texts inflates each
+ * block once.
+ * <p>
+ * Identical texts are stored once. Immutable and safe to share between threads.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class TextStore {
+
+    /** Raw bytes per block before it is deflated; larger blocks compress better but cost more per read. */
+    static final int BLOCK_BYTES = 32 * 1024;
+    /** Sanity limits for {@link #read(DataInputStream)}, so a corrupt entry cannot ask for huge arrays. */
+    private static final int MAX_COUNT = 50_000_000;
+    private static final int MAX_BLOCK_BYTES = 64 * 1024 * 1024;
+
+    private final byte[][] blocks;
+    private final int[] blockRawLengths;
+    private final int[] textBlocks;
+    private final int[] textOffsets;
+    private final int[] textLengths;
+    private CachedBlock lastBlock;
+
+    /**
+     * An inflated block and its number, replaced as a unit.
+     */
+    private static final class CachedBlock {
+        final int block;
+        final byte[] raw;
+
+        CachedBlock(int block, byte[] raw) {
+            this.block = block;
+            this.raw = raw;
+        }
+    }
+
+    private TextStore(Builder b) {
+        blocks = b.blocks.toArray(new byte[0][]);
+        blockRawLengths = Arrays.copyOf(b.blockRawLengths, blocks.length);
+        textBlocks = Arrays.copyOf(b.textBlocks, b.size);
+        textOffsets = Arrays.copyOf(b.textOffsets, b.size);
+        textLengths = Arrays.copyOf(b.textLengths, b.size);
+    }
+
+    private TextStore(byte[][] blocks, int[] blockRawLengths, int[] textBlocks, int[] textOffsets, int[] textLengths) {
+        this.blocks = blocks;
+        this.blockRawLengths = blockRawLengths;
+        this.textBlocks = textBlocks;
+        this.textOffsets = textOffsets;
+        this.textLengths = textLengths;
+    }
+
+    /**
+     * @return the number of distinct texts stored
+     */
+    public int size() {
+        return textBlocks.length;
+    }
+
+    /**
+     * @return compressed bytes held, for diagnostics
+     */
+    public long getCompressedBytes() {
+        long total = 0;
+        for (byte[] block : blocks) total += block.length;
+        return total;
+    }
+
+    /**
+     * @param id id returned by {@link Builder#add(String)}
+     * @return the text
+     */
+    public String get(int id) {
+        byte[] raw = block(textBlocks[id]);
+        return new String(raw, textOffsets[id], textLengths[id], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the store as it is held, blocks still deflated, so nothing is inflated.
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(blocks.length);
+        for (int i = 0; i < blocks.length; i++) {
+            out.writeInt(blockRawLengths[i]);
+            out.writeInt(blocks[i].length);
+            out.write(blocks[i]);
+        }
+        out.writeInt(textBlocks.length);
+        for (int i = 0; i < textBlocks.length; i++) {
+            out.writeInt(textBlocks[i]);
+            out.writeInt(textOffsets[i]);
+            out.writeInt(textLengths[i]);
+        }
+    }
+
+    /**
+     * Reads a store written by {@link #write(DataOutputStream)}. Blocks stay deflated until
+     * a text in them is read.
+     *
+     * @throws IOException if the data is truncated or a text lies outside its block
+     */
+    static TextStore read(DataInputStream in) throws IOException {
+        int blockCount = readLength(in, MAX_COUNT);
+        byte[][] blocks = new byte[blockCount][];
+        int[] blockRawLengths = new int[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            blockRawLengths[i] = readLength(in, MAX_BLOCK_BYTES);
+            blocks[i] = new byte[readLength(in, MAX_BLOCK_BYTES)];
+            in.readFully(blocks[i]);
+        }
+        int size = readLength(in, MAX_COUNT);
+        int[] textBlocks = new int[size];
+        int[] textOffsets = new int[size];
+        int[] textLengths = new int[size];
+        for (int i = 0; i < size; i++) {
+            int block = in.readInt();
+            int offset = in.readInt();
+            int length = in.readInt();
+            if (block < 0 || block >= blockCount || offset < 0 || length < 0
+                    || (long) offset + length > blockRawLengths[block]) {
+                throw new IOException("Corrupt text position");
+            }
+            textBlocks[i] = block;
+            textOffsets[i] = offset;
+            textLengths[i] = length;
+        }
+        return new TextStore(blocks, blockRawLengths, textBlocks, textOffsets, textLengths);
+    }
+
+    private static int readLength(DataInputStream in, int max) throws IOException {
+        int n = in.readInt();
+        if (n < 0 || n > max) throw new IOException("Corrupt length");
+        return n;
+    }
+
+    private byte[] block(int block) {
+        CachedBlock cached = lastBlock;
+        if (cached != null && cached.block == block) return cached.raw;
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(blocks[block]);
+            byte[] raw = new byte[blockRawLengths[block]];
+            int n = 0;
+            while (n < raw.length && !inflater.finished()) {
+                int read = inflater.inflate(raw, n, raw.length - n);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                n += read;
+            }
+            if (n != raw.length) throw new IllegalStateException("Truncated text block " + block);
+            lastBlock = new CachedBlock(block, raw);
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt text block " + block, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Collects texts and deflates each block as it fills.
+     */
+    public static final class Builder {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<byte[]> blocks = new ArrayList<>();
+        private final ByteArrayOutputStream current = new ByteArrayOutputStream(BLOCK_BYTES);
+        private final Deflater deflater = new Deflater();
+        private int[] blockRawLengths = new int[16];
+        private int[] textBlocks = new int[16];
+        private int[] textOffsets = new int[16];
+        private int[] textLengths = new int[16];
+        private int size;
+
+        /**
+         * @return the text's id, the same for every add of an equal text
+         */
+        public int add(String text) {
+            Integer existing = ids.get(text);
+            if (existing != null) return existing;
+            if (current.size() >= BLOCK_BYTES) flush();
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            if (size == textBlocks.length) {
+                textBlocks = Arrays.copyOf(textBlocks, size * 2);
+                textOffsets = Arrays.copyOf(textOffsets, size * 2);
+                textLengths = Arrays.copyOf(textLengths, size * 2);
+            }
+            textBlocks[size] = blocks.size();
+            textOffsets[size] = current.size();
+            textLengths[size] = utf8.length;
+            current.write(utf8, 0, utf8.length);
+            ids.put(text, size);
+            return size++;
+        }
+
+        /**
+         * Appends every text of {@code other} with its blocks copied still deflated, so none
+         * is inflated. Appended texts are not matched against equal texts already added.
+         *
+         * @return the id in this store of {@code other}'s first text; the rest follow in order
+         */
+        int addAll(TextStore other) {
+            if (current.size() > 0) flush();
+            int first = size;
+            int blockBase = blocks.size();
+            for (int b = 0; b < other.blocks.length; b++) {
+                if (blocks.size() == blockRawLengths.length) {
+                    blockRawLengths = Arrays.copyOf(blockRawLengths, blocks.size() * 2);
+                }
+                blockRawLengths[blocks.size()] = other.blockRawLengths[b];
+                blocks.add(other.blocks[b]);
+            }
+            int needed = size + other.size();
+            if (needed > textBlocks.length) {
+                int capacity = Math.max(needed, textBlocks.length * 2);
+                textBlocks = Arrays.copyOf(textBlocks, capacity);
+                textOffsets = Arrays.copyOf(textOffsets, capacity);
+                textLengths = Arrays.copyOf(textLengths, capacity);
+            }
+            for (int t = 0; t < other.size(); t++) {
+                textBlocks[size] = blockBase + other.textBlocks[t];
+                textOffsets[size] = other.textOffsets[t];
+                textLengths[size] = other.textLengths[t];
+                size++;
+            }
+            return first;
+        }
+
+        public TextStore build() {
+            if (current.size() > 0) flush();
+            deflater.end();
+            return new TextStore(this);
+        }
+
+        private void flush() {
+            byte[] raw = current.toByteArray();
+            current.reset();
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buf = new byte[Math.max(64, raw.length / 2)];
+            int n = 0;
+            while (!deflater.finished()) {
+                if (n == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+                n += deflater.deflate(buf, n, buf.length - n);
+            }
+            if (blocks.size() == blockRawLengths.length) {
+                blockRawLengths = Arrays.copyOf(blockRawLengths, blocks.size() * 2);
+            }
+            blockRawLengths[blocks.size()] = raw.length;
+            blocks.add(Arrays.copyOf(buf, n));
+        }
+    }
+}
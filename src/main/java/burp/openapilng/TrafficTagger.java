@@ -0,0 +1,126 @@
+package burp.openapilng;
+
+import burp.api.montoya.core.Annotations;
+import burp.api.montoya.core.ToolType;
+import burp.api.montoya.http.HttpService;
+import burp.api.montoya.http.handler.HttpHandler;
+import burp.api.montoya.http.handler.HttpRequestToBeSent;
+import burp.api.montoya.http.handler.HttpResponseReceived;
+import burp.api.montoya.http.handler.RequestToBeSentAction;
+import burp.api.montoya.http.handler.ResponseReceivedAction;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * HTTP handler that notes on each proxied request which loaded endpoint it matches, e.g.
+ * {@code OpenAPI: GET /users/{id}}, so proxy history can be searched and filtered by spec
+ * operation. Existing notes are kept and the tag appended.
+ * <p>
+ * Requests are matched against a {@link PathTemplateTrie} of the loaded endpoints; the
+ * match itself takes microseconds and allocates nothing. The trie is rebuilt in the
+ * background by {@link #setEndpoints(List)}; until it is ready, the previous one keeps
+ * matching. Only Proxy traffic is tagged, so the extension's own sends and other tools'
+ * traffic are left alone.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class TrafficTagger implements HttpHandler, Closeable {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "OpenAPI-NG trie");
+        t.setDaemon(true);
+        return t;
+    });
+    /** Read on Burp's proxy threads for every request. */
+    private volatile PathTemplateTrie trie;
+    private volatile boolean enabled = true;
+    private Future<?> pending;
+    private LoadProgress pendingProgress;
+
+    /**
+     * Compiles the endpoints in the background, replacing any build still running.
+     *
+     * @param endpoints every loaded endpoint; must not be modified while the build runs
+     */
+    public synchronized void setEndpoints(List<ApiEndpoint> endpoints) {
+        if (pendingProgress != null) pendingProgress.cancel();
+        if (pending != null) pending.cancel(true);
+        pending = null;
+        pendingProgress = null;
+        if (executor.isShutdown()) return;
+        if (endpoints.isEmpty()) {
+            trie = null;
+            return;
+        }
+        LoadProgress progress = new LoadProgress();
+        pendingProgress = progress;
+        pending = executor.submit(() -> {
+            try {
+                PathTemplateTrie built = PathTemplateTrie.build(endpoints, progress);
+                synchronized (this) {
+                    if (pendingProgress == progress) trie = built;
+                }
+            } catch (CancellationException e) {
+                // Superseded
+            }
+        });
+    }
+
+    /**
+     * @return the trie requests are matched against, or null before the first build
+     */
+    public PathTemplateTrie getTrie() {
+        return trie;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public RequestToBeSentAction handleHttpRequestToBeSent(HttpRequestToBeSent request) {
+        String notes = notesFor(request);
+        if (notes == null) return RequestToBeSentAction.continueWith(request);
+        return RequestToBeSentAction.continueWith(request, request.annotations().withNotes(notes));
+    }
+
+    @Override
+    public ResponseReceivedAction handleHttpResponseReceived(HttpResponseReceived response) {
+        return ResponseReceivedAction.continueWith(response);
+    }
+
+    /**
+     * @return the request's notes with its endpoint's tag appended, or null to leave them
+     *         as they are
+     */
+    String notesFor(HttpRequestToBeSent request) {
+        PathTemplateTrie current = trie;
+        if (!enabled || current == null || !request.toolSource().isFromTool(ToolType.PROXY)) return null;
+        HttpService service = request.httpService();
+        PathTemplateTrie.Match match = current.match(request.method(), service != null ? service.host() : "",
+                request.path());
+        if (match == null) return null;
+        Annotations annotations = request.annotations();
+        String existing = annotations.hasNotes() ? annotations.notes() : "";
+        if (existing.contains(match.getNote())) return null;
+        return existing.isEmpty() ? match.getNote() : existing + "; " + match.getNote();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (pendingProgress != null) pendingProgress.cancel();
+        executor.shutdownNow();
+        trie = null;
+    }
+}
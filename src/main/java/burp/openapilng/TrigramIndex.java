@@ -0,0 +1,424 @@
+package burp.openapilng;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Trigram index over the {@code method path server} text the endpoint filter matches
+ * against. A filter that must contain some literal text can only match rows containing
+ * every trigram of that text, so intersecting a few sorted posting lists narrows a large
+ * catalog to a handful of candidate rows before any regex runs.
+ * <p>
+ * Postings are stored in one {@code int[]}, with each trigram's rows sorted. Trigrams in
+ * more than a quarter of the rows, such as those of a server URL every endpoint shares,
+ * are not stored: they hardly narrow anything and would dominate memory. Queries simply
+ * ignore them.
+ * <p>
+ * The index is built on first use, on whichever thread asks first, so creating one for a
+ * new endpoint list is free. Once built it is immutable and safe to share between threads.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+public class TrigramIndex {
+
+    /** Lists smaller than this are scanned; the index would not pay for itself. */
+    static final int MIN_INDEXED_ROWS = 64;
+    /** Trigrams in more than 1 in this many rows get no posting list. */
+    private static final int COMMON_FRACTION = 4;
+    private static final int[] NO_ROWS = new int[0];
+    /** Letter escapes that stand for one character, class, or anchor and take no argument. */
+    private static final String ONE_CHAR_ESCAPES = "dDsSwWbBAGZzhHvVRXtnrfae";
+
+    private final List<ApiEndpoint> endpoints;
+    private final RowText text;
+    private boolean built;
+
+    /** Open-addressing table from trigram to id; {@code ids[slot] < 0} means empty. */
+    private long[] keys;
+    private int[] ids;
+    private int size;
+    /** Per id: start of its rows in {@link #postings}, or -1 if too common to store. */
+    private int[] starts;
+    private int[] counts;
+    private int[] postings;
+
+    /**
+     * Writes the text indexed for one endpoint into a reused buffer.
+     */
+    interface RowText {
+        StringBuilder append(ApiEndpoint e, StringBuilder row);
+    }
+
+    /**
+     * @param endpoints endpoints to index; must not be modified afterwards
+     */
+    public TrigramIndex(List<ApiEndpoint> endpoints) {
+        this(endpoints, TrigramIndex::rowText);
+    }
+
+    /**
+     * @param endpoints endpoints to index; must not be modified afterwards
+     * @param text the text to index for each endpoint
+     */
+    TrigramIndex(List<ApiEndpoint> endpoints, RowText text) {
+        this.endpoints = endpoints;
+        this.text = text;
+    }
+
+    /**
+     * @return the indexed endpoints
+     */
+    public List<ApiEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Appends the text the filter matches for an endpoint.
+     */
+    static StringBuilder rowText(ApiEndpoint e, StringBuilder row) {
+        row.setLength(0);
+        return row.append(e.getMethod()).append(' ').append(e.getPath()).append(' ').append(e.getServer());
+    }
+
+    /**
+     * Like {@link #rowText(ApiEndpoint, StringBuilder)}, lower-cased for case-insensitive queries.
+     */
+    static StringBuilder foldedRowText(ApiEndpoint e, StringBuilder row) {
+        rowText(e, row);
+        for (int i = 0; i < row.length(); i++) {
+            row.setCharAt(i, Character.toLowerCase(row.charAt(i)));
+        }
+        return row;
+    }
+
+    /**
+     * Rows that may contain every one of {@code literals}; the caller still has to confirm
+     * each candidate.
+     *
+     * @param literals strings every match must contain
+     * @return sorted row indexes, or null if the literals do not narrow the search and every
+     * row is a candidate
+     */
+    public int[] candidates(List<String> literals) {
+        if (endpoints.size() < MIN_INDEXED_ROWS || literals.isEmpty()) return null;
+        ensureBuilt();
+        List<int[]> ranges = new ArrayList<>();
+        for (String literal : literals) {
+            for (int i = 0; i + 3 <= literal.length(); i++) {
+                int id = find(trigram(literal.charAt(i), literal.charAt(i + 1), literal.charAt(i + 2)));
+                if (id < 0) return NO_ROWS; // No row contains it
+                if (starts[id] < 0) continue; // Too common to narrow anything
+                int[] range = {starts[id], counts[id]};
+                if (!containsRange(ranges, range)) ranges.add(range);
+            }
+        }
+        if (ranges.isEmpty()) return null;
+        ranges.sort((a, b) -> Integer.compare(a[1], b[1]));
+        return intersect(ranges);
+    }
+
+    private static boolean containsRange(List<int[]> ranges, int[] range) {
+        for (int[] r : ranges) {
+            if (r[0] == range[0]) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Keeps rows of the shortest list that appear in every other, binary-searching each
+     * longer list from where the previous match left off.
+     */
+    private int[] intersect(List<int[]> ranges) {
+        int[] first = ranges.get(0);
+        int[] result = Arrays.copyOfRange(postings, first[0], first[0] + first[1]);
+        int n = result.length;
+        for (int r = 1; r < ranges.size() && n > 0; r++) {
+            int from = ranges.get(r)[0];
+            int to = from + ranges.get(r)[1];
+            int kept = 0;
+            for (int i = 0; i < n && from < to; i++) {
+                int at = Arrays.binarySearch(postings, from, to, result[i]);
+                if (at >= 0) {
+                    result[kept++] = result[i];
+                    from = at + 1;
+                } else {
+                    from = -at - 1;
+                }
+            }
+            n = kept;
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * @return true once the postings have been built by a query
+     */
+    public synchronized boolean isBuilt() {
+        return built;
+    }
+
+    private synchronized void ensureBuilt() {
+        if (built) return;
+        int capacity = 1024;
+        keys = new long[capacity];
+        ids = new int[capacity];
+        Arrays.fill(ids, -1);
+        counts = new int[capacity];
+        int[] lastRow = new int[capacity];
+        Arrays.fill(lastRow, -1);
+
+        // Pass 1: assign ids and count the rows containing each trigram
+        StringBuilder row = new StringBuilder(128);
+        for (int r = 0; r < endpoints.size(); r++) {
+            text.append(endpoints.get(r), row);
+            for (int i = 0; i + 3 <= row.length(); i++) {
+                int id = intern(trigram(row.charAt(i), row.charAt(i + 1), row.charAt(i + 2)));
+                if (id >= counts.length) {
+                    counts = Arrays.copyOf(counts, counts.length * 2);
+                    int old = lastRow.length;
+                    lastRow = Arrays.copyOf(lastRow, old * 2);
+                    Arrays.fill(lastRow, old, lastRow.length, -1);
+                }
+                if (lastRow[id] != r) {
+                    lastRow[id] = r;
+                    counts[id]++;
+                }
+            }
+        }
+
+        // Lay out posting lists, skipping trigrams too common to be worth storing
+        int limit = Math.max(1, endpoints.size() / COMMON_FRACTION);
+        starts = new int[size];
+        long total = 0;
+        for (int id = 0; id < size; id++) {
+            if (counts[id] > limit) {
+                starts[id] = -1;
+            } else {
+                starts[id] = (int) total;
+                total += counts[id];
+            }
+        }
+        postings = new int[(int) total];
+
+        // Pass 2: fill them; rows arrive in order, so each list comes out sorted
+        int[] fill = new int[size];
+        Arrays.fill(lastRow, -1);
+        for (int r = 0; r < endpoints.size(); r++) {
+            text.append(endpoints.get(r), row);
+            for (int i = 0; i + 3 <= row.length(); i++) {
+                int id = find(trigram(row.charAt(i), row.charAt(i + 1), row.charAt(i + 2)));
+                if (starts[id] < 0 || lastRow[id] == r) continue;
+                lastRow[id] = r;
+                postings[starts[id] + fill[id]++] = r;
+            }
+        }
+        built = true;
+    }
+
+    private static long trigram(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        for (int s = slot(key, mask); ; s = (s + 1) & mask) {
+            if (ids[s] < 0) return -1;
+            if (keys[s] == key) return ids[s];
+        }
+    }
+
+    private int intern(long key) {
+        int mask = keys.length - 1;
+        int s = slot(key, mask);
+        while (ids[s] >= 0) {
+            if (keys[s] == key) return ids[s];
+            s = (s + 1) & mask;
+        }
+        keys[s] = key;
+        ids[s] = size;
+        if (++size * 2 > keys.length) rehash();
+        return size - 1;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldIds = ids;
+        keys = new long[oldKeys.length * 2];
+        ids = new int[oldIds.length * 2];
+        Arrays.fill(ids, -1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldIds[i] < 0) continue;
+            int s = slot(oldKeys[i], mask);
+            while (ids[s] >= 0) s = (s + 1) & mask;
+            keys[s] = oldKeys[i];
+            ids[s] = oldIds[i];
+        }
+    }
+
+    /**
+     * Extracts runs of literal text that every match of {@code regex} must contain. The
+     * analysis is conservative: anything it does not fully understand (alternation at the
+     * top level, inline flags, quoting, escapes that take an argument such as {@code \x41}
+     * or a backreference) yields no literals, and groups, classes, and
+     * optional characters simply end the current run.
+     *
+     * @param regex filter regex, as passed to {@link java.util.regex.Pattern#compile(String)}
+     * @return required literals of at least three characters, possibly none
+     */
+    public static List<String> requiredLiterals(String regex) {
+        List<String> out = new ArrayList<>();
+        if (regex == null || regex.contains("(?") || regex.contains("\\Q") || hasTopLevelAlternation(regex)) {
+            return out;
+        }
+        StringBuilder run = new StringBuilder();
+        int n = regex.length();
+        int i = 0;
+        while (i < n) {
+            char c = regex.charAt(i);
+            char literal = 0;
+            boolean isLiteral = false;
+            int next;
+            if (c == '\\') {
+                if (i + 1 >= n) break;
+                char escaped = regex.charAt(i + 1);
+                if (Character.isLetterOrDigit(escaped) && ONE_CHAR_ESCAPES.indexOf(escaped) < 0) {
+                    // Hex, octal, and control escapes, properties, and backreferences take arguments that are not literal text
+                    return new ArrayList<>();
+                }
+                // Known letter escapes are classes, anchors, or control characters; the rest are literal
+                isLiteral = !Character.isLetterOrDigit(escaped);
+                literal = escaped;
+                next = i + 2;
+            } else if (c == '[') {
+                next = skipClass(regex, i);
+            } else if (c == '(') {
+                next = skipGroup(regex, i);
+            } else if (".^$)|*+?{".indexOf(c) >= 0) {
+                next = i + 1;
+            } else {
+                isLiteral = true;
+                literal = c;
+                next = i + 1;
+            }
+
+            boolean optional = false;
+            boolean repeated = false;
+            if (next < n) {
+                char q = regex.charAt(next);
+                if (q == '*' || q == '?') {
+                    optional = true;
+                    next++;
+                } else if (q == '+') {
+                    repeated = true;
+                    next++;
+                } else if (q == '{') {
+                    int close = regex.indexOf('}', next);
+                    if (close > next) {
+                        String bounds = regex.substring(next + 1, close);
+                        optional = bounds.startsWith("0") || bounds.startsWith(",");
+                        repeated = true;
+                        next = close + 1;
+                    }
+                }
+                // Lazy and possessive suffixes
+                if ((optional || repeated) && next < n && (regex.charAt(next) == '?' || regex.charAt(next) == '+')) {
+                    next++;
+                }
+            }
+
+            if (isLiteral && !optional) {
+                run.append(literal);
+                if (repeated) flush(run, out);
+            } else {
+                flush(run, out);
+            }
+            i = next;
+        }
+        flush(run, out);
+        return out;
+    }
+
+    private static void flush(StringBuilder run, List<String> out) {
+        if (run.length() >= 3) out.add(run.toString());
+        run.setLength(0);
+    }
+
+    private static boolean hasTopLevelAlternation(String regex) {
+        int depth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipClass(regex, i) - 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the index just past the character class starting at {@code open}
+     */
+    private static int skipClass(String regex, int open) {
+        int depth = 0;
+        int i = open;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                // A ']' straight after '[' or '[^' is a literal member
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') i++;
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') i++;
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return regex.length();
+    }
+
+    /**
+     * @return the index just past the group starting at {@code open}
+     */
+    private static int skipGroup(String regex, int open) {
+        int depth = 0;
+        int i = open;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                i = skipClass(regex, i);
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return regex.length();
+    }
+}
@@ -45,4 +45,71 @@ class ApiEndpointTest {
         var p = new ApiEndpoint.ParameterInfo("x", "query", null);
         assertEquals("", p.getPlaceholderValue());
     }
+
+    @Test
+    void equals_sameValues_equal() {
+        var a = new ApiEndpoint(1, "https", "GET", "https://api.test.com", "/users/{id}",
+                List.of(new ApiEndpoint.ParameterInfo("id", "path", "1")), "Get");
+        var b = new ApiEndpoint(1, "https", "GET", "https://api.test.com", "/users/{id}",
+                List.of(new ApiEndpoint.ParameterInfo("id", "path", "1")), "Get");
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+
+    @Test
+    void equals_differentParameterOrIndex_notEqual() {
+        var a = new ApiEndpoint(1, "https", "GET", "", "/users", List.of(new ApiEndpoint.ParameterInfo("q", "query", "")), "");
+        var b = new ApiEndpoint(1, "https", "GET", "", "/users", List.of(new ApiEndpoint.ParameterInfo("q", "header", "")), "");
+        var c = new ApiEndpoint(2, "https", "GET", "", "/users", List.of(new ApiEndpoint.ParameterInfo("q", "query", "")), "");
+        assertNotEquals(a, b);
+        assertNotEquals(a, c);
+        assertEquals(new ApiEndpoint.ParameterInfo(null, "query", null), new ApiEndpoint.ParameterInfo(null, "query", ""));
+    }
+
+    @Test
+    void withSource_copiesWithNewIndexAndSource() {
+        var params = List.of(new ApiEndpoint.ParameterInfo("id", "path", "1"));
+        var ep = new ApiEndpoint(3, "https", "GET", "https://api.test.com", "/users/{id}", params, "Get");
+        assertEquals("", ep.getSource());
+        var copy = ep.withSource(10, "users/openapi.yaml");
+        assertEquals(10, copy.getIndex());
+        assertEquals("users/openapi.yaml", copy.getSource());
+        assertEquals("/users/{id}", copy.getPath());
+        assertSame(params, copy.getParameters());
+        assertNotEquals(ep.withSource(3, "a.yaml"), ep.withSource(3, "b.yaml"));
+    }
+
+    @Test
+    void tags_keptByWithSourceAndCompared() {
+        var ep = new ApiEndpoint(1, "https", "GET", "https://api.test.com", "/x", List.of(), "", "", List.of("billing"));
+        assertEquals(List.of("billing"), ep.withSource(2, "a.yaml").getTags());
+        assertEquals(List.of(), new ApiEndpoint(1, "https", "GET", "", "/x", List.of(), "").getTags());
+        assertNotEquals(ep, new ApiEndpoint(1, "https", "GET", "https://api.test.com", "/x", List.of(), "", "", List.of("users")));
+    }
+
+    @Test
+    void cells_formattedOnceAndReused() {
+        var params = List.of(new ApiEndpoint.ParameterInfo("id", "path", "1"),
+                new ApiEndpoint.ParameterInfo("session", "cookie", ""));
+        var ep = new ApiEndpoint(1000, "https", "GET", "", "/users/{id}", params, "");
+        assertEquals("PATH:id, COOKIE:session", ep.parametersCell());
+        assertSame(ep.parametersCell(), ep.parametersCell());
+        assertEquals(Integer.valueOf(1000), ep.indexCell());
+        assertSame(ep.indexCell(), ep.indexCell());
+        assertEquals("", new ApiEndpoint(1, "https", "GET", "", "/", List.of(), "").parametersCell());
+    }
+
+    @Test
+    void descriptionPreview_firstNonBlankLine() {
+        String oneLine = "List users";
+        assertSame(oneLine, ApiEndpoint.preview(oneLine));
+        assertEquals("List users", ApiEndpoint.preview("\n  \n  List users  \r\nMore detail"));
+        assertEquals("", ApiEndpoint.preview(""));
+        String longLine = ApiEndpoint.preview("x".repeat(1000));
+        assertEquals(ApiEndpoint.PREVIEW_CHARS, longLine.length());
+        assertTrue(longLine.endsWith("\u2026"));
+        var ep = new ApiEndpoint(1, "https", "GET", "", "/", List.of(), "Summary\n\nDetails");
+        assertEquals("Summary", ep.getDescriptionPreview());
+        assertEquals("Summary\n\nDetails", ep.getDescription());
+    }
 }
@@ -0,0 +1,119 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BackgroundFilter} and the model's background filter entry points.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class BackgroundFilterTest {
+
+    private static List<ApiEndpoint> endpoints(int count) {
+        List<ApiEndpoint> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(new ApiEndpoint(i + 1, "https", i % 2 == 0 ? "GET" : "POST", "https://api.test",
+                    "/items/" + i, List.of(), ""));
+        }
+        return result;
+    }
+
+    @Test
+    void request_burstOfKeystrokes_publishesOnlyLatest() throws InterruptedException {
+        List<String> published = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        List<ApiEndpoint> eps = endpoints(100);
+        try (BackgroundFilter filter = new BackgroundFilter(50, Runnable::run)) {
+            for (String text : new String[]{"P", "PO", "POS", "POST"}) {
+                filter.request(new FieldIndex(eps), text, (regex, source, filtered) -> {
+                    published.add(regex + "=" + filtered.size());
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            Thread.sleep(150);
+        }
+        assertEquals(List.of("POST=50"), published);
+    }
+
+    @Test
+    void request_supersedesRunningPass() throws InterruptedException {
+        // A pattern slow enough that the first pass is still running when the second request arrives
+        List<ApiEndpoint> eps = endpoints(200_000);
+        List<String> published = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        try (BackgroundFilter filter = new BackgroundFilter(0, Runnable::run)) {
+            filter.request(new FieldIndex(eps), "(.*a){6}", (regex, source, filtered) -> published.add(regex));
+            Thread.sleep(20);
+            filter.request(new FieldIndex(eps), "GET", (regex, source, filtered) -> {
+                published.add(regex + "=" + filtered.size());
+                done.countDown();
+            });
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of("GET=100000"), published);
+    }
+
+    @Test
+    void cancel_dropsPendingPass() throws InterruptedException {
+        List<String> published = new CopyOnWriteArrayList<>();
+        try (BackgroundFilter filter = new BackgroundFilter(50, Runnable::run)) {
+            filter.request(new FieldIndex(endpoints(10)), "GET", (regex, source, filtered) -> published.add(regex));
+            filter.cancel();
+            Thread.sleep(150);
+        }
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void filter_cancelledProgress_throws() {
+        LoadProgress progress = new LoadProgress();
+        progress.cancel();
+        assertThrows(CancellationException.class,
+                () -> EndpointTableModel.filter(endpoints(10), Pattern.compile("GET"), progress));
+        assertEquals(10, EndpointTableModel.filter(endpoints(10), null, progress).size());
+    }
+
+    @Test
+    void compileFilter_blankInvalidOrLong_isNull() {
+        assertNull(EndpointTableModel.compileFilter(null));
+        assertNull(EndpointTableModel.compileFilter(" "));
+        assertNull(EndpointTableModel.compileFilter("[invalid"));
+        assertNull(EndpointTableModel.compileFilter("a".repeat(501)));
+        assertNotNull(EndpointTableModel.compileFilter("GET"));
+    }
+
+    @Test
+    void setFilterResult_publishesFilteredRows() {
+        var model = new EndpointTableModel();
+        List<ApiEndpoint> eps = endpoints(10);
+        model.setEndpoints(eps);
+        model.setFilterResult("POST", model.getAllEndpoints(),
+                EndpointTableModel.filter(eps, Pattern.compile("POST"), LoadProgress.untracked()));
+        assertEquals(5, model.getFilterHitCount());
+        assertEquals("POST", model.getFilter());
+    }
+
+    @Test
+    void setFilterResult_staleSource_refilters() {
+        var model = new EndpointTableModel();
+        List<ApiEndpoint> old = endpoints(10);
+        model.setEndpoints(old);
+        List<ApiEndpoint> stale = EndpointTableModel.filter(old, Pattern.compile("GET"), LoadProgress.untracked());
+        model.setEndpoints(endpoints(4));
+        model.setFilterResult("GET", old, stale);
+        assertEquals(2, model.getFilterHitCount());
+    }
+}
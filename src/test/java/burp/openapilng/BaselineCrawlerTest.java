@@ -0,0 +1,178 @@
+package burp.openapilng;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BaselineCrawler}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class BaselineCrawlerTest {
+
+    private static List<ApiEndpoint> endpoints(int count, String... servers) {
+        List<ApiEndpoint> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(new ApiEndpoint(i + 1, "https", "GET", servers[i % servers.length], "/items/" + i, List.of(), ""));
+        }
+        return result;
+    }
+
+    @Test
+    void crawl_recordsEveryEndpoint_alignedWithInput() {
+        List<ApiEndpoint> eps = endpoints(50, "https://a.test");
+        var crawler = new BaselineCrawler(ep -> BaselineCrawler.Baseline.response(200, ep.getIndex()), 10_000, 8, 0, 0);
+        AtomicInteger callbacks = new AtomicInteger();
+        BaselineCrawler.Baseline[] results = crawler.crawl(eps, ApiEndpoint::getServer,
+                (ep, b, done, total) -> {
+                    callbacks.incrementAndGet();
+                    assertEquals(50, total);
+                }, new LoadProgress());
+        assertEquals(50, callbacks.get());
+        for (int i = 0; i < eps.size(); i++) {
+            assertEquals(200, results[i].getStatus());
+            assertEquals(i + 1, results[i].getLength());
+            assertEquals(1, results[i].getAttempts());
+            assertNull(results[i].getError());
+        }
+    }
+
+    @Test
+    void crawl_perHostCap_isRespected() {
+        List<ApiEndpoint> eps = endpoints(60, "https://a.test", "https://b.test");
+        Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> peak = new ConcurrentHashMap<>();
+        var crawler = new BaselineCrawler(ep -> {
+            AtomicInteger now = inFlight.computeIfAbsent(ep.getServer(), k -> new AtomicInteger());
+            int n = now.incrementAndGet();
+            peak.computeIfAbsent(ep.getServer(), k -> new AtomicInteger()).accumulateAndGet(n, Math::max);
+            Thread.sleep(5);
+            now.decrementAndGet();
+            return BaselineCrawler.Baseline.response(200, 0);
+        }, 10_000, 3, 0, 0);
+        crawler.crawl(eps, ApiEndpoint::getServer, null, new LoadProgress());
+        assertTrue(peak.get("https://a.test").get() <= 3);
+        assertTrue(peak.get("https://b.test").get() <= 3);
+    }
+
+    @Test
+    void crawl_retriesFailuresAndRetryableStatuses() {
+        AtomicInteger calls = new AtomicInteger();
+        var flaky = new BaselineCrawler(ep -> {
+            if (calls.incrementAndGet() < 3) throw new IOException("reset");
+            return BaselineCrawler.Baseline.response(200, 10);
+        }, 10_000, 1, 2, 1);
+        BaselineCrawler.Baseline b = flaky.crawl(endpoints(1, "https://a.test"), ApiEndpoint::getServer, null,
+                new LoadProgress())[0];
+        assertEquals(200, b.getStatus());
+        assertEquals(3, b.getAttempts());
+
+        var busy = new BaselineCrawler(ep -> BaselineCrawler.Baseline.response(503, 0), 10_000, 1, 1, 1);
+        b = busy.crawl(endpoints(1, "https://a.test"), ApiEndpoint::getServer, null, new LoadProgress())[0];
+        assertEquals(503, b.getStatus());
+        assertEquals(2, b.getAttempts());
+
+        var down = new BaselineCrawler(ep -> {
+            throw new IOException("refused");
+        }, 10_000, 1, 0, 1);
+        b = down.crawl(endpoints(1, "https://a.test"), ApiEndpoint::getServer, null, new LoadProgress())[0];
+        assertEquals("IOException: refused", b.getError());
+        assertTrue(b.toString().startsWith("error: "));
+    }
+
+    @Test
+    void crawl_cancelled_throws() {
+        var progress = new LoadProgress();
+        progress.cancel();
+        var crawler = new BaselineCrawler(ep -> BaselineCrawler.Baseline.response(200, 0), 10_000, 1, 0, 0);
+        assertThrows(CancellationException.class,
+                () -> crawler.crawl(endpoints(5, "https://a.test"), ApiEndpoint::getServer, null, progress));
+    }
+
+    @Test
+    void tokenBucket_spacesRequestsAfterBurst() {
+        var bucket = new BaselineCrawler.TokenBucket(10, 2);
+        long t0 = System.nanoTime();
+        assertEquals(0, bucket.reserve(t0));
+        assertEquals(0, bucket.reserve(t0));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.reserve(t0), TimeUnit.MICROSECONDS.toNanos(10));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), bucket.reserve(t0), TimeUnit.MICROSECONDS.toNanos(10));
+        // A second later the debt is paid and one token has accrued again
+        assertEquals(0, bucket.reserve(t0 + TimeUnit.SECONDS.toNanos(1) + TimeUnit.MILLISECONDS.toNanos(300)));
+    }
+
+    @Test
+    void crawl_rateLimit_boundsThroughput() {
+        List<ApiEndpoint> eps = endpoints(30, "https://a.test");
+        var crawler = new BaselineCrawler(ep -> BaselineCrawler.Baseline.response(200, 0), 100, 30, 0, 0);
+        long start = System.nanoTime();
+        crawler.crawl(eps, ApiEndpoint::getServer, null, new LoadProgress());
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        // 30 requests at 100/s with a burst of 100 finish at once; 230 would take over a second
+        assertTrue(millis < 1000, "took " + millis + " ms");
+
+        var slow = new BaselineCrawler(ep -> BaselineCrawler.Baseline.response(200, 0), 20, 30, 0, 0);
+        start = System.nanoTime();
+        slow.crawl(endpoints(30, "https://a.test"), ApiEndpoint::getServer, null, new LoadProgress());
+        millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        // Burst of 20, then 10 more at 20/s
+        assertTrue(millis >= 400, "took " + millis + " ms");
+    }
+
+    @Test
+    void crawl_localServer_sustainsHundredsPerSecond() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ExecutorService handlers = Executors.newFixedThreadPool(16);
+        server.setExecutor(handlers);
+        server.createContext("/", exchange -> {
+            byte[] body = exchange.getRequestURI().getPath().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        try {
+            List<ApiEndpoint> eps = endpoints(400, base);
+            var crawler = new BaselineCrawler(ep -> {
+                HttpURLConnection c = (HttpURLConnection) new URL(ep.getServer() + ep.getPath()).openConnection();
+                try (InputStream in = c.getInputStream()) {
+                    return BaselineCrawler.Baseline.response(c.getResponseCode(), in.readAllBytes().length);
+                }
+            }, 2000, 16, 1, 10);
+            long start = System.nanoTime();
+            BaselineCrawler.Baseline[] results = crawler.crawl(eps, ApiEndpoint::getServer, null, new LoadProgress());
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            for (int i = 0; i < eps.size(); i++) {
+                assertEquals(200, results[i].getStatus());
+                assertEquals(("/items/" + i).length(), results[i].getLength());
+            }
+            assertTrue(millis < 4000, "400 requests took " + millis + " ms");
+        } finally {
+            server.stop(0);
+            handlers.shutdownNow();
+        }
+    }
+}
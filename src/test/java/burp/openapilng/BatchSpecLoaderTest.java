@@ -0,0 +1,167 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BatchSpecLoader}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class BatchSpecLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    private static String spec(String... paths) {
+        StringBuilder sb = new StringBuilder("{\"openapi\":\"3.0.0\",\"info\":{\"title\":\"x\",\"version\":\"1\"},"
+                + "\"servers\":[{\"url\":\"https://api.example.com\"}],\"paths\":{");
+        for (int i = 0; i < paths.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"').append(paths[i]).append("\":{\"get\":{\"summary\":\"s\"}}");
+        }
+        return sb.append("}}").toString();
+    }
+
+    @Test
+    void isBatchInput_directoryOrGlob() throws Exception {
+        Path file = Files.writeString(dir.resolve("openapi.json"), "{}");
+        assertTrue(BatchSpecLoader.isBatchInput(dir.toString()));
+        assertTrue(BatchSpecLoader.isBatchInput(dir + "/*.json"));
+        assertFalse(BatchSpecLoader.isBatchInput(file.toString()));
+        assertFalse(BatchSpecLoader.isBatchInput(" "));
+    }
+
+    @Test
+    void isBatchInput_existingFileWithGlobCharacters_isLiteral() throws Exception {
+        Path file = Files.writeString(dir.resolve("api{v2}[1].yaml"), "openapi: 3.0.0");
+        assertFalse(BatchSpecLoader.isBatchInput(file.toString()));
+        assertTrue(BatchSpecLoader.isBatchInput(dir + "/api{v2,v3}.yaml"));
+
+        Path literalDir = Files.createDirectories(dir.resolve("specs{v2}"));
+        Path spec = Files.writeString(literalDir.resolve("a.json"), "{}");
+        assertTrue(BatchSpecLoader.isBatchInput(literalDir.toString()));
+        assertEquals(List.of(spec), BatchSpecLoader.findSpecs(literalDir.toString()));
+    }
+
+    @Test
+    void findSpecs_directory_recursesForSpecFiles() throws Exception {
+        Files.createDirectories(dir.resolve("svc/nested"));
+        Files.writeString(dir.resolve("a.json"), "{}");
+        Files.writeString(dir.resolve("svc/b.yaml"), "openapi: 3.0.0");
+        Files.writeString(dir.resolve("svc/nested/c.yml"), "openapi: 3.0.0");
+        Files.writeString(dir.resolve("svc/notes.txt"), "x");
+        var found = BatchSpecLoader.findSpecs(dir.toString());
+        assertEquals(List.of(dir.resolve("a.json"), dir.resolve("svc/b.yaml"), dir.resolve("svc/nested/c.yml")), found);
+    }
+
+    @Test
+    void findSpecs_glob_matchesOnlyPattern() throws Exception {
+        Files.createDirectories(dir.resolve("orders"));
+        Files.createDirectories(dir.resolve("users/v2"));
+        Files.writeString(dir.resolve("orders/openapi.yaml"), "x");
+        Files.writeString(dir.resolve("orders/other.yaml"), "x");
+        Files.writeString(dir.resolve("users/openapi.yaml"), "x");
+        Files.writeString(dir.resolve("users/v2/openapi.yaml"), "x");
+        var found = BatchSpecLoader.findSpecs(dir + "/*/openapi.yaml");
+        assertEquals(List.of(dir.resolve("orders/openapi.yaml"), dir.resolve("users/openapi.yaml")), found);
+        assertEquals(3, BatchSpecLoader.findSpecs(dir + "/**/openapi.yaml").size());
+    }
+
+    @Test
+    void findSpecs_missingDirectory_throws() {
+        assertThrows(java.io.IOException.class, () -> BatchSpecLoader.findSpecs(dir.resolve("missing").toString()));
+    }
+
+    @Test
+    void load_mergesInFileOrderAndReportsFailures() throws Exception {
+        Files.createDirectories(dir.resolve("billing"));
+        Files.writeString(dir.resolve("a.json"), spec("/a1", "/a2"));
+        Files.writeString(dir.resolve("b.json"), "{ not a spec");
+        Files.writeString(dir.resolve("billing/c.json"), spec("/c1"));
+        List<String> progress = Collections.synchronizedList(new ArrayList<>());
+
+        var result = new BatchSpecLoader(new OpenAPIParser(), 3).load(dir.toString(),
+                (outcome, done, total) -> progress.add(done + "/" + total));
+
+        assertEquals(List.of("1/3", "2/3", "3/3"), progress);
+        assertEquals(3, result.getSpecs().size());
+        assertEquals(1, result.getFailedCount());
+        assertTrue(result.getSpecs().get(1).isFailed());
+        assertEquals("b.json", result.getSpecs().get(1).getSource());
+        assertFalse(result.getSpecs().get(1).getMessages().isEmpty());
+
+        var endpoints = result.getEndpoints();
+        assertEquals(3, endpoints.size());
+        assertEquals("/a1", endpoints.get(0).getPath());
+        assertEquals("a.json", endpoints.get(0).getSource());
+        assertEquals("/c1", endpoints.get(2).getPath());
+        assertEquals("billing/c.json", endpoints.get(2).getSource());
+        for (int i = 0; i < endpoints.size(); i++) {
+            assertEquals(i + 1, endpoints.get(i).getIndex());
+        }
+    }
+
+    @Test
+    void load_specThrowingError_isRecordedAndBatchContinues() throws Exception {
+        Files.writeString(dir.resolve("a.json"), spec("/a"));
+        Files.writeString(dir.resolve("deep.json"), spec("/deep"));
+        OpenAPIParser parser = new OpenAPIParser() {
+            @Override
+            public ParseResult parseSource(String location, SpecSource source, LoadProgress progress) {
+                if (location.endsWith("deep.json")) throw new StackOverflowError();
+                return super.parseSource(location, source, progress);
+            }
+        };
+
+        var result = new BatchSpecLoader(parser, 2).load(dir.toString(), null);
+
+        assertEquals(2, result.getSpecs().size());
+        assertEquals(1, result.getFailedCount());
+        assertTrue(result.getSpecs().get(1).getMessages().get(0).startsWith("StackOverflowError"));
+        assertEquals(1, result.getEndpoints().size());
+        assertEquals("/a", result.getEndpoints().get(0).getPath());
+    }
+
+    @Test
+    void load_fatalError_propagatesAsFailureNotCancellation() throws Exception {
+        Files.writeString(dir.resolve("a.json"), spec("/a"));
+        OpenAPIParser parser = new OpenAPIParser() {
+            @Override
+            public ParseResult parseSource(String location, SpecSource source, LoadProgress progress) {
+                throw new OutOfMemoryError("test");
+            }
+        };
+        var progress = new LoadProgress();
+        assertThrows(OutOfMemoryError.class,
+                () -> new BatchSpecLoader(parser, 1).load(dir.toString(), null, progress));
+        assertFalse(progress.isCancelled());
+    }
+
+    @Test
+    void load_noFiles_returnsEmpty() throws Exception {
+        var result = new BatchSpecLoader(new OpenAPIParser(), 2).load(dir.toString(), null);
+        assertTrue(result.getEndpoints().isEmpty());
+        assertTrue(result.getSpecs().isEmpty());
+        assertEquals(0, result.getFailedCount());
+    }
+
+    @Test
+    void load_cancelledProgress_throws() throws Exception {
+        Files.writeString(dir.resolve("a.json"), spec("/a"));
+        var progress = new LoadProgress();
+        progress.cancel();
+        assertThrows(java.util.concurrent.CancellationException.class,
+                () -> new BatchSpecLoader(new OpenAPIParser(), 2).load(dir.toString(), null, progress));
+    }
+}
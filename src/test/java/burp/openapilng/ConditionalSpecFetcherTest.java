@@ -0,0 +1,204 @@
+package burp.openapilng;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ConditionalSpecFetcher}, against a local stand-in HTTP server.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class ConditionalSpecFetcherTest {
+
+    private static final String SPEC = "{\"openapi\":\"3.0.0\",\"paths\":{\"/a\":{\"get\":{}}}}";
+    private static final String ETAG = "\"v1\"";
+    private static final String LAST_MODIFIED = "Wed, 14 Oct 2026 10:00:00 GMT";
+
+    @TempDir
+    Path dir;
+
+    private HttpServer server;
+    private String url;
+    private volatile String encoding;
+    private volatile boolean validators = true;
+    private final List<Map<String, List<String>>> requests = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/openapi.json", exchange -> {
+            requests.add(exchange.getRequestHeaders());
+            if (validators && ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = encode(SPEC.getBytes(StandardCharsets.UTF_8), encoding);
+            if (encoding != null) exchange.getResponseHeaders().set("Content-Encoding", encoding);
+            if (validators) {
+                exchange.getResponseHeaders().set("ETag", ETAG);
+                exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/openapi.json";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void fetch_sendsAcceptEncodingAndStoresBody() throws Exception {
+        var fetcher = new ConditionalSpecFetcher(new UrlConnectionTransport(), dir);
+        var fetched = fetcher.fetch(url);
+        assertFalse(fetched.isNotModified());
+        assertNull(fetched.getResultKey());
+        assertEquals(SPEC, fetched.getContent().decode());
+        assertEquals(ConditionalSpecFetcher.ACCEPT_ENCODING, requests.get(0).get("Accept-Encoding").get(0));
+        assertNull(requests.get(0).get("If-None-Match"));
+    }
+
+    @Test
+    void fetch_secondRequestConditional_reusesBodyAndResultKey() throws Exception {
+        var fetcher = new ConditionalSpecFetcher(new UrlConnectionTransport(), dir);
+        var parser = new OpenAPIParser();
+        var cache = new ParseCache(dir.resolve("parse"), ParseCache.DEFAULT_MAX_BYTES);
+        parser.setCache(cache);
+        parser.setStreaming(true);
+        var result = parser.parseSource(url, fetcher.fetch(url).getContent());
+        assertNotNull(result.getCacheKey());
+        fetcher.remember(url, result);
+
+        var again = fetcher.fetch(url);
+        assertTrue(again.isNotModified());
+        assertEquals(result.getCacheKey(), again.getResultKey());
+        assertEquals(result.getEndpoints(), cache.get(again.getResultKey()).getEndpoints());
+        assertEquals(SPEC, again.getContent().decode());
+        assertEquals(ETAG, requests.get(1).get("If-None-Match").get(0));
+        assertEquals(LAST_MODIFIED, requests.get(1).get("If-Modified-Since").get(0));
+    }
+
+    @Test
+    void remember_uncachedResult_notKept() throws Exception {
+        var fetcher = new ConditionalSpecFetcher(new UrlConnectionTransport(), dir);
+        fetcher.fetch(url);
+        fetcher.remember(url, new OpenAPIParser.ParseResult(
+                List.of(new ApiEndpoint(1, "https", "GET", "", "/a", List.of(), "")), new ArrayList<>(), ""));
+        assertNull(fetcher.fetch(url).getResultKey());
+    }
+
+    @Test
+    void fetch_validatorsSurviveRestart_bodyFromDisk() throws Exception {
+        new ConditionalSpecFetcher(new UrlConnectionTransport(), dir).fetch(url);
+        var fresh = new ConditionalSpecFetcher(new UrlConnectionTransport(), dir);
+        var fetched = fresh.fetch(url);
+        assertTrue(fetched.isNotModified());
+        assertNull(fetched.getResultKey());
+        assertEquals(SPEC, fetched.getContent().decode());
+    }
+
+    @Test
+    void fetch_withoutValidators_neverConditional() throws Exception {
+        validators = false;
+        var fetcher = new ConditionalSpecFetcher(new UrlConnectionTransport(), dir);
+        fetcher.fetch(url);
+        var second = fetcher.fetch(url);
+        assertFalse(second.isNotModified());
+        assertNull(requests.get(1).get("If-None-Match"));
+        assertNull(requests.get(1).get("If-Modified-Since"));
+    }
+
+    @Test
+    void fetch_gzipAndDeflateBodies_decompressed() throws Exception {
+        for (String enc : new String[]{"gzip", "deflate"}) {
+            encoding = enc;
+            validators = false;
+            var fetched = new ConditionalSpecFetcher(new UrlConnectionTransport(), dir.resolve(enc)).fetch(url);
+            assertEquals(SPEC, fetched.getContent().decode(), enc);
+        }
+    }
+
+    @Test
+    void fetch_errorStatus_throws() {
+        var fetcher = new ConditionalSpecFetcher(new UrlConnectionTransport(), dir);
+        String missing = url.replace("/openapi.json", "/missing");
+        IOException e = assertThrows(IOException.class, () -> fetcher.fetch(missing));
+        assertTrue(e.getMessage().contains("404"));
+    }
+
+    @Test
+    void decode_unknownOrPredecodedGzip() throws Exception {
+        var plain = new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8));
+        assertEquals("{}", new String(ConditionalSpecFetcher.decode(plain, "gzip").readAllBytes(), StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> ConditionalSpecFetcher.decode(new ByteArrayInputStream(new byte[0]), "br"));
+    }
+
+    private static byte[] encode(byte[] body, String encoding) throws IOException {
+        if (encoding == null) return body;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = "gzip".equals(encoding) ? new GZIPOutputStream(bytes) : new DeflaterOutputStream(bytes)) {
+            out.write(body);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Plain JDK transport; like Burp's, it leaves bodies compressed. */
+    private static class UrlConnectionTransport implements ConditionalSpecFetcher.Transport {
+        @Override
+        public ConditionalSpecFetcher.Response get(String url, Map<String, String> headers) throws IOException {
+            HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+            headers.forEach(conn::setRequestProperty);
+            int status = conn.getResponseCode();
+            return new ConditionalSpecFetcher.Response() {
+                @Override
+                public int status() {
+                    return status;
+                }
+
+                @Override
+                public String header(String name) {
+                    return conn.getHeaderField(name);
+                }
+
+                @Override
+                public InputStream body() throws IOException {
+                    return status >= 400 ? InputStream.nullInputStream() : conn.getInputStream();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link EndpointCatalog}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class EndpointCatalogTest {
+
+    /**
+     * Endpoints with their own string instances, as read from a spec or the parse cache.
+     */
+    private static List<ApiEndpoint> endpoints(int count) {
+        List<ApiEndpoint> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<ApiEndpoint.ParameterInfo> params = new ArrayList<>();
+            params.add(new ApiEndpoint.ParameterInfo(new String("id"), new String("path"), new String("1")));
+            params.add(new ApiEndpoint.ParameterInfo(new String("limit"), new String("query"), new String("10")));
+            params.add(new ApiEndpoint.ParameterInfo(new String("session"), new String("cookie"), ""));
+            result.add(new ApiEndpoint(i + 1, new String("https"), i % 2 == 0 ? "GET" : "POST",
+                    new String("https://api.example.com/v1"), "/service" + (i % 100) + "/items/{id}/part" + (i % 13),
+                    params, "", new String("specs/service" + (i % 100) + ".yaml"), List.of(new String("items"))));
+        }
+        return result;
+    }
+
+    private static ApiEndpoint.ParameterInfo reference() {
+        var resolver = new ParameterRefResolver();
+        resolver.define("Id", "id", "path", null);
+        return ApiEndpoint.ParameterInfo.reference("#/components/parameters/Id", resolver);
+    }
+
+    @Test
+    void get_roundTripsEveryField() {
+        var ref = reference();
+        List<ApiEndpoint> original = List.of(
+                new ApiEndpoint(7, "http", "DELETE", "https://a.test", "/users/{id}/",
+                        List.of(new ApiEndpoint.ParameterInfo("id", "path", "1"), ref), "Remove", "a.yaml",
+                        List.of("users", "admin")),
+                new ApiEndpoint(8, "https", "GET", "", "", List.of(new ApiEndpoint.ParameterInfo(null, null, null)), ""),
+                new ApiEndpoint(9, "https", "GET", "", "no-slash//double", List.of(), ""));
+        List<ApiEndpoint> catalog = EndpointCatalog.of(original);
+        assertTrue(catalog instanceof EndpointCatalog);
+        assertEquals(original, catalog);
+        assertEquals("/users/{id}/", catalog.get(0).getPath());
+        assertEquals("", catalog.get(1).getPath());
+        assertEquals("no-slash//double", catalog.get(2).getPath());
+        assertEquals(List.of("users", "admin"), catalog.get(0).getTags());
+        assertSame(ref, catalog.get(0).getParameters().get(1));
+    }
+
+    @Test
+    void descriptions_previewInCatalog_fullTextOnDemand() {
+        String markdown = "Lists items.\n\n" + "| field | meaning |\n".repeat(200);
+        List<ApiEndpoint> original = List.of(
+                new ApiEndpoint(1, "https", "GET", "", "/items", List.of(), markdown),
+                new ApiEndpoint(2, "https", "GET", "", "/short", List.of(), "Short"));
+        var catalog = (EndpointCatalog) EndpointCatalog.of(original);
+        assertEquals("Lists items.", catalog.get(0).getDescriptionPreview());
+        assertEquals(markdown, catalog.get(0).getDescription());
+        assertEquals(markdown, catalog.description(0));
+        assertEquals("Short", catalog.get(1).getDescription());
+        assertTrue(catalog.getDescriptionBytes() < markdown.length() / 5);
+        assertEquals(original, catalog);
+        assertEquals(markdown, catalog.get(0).withSource(3, "a.yaml").getDescription());
+
+        var model = new EndpointTableModel();
+        model.setEndpoints(catalog);
+        assertEquals("Lists items.", model.getValueAt(0, EndpointTableModel.COL_DESC));
+        assertTrue(model.getDescriptionToolTip(0).contains("| field | meaning |<br>"));
+        assertNull(model.getDescriptionToolTip(1));
+    }
+
+    @Test
+    void concat_renumbersAndRelabels_descriptionsStayCompressed() {
+        String markdown = "Lists items.\n\n" + "| field | meaning |\n".repeat(200);
+        var ref = reference();
+        var first = (EndpointCatalog) EndpointCatalog.of(List.of(
+                new ApiEndpoint(1, "https", "GET", "", "/items", List.of(ref), markdown),
+                new ApiEndpoint(2, "https", "GET", "", "/short", List.of(), "Short")));
+        var second = (EndpointCatalog) EndpointCatalog.of(List.of(
+                new ApiEndpoint(1, "http", "POST", "", "/other", List.of(), "Other.\n\n" + markdown)));
+        EndpointCatalog joined = EndpointCatalog.concat(List.of(first, second), List.of("a.yaml", "b.yaml"));
+        assertEquals(3, joined.size());
+        assertEquals(List.of(1, 2, 3), List.of(joined.get(0).getIndex(), joined.get(1).getIndex(),
+                joined.get(2).getIndex()));
+        assertEquals("a.yaml", joined.get(1).getSource());
+        assertEquals("b.yaml", joined.get(2).getSource());
+        assertEquals(markdown, joined.description(0));
+        assertEquals("Short", joined.description(1));
+        assertEquals("Other.\n\n" + markdown, joined.description(2));
+        assertEquals(first.descriptionHash(0), joined.descriptionHash(0));
+        assertEquals(first.descriptionStore().getCompressedBytes() + second.descriptionStore().getCompressedBytes(),
+                joined.descriptionStore().getCompressedBytes());
+        assertSame(ref, joined.get(0).getParameters().get(0));
+        assertTrue(ref.isUnresolved());
+    }
+
+    @Test
+    void of_keepsReferencesUnresolved() {
+        var ref = reference();
+        EndpointCatalog.of(List.of(new ApiEndpoint(1, "https", "GET", "", "/x", List.of(ref), "")));
+        assertTrue(ref.isUnresolved());
+    }
+
+    @Test
+    void get_repeatedReads_returnSameView() {
+        List<ApiEndpoint> catalog = EndpointCatalog.of(endpoints(1000));
+        ApiEndpoint first = catalog.get(500);
+        assertSame(first, catalog.get(500));
+        assertSame(first.parametersCell(), catalog.get(500).parametersCell());
+        assertEquals(500, ((EndpointCatalog) catalog).rowOf(first));
+        assertEquals(-1, ((EndpointCatalog) catalog).rowOf(endpoints(1).get(0)));
+        assertThrows(IndexOutOfBoundsException.class, () -> catalog.get(1000));
+    }
+
+    @Test
+    void get_derivedStateSurvivesViewEviction() {
+        List<ApiEndpoint> catalog = EndpointCatalog.of(endpoints(1000));
+        ApiEndpoint first = catalog.get(3);
+        RequestTemplate template = first.template();
+        String params = first.parametersCell();
+        Integer index = first.indexCell();
+        String key = first.rowKey();
+        for (int row = 0; row < catalog.size(); row++) {
+            catalog.get(row);
+        }
+        ApiEndpoint again = catalog.get(3);
+        assertNotSame(first, again);
+        assertSame(template, again.template());
+        assertSame(params, again.parametersCell());
+        assertSame(index, again.indexCell());
+        assertSame(key, again.rowKey());
+        assertEquals(endpoints(4).get(3).rowKey(), key);
+    }
+
+    @Test
+    void of_isIdempotent() {
+        List<ApiEndpoint> catalog = EndpointCatalog.of(endpoints(3));
+        assertSame(catalog, EndpointCatalog.of(catalog));
+        assertEquals(0, EndpointCatalog.of(List.of()).size());
+    }
+
+    @Test
+    void model_filtersAndSortsCatalog() {
+        var model = new EndpointTableModel();
+        List<ApiEndpoint> catalog = EndpointCatalog.of(endpoints(500));
+        model.setEndpoints(catalog);
+        assertSame(catalog, model.getFilteredEndpoints());
+        model.setFilter("POST /service1/");
+        assertEquals(5, model.getFilterHitCount());
+        model.setSort(EndpointTableModel.COL_INDEX, false);
+        assertEquals(402, model.getEndpointAt(0).getIndex());
+        int[] order = EndpointSorter.order(model.getSortKeys(), model.getFilteredEndpoints(),
+                EndpointTableModel.COL_PATH, true, e -> null, LoadProgress.untracked());
+        assertArrayEquals(EndpointSorter.order(model.getFilteredEndpoints(), EndpointTableModel.COL_PATH, true,
+                e -> null, LoadProgress.untracked()), order);
+        model.updateEndpoints(EndpointCatalog.of(endpoints(500)));
+        assertEquals(5, model.getFilterHitCount());
+    }
+
+    @Test
+    void retainedHeap_atLeastThreeTimesSmaller() {
+        int count = 100_000;
+        long before = usedHeap();
+        List<ApiEndpoint> list = endpoints(count);
+        long listBytes = usedHeap() - before;
+        List<ApiEndpoint> catalog = EndpointCatalog.of(list);
+        list = null;
+        long catalogBytes = usedHeap() - before;
+        assertEquals(count, catalog.size());
+        assertTrue(listBytes >= 3 * catalogBytes,
+                "list " + listBytes / count + " B/endpoint, catalog " + catalogBytes / count + " B/endpoint");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,173 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link EndpointSorter} and the model's sorted view.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class EndpointSorterTest {
+
+    private static List<ApiEndpoint> endpoints(int count) {
+        List<ApiEndpoint> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(new ApiEndpoint(i + 1, "https", i % 3 == 0 ? "POST" : "GET", "https://api.test",
+                    "/items/" + ((i * 7919) % count), List.of(), ""));
+        }
+        return result;
+    }
+
+    private static List<ApiEndpoint> view(EndpointTableModel model) {
+        List<ApiEndpoint> result = new ArrayList<>();
+        for (int r = 0; r < model.getRowCount(); r++) {
+            result.add(model.getEndpointAt(r));
+        }
+        return result;
+    }
+
+    @Test
+    void order_matchesStableComparatorSort() {
+        List<ApiEndpoint> eps = endpoints(1000);
+        int[] order = EndpointSorter.order(eps, EndpointTableModel.COL_PATH, true, e -> null, LoadProgress.untracked());
+        List<ApiEndpoint> expected = new ArrayList<>(eps);
+        expected.sort(Comparator.comparing(ApiEndpoint::getPath, EndpointSorter.COLLATION));
+        for (int i = 0; i < order.length; i++) {
+            assertSame(expected.get(i), eps.get(order[i]));
+        }
+    }
+
+    @Test
+    void order_descending_keepsTiesInRowOrder() {
+        List<ApiEndpoint> eps = endpoints(9);
+        int[] order = EndpointSorter.order(eps, EndpointTableModel.COL_METHOD, false, e -> null, LoadProgress.untracked());
+        // POST rows (0, 3, 6) before GET rows, each group in row order
+        assertArrayEquals(new int[]{0, 3, 6, 1, 2, 4, 5, 7, 8}, order);
+    }
+
+    @Test
+    void order_strings_caseInsensitiveThenCaseSensitive() {
+        List<ApiEndpoint> eps = new ArrayList<>();
+        for (String path : new String[]{"/b", "/B", "/a", "/C"}) {
+            eps.add(new ApiEndpoint(eps.size() + 1, "https", "GET", "", path, List.of(), ""));
+        }
+        assertArrayEquals(new int[]{2, 1, 0, 3},
+                EndpointSorter.order(eps, EndpointTableModel.COL_PATH, true, e -> null, LoadProgress.untracked()));
+    }
+
+    @Test
+    void order_index_numeric() {
+        List<ApiEndpoint> eps = List.of(
+                new ApiEndpoint(10, "https", "GET", "", "/a", List.of(), ""),
+                new ApiEndpoint(9, "https", "GET", "", "/b", List.of(), ""),
+                new ApiEndpoint(100, "https", "GET", "", "/c", List.of(), ""));
+        assertArrayEquals(new int[]{1, 0, 2},
+                EndpointSorter.order(eps, EndpointTableModel.COL_INDEX, true, e -> null, LoadProgress.untracked()));
+    }
+
+    @Test
+    void order_baseline_byStatus_missingLast() {
+        List<ApiEndpoint> eps = endpoints(3);
+        var baselines = new java.util.HashMap<ApiEndpoint, BaselineCrawler.Baseline>();
+        baselines.put(eps.get(0), BaselineCrawler.Baseline.response(404, 0));
+        baselines.put(eps.get(2), BaselineCrawler.Baseline.response(200, 0));
+        assertArrayEquals(new int[]{2, 0, 1},
+                EndpointSorter.order(eps, EndpointTableModel.COL_BASELINE, true, baselines::get, LoadProgress.untracked()));
+    }
+
+    @Test
+    void order_cancelled_throws() {
+        LoadProgress progress = new LoadProgress();
+        progress.cancel();
+        assertThrows(CancellationException.class,
+                () -> EndpointSorter.order(endpoints(10), EndpointTableModel.COL_PATH, true, e -> null, progress));
+    }
+
+    @Test
+    void order_withKeys_matchesDirectOrder() {
+        List<ApiEndpoint> eps = endpoints(1000);
+        var keys = new EndpointSorter.SortKeys(eps);
+        List<ApiEndpoint> filtered = EndpointTableModel.filter(eps, java.util.regex.Pattern.compile("POST"),
+                LoadProgress.untracked());
+        for (int column = 0; column < EndpointTableModel.COL_BASELINE; column++) {
+            assertArrayEquals(EndpointSorter.order(filtered, column, false, e -> null, LoadProgress.untracked()),
+                    EndpointSorter.order(keys, filtered, column, false, e -> null, LoadProgress.untracked()));
+        }
+    }
+
+    @Test
+    void resort_500kRows_underASecond() {
+        List<ApiEndpoint> eps = endpoints(500_000);
+        var keys = new EndpointSorter.SortKeys(eps);
+        // The first sort by a column ranks it; re-sorts after filter or direction changes reuse the ranks
+        EndpointSorter.order(keys, eps, EndpointTableModel.COL_PATH, true, e -> null, LoadProgress.untracked());
+        long start = System.nanoTime();
+        int[] order = EndpointSorter.order(keys, eps, EndpointTableModel.COL_PATH, false, e -> null,
+                LoadProgress.untracked());
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(500_000, order.length);
+        assertTrue(millis < 1000, "sorted in " + millis + " ms");
+    }
+
+    @Test
+    void model_sortKeptAcrossFilterChanges() {
+        var model = new EndpointTableModel();
+        model.setEndpoints(endpoints(30));
+        model.setSort(EndpointTableModel.COL_PATH, false);
+        assertFalse(model.isSortPending());
+        model.setFilter("POST");
+        List<ApiEndpoint> rows = view(model);
+        assertEquals(10, rows.size());
+        for (int i = 1; i < rows.size(); i++) {
+            assertTrue(EndpointSorter.COLLATION.compare(rows.get(i - 1).getPath(), rows.get(i).getPath()) >= 0);
+        }
+        assertEquals(rows.get(0).getPath(), model.getValueAt(0, EndpointTableModel.COL_PATH));
+        model.setSort(-1, true);
+        assertEquals(model.getFilteredEndpoints(), view(model));
+    }
+
+    @Test
+    void model_largeList_pendingUntilResult() {
+        var model = new EndpointTableModel();
+        model.setEndpoints(endpoints(EndpointTableModel.SYNC_SORT_ROWS + 1));
+        model.setSort(EndpointTableModel.COL_PATH, true);
+        assertTrue(model.isSortPending());
+        List<ApiEndpoint> rows = model.getFilteredEndpoints();
+        int[] order = EndpointSorter.order(rows, EndpointTableModel.COL_PATH, true, e -> null, LoadProgress.untracked());
+        model.setSortResult(rows, EndpointTableModel.COL_PATH, false, order); // stale direction
+        assertTrue(model.isSortPending());
+        model.setSortResult(rows, EndpointTableModel.COL_PATH, true, order);
+        assertFalse(model.isSortPending());
+        assertSame(rows.get(order[0]), model.getEndpointAt(0));
+    }
+
+    @Test
+    void request_supersededPass_publishesOnlyLatest() throws InterruptedException {
+        List<ApiEndpoint> eps = endpoints(200_000);
+        List<Integer> published = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        try (EndpointSorter sorter = new EndpointSorter(Runnable::run)) {
+            var keys = new EndpointSorter.SortKeys(eps);
+            sorter.request(keys, eps, EndpointTableModel.COL_PATH, true, e -> null,
+                    (rows, column, ascending, order) -> published.add(column));
+            sorter.request(keys, eps, EndpointTableModel.COL_METHOD, true, e -> null, (rows, column, ascending, order) -> {
+                published.add(column);
+                done.countDown();
+            });
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(EndpointTableModel.COL_METHOD), published);
+    }
+}
@@ -3,6 +3,8 @@ package burp.openapilng;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import javax.swing.event.TableModelEvent;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,7 +34,10 @@ class EndpointTableModelTest {
     void setEndpoints_updatesTable() {
         model.setEndpoints(endpoints);
         assertEquals(2, model.getRowCount());
-        assertEquals(7, model.getColumnCount());
+        assertEquals(9, model.getColumnCount());
+        assertEquals("Source", model.getColumnName(7));
+        assertEquals("Baseline", model.getColumnName(8));
+        assertEquals("", model.getValueAt(0, 7));
         assertEquals("#", model.getColumnName(0));
         assertEquals("GET", model.getValueAt(0, 2));
     }
@@ -116,6 +121,65 @@ class EndpointTableModelTest {
         assertEquals("List", model.getValueAt(0, 6)); // description
     }
 
+    @Test
+    void getValueAt_repaint_reusesCellValues() {
+        var params = List.of(new ApiEndpoint.ParameterInfo("id", "path", "1"));
+        var ep = new ApiEndpoint(5000, "https", "GET", "https://api.test.com", "/users/{id}", params, "");
+        model.setEndpoints(List.of(ep));
+        model.setBaseline(ep, BaselineCrawler.Baseline.response(200, 10));
+        for (int column = 0; column < model.getColumnCount(); column++) {
+            assertSame(model.getValueAt(0, column), model.getValueAt(0, column));
+        }
+    }
+
+    @Test
+    void getValueAt_sortedCatalog_readsColumnsWithoutViews() {
+        var list = new ArrayList<ApiEndpoint>();
+        for (int i = 0; i < 300; i++) {
+            list.add(new ApiEndpoint(i + 1, "https", i % 2 == 0 ? "GET" : "POST", "https://api.test.com",
+                    "/v1/items/" + i, List.of(new ApiEndpoint.ParameterInfo("id", "path", "1")), "Item " + i));
+        }
+        var catalog = EndpointCatalog.of(list);
+        model.setEndpoints(catalog);
+        model.setSort(EndpointTableModel.COL_METHOD, true);
+        // Catalog rows 0 and 256 share a view cache slot, so reading them through views would rebuild each
+        int first = -1;
+        int second = -1;
+        for (int r = 0; r < model.getRowCount(); r++) {
+            int index = (Integer) model.getValueAt(r, EndpointTableModel.COL_INDEX);
+            if (index == 1) first = r;
+            if (index == 257) second = r;
+        }
+        for (int column = 0; column < model.getColumnCount(); column++) {
+            Object a = model.getValueAt(first, column);
+            Object b = model.getValueAt(second, column);
+            assertSame(a, model.getValueAt(first, column));
+            assertSame(b, model.getValueAt(second, column));
+        }
+        assertEquals("/v1/items/256", model.getValueAt(second, EndpointTableModel.COL_PATH));
+        assertEquals("GET", model.getValueAt(second, EndpointTableModel.COL_METHOD));
+        assertEquals("Item 0", model.getValueAt(first, EndpointTableModel.COL_DESC));
+        assertEquals(catalog.get(256).parametersCell(), model.getValueAt(second, EndpointTableModel.COL_PARAMS));
+    }
+
+    @Test
+    void setBaseline_updatesOnlyThatRowsCell() {
+        model.setEndpoints(endpoints);
+        model.setSort(EndpointTableModel.COL_METHOD, false);
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+        model.setBaseline(endpoints.get(0), BaselineCrawler.Baseline.response(200, 10));
+        assertEquals(1, events.size());
+        assertEquals(1, events.get(0).getFirstRow()); // GET sorts after POST when descending
+        assertEquals(1, events.get(0).getLastRow());
+        assertEquals(EndpointTableModel.COL_BASELINE, events.get(0).getColumn());
+
+        model.setFilter("POST");
+        events.clear();
+        model.setBaseline(endpoints.get(0), BaselineCrawler.Baseline.response(404, 0));
+        assertTrue(events.isEmpty());
+    }
+
     @Test
     void getValueAt_invalidColumn_returnsEmpty() {
         model.setEndpoints(endpoints);
@@ -186,4 +250,121 @@ class EndpointTableModelTest {
         model.setFilter("/users");
         assertEquals(2, model.getFilterHitCount());
     }
+
+    @Test
+    void updateEndpoints_oneChangedPath_firesRowLevelEventsOnly() {
+        var a = new ApiEndpoint(1, "https", "GET", "", "/a", List.of(), "A");
+        var b = new ApiEndpoint(2, "https", "GET", "", "/b", List.of(), "B");
+        var c = new ApiEndpoint(3, "https", "GET", "", "/c", List.of(), "C");
+        var d = new ApiEndpoint(4, "https", "GET", "", "/d", List.of(), "D");
+        model.setEndpoints(List.of(a, b, c, d));
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+
+        var b2 = new ApiEndpoint(2, "https", "GET", "", "/b", List.of(), "B changed");
+        var e = new ApiEndpoint(4, "https", "GET", "", "/e", List.of(), "E");
+        model.updateEndpoints(List.of(a, b2, e, new ApiEndpoint(5, "https", "GET", "", "/d", List.of(), "D")));
+
+        assertEquals(4, model.getRowCount());
+        assertEquals("/a", model.getValueAt(0, 4));
+        assertEquals("B changed", model.getValueAt(1, 6));
+        assertEquals("/e", model.getValueAt(2, 4));
+        assertEquals("/d", model.getValueAt(3, 4));
+        assertEquals(5, model.getValueAt(3, 0));
+        assertTrue(events.stream().noneMatch(ev -> ev.getFirstRow() == 0 && ev.getLastRow() == Integer.MAX_VALUE));
+        assertTrue(events.stream().anyMatch(ev -> ev.getType() == TableModelEvent.DELETE && ev.getFirstRow() == 2));
+        assertTrue(events.stream().anyMatch(ev -> ev.getType() == TableModelEvent.INSERT && ev.getFirstRow() == 2));
+        assertTrue(events.stream().anyMatch(ev -> ev.getType() == TableModelEvent.UPDATE && ev.getFirstRow() == 1 && ev.getLastRow() == 1));
+        assertTrue(events.stream().anyMatch(ev -> ev.getType() == TableModelEvent.UPDATE && ev.getFirstRow() == 3 && ev.getLastRow() == 3));
+    }
+
+    @Test
+    void updateEndpoints_unchanged_firesNothing() {
+        model.setEndpoints(endpoints);
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+        model.updateEndpoints(List.copyOf(endpoints));
+        assertTrue(events.isEmpty());
+        assertEquals(2, model.getRowCount());
+    }
+
+    @Test
+    void diff_viewChangedBeforeApply_refreshesWhole() {
+        model.setEndpoints(endpoints);
+        var snapshot = model.snapshot();
+        var put = new ApiEndpoint(3, "https", "PUT", "https://api.test.com", "/users", List.of(), "Replace");
+        var update = EndpointTableModel.diff(snapshot, List.of(endpoints.get(0), endpoints.get(1), put),
+                LoadProgress.untracked());
+        model.setSort(EndpointTableModel.COL_METHOD, true);
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+
+        model.applyUpdate(update);
+
+        assertEquals(3, model.getRowCount());
+        assertEquals("GET", model.getValueAt(0, 2));
+        assertEquals("PUT", model.getValueAt(2, 2));
+        assertEquals(1, events.size());
+        assertEquals(Integer.MAX_VALUE, events.get(0).getLastRow());
+    }
+
+    @Test
+    void updateEndpoints_keepsReferencesUnresolvedAndComparesFullDescription() {
+        var resolver = new ParameterRefResolver();
+        resolver.define("Id", "id", "path", null);
+        var ref = ApiEndpoint.ParameterInfo.reference("#/components/parameters/Id", resolver);
+        String longText = "Summary line\n" + "detail ".repeat(100);
+        model.setEndpoints(EndpointCatalog.of(List.of(
+                new ApiEndpoint(1, "https", "GET", "", "/a/{id}", List.of(ref), longText))));
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+
+        var ref2 = ApiEndpoint.ParameterInfo.reference("#/components/parameters/Id", resolver);
+        model.updateEndpoints(EndpointCatalog.of(List.of(
+                new ApiEndpoint(1, "https", "GET", "", "/a/{id}", List.of(ref2), longText + "more"))));
+
+        assertTrue(ref.isUnresolved());
+        assertTrue(ref2.isUnresolved());
+        assertEquals(1, events.size());
+        assertEquals(TableModelEvent.UPDATE, events.get(0).getType());
+        assertEquals(0, events.get(0).getFirstRow());
+    }
+
+    @Test
+    void updateEndpoints_respectsFilter() {
+        model.setEndpoints(endpoints);
+        model.setFilter("POST");
+        var put = new ApiEndpoint(3, "https", "PUT", "https://api.test.com", "/users", List.of(), "Replace");
+        var post2 = new ApiEndpoint(4, "https", "POST", "https://api.test.com", "/orders", List.of(), "Order");
+        model.updateEndpoints(List.of(endpoints.get(0), endpoints.get(1), put, post2));
+        assertEquals(2, model.getRowCount());
+        assertEquals("/orders", model.getValueAt(1, 4));
+    }
+
+    @Test
+    void updateEndpoints_reordered_fallsBackToFullRefresh() {
+        model.setEndpoints(endpoints);
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+        model.updateEndpoints(List.of(endpoints.get(1), endpoints.get(0)));
+        assertEquals("POST", model.getValueAt(0, 2));
+        assertEquals(1, events.size());
+        assertEquals(Integer.MAX_VALUE, events.get(0).getLastRow());
+    }
+
+    @Test
+    void setBaseline_showsInColumn_andSurvivesReload() {
+        model.setEndpoints(endpoints);
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+        model.setBaseline(endpoints.get(1), BaselineCrawler.Baseline.response(201, 2048));
+        assertEquals(1, events.size());
+        assertEquals(8, events.get(0).getColumn());
+        assertEquals("", model.getValueAt(0, 8));
+        assertTrue(((String) model.getValueAt(1, 8)).startsWith("201 · 2.0 KB · "));
+
+        model.setEndpoints(List.copyOf(endpoints));
+        assertEquals(201, model.getBaseline(endpoints.get(1)).getStatus());
+        assertEquals(2, model.getAllEndpoints().size());
+    }
 }
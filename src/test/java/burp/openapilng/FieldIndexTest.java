@@ -0,0 +1,41 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FieldIndex}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class FieldIndexTest {
+
+    @Test
+    void rows_indexLowerCasedValuesInRowOrder() {
+        var params = List.of(new ApiEndpoint.ParameterInfo("Session", "cookie", ""),
+                new ApiEndpoint.ParameterInfo("id", "path", "1"));
+        var eps = List.of(
+                new ApiEndpoint(1, "https", "GET", "https://a.test", "/a", params, "", "a.yaml", List.of("Billing")),
+                new ApiEndpoint(2, "http", "POST", "https://a.test", "/b", List.of(), "", "", List.of("billing", "users")),
+                new ApiEndpoint(3, "https", "GET", "https://a.test", "/c", List.of(), ""));
+        var index = new FieldIndex(eps);
+        assertFalse(index.isBuilt());
+        assertArrayEquals(new int[]{0, 2}, index.rows(FieldIndex.METHOD, "get"));
+        assertTrue(index.isBuilt());
+        assertArrayEquals(new int[]{1}, index.rows(FieldIndex.SCHEME, "http"));
+        assertArrayEquals(new int[]{0}, index.rows(FieldIndex.SOURCE, "a.yaml"));
+        assertArrayEquals(new int[]{0, 1}, index.rows(FieldIndex.TAG, "billing"));
+        assertArrayEquals(new int[]{0}, index.rows(FieldIndex.PARAM, "cookie:session"));
+        assertArrayEquals(new int[]{0}, index.rows(FieldIndex.PARAM, ":session"));
+        assertArrayEquals(new int[]{0}, index.rows(FieldIndex.PARAM, "path:"));
+        assertEquals(0, index.rows(FieldIndex.PARAM, "query:").length);
+        assertEquals(0, index.rows("nope", "x").length);
+        assertSame(eps, index.getEndpoints());
+        assertSame(eps, index.text().getEndpoints());
+    }
+}
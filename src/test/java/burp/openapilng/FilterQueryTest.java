@@ -0,0 +1,156 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FilterQuery}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class FilterQueryTest {
+
+    private static final String[] TAGS = {"billing", "users", "admin"};
+
+    private static List<ApiEndpoint> catalog(int count) {
+        List<ApiEndpoint> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<ApiEndpoint.ParameterInfo> params = new ArrayList<>();
+            params.add(new ApiEndpoint.ParameterInfo("id", "path", "1"));
+            if (i % 5 == 2) params.add(new ApiEndpoint.ParameterInfo("session", "cookie", ""));
+            if (i % 7 == 0) params.add(new ApiEndpoint.ParameterInfo("Session", "header", ""));
+            String path = i % 10 == 0 ? "/health" : "/v" + (i % 3) + "/" + TAGS[i % 3] + "/{id}";
+            result.add(new ApiEndpoint(i + 1, i % 4 == 0 ? "http" : "https", i % 2 == 0 ? "POST" : "GET",
+                    "https://API" + (i % 2) + ".example.com", path, params,
+                    i % 6 == 0 ? "Deprecated: use v2" : "Current", i % 8 == 0 ? "legacy.yaml" : "main.yaml",
+                    List.of(TAGS[i % 3])));
+        }
+        return result;
+    }
+
+    /** Checks the query row by row and with the index, and that both agree. */
+    private static List<ApiEndpoint> run(List<ApiEndpoint> eps, String text) {
+        FilterQuery q = FilterQuery.parse(text);
+        List<ApiEndpoint> scanned = q.filter(eps, LoadProgress.untracked());
+        List<ApiEndpoint> indexed = q.filter(new FieldIndex(eps), LoadProgress.untracked());
+        assertEquals(scanned, indexed, text);
+        return indexed;
+    }
+
+    private static long count(List<ApiEndpoint> eps, java.util.function.Predicate<ApiEndpoint> p) {
+        return eps.stream().filter(p).count();
+    }
+
+    @Test
+    void requestExample_combinesAllFields() {
+        List<ApiEndpoint> eps = catalog(300);
+        List<ApiEndpoint> hits = run(eps,
+                "method:POST param:cookie:session tag:billing !path:/health desc~\"deprecated\"");
+        assertFalse(hits.isEmpty());
+        for (ApiEndpoint e : hits) {
+            assertEquals("POST", e.getMethod());
+            assertTrue(e.getTags().contains("billing"));
+            assertNotEquals("/health", e.getPath());
+            assertTrue(e.getDescription().startsWith("Deprecated"));
+        }
+    }
+
+    @Test
+    void fields_matchIgnoringCase() {
+        List<ApiEndpoint> eps = catalog(300);
+        assertEquals(count(eps, e -> e.getMethod().equals("GET")), run(eps, "method:get").size());
+        assertEquals(count(eps, e -> e.getScheme().equals("http")), run(eps, "SCHEME:HTTP").size());
+        assertEquals(count(eps, e -> e.getSource().equals("legacy.yaml")), run(eps, "source:Legacy.yaml").size());
+        assertEquals(count(eps, e -> e.getServer().contains("API1")), run(eps, "server:api1").size());
+        assertEquals(count(eps, e -> e.getPath().contains("/v2/")), run(eps, "path:/V2/").size());
+        assertEquals(count(eps, e -> e.getPath().contains("users")), run(eps, "USERS").size());
+    }
+
+    @Test
+    void param_byNameLocationOrBoth() {
+        List<ApiEndpoint> eps = catalog(300);
+        long cookie = count(eps, e -> e.getParameters().stream().anyMatch(p -> "cookie".equals(p.getLocation())));
+        long anySession = count(eps, e -> e.getParameters().stream().anyMatch(p -> "session".equalsIgnoreCase(p.getName())));
+        assertEquals(cookie, run(eps, "param:cookie:").size());
+        assertEquals(cookie, run(eps, "param:cookie:session").size());
+        assertEquals(anySession, run(eps, "param:session").size());
+        assertEquals(anySession, run(eps, "param~^sess").size());
+        assertEquals(0, run(eps, "param:query:session").size());
+    }
+
+    @Test
+    void booleans_orNotAndGroups() {
+        List<ApiEndpoint> eps = catalog(300);
+        long billingOrAdmin = count(eps, e -> !e.getTags().contains("users"));
+        assertEquals(billingOrAdmin, run(eps, "tag:billing | tag:admin").size());
+        assertEquals(billingOrAdmin, run(eps, "tag:billing OR tag:admin").size());
+        assertEquals(billingOrAdmin, run(eps, "-tag:users").size());
+        assertEquals(billingOrAdmin, run(eps, "NOT tag:users").size());
+        assertEquals(count(eps, e -> e.getMethod().equals("GET") && !e.getTags().contains("users")),
+                run(eps, "method:GET AND (tag:billing | tag:admin)").size());
+        assertEquals(count(eps, e -> e.getMethod().equals("GET") && !e.getTags().contains("users")),
+                run(eps, "method:GET & !(tag:users)").size());
+        assertEquals(count(eps, e -> e.getTags().contains("billing")), run(eps, "tag~bill").size());
+        assertEquals(count(eps, e -> e.getMethod().equals("POST")), run(eps, "method~^p").size());
+    }
+
+    @Test
+    void quotedValues_andRegexOnText() {
+        List<ApiEndpoint> eps = catalog(300);
+        assertEquals(count(eps, e -> e.getDescription().contains("use v2")), run(eps, "desc:\"USE v2\"").size());
+        assertEquals(count(eps, e -> e.getPath().matches("/v[12]/admin.*")), run(eps, "path~^/v[12]/admin").size());
+        assertEquals(count(eps, e -> e.getServer().startsWith("https://API0.")), run(eps, "server~\"api0\\\\.\"").size());
+    }
+
+    @Test
+    void isQuery_distinguishesFromRegex() {
+        assertTrue(FilterQuery.isQuery("method:POST"));
+        assertTrue(FilterQuery.isQuery("admin !path:/health"));
+        assertTrue(FilterQuery.isQuery("(tag:a | tag:b)"));
+        assertTrue(FilterQuery.isQuery("desc~x"));
+        assertFalse(FilterQuery.isQuery("^/api/v[12]"));
+        assertFalse(FilterQuery.isQuery("users|orders"));
+        assertFalse(FilterQuery.isQuery("https://host"));
+        assertFalse(FilterQuery.isQuery(null));
+    }
+
+    @Test
+    void parse_malformed_throws() {
+        assertThrows(IllegalArgumentException.class, () -> FilterQuery.parse("(method:GET"));
+        assertThrows(IllegalArgumentException.class, () -> FilterQuery.parse("method:GET)"));
+        assertThrows(IllegalArgumentException.class, () -> FilterQuery.parse("desc:\"open"));
+        assertThrows(IllegalArgumentException.class, () -> FilterQuery.parse("path~[bad"));
+        assertThrows(IllegalArgumentException.class, () -> FilterQuery.parse("tag:"));
+        assertThrows(IllegalArgumentException.class, () -> FilterQuery.parse("method:GET |"));
+    }
+
+    @Test
+    void model_usesQueryWhenTextIsOne() {
+        var model = new EndpointTableModel();
+        List<ApiEndpoint> eps = catalog(100);
+        model.setEndpoints(eps);
+        model.setFilter("tag:admin method:post");
+        assertEquals(count(eps, e -> e.getTags().contains("admin") && e.getMethod().equals("POST")),
+                model.getFilterHitCount());
+        // Malformed queries filter nothing
+        model.setFilter("(tag:admin");
+        assertEquals(100, model.getFilterHitCount());
+        assertEquals(model.getFilterHitCount(),
+                EndpointTableModel.filter(model.getIndex(), "(tag:admin", LoadProgress.untracked()).size());
+        assertEquals(count(eps, e -> e.getTags().contains("users")),
+                EndpointTableModel.filter(model.getIndex(), "tag:USERS", LoadProgress.untracked()).size());
+    }
+
+    @Test
+    void containsFolded_ignoresCase() {
+        assertTrue(FilterQuery.containsFolded("GET /Admin", "/admin"));
+        assertFalse(FilterQuery.containsFolded("GET /Adm", "/admin"));
+        assertTrue(FilterQuery.containsFolded("x", ""));
+    }
+}
@@ -0,0 +1,92 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LoadMetrics}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class LoadMetricsTest {
+
+    @Test
+    void record_accumulatesPerStage_inFirstEnteredOrder() {
+        var metrics = new LoadMetrics();
+        metrics.record(LoadMetrics.PARSE, 2_000_000, 1024);
+        metrics.record(LoadMetrics.READ, 500_000, 0);
+        metrics.record(LoadMetrics.PARSE, 1_000_000, 1024);
+
+        List<LoadMetrics.Stage> stages = metrics.getStages();
+        assertEquals(2, stages.size());
+        assertEquals(LoadMetrics.PARSE, stages.get(0).getName());
+        assertEquals(3_000_000, stages.get(0).getNanos());
+        assertEquals(2048, stages.get(0).getAllocatedBytes());
+        assertEquals(2, stages.get(0).getCount());
+        assertEquals(LoadMetrics.READ, stages.get(1).getName());
+    }
+
+    @Test
+    void record_ignoresNegativeAllocation() {
+        var metrics = new LoadMetrics();
+        metrics.record(LoadMetrics.DECODE, 10, -5);
+        assertEquals(0, metrics.getStages().get(0).getAllocatedBytes());
+    }
+
+    @Test
+    void span_recordsOnClose() {
+        var metrics = new LoadMetrics();
+        try (LoadMetrics.Span ignored = metrics.begin(LoadMetrics.EXTRACT)) {
+            assertTrue(metrics.getStages().isEmpty());
+            byte[] garbage = new byte[64 * 1024];
+            assertEquals(0, garbage[0]);
+        }
+        LoadMetrics.Stage stage = metrics.getStages().get(0);
+        assertEquals(LoadMetrics.EXTRACT, stage.getName());
+        assertEquals(1, stage.getCount());
+        assertTrue(stage.getNanos() >= 0);
+        if (LoadMetrics.isAllocationSupported()) {
+            assertTrue(stage.getAllocatedBytes() >= 64 * 1024);
+        }
+    }
+
+    @Test
+    void format_listsStagesAndTotal() {
+        var metrics = new LoadMetrics();
+        metrics.record(LoadMetrics.READ, 1_500_000, 0);
+        metrics.record(LoadMetrics.PARSE, 2_500_000, 0);
+        String[] lines = metrics.format().split("\\R");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("read"));
+        assertTrue(lines[0].contains("1.50 ms"));
+        assertTrue(lines[2].startsWith("total"));
+        assertTrue(lines[2].contains("4.00 ms"));
+    }
+
+    @Test
+    void summary_isOneLine() {
+        var metrics = new LoadMetrics();
+        metrics.record(LoadMetrics.READ, 1_000_000, 0);
+        metrics.record(LoadMetrics.TABLE, 2_000_000, 0);
+        String summary = metrics.summary();
+        assertTrue(summary.startsWith("read 1.0 ms"));
+        assertTrue(summary.contains(", table update 2.0 ms"));
+        assertFalse(summary.contains("\n"));
+    }
+
+    @Test
+    void progress_carriesMetrics_forParse() {
+        var progress = new LoadProgress();
+        new OpenAPIParser().parse("test", "   ", progress);
+        assertTrue(progress.getMetrics().getStages().isEmpty());
+
+        progress.getMetrics().record(LoadMetrics.READ, 1, 0);
+        assertSame(progress.getMetrics(), progress.getMetrics());
+        assertEquals(1, progress.getMetrics().getStages().size());
+    }
+}
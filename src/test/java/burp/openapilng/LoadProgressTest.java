@@ -0,0 +1,117 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LoadProgress}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class LoadProgressTest {
+
+    @Test
+    void counters_accumulate() {
+        var progress = new LoadProgress();
+        progress.addBytesRead(2048);
+        progress.operationExtracted();
+        progress.operationExtracted();
+        assertEquals(2048, progress.getBytesRead());
+        assertEquals(2, progress.getOperations());
+        assertTrue(progress.getElapsedMillis() >= 0);
+        assertTrue(progress.describe().startsWith("2.0 KB read, 2 operations, "));
+    }
+
+    @Test
+    void formatBytes_picksUnit() {
+        assertEquals("512 B", LoadProgress.formatBytes(512));
+        assertEquals("1.5 KB", LoadProgress.formatBytes(1536));
+        assertEquals("3.0 MB", LoadProgress.formatBytes(3L * 1024 * 1024));
+    }
+
+    @Test
+    void checkCancelled_afterCancel_throws() {
+        var progress = LoadProgress.untracked();
+        progress.checkCancelled();
+        assertFalse(progress.isCancelled());
+        progress.cancel();
+        assertTrue(progress.isCancelled());
+        assertThrows(CancellationException.class, progress::checkCancelled);
+    }
+
+    @Test
+    void checkCancelled_interruptedThread_throws() {
+        var progress = new LoadProgress();
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class, progress::checkCancelled);
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void track_countsBytesAndStopsWhenCancelled() throws Exception {
+        var progress = new LoadProgress();
+        InputStream in = progress.track(new ByteArrayInputStream("abcdef".getBytes(StandardCharsets.UTF_8)));
+        assertEquals('a', in.read());
+        assertEquals(3, in.read(new byte[3], 0, 3));
+        assertEquals(4, progress.getBytesRead());
+        progress.cancel();
+        assertThrows(CancellationException.class, in::read);
+    }
+
+    @Test
+    void parser_cancelledProgress_stopsParse() {
+        var progress = new LoadProgress();
+        progress.cancel();
+        String json = "{\"openapi\":\"3.0.0\",\"info\":{\"title\":\"x\",\"version\":\"1\"},\"paths\":{\"/a\":{\"get\":{}}}}";
+        var parser = new OpenAPIParser();
+        assertThrows(CancellationException.class, () -> parser.parse("test", json, progress));
+        parser.setStreaming(true);
+        assertThrows(CancellationException.class,
+                () -> parser.parseSource("test", SpecSource.of(json.getBytes(StandardCharsets.UTF_8)), progress));
+    }
+
+    @Test
+    void parser_reportsOperations() {
+        var progress = new LoadProgress();
+        String json = "{\"openapi\":\"3.0.0\",\"info\":{\"title\":\"x\",\"version\":\"1\"},"
+                + "\"paths\":{\"/a\":{\"get\":{},\"post\":{}},\"/b\":{\"get\":{}}}}";
+        var result = new OpenAPIParser().parse("test", json, progress);
+        assertEquals(3, result.getEndpoints().size());
+        assertEquals(3, progress.getOperations());
+        assertEquals(json.length(), progress.getBytesRead());
+    }
+
+    @Test
+    void parser_countsUtf8BytesOnce() {
+        var progress = new LoadProgress();
+        String json = "{\"openapi\":\"3.0.0\",\"info\":{\"title\":\"x\",\"version\":\"1\"},"
+                + "\"paths\":{\"/a\":{\"get\":{\"summary\":\"Größe ∑\"}}}}";
+        var parser = new OpenAPIParser();
+        parser.setStreaming(true);
+        parser.parse("test", json, progress);
+        assertEquals(json.getBytes(StandardCharsets.UTF_8).length, progress.getBytesRead());
+    }
+
+    @Test
+    void parser_streamingFallback_countsBytesOnce() {
+        var progress = new LoadProgress();
+        String json = "{\"swagger\":\"2.0\",\"info\":{\"title\":\"x\",\"version\":\"1\"},"
+                + "\"paths\":{\"/a\":{\"get\":{\"responses\":{\"200\":{\"description\":\"ok\"}}}}}}";
+        var parser = new OpenAPIParser();
+        parser.setStreaming(true);
+        var result = parser.parse("test", json, progress);
+        assertTrue(result.getMessages().stream().anyMatch(m -> m.contains("fell back")));
+        assertEquals(json.length(), progress.getBytesRead());
+    }
+}
@@ -258,10 +258,104 @@ class OpenAPIParserTest {
         // Should still parse successfully, just no endpoints
     }
 
+    @Test
+    void parse_parallelMode_matchesSequentialNumbering() {
+        StringBuilder json = new StringBuilder("{\"openapi\":\"3.0.0\",\"info\":{\"title\":\"x\",\"version\":\"1\"},"
+                + "\"servers\":[{\"url\":\"http://api.example.com\"}],\"paths\":{");
+        for (int i = 0; i < 1500; i++) {
+            if (i > 0) json.append(',');
+            json.append("\"/r").append(i).append("/{id}\":{");
+            if (i % 3 != 0) json.append("\"post\":{\"summary\":\"p").append(i).append("\"},");
+            json.append("\"get\":{\"parameters\":[{\"name\":\"id\",\"in\":\"path\"}]}}");
+        }
+        json.append("}}");
+
+        var sequential = parser.parse("test", json.toString());
+        var parallelParser = new OpenAPIParser();
+        parallelParser.setParallel(true);
+        var parallel = parallelParser.parse("test", json.toString());
+
+        assertEquals(2500, sequential.getEndpoints().size());
+        assertEquals(sequential.getEndpoints().size(), parallel.getEndpoints().size());
+        for (int i = 0; i < sequential.getEndpoints().size(); i++) {
+            var s = sequential.getEndpoints().get(i);
+            var p = parallel.getEndpoints().get(i);
+            assertEquals(i + 1, p.getIndex());
+            assertEquals(s.getMethod(), p.getMethod());
+            assertEquals(s.getPath(), p.getPath());
+            assertEquals(s.getDescription(), p.getDescription());
+            assertEquals("http", p.getScheme());
+            assertEquals(s.getParameters().size(), p.getParameters().size());
+        }
+    }
+
     private String readResource(String name) throws Exception {
         try (InputStream is = OpenAPIParserTest.class.getResourceAsStream("/" + name)) {
             assert is != null : "Resource not found: " + name;
             return new String(is.readAllBytes(), StandardCharsets.UTF_8);
         }
     }
+
+    @Test
+    void parse_referencedParameters_resolvedEagerAndLazy() {
+        String json = """
+            {"openapi":"3.0.0","info":{"title":"x","version":"1"},
+             "paths":{"/items/{id}":{"get":{"parameters":[
+               {"$ref":"#/components/parameters/Id"},{"$ref":"#/components/parameters/Alias"},
+               {"$ref":"#/components/parameters/Missing"}]}}},
+             "components":{"parameters":{"Id":{"name":"id","in":"path","required":true,"schema":{"type":"string"}},
+               "Alias":{"$ref":"#/components/parameters/Id"}}}}
+            """;
+        for (boolean lazy : new boolean[]{false, true}) {
+            parser.setLazyRefs(lazy);
+            var params = parser.parse("test", json).getEndpoints().get(0).getParameters();
+            assertEquals(3, params.size());
+            assertEquals("id", params.get(0).getName());
+            assertEquals("path", params.get(0).getLocation());
+            assertEquals("id", params.get(1).getName());
+            assertNull(params.get(2).getName());
+            assertEquals("query", params.get(2).getLocation());
+        }
+        assertTrue(parser.isLazyRefs());
+    }
+
+    @Test
+    void parseSource_matchesStringParse() {
+        String spec = """
+            user@host:~$ cat openapi.yaml
+            openapi: 3.0.0
+            info:
+              title: Test
+              version: 1.0.0
+            servers:
+              - url: https://api.example.com/
+            paths:
+              /users/{id}:
+                get:
+                  summary: Get user
+                  parameters:
+                    - name: id
+                      in: path
+            """;
+        var fromString = parser.parse("test", spec);
+        var fromBytes = parser.parseSource("test", SpecSource.of(("\r\n" + spec).getBytes(StandardCharsets.UTF_8)));
+        assertEquals(1, fromBytes.getEndpoints().size());
+        assertEquals(fromString.getEndpoints(), fromBytes.getEndpoints());
+        assertEquals("https://api.example.com", fromBytes.getDefaultServer());
+    }
+
+    @Test
+    void parseSource_blank_returnsError() {
+        var result = parser.parseSource("test", SpecSource.of(" \n ".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(result.getEndpoints().isEmpty());
+        assertTrue(result.getMessages().contains("Spec content is empty"));
+    }
+
+    @Test
+    void stripLeadingShellPrompt_bytes_startsAtSpecLine() {
+        var source = SpecSource.of("$ curl x\n> more\n  {\"openapi\":\"3.0.0\"}".getBytes(StandardCharsets.UTF_8));
+        assertEquals("  {\"openapi\":\"3.0.0\"}", OpenAPIParser.stripLeadingShellPrompt(source).decode());
+        var noSpec = SpecSource.of("just text\nmore".getBytes(StandardCharsets.UTF_8));
+        assertSame(noSpec, OpenAPIParser.stripLeadingShellPrompt(noSpec));
+    }
 }
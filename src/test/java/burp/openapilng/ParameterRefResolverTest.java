@@ -0,0 +1,74 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ParameterRefResolver}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class ParameterRefResolverTest {
+
+    @Test
+    void resolve_definedComponent_returnsParameter() {
+        var resolver = new ParameterRefResolver();
+        resolver.define("Id", "id", "PATH", null);
+        var p = resolver.resolve("#/components/parameters/Id");
+        assertEquals("id", p.getName());
+        assertEquals("path", p.getLocation());
+        assertEquals("1", p.getPlaceholderValue());
+    }
+
+    @Test
+    void resolve_chainedReference_followsChain() {
+        var resolver = new ParameterRefResolver();
+        resolver.define("Limit", "limit", "query", null);
+        resolver.define("PageSize", null, null, "#/components/parameters/Limit");
+        assertEquals("limit", resolver.resolve("#/components/parameters/PageSize").getName());
+    }
+
+    @Test
+    void resolve_escapedName_unescapesPointer() {
+        var resolver = new ParameterRefResolver();
+        resolver.define("a/b~c", "x", "header", null);
+        assertEquals("x", resolver.resolve("#/components/parameters/a~1b~0c").getName());
+    }
+
+    @Test
+    void resolve_unresolvable_returnsNamelessQuery() {
+        var resolver = new ParameterRefResolver();
+        resolver.define("Loop", null, null, "#/components/parameters/Loop");
+        for (String ref : new String[]{"#/components/parameters/Missing", "other.yaml#/Limit", "#/components/parameters/Loop"}) {
+            var p = resolver.resolve(ref);
+            assertNull(p.getName());
+            assertEquals("query", p.getLocation());
+        }
+    }
+
+    @Test
+    void resolve_memoizesPerReference() {
+        var resolver = new ParameterRefResolver();
+        resolver.define("Id", "id", "path", null);
+        var first = resolver.resolve("#/components/parameters/Id");
+        assertSame(first, resolver.resolve("#/components/parameters/Id"));
+        assertEquals(1, resolver.getResolvedCount());
+    }
+
+    @Test
+    void reference_resolvesOnFirstRead() {
+        var resolver = new ParameterRefResolver();
+        resolver.define("Id", "id", "path", null);
+        var p = ApiEndpoint.ParameterInfo.reference("#/components/parameters/Id", resolver);
+        assertEquals(0, resolver.getResolvedCount());
+        assertTrue(p.isUnresolved());
+        assertEquals("#/components/parameters/Id", p.getRef());
+        assertEquals("id", p.getName());
+        assertEquals(1, resolver.getResolvedCount());
+        assertFalse(p.isUnresolved());
+        assertEquals(new ApiEndpoint.ParameterInfo("id", "path", "1"), p);
+    }
+}
@@ -0,0 +1,223 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ParseCache}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class ParseCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void key_sameContent_sameKey() {
+        var cache = new ParseCache(dir, ParseCache.DEFAULT_MAX_BYTES);
+        assertEquals(cache.key("{\"openapi\":\"3.0.0\"}"), cache.key(new StringBuilder("{\"openapi\":\"3.0.0\"}")));
+        assertNotEquals(cache.key("{\"openapi\":\"3.0.0\"}"), cache.key("{\"openapi\":\"3.0.1\"}"));
+        assertEquals(64, cache.key("").length());
+    }
+
+    @Test
+    void key_largeContent_hashedInChunks() {
+        var cache = new ParseCache(dir, ParseCache.DEFAULT_MAX_BYTES);
+        String big = "é".repeat(200_000);
+        assertEquals(cache.key(big), cache.key(big));
+        assertNotEquals(cache.key(big), cache.key(big + " "));
+    }
+
+    @Test
+    void get_missingEntry_countsMiss() {
+        var cache = new ParseCache(dir, ParseCache.DEFAULT_MAX_BYTES);
+        assertNull(cache.get(cache.key("x")));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void putThenGet_roundTripsResult() {
+        var cache = new ParseCache(dir, ParseCache.DEFAULT_MAX_BYTES);
+        var params = List.of(
+                new ApiEndpoint.ParameterInfo("id", "path", "1"),
+                new ApiEndpoint.ParameterInfo(null, "query", ""));
+        var endpoints = List.of(
+                new ApiEndpoint(1, "https", "GET", "https://api.test.com", "/users/{id}", params, "Get user"),
+                new ApiEndpoint(2, "https", "POST", "https://api.test.com", "/users", List.of(), "ü ∑ long\ntext",
+                        "", List.of("users", "admin")));
+        var messages = new ArrayList<>(List.of("warning"));
+        String key = cache.key("spec");
+        cache.put(key, new OpenAPIParser.ParseResult(endpoints, messages, "https://api.test.com"));
+
+        var cached = cache.get(key);
+        assertNotNull(cached);
+        assertEquals(1, cache.getHits());
+        assertEquals("https://api.test.com", cached.getDefaultServer());
+        assertEquals(List.of("warning"), cached.getMessages());
+        assertEquals(2, cached.getEndpoints().size());
+        var first = cached.getEndpoints().get(0);
+        assertEquals(1, first.getIndex());
+        assertEquals("GET", first.getMethod());
+        assertEquals("/users/{id}", first.getPath());
+        assertEquals("Get user", first.getDescription());
+        assertEquals(2, first.getParameters().size());
+        assertEquals("id", first.getParameters().get(0).getName());
+        assertEquals("1", first.getParameters().get(0).getPlaceholderValue());
+        assertNull(first.getParameters().get(1).getName());
+        var second = cached.getEndpoints().get(1);
+        assertEquals("POST", second.getMethod());
+        assertEquals("https://api.test.com", second.getServer());
+        assertEquals("ü ∑ long\ntext", second.getDescription());
+        assertEquals(List.of("users", "admin"), second.getTags());
+        assertEquals(List.of(), first.getTags());
+    }
+
+    @Test
+    void putThenGet_keepsReferencesUnresolvedAndDescriptionsCompressed() {
+        var cache = new ParseCache(dir, ParseCache.DEFAULT_MAX_BYTES);
+        var resolver = new ParameterRefResolver();
+        resolver.define("Limit", "limit", "query", null);
+        resolver.define("Alias", null, null, "#/components/parameters/Limit");
+        String longDescription = "Lists users.\n" + "Pages through every user. ".repeat(40);
+        var endpoints = List.of(
+                new ApiEndpoint(1, "https", "GET", "", "/users", List.of(
+                        ApiEndpoint.ParameterInfo.reference("#/components/parameters/Alias", resolver),
+                        new ApiEndpoint.ParameterInfo("id", "path", "1")), longDescription),
+                new ApiEndpoint(2, "https", "GET", "", "/teams", List.of(
+                        ApiEndpoint.ParameterInfo.reference("#/components/parameters/Limit", resolver)), "Teams"));
+        var result = new OpenAPIParser.ParseResult(endpoints, new ArrayList<>(), "");
+        String key = cache.key("spec");
+        cache.put(key, result);
+        assertTrue(result.getEndpoints().get(0).getParameters().get(0).isUnresolved());
+        assertEquals(0, resolver.getResolvedCount());
+
+        var cached = cache.get(key);
+        assertNotNull(cached);
+        assertTrue(cached.getEndpoints() instanceof EndpointCatalog);
+        assertEquals(((EndpointCatalog) result.getEndpoints()).getDescriptionBytes(),
+                ((EndpointCatalog) cached.getEndpoints()).getDescriptionBytes());
+        var first = cached.getEndpoints().get(0);
+        assertEquals("Lists users.", first.getDescriptionPreview());
+        var ref = first.getParameters().get(0);
+        assertTrue(ref.isUnresolved());
+        assertEquals("#/components/parameters/Alias", ref.getRef());
+        assertEquals("limit", ref.getName());
+        assertEquals("query", ref.getLocation());
+        assertEquals("id", first.getParameters().get(1).getName());
+        assertEquals(longDescription, first.getDescription());
+        assertTrue(first.sameRow(result.getEndpoints().get(0)));
+        assertEquals("limit", cached.getEndpoints().get(1).getParameters().get(0).getName());
+        assertEquals("Teams", cached.getEndpoints().get(1).getDescription());
+    }
+
+    @Test
+    void putLater_answersFromMemoryUntilWritten() throws Exception {
+        var cache = new ParseCache(dir, ParseCache.DEFAULT_MAX_BYTES);
+        var endpoints = List.of(new ApiEndpoint(1, "https", "GET", "", "/a", List.of(), "A"));
+        var messages = new ArrayList<>(List.of("warning"));
+        String key = cache.key("spec");
+        cache.putLater(key, new OpenAPIParser.ParseResult(endpoints, messages, ""));
+        messages.add("added after queueing");
+
+        var queued = cache.get(key);
+        assertNotNull(queued);
+        assertEquals(List.of("warning"), queued.getMessages());
+        assertEquals(1, cache.getHits());
+
+        cache.close();
+        Path file = dir.resolve(key + ".bin");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!Files.exists(file) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        var reread = new ParseCache(dir, ParseCache.DEFAULT_MAX_BYTES).get(key);
+        assertNotNull(reread);
+        assertEquals("/a", reread.getEndpoints().get(0).getPath());
+    }
+
+    @Test
+    void get_corruptEntry_treatedAsMissAndRemoved() throws Exception {
+        var cache = new ParseCache(dir, ParseCache.DEFAULT_MAX_BYTES);
+        String key = cache.key("spec");
+        Files.write(dir.resolve(key + ".bin"), new byte[]{1, 2, 3, 4});
+        assertNull(cache.get(key));
+        assertEquals(1, cache.getMisses());
+        assertFalse(Files.exists(dir.resolve(key + ".bin")));
+    }
+
+    @Test
+    void put_overBudget_evictsLeastRecentlyUsed() throws Exception {
+        var endpoints = new ArrayList<ApiEndpoint>();
+        for (int i = 0; i < 200; i++) {
+            endpoints.add(new ApiEndpoint(i + 1, "https", "GET", "", "/p" + i + "/" + Math.random(), List.of(), "d" + Math.random()));
+        }
+        var result = new OpenAPIParser.ParseResult(endpoints, new ArrayList<>(), "");
+        var probe = new ParseCache(dir.resolve("probe"), ParseCache.DEFAULT_MAX_BYTES);
+        probe.put("probe", result);
+        long entrySize = Files.size(dir.resolve("probe").resolve("probe.bin"));
+
+        var cache = new ParseCache(dir.resolve("lru"), entrySize * 2 + entrySize / 2);
+        cache.put("a", result);
+        cache.put("b", result);
+        Files.setLastModifiedTime(dir.resolve("lru").resolve("a.bin"), java.nio.file.attribute.FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(dir.resolve("lru").resolve("b.bin"), java.nio.file.attribute.FileTime.fromMillis(2000));
+        assertNotNull(cache.get("a"));
+        cache.put("c", result);
+
+        assertTrue(Files.exists(dir.resolve("lru").resolve("a.bin")));
+        assertFalse(Files.exists(dir.resolve("lru").resolve("b.bin")));
+        assertTrue(Files.exists(dir.resolve("lru").resolve("c.bin")));
+    }
+
+    @Test
+    void openApiParser_withCache_secondParseIsHit() throws Exception {
+        var parser = new OpenAPIParser();
+        var cache = new ParseCache(dir, ParseCache.DEFAULT_MAX_BYTES);
+        parser.setCache(cache);
+        String json = """
+            {"openapi":"3.0.0","info":{"title":"x","version":"1"},"servers":[{"url":"https://api.example.com"}],
+             "paths":{"/a":{"get":{"summary":"A","parameters":[{"name":"q","in":"query"}]}}}}
+            """;
+        var first = parser.parse("test", json);
+        var second = parser.parse("test", "  " + json + "\n");
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(first.getEndpoints().size(), second.getEndpoints().size());
+        assertEquals("q", second.getEndpoints().get(0).getParameters().get(0).getName());
+        assertEquals("https://api.example.com", second.getDefaultServer());
+    }
+
+    @Test
+    void openApiParser_otherMode_isMiss() {
+        var parser = new OpenAPIParser();
+        var cache = new ParseCache(dir, ParseCache.DEFAULT_MAX_BYTES);
+        parser.setCache(cache);
+        parser.setStreaming(true);
+        String json = """
+            {"openapi":"3.0.0","info":{"title":"x","version":"1"},
+             "components":{"parameters":{"Q":{"name":"q","in":"query"}}},
+             "paths":{"/a":{"get":{"parameters":[{"$ref":"#/components/parameters/Q"}]}}}}
+            """;
+        parser.parse("test", json);
+        parser.setLazyRefs(true);
+        var lazy = parser.parse("test", json);
+        assertEquals(2, cache.getMisses());
+        assertTrue(lazy.getEndpoints().get(0).getParameters().get(0).isUnresolved());
+        parser.setLazyRefs(false);
+        var eager = parser.parse("test", json);
+        assertEquals(1, cache.getHits());
+        assertFalse(eager.getEndpoints().get(0).getParameters().get(0).isUnresolved());
+        assertNotEquals(cache.key(json, parser.cacheMode()), cache.key(json));
+    }
+}
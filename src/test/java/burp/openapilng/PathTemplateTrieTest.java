@@ -0,0 +1,187 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PathTemplateTrie}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class PathTemplateTrieTest {
+
+    private static ApiEndpoint endpoint(int index, String method, String server, String path) {
+        return new ApiEndpoint(index, "https", method, server, path, List.of(), "");
+    }
+
+    private static PathTemplateTrie trie(ApiEndpoint... endpoints) {
+        return PathTemplateTrie.build(List.of(endpoints), LoadProgress.untracked());
+    }
+
+    private static int matchedIndex(PathTemplateTrie trie, String method, String host, String path) {
+        PathTemplateTrie.Match m = trie.match(method, host, path);
+        return m != null ? m.getEndpoint().getIndex() : -1;
+    }
+
+    @Test
+    void match_staticSegmentBeatsParameter() {
+        PathTemplateTrie trie = trie(
+                endpoint(1, "GET", "https://api.test", "/users/{id}"),
+                endpoint(2, "GET", "https://api.test", "/users/me"));
+        assertEquals(2, matchedIndex(trie, "GET", "api.test", "/users/me"));
+        assertEquals(1, matchedIndex(trie, "GET", "api.test", "/users/42"));
+        assertEquals(-1, matchedIndex(trie, "GET", "api.test", "/users"));
+        assertEquals(-1, matchedIndex(trie, "GET", "api.test", "/users/42/extra"));
+    }
+
+    @Test
+    void match_backtracksFromStaticToParameter() {
+        PathTemplateTrie trie = trie(
+                endpoint(1, "GET", "https://api.test", "/users/me/settings"),
+                endpoint(2, "GET", "https://api.test", "/users/{id}/orders"));
+        assertEquals(2, matchedIndex(trie, "GET", "api.test", "/users/me/orders"));
+        assertEquals(1, matchedIndex(trie, "GET", "api.test", "/users/me/settings"));
+    }
+
+    @Test
+    void match_keyedByMethod() {
+        PathTemplateTrie trie = trie(
+                endpoint(1, "GET", "https://api.test", "/items"),
+                endpoint(2, "POST", "https://api.test", "/items"));
+        assertEquals(1, matchedIndex(trie, "GET", "api.test", "/items"));
+        assertEquals(2, matchedIndex(trie, "post", "api.test", "/items"));
+        assertEquals(-1, matchedIndex(trie, "DELETE", "api.test", "/items"));
+    }
+
+    @Test
+    void match_serverHostAndBasePath() {
+        PathTemplateTrie trie = trie(
+                endpoint(1, "GET", "https://api.test:8443/v1", "/items"),
+                endpoint(2, "GET", "https://other.test/v2", "/items"));
+        assertEquals(1, matchedIndex(trie, "GET", "API.test", "/v1/items"));
+        assertEquals(2, matchedIndex(trie, "GET", "other.test", "/v2/items"));
+        assertEquals(-1, matchedIndex(trie, "GET", "api.test", "/items"));
+        assertEquals(-1, matchedIndex(trie, "GET", "api.test", "/v2/items"));
+        assertEquals(-1, matchedIndex(trie, "GET", "unknown.test", "/v1/items"));
+    }
+
+    @Test
+    void match_serverWithoutHost_matchesAnyHost() {
+        PathTemplateTrie trie = trie(
+                endpoint(1, "GET", "/api", "/items"),
+                endpoint(2, "GET", "https://{tenant}.api.test", "/items"),
+                endpoint(3, "GET", "https://api.test", "/items/{id}"));
+        assertEquals(1, matchedIndex(trie, "GET", "anything.test", "/api/items"));
+        assertEquals(2, matchedIndex(trie, "GET", "acme.api.test", "/items"));
+        // Falls back to templates for any host when the host's own trie has no match
+        assertEquals(2, matchedIndex(trie, "GET", "api.test", "/items"));
+        assertEquals(3, matchedIndex(trie, "GET", "api.test", "/items/7"));
+    }
+
+    @Test
+    void match_ignoresQueryFragmentAndExtraSlashes() {
+        PathTemplateTrie trie = trie(endpoint(1, "GET", "https://api.test", "/users/{id}"));
+        assertEquals(1, matchedIndex(trie, "GET", "api.test", "/users/42?expand=orders"));
+        assertEquals(1, matchedIndex(trie, "GET", "api.test", "/users/42#top"));
+        assertEquals(1, matchedIndex(trie, "GET", "api.test", "/users/42/"));
+        assertEquals(1, matchedIndex(trie, "GET", "api.test", "//users//42"));
+        assertEquals(-1, matchedIndex(trie, "GET", "api.test", "/users/?id=42"));
+    }
+
+    @Test
+    void match_segmentMixingTextAndParameter() {
+        PathTemplateTrie trie = trie(
+                endpoint(1, "GET", "https://api.test", "/reports/{id}.json"),
+                endpoint(2, "GET", "https://api.test", "/reports/{name}"),
+                endpoint(3, "GET", "https://api.test", "/reports/latest.json"));
+        assertEquals(3, matchedIndex(trie, "GET", "api.test", "/reports/latest.json"));
+        assertEquals(1, matchedIndex(trie, "GET", "api.test", "/reports/17.json"));
+        assertEquals(2, matchedIndex(trie, "GET", "api.test", "/reports/17.csv"));
+        // The parameter must not be empty
+        assertEquals(2, matchedIndex(trie, "GET", "api.test", "/reports/.json"));
+    }
+
+    @Test
+    void build_duplicateTemplates_keepsFirst() {
+        PathTemplateTrie trie = trie(
+                endpoint(1, "GET", "https://api.test", "/users/{id}"),
+                endpoint(2, "GET", "https://api.test", "/users/{userId}"));
+        assertEquals(1, trie.size());
+        assertEquals(1, matchedIndex(trie, "GET", "api.test", "/users/5"));
+    }
+
+    @Test
+    void match_noteNamesTemplateAndSource() {
+        PathTemplateTrie trie = PathTemplateTrie.build(List.of(
+                new ApiEndpoint(1, "https", "GET", "https://api.test", "/users/{id}", List.of(), "", "users.yaml")),
+                LoadProgress.untracked());
+        assertEquals("OpenAPI: GET /users/{id} (users.yaml)", trie.match("GET", "api.test", "/users/1").getNote());
+    }
+
+    @Test
+    void build_cancelled_throws() {
+        LoadProgress progress = new LoadProgress();
+        progress.cancel();
+        assertThrows(CancellationException.class, () -> PathTemplateTrie.build(
+                List.of(endpoint(1, "GET", "https://api.test", "/x")), progress));
+    }
+
+    @Test
+    void match_largeSpec_microsecondsAndNoAllocation() {
+        List<ApiEndpoint> eps = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            eps.add(endpoint(i, i % 4 == 0 ? "POST" : "GET", "https://api" + (i % 5) + ".test/v1",
+                    "/svc" + (i % 97) + "/res" + i + "/{id}/sub" + (i % 13)));
+        }
+        PathTemplateTrie trie = PathTemplateTrie.build(eps, LoadProgress.untracked());
+        assertEquals(100_000, trie.size());
+
+        String[] hosts = new String[1000];
+        String[] paths = new String[1000];
+        String[] methods = new String[1000];
+        int[] expected = new int[1000];
+        for (int k = 0; k < 1000; k++) {
+            int i = (k * 7919) % eps.size();
+            hosts[k] = "api" + (i % 5) + ".test";
+            paths[k] = "/v1/svc" + (i % 97) + "/res" + i + "/" + k + "/sub" + (i % 13) + "?q=" + k;
+            methods[k] = eps.get(i).getMethod();
+            expected[k] = i;
+        }
+        for (int k = 0; k < 1000; k++) {
+            assertEquals(expected[k], matchedIndex(trie, methods[k], hosts[k], paths[k]));
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        boolean countsBytes = threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported();
+        long bytesBefore = countsBytes
+                ? ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+        int rounds = 200;
+        int hits = 0;
+        long start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            for (int k = 0; k < 1000; k++) {
+                if (trie.match(methods[k], hosts[k], paths[k]) != null) hits++;
+            }
+        }
+        long micros = (System.nanoTime() - start) / 1000;
+        assertEquals(rounds * 1000, hits);
+        // A few microseconds per match even on a slow, shared build machine
+        assertTrue(micros / (rounds * 1000.0) < 20, "average " + micros / (rounds * 1000.0) + " us per match");
+        if (countsBytes) {
+            long bytes = ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId())
+                    - bytesBefore;
+            // Allows for stray JIT or timer allocations, far below one object per match
+            assertTrue(bytes < rounds * 1000L, bytes + " bytes allocated");
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RegexGuard} and the filters that use it.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class RegexGuardTest {
+
+    /**
+     * Backtracks exponentially over a run of a's. The JDK memoizes simple nested loops such
+     * as {@code (a+)+$}, but not counted repeats of a greedy wildcard.
+     */
+    private static final String EVIL = "(.*a){15}!b";
+
+    /** Paths of a's ending in '!'. */
+    private static List<ApiEndpoint> evilPaths(int count) {
+        List<ApiEndpoint> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(new ApiEndpoint(i + 1, "https", "GET", "", "/" + "a".repeat(40) + "!", List.of(), ""));
+        }
+        return result;
+    }
+
+    @Test
+    void wrap_readsThroughToText() {
+        RegexGuard guard = RegexGuard.forPass(LoadProgress.untracked());
+        assertSame(guard, guard.wrap("GET /users"));
+        assertEquals(10, guard.length());
+        assertEquals('/', guard.charAt(4));
+        assertEquals("users", guard.subSequence(5, 10).toString());
+        assertEquals("GET /users", guard.toString());
+        assertTrue(Pattern.compile("/us(er)+s$").matcher(guard).find());
+    }
+
+    @Test
+    void catastrophicPattern_exceedsRowBudgetQuickly() {
+        long start = System.nanoTime();
+        var e = assertThrows(RegexGuard.BudgetExceededException.class, () -> EndpointTableModel.filter(
+                evilPaths(1), Pattern.compile(EVIL), RegexGuard.forPass(LoadProgress.untracked())));
+        assertTrue(e.getMessage().contains("steps on one row"), e.getMessage());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+    }
+
+    @Test
+    void manyRowsWithinRowBudget_notRejected() {
+        // Each row backtracks but stays under the row budget; the pass as a whole has no time limit
+        List<ApiEndpoint> eps = evilPaths(2000);
+        assertEquals(List.of(), EndpointTableModel.filter(eps, Pattern.compile("(.*a){3}!b"),
+                new RegexGuard(LoadProgress.untracked(), RegexGuard.DEFAULT_ROW_STEPS)));
+    }
+
+    @Test
+    void cancelledProgress_stopsMidRow() {
+        var progress = new LoadProgress();
+        progress.cancel();
+        assertThrows(CancellationException.class, () -> Pattern.compile(EVIL).matcher(
+                RegexGuard.forPass(progress).wrap("a".repeat(40) + "!")).find());
+    }
+
+    @Test
+    void ordinaryRegex_withinBudget() {
+        List<ApiEndpoint> eps = new ArrayList<>(evilPaths(100));
+        eps.add(new ApiEndpoint(101, "https", "POST", "https://api.test", "/users/{id}", List.of(), ""));
+        assertEquals(1, EndpointTableModel.filter(eps, Pattern.compile("^POST /users/\\{\\w+\\}"),
+                LoadProgress.untracked()).size());
+    }
+
+    @Test
+    void model_rejectsPathologicalFilter_showsAllRows() {
+        var model = new EndpointTableModel();
+        model.setEndpoints(evilPaths(3));
+        model.setFilter(EVIL);
+        assertEquals(3, model.getFilterHitCount());
+        assertNotNull(model.getFilterError());
+        model.setFilter("GET");
+        assertNull(model.getFilterError());
+    }
+
+    @Test
+    void query_regexTermsAreGuarded() {
+        assertThrows(RegexGuard.BudgetExceededException.class, () -> FilterQuery.parse("path~\"" + EVIL + "\"")
+                .filter(new FieldIndex(evilPaths(1)), LoadProgress.untracked()));
+    }
+
+    @Test
+    void backgroundFilter_reportsRejection() throws InterruptedException {
+        AtomicReference<String> reason = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        try (BackgroundFilter filter = new BackgroundFilter(0, Runnable::run)) {
+            filter.request(new FieldIndex(evilPaths(1)), EVIL, new BackgroundFilter.Listener() {
+                @Override
+                public void filtered(String regex, List<ApiEndpoint> source, List<ApiEndpoint> filtered) {
+                    fail("should be rejected");
+                }
+
+                @Override
+                public void rejected(String regex, String message) {
+                    reason.set(message);
+                    done.countDown();
+                }
+            });
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+        assertTrue(reason.get().contains("steps on one row"), reason.get());
+    }
+}
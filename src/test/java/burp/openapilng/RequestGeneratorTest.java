@@ -4,7 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -141,4 +143,90 @@ class RequestGeneratorTest {
         assertTrue(req.contains("GET /users HTTP/1.1"));
         assertFalse(req.contains("//users"));
     }
+
+    @Test
+    void buildInsertionPointRanges_pathParamAfterRepeatedPlaceholder() {
+        var params = List.of(new ApiEndpoint.ParameterInfo("id", "path", "1"));
+        var ep = new ApiEndpoint(1, "https", "GET", "https://api1.test.com", "/v1/users/{id}", params, "");
+        byte[] raw = generator.buildRequestBytes(ep, null);
+        var ranges = generator.buildInsertionPointRanges(raw, ep);
+        assertEquals(1, ranges.size());
+        String req = new String(raw, StandardCharsets.UTF_8);
+        assertEquals(req.indexOf("/v1/users/1") + "/v1/users/".length(), ranges.get(0).startIndexInclusive());
+        assertEquals(ranges.get(0).startIndexInclusive() + 1, ranges.get(0).endIndexExclusive());
+    }
+
+    @Test
+    void buildInsertionPointRanges_queryAndBody() {
+        var params = List.of(new ApiEndpoint.ParameterInfo("limit", "query", "10"));
+        var ep = new ApiEndpoint(1, "https", "POST", "https://api.test.com", "/users", params, "");
+        byte[] raw = generator.buildRequestBytes(ep, "https://other.test");
+        String req = new String(raw, StandardCharsets.UTF_8);
+        var ranges = generator.buildInsertionPointRanges(raw, ep);
+        assertEquals(2, ranges.size());
+        assertEquals("10", req.substring(ranges.get(0).startIndexInclusive(), ranges.get(0).endIndexExclusive()));
+        assertEquals("{}", req.substring(ranges.get(1).startIndexInclusive(), ranges.get(1).endIndexExclusive()));
+    }
+
+    @Test
+    void buildInsertionPointRanges_editedRequest_returnsEmpty() {
+        var params = List.of(new ApiEndpoint.ParameterInfo("id", "path", "1"));
+        var ep = new ApiEndpoint(1, "https", "GET", "https://api.test.com", "/users/{id}", params, "");
+        byte[] raw = "GET /users/2 HTTP/1.1\r\nHost: api.test.com\r\n\r\n".getBytes(StandardCharsets.UTF_8);
+        assertTrue(generator.buildInsertionPointRanges(raw, ep).isEmpty());
+    }
+
+    @Test
+    void buildAll_largeSelection_deliversInOrder() {
+        List<ApiEndpoint> endpoints = new ArrayList<>();
+        for (int i = 0; i < RequestGenerator.BULK_CHUNK * 20 + 7; i++) {
+            endpoints.add(new ApiEndpoint(i + 1, "https", "GET", "https://api.test.com", "/items/" + i, List.of(), ""));
+        }
+        List<String> firstLines = new ArrayList<>();
+        RequestGenerator.buildAll(endpoints, ep -> generator.buildRequestBytes(ep, null), (index, raw) -> {
+            assertEquals(firstLines.size(), index);
+            firstLines.add(new String(raw, StandardCharsets.UTF_8).split("\r\n")[0]);
+        });
+        assertEquals(endpoints.size(), firstLines.size());
+        for (int i = 0; i < endpoints.size(); i++) {
+            assertEquals("GET /items/" + i + " HTTP/1.1", firstLines.get(i));
+        }
+    }
+
+    @Test
+    void buildAll_smallSelection_buildsOnCallingThread() {
+        var ep = new ApiEndpoint(1, "https", "GET", "https://api.test.com", "/a", List.of(), "");
+        Thread caller = Thread.currentThread();
+        List<Thread> threads = new ArrayList<>();
+        RequestGenerator.buildAll(List.of(ep, ep), e -> Thread.currentThread(), (index, t) -> threads.add(t));
+        assertEquals(List.of(caller, caller), threads);
+    }
+
+    @Test
+    void buildAll_builderFailure_propagates() {
+        List<ApiEndpoint> endpoints = new ArrayList<>();
+        for (int i = 0; i < RequestGenerator.BULK_CHUNK * 4; i++) {
+            endpoints.add(new ApiEndpoint(i + 1, "https", "GET", "", "/x", List.of(), ""));
+        }
+        var ex = assertThrows(IllegalArgumentException.class, () -> RequestGenerator.buildAll(endpoints, ep -> {
+            if (ep.getIndex() == RequestGenerator.BULK_CHUNK * 3) throw new IllegalArgumentException("bad");
+            return ep;
+        }, (index, ep) -> { }));
+        assertEquals("bad", ex.getMessage());
+    }
+
+    @Test
+    void buildAll_interrupted_throwsCancellation() {
+        List<ApiEndpoint> endpoints = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            endpoints.add(new ApiEndpoint(i + 1, "https", "GET", "", "/x", List.of(), ""));
+        }
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class,
+                    () -> RequestGenerator.buildAll(endpoints, ep -> ep, (index, ep) -> { }));
+        } finally {
+            Thread.interrupted();
+        }
+    }
 }
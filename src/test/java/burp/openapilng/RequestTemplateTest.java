@@ -0,0 +1,166 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RequestTemplate}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class RequestTemplateTest {
+
+    private static String render(ApiEndpoint ep, String server) {
+        byte[] raw = RequestTemplate.compile(ep).render(RequestTemplate.hostHeader(server));
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void render_get_exactBytes() {
+        var params = List.of(
+                new ApiEndpoint.ParameterInfo("id", "path", "7"),
+                new ApiEndpoint.ParameterInfo("limit", "query", "10"),
+                new ApiEndpoint.ParameterInfo("offset", "query", "0"));
+        var ep = new ApiEndpoint(1, "https", "GET", "", "/users/{id}/posts/{postId}", params, "");
+        assertEquals("GET /users/7/posts/1?limit=10&offset=0 HTTP/1.1\r\n"
+                + "Host: api.test.com\r\n"
+                + "User-Agent: OpenAPI-NG/1.0\r\n"
+                + "\r\n", render(ep, "https://api.test.com"));
+    }
+
+    @Test
+    void render_post_exactBytes() {
+        var ep = new ApiEndpoint(1, "https", "POST", "", "/users", List.of(), "");
+        assertEquals("POST /users HTTP/1.1\r\n"
+                + "Host: api.test.com:8443\r\n"
+                + "User-Agent: OpenAPI-NG/1.0\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Content-Length: 2\r\n"
+                + "\r\n"
+                + "{}", render(ep, "https://api.test.com:8443"));
+    }
+
+    @Test
+    void render_sameTemplate_differentHosts() {
+        var ep = new ApiEndpoint(1, "https", "GET", "", "/a", List.of(), "");
+        RequestTemplate template = RequestTemplate.compile(ep);
+        String one = new String(template.render(RequestTemplate.hostHeader("https://one.test")), StandardCharsets.UTF_8);
+        String two = new String(template.render(RequestTemplate.hostHeader("http://two.test:8080")), StandardCharsets.UTF_8);
+        assertTrue(one.contains("Host: one.test\r\n"));
+        assertTrue(two.contains("Host: two.test:8080\r\n"));
+    }
+
+    @Test
+    void render_encodesUtf8() {
+        var ep = new ApiEndpoint(1, "https", "GET", "", "/café", List.of(), "");
+        byte[] raw = RequestTemplate.compile(ep).render(RequestTemplate.hostHeader("https://x.test"));
+        assertEquals("GET /café HTTP/1.1", new String(raw, StandardCharsets.UTF_8).split("\r\n")[0]);
+        assertEquals((byte) 0xc3, raw[8]);
+    }
+
+    @Test
+    void hostHeader_defaultPortsOmitted_badUrlIsLocalhost() {
+        assertEquals("a.test", new String(RequestTemplate.hostHeader("http://a.test:80"), StandardCharsets.UTF_8));
+        assertEquals("a.test", new String(RequestTemplate.hostHeader("https://a.test:443"), StandardCharsets.UTF_8));
+        assertEquals("a.test:443", new String(RequestTemplate.hostHeader("http://a.test:443"), StandardCharsets.UTF_8));
+        assertEquals("localhost", new String(RequestTemplate.hostHeader("https://bad host"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void serverFor_prefersOverride_stripsSlash_defaultsToLocalhost() {
+        var ep = new ApiEndpoint(1, "https", "GET", "https://spec.test/", "/a", List.of(), "");
+        assertEquals("https://spec.test", RequestTemplate.serverFor(ep, null));
+        assertEquals("https://spec.test", RequestTemplate.serverFor(ep, "  "));
+        assertEquals("https://target.test", RequestTemplate.serverFor(ep, "https://target.test/"));
+        var noServer = new ApiEndpoint(1, "https", "GET", "", "/a", List.of(), "");
+        assertEquals(RequestTemplate.DEFAULT_SERVER, RequestTemplate.serverFor(noServer, null));
+    }
+
+    @Test
+    void endpoint_compilesTemplateOnce() {
+        var ep = new ApiEndpoint(1, "https", "GET", "", "/a", List.of(), "");
+        assertSame(ep.template(), ep.template());
+    }
+
+    @Test
+    void render_headerAndCookieParams_written() {
+        var params = List.of(
+                new ApiEndpoint.ParameterInfo("X-Tenant", "header", "t1"),
+                new ApiEndpoint.ParameterInfo("Authorization", "header", ""),
+                new ApiEndpoint.ParameterInfo("session", "cookie", "abc"),
+                new ApiEndpoint.ParameterInfo("theme", "cookie", ""));
+        var ep = new ApiEndpoint(1, "https", "GET", "", "/a", params, "");
+        assertEquals("GET /a HTTP/1.1\r\n"
+                + "Host: x.test\r\n"
+                + "User-Agent: OpenAPI-NG/1.0\r\n"
+                + "X-Tenant: t1\r\n"
+                + "Cookie: session=abc; theme=\r\n"
+                + "\r\n", render(ep, "https://x.test"));
+    }
+
+    @Test
+    void insertionPoints_exactEvenWhenPlaceholderRepeats() {
+        var params = List.of(
+                new ApiEndpoint.ParameterInfo("id", "path", "1"),
+                new ApiEndpoint.ParameterInfo("q", "query", "1"),
+                new ApiEndpoint.ParameterInfo("X-1", "header", "1"),
+                new ApiEndpoint.ParameterInfo("c1", "cookie", "1"));
+        var ep = new ApiEndpoint(1, "https", "POST", "", "/v1/items/{id}", params, "");
+        RequestTemplate template = RequestTemplate.compile(ep);
+        byte[] host = RequestTemplate.hostHeader("https://host1.test:10443");
+        String raw = new String(template.render(host), StandardCharsets.ISO_8859_1);
+        int[] points = template.insertionPoints(host);
+        assertEquals(10, points.length);
+        assertEquals(raw.indexOf("/v1/items/1") + "/v1/items/".length(), points[0]);
+        assertEquals(raw.indexOf("?q=1") + 3, points[2]);
+        assertEquals(raw.indexOf("X-1: 1") + 5, points[4]);
+        assertEquals(raw.indexOf("c1=1") + 3, points[6]);
+        for (int i = 0; i < 8; i += 2) {
+            assertEquals("1", raw.substring(points[i], points[i + 1]));
+        }
+        assertEquals("{}", raw.substring(points[8], points[9]));
+        assertEquals(raw.length(), points[9]);
+    }
+
+    @Test
+    void render_emptyBraces_keptLiteralAndNextVariableReplaced() {
+        var params = List.of(new ApiEndpoint.ParameterInfo("id", "path", "7"));
+        var ep = new ApiEndpoint(1, "https", "GET", "", "/a/{}/{id}", params, "");
+        RequestTemplate template = RequestTemplate.compile(ep);
+        byte[] host = RequestTemplate.hostHeader("https://x.test");
+        String raw = new String(template.render(host), StandardCharsets.ISO_8859_1);
+        assertEquals("GET /a/{}/7 HTTP/1.1", raw.split("\r\n")[0]);
+        int[] points = template.insertionPoints(host);
+        assertEquals(2, points.length);
+        assertEquals("7", raw.substring(points[0], points[1]));
+    }
+
+    @Test
+    void insertionPoints_byteOffsets_afterMultibyteChars() {
+        var params = List.of(new ApiEndpoint.ParameterInfo("id", "path", "9"));
+        var ep = new ApiEndpoint(1, "https", "GET", "", "/café/{id}", params, "");
+        RequestTemplate template = RequestTemplate.compile(ep);
+        byte[] host = RequestTemplate.hostHeader("https://x.test");
+        byte[] raw = template.render(host);
+        int[] points = template.insertionPoints(host);
+        assertEquals('9', raw[points[0]]);
+        assertEquals(points[0] + 1, points[1]);
+    }
+
+    @Test
+    void matchHost_acceptsRendered_rejectsEdited() {
+        var ep = new ApiEndpoint(1, "https", "GET", "", "/a", List.of(), "");
+        RequestTemplate template = RequestTemplate.compile(ep);
+        byte[] raw = template.render(RequestTemplate.hostHeader("https://x.test:8443"));
+        assertEquals("x.test:8443", new String(template.matchHost(raw), StandardCharsets.UTF_8));
+        raw[0] = 'P';
+        assertNull(template.matchHost(raw));
+        assertNull(template.matchHost(new byte[3]));
+    }
+}
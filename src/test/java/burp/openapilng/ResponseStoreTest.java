@@ -0,0 +1,163 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ResponseStore}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class ResponseStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] response(String body) {
+        return ("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\n\r\n" + body).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int bodyOffset(byte[] raw) {
+        return new String(raw, StandardCharsets.UTF_8).indexOf("\r\n\r\n") + 4;
+    }
+
+    /** Incompressible bytes, so the budget tests know roughly how much lands on disk. */
+    private static byte[] noise(int length, long seed) {
+        byte[] b = new byte[length];
+        new Random(seed).nextBytes(b);
+        return b;
+    }
+
+    @Test
+    void put_thenRead_roundTripsResponseAndMetadata() throws IOException {
+        try (ResponseStore store = new ResponseStore(dir, ResponseStore.DEFAULT_MAX_BYTES)) {
+            byte[] raw = response("{\"id\":1}");
+            store.put(7, 200, "application/json", raw, bodyOffset(raw));
+            store.setNanos(7, 42_000_000);
+
+            assertTrue(store.contains(7));
+            assertFalse(store.contains(6));
+            assertFalse(store.contains(1000));
+            assertEquals(200, store.getStatus(7));
+            assertEquals(8, store.getBodyLength(7));
+            assertEquals("application/json", store.getContentType(7));
+            assertEquals(42, store.getMillis(7));
+            assertArrayEquals(raw, store.getResponse(7));
+            assertNull(store.getResponse(6));
+        }
+    }
+
+    @Test
+    void bodyHash_matchesForIdenticalBodies() throws IOException {
+        try (ResponseStore store = new ResponseStore(dir, ResponseStore.DEFAULT_MAX_BYTES)) {
+            byte[] a = response("same");
+            byte[] b = ("HTTP/1.1 404 Not Found\r\n\r\nsame").getBytes(StandardCharsets.UTF_8);
+            byte[] c = response("different");
+            store.put(1, 200, null, a, bodyOffset(a));
+            store.put(2, 404, null, b, bodyOffset(b));
+            store.put(3, 200, null, c, bodyOffset(c));
+            assertEquals(store.getBodyHash(1), store.getBodyHash(2));
+            assertNotEquals(store.getBodyHash(1), store.getBodyHash(3));
+            assertNull(store.getContentType(1));
+        }
+    }
+
+    @Test
+    void put_replacesEarlierResponse() throws IOException {
+        try (ResponseStore store = new ResponseStore(dir, ResponseStore.DEFAULT_MAX_BYTES)) {
+            byte[] first = response("first");
+            byte[] second = response("second");
+            store.put(0, 500, null, first, bodyOffset(first));
+            store.put(0, 200, null, second, bodyOffset(second));
+            assertEquals(200, store.getStatus(0));
+            assertArrayEquals(second, store.getResponse(0));
+        }
+    }
+
+    @Test
+    void budget_evictsOldestResponses_keepsMetadata() throws IOException {
+        long budget = 4L * 1024 * 1024;
+        try (ResponseStore store = new ResponseStore(dir, budget)) {
+            for (int i = 0; i < 40; i++) {
+                store.put(i, 200, "application/octet-stream", noise(256 * 1024, i), 0);
+                assertTrue(store.getStoredBytes() <= budget, "over budget after " + i);
+            }
+            assertNull(store.getResponse(0));
+            assertEquals(200, store.getStatus(0));
+            assertEquals(256 * 1024, store.getBodyLength(0));
+            assertArrayEquals(noise(256 * 1024, 39), store.getResponse(39));
+        }
+    }
+
+    @Test
+    void setMaxBytes_shrinksAtOnce() throws IOException {
+        try (ResponseStore store = new ResponseStore(dir, 64L * 1024 * 1024)) {
+            for (int i = 0; i < 12; i++) {
+                store.put(i, 200, null, noise(512 * 1024, i), 0);
+            }
+            store.setMaxBytes(0);
+            assertEquals(0, store.getStoredBytes());
+            assertNull(store.getResponse(11));
+            assertTrue(store.contains(11));
+        }
+    }
+
+    @Test
+    void responseLargerThanBudget_keepsMetadataOnly() throws IOException {
+        try (ResponseStore store = new ResponseStore(dir, 1024)) {
+            store.put(3, 200, null, noise(8 * 1024, 3), 0);
+            assertTrue(store.contains(3));
+            assertNull(store.getResponse(3));
+            assertEquals(0, store.getStoredBytes());
+        }
+    }
+
+    @Test
+    void clear_dropsWritesStartedBeforeIt() throws IOException {
+        try (ResponseStore store = new ResponseStore(dir, ResponseStore.DEFAULT_MAX_BYTES)) {
+            int before = store.getGeneration();
+            byte[] raw = response("old spec");
+            assertTrue(store.putIfCurrent(before, 1, 200, null, raw, bodyOffset(raw)));
+            store.clear();
+            assertFalse(store.putIfCurrent(before, 1, 500, null, raw, bodyOffset(raw)));
+            store.setNanosIfCurrent(before, 1, 42_000_000);
+            assertFalse(store.contains(1));
+
+            store.put(1, 201, null, raw, bodyOffset(raw));
+            store.setNanosIfCurrent(before, 1, 42_000_000);
+            assertEquals(201, store.getStatus(1));
+            assertEquals(0, store.getMillis(1));
+        }
+    }
+
+    @Test
+    void clear_andClose_removeFiles() throws IOException {
+        ResponseStore store = ResponseStore.temporary(ResponseStore.DEFAULT_MAX_BYTES);
+        byte[] raw = response("x");
+        store.put(1, 200, null, raw, bodyOffset(raw));
+        store.clear();
+        assertFalse(store.contains(1));
+        assertEquals(0, store.getStoredBytes());
+        store.put(1, 201, null, raw, bodyOffset(raw));
+        assertArrayEquals(raw, store.getResponse(1));
+        store.close();
+
+        try (ResponseStore kept = new ResponseStore(dir, ResponseStore.DEFAULT_MAX_BYTES)) {
+            kept.put(1, 200, null, raw, bodyOffset(raw));
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
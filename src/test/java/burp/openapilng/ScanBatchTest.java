@@ -0,0 +1,107 @@
+package burp.openapilng;
+
+import burp.api.montoya.core.Range;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.scanner.audit.Audit;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ScanBatch}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class ScanBatchTest {
+
+    /** Records addRequest calls as "with ranges" or "without ranges". */
+    private static Audit recordingAudit(List<String> calls) {
+        return (Audit) Proxy.newProxyInstance(Audit.class.getClassLoader(), new Class<?>[]{Audit.class},
+                (proxy, method, args) -> {
+                    if ("addRequest".equals(method.getName())) {
+                        calls.add(args.length == 2 ? "ranges:" + ((List<?>) args[1]).size() : "plain");
+                    }
+                    return null;
+                });
+    }
+
+    private static RequestGenerator.BuiltRequest built(int ranges) {
+        List<Range> points = new ArrayList<>();
+        for (int i = 0; i < ranges; i++) {
+            points.add(Range.range(i, i + 1));
+        }
+        return new RequestGenerator.BuiltRequest(null, (HttpRequest) null, points, null);
+    }
+
+    @Test
+    void singleAudit_forWholeSelection() {
+        List<List<String>> audits = new ArrayList<>();
+        ScanBatch batch = new ScanBatch(() -> {
+            List<String> calls = new ArrayList<>();
+            audits.add(calls);
+            return recordingAudit(calls);
+        }, 1, 500);
+        for (int i = 0; i < 500; i++) {
+            batch.add(i, built(2));
+        }
+        assertEquals(1, audits.size());
+        assertEquals(500, audits.get(0).size());
+        assertEquals("ranges:2", audits.get(0).get(0));
+        assertEquals(1, batch.getAuditCount());
+        assertEquals(500, batch.getAddedCount());
+    }
+
+    @Test
+    void shards_contiguousBlocks() {
+        List<List<String>> audits = new ArrayList<>();
+        ScanBatch batch = new ScanBatch(() -> {
+            List<String> calls = new ArrayList<>();
+            audits.add(calls);
+            return recordingAudit(calls);
+        }, 4, 10);
+        for (int i = 0; i < 10; i++) {
+            batch.add(i, built(1));
+        }
+        assertEquals(4, audits.size());
+        int sum = 0;
+        for (List<String> calls : audits) {
+            assertTrue(calls.size() >= 2 && calls.size() <= 3);
+            sum += calls.size();
+        }
+        assertEquals(10, sum);
+    }
+
+    @Test
+    void shards_clampedToSelectionAndMax() {
+        List<String> calls = new ArrayList<>();
+        int[] started = {0};
+        ScanBatch batch = new ScanBatch(() -> {
+            started[0]++;
+            return recordingAudit(calls);
+        }, 50, 3);
+        for (int i = 0; i < 3; i++) {
+            batch.add(i, built(1));
+        }
+        assertEquals(3, started[0]);
+
+        ScanBatch many = new ScanBatch(() -> recordingAudit(new ArrayList<>()), 1000, 1000);
+        for (int i = 0; i < 1000; i++) {
+            many.add(i, built(1));
+        }
+        assertEquals(ScanBatch.MAX_AUDITS, many.getAuditCount());
+    }
+
+    @Test
+    void noInsertionPoints_addsWithoutRanges() {
+        List<String> calls = new ArrayList<>();
+        ScanBatch batch = new ScanBatch(() -> recordingAudit(calls), 1, 1);
+        batch.add(0, built(0));
+        assertEquals(List.of("plain"), calls);
+    }
+}
@@ -0,0 +1,74 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SpecFileWatcher}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class SpecFileWatcherTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void burstOfWrites_firesOnceAfterDebounce() throws Exception {
+        Path spec = dir.resolve("openapi.json");
+        Files.writeString(spec, "{}");
+        AtomicInteger calls = new AtomicInteger();
+        try (var watcher = new SpecFileWatcher(spec, 300, calls::incrementAndGet)) {
+            assertEquals(spec.toAbsolutePath().normalize(), watcher.getFile());
+            for (int i = 0; i < 5; i++) {
+                Files.writeString(spec, "{\"v\":" + i + "}", StandardCharsets.UTF_8);
+            }
+            assertTrue(waitFor(calls, 1, 10_000), "watcher never fired");
+            TimeUnit.MILLISECONDS.sleep(600);
+            assertEquals(1, calls.get());
+        }
+    }
+
+    @Test
+    void otherFilesInDirectory_ignored() throws Exception {
+        Path spec = dir.resolve("openapi.json");
+        Files.writeString(spec, "{}");
+        AtomicInteger calls = new AtomicInteger();
+        try (var watcher = new SpecFileWatcher(spec, 50, calls::incrementAndGet)) {
+            Files.writeString(dir.resolve("other.json"), "{}");
+            TimeUnit.MILLISECONDS.sleep(800);
+            assertEquals(0, calls.get());
+        }
+    }
+
+    @Test
+    void close_stopsCallbacks() throws Exception {
+        Path spec = dir.resolve("openapi.yaml");
+        Files.writeString(spec, "openapi: 3.0.0");
+        AtomicInteger calls = new AtomicInteger();
+        var watcher = new SpecFileWatcher(spec, 50, calls::incrementAndGet);
+        watcher.close();
+        Files.writeString(spec, "openapi: 3.0.1");
+        TimeUnit.MILLISECONDS.sleep(500);
+        assertEquals(0, calls.get());
+    }
+
+    private static boolean waitFor(AtomicInteger counter, int expected, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (counter.get() < expected) {
+            if (System.currentTimeMillis() > deadline) return false;
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,95 @@
+package burp.openapilng;
+
+import burp.api.montoya.core.ByteArray;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SpecSource}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class SpecSourceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ofPath_readsFileContent() throws Exception {
+        Path file = dir.resolve("openapi.yaml");
+        Files.writeString(file, "openapi: 3.0.0\ninfo:\n  title: ü\n", StandardCharsets.UTF_8);
+        var source = SpecSource.of(file);
+        assertEquals(Files.size(file), source.length());
+        assertEquals("openapi: 3.0.0\ninfo:\n  title: ü\n", source.decode());
+        try (InputStream in = source.openStream()) {
+            assertArrayEquals(Files.readAllBytes(file), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void ofPath_emptyFile_isBlank() throws Exception {
+        Path file = dir.resolve("empty.json");
+        Files.createFile(file);
+        assertTrue(SpecSource.of(file).isBlank());
+    }
+
+    @Test
+    void trim_stripsWhitespaceAndByteOrderMark() {
+        byte[] bytes = "﻿ \r\n {\"a\":1} \n\t".getBytes(StandardCharsets.UTF_8);
+        var trimmed = SpecSource.of(bytes).trim();
+        assertEquals("{\"a\":1}", trimmed.decode());
+        assertEquals('{', trimmed.byteAt(0));
+        assertFalse(trimmed.isBlank());
+        assertTrue(SpecSource.of(" \n\t ".getBytes(StandardCharsets.UTF_8)).isBlank());
+    }
+
+    @Test
+    void slice_sharesBytesAndNests() throws Exception {
+        var source = SpecSource.of("0123456789".getBytes(StandardCharsets.UTF_8));
+        var inner = source.slice(2, 8).slice(1, 4);
+        assertEquals("345", inner.decode());
+        try (InputStream in = inner.openStream()) {
+            assertEquals('3', in.read());
+            byte[] rest = new byte[8];
+            assertEquals(2, in.read(rest, 0, rest.length));
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    void ofByteArray_readsInPlace() throws Exception {
+        byte[] backing = "  {\"openapi\":\"3.0.0\"}  ".getBytes(StandardCharsets.UTF_8);
+        var source = SpecSource.of(montoyaBytes(backing)).trim();
+        assertEquals("{\"openapi\":\"3.0.0\"}", source.decode());
+        try (InputStream in = source.openStream()) {
+            assertEquals("{\"openapi\":\"3.0.0\"}", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        var cache = new ParseCache(dir, ParseCache.DEFAULT_MAX_BYTES);
+        assertEquals(cache.key("{\"openapi\":\"3.0.0\"}"), cache.key(source));
+    }
+
+    /** Minimal {@link ByteArray} over a byte array, outside of Burp. */
+    private static ByteArray montoyaBytes(byte[] bytes) {
+        return (ByteArray) Proxy.newProxyInstance(ByteArray.class.getClassLoader(), new Class<?>[]{ByteArray.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getByte":
+                            return bytes[(Integer) args[0]];
+                        case "length":
+                            return bytes.length;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,240 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link StreamingSpecParser}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class StreamingSpecParserTest {
+
+    private StreamingSpecParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new StreamingSpecParser();
+    }
+
+    @Test
+    void parse_petstore_matchesSwaggerParser() throws Exception {
+        String json = readResource("openapi-petstore.json").trim();
+        var streamed = parser.parse(json);
+        var full = new OpenAPIParser().parse("petstore.json", json);
+        assertEquals(full.getDefaultServer(), streamed.getDefaultServer());
+        assertSameEndpoints(full.getEndpoints(), streamed.getEndpoints());
+    }
+
+    @Test
+    void parse_yamlSample_matchesSwaggerParser() throws Exception {
+        String yaml = readResource("openapi-sample.yaml").trim();
+        var streamed = parser.parse(yaml);
+        var full = new OpenAPIParser().parse("pasted", yaml);
+        assertEquals("https://api.example.com", streamed.getDefaultServer());
+        assertSameEndpoints(full.getEndpoints(), streamed.getEndpoints());
+    }
+
+    @Test
+    void parse_operationsInSwaggerOrder() throws Exception {
+        String json = """
+            {"openapi":"3.0.0","paths":{"/x":{"post":{},"get":{},"delete":{},"put":{}}}}
+            """.trim();
+        var result = parser.parse(json);
+        var methods = result.getEndpoints().stream().map(ApiEndpoint::getMethod).toList();
+        assertEquals(List.of("GET", "PUT", "POST", "DELETE"), methods);
+        assertEquals(4, result.getEndpoints().get(3).getIndex());
+    }
+
+    @Test
+    void parse_methodNamesIgnoreDefaultLocale() throws Exception {
+        String json = """
+            {"openapi":"3.0.0","paths":{"/x":{"options":{},"trace":{}}}}
+            """.trim();
+        Locale saved = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            var methods = parser.parse(json).getEndpoints().stream().map(ApiEndpoint::getMethod).toList();
+            assertEquals(List.of("OPTIONS", "TRACE"), methods);
+        } finally {
+            Locale.setDefault(saved);
+        }
+    }
+
+    @Test
+    void parse_serversAfterPaths_appliedToEndpoints() throws Exception {
+        String json = """
+            {"openapi":"3.0.0","paths":{"/x":{"get":{}}},"servers":[{"url":"http://late.example.com/"}]}
+            """.trim();
+        var result = parser.parse(json);
+        assertEquals("http://late.example.com", result.getDefaultServer());
+        assertEquals("http://late.example.com", result.getEndpoints().get(0).getServer());
+        assertEquals("http", result.getEndpoints().get(0).getScheme());
+    }
+
+    @Test
+    void parse_summaryPreferredOverDescription() throws Exception {
+        String json = """
+            {"openapi":"3.0.0","paths":{"/a":{"get":{"description":"long","summary":"short"}},"/b":{"get":{"description":"only"}}}}
+            """.trim();
+        var result = parser.parse(json);
+        assertEquals("short", result.getEndpoints().get(0).getDescription());
+        assertEquals("only", result.getEndpoints().get(1).getDescription());
+    }
+
+    @Test
+    void parse_operationTags_recorded() throws Exception {
+        String json = """
+            {"openapi":"3.0.0","paths":{"/a":{"get":{"tags":["billing","v2"]},"post":{"tags":null}}}}
+            """.trim();
+        var result = parser.parse(json);
+        assertEquals(List.of("billing", "v2"), result.getEndpoints().get(0).getTags());
+        assertEquals(List.of(), result.getEndpoints().get(1).getTags());
+    }
+
+    @Test
+    void parse_skipsNonOperationKeysAndNestedContent() throws Exception {
+        String json = """
+            {"openapi":"3.0.0","info":{"title":"x","x-deep":{"a":[1,{"b":2}]}},
+             "paths":{"/x":{"summary":"item","parameters":[{"name":"ignored","in":"query"}],
+               "get":{"responses":{"200":{"content":{"application/json":{"schema":{"type":"object"}}}}},
+                      "parameters":[{"name":"X-Trace","in":"Header","schema":{"type":"string"}}]}}},
+             "components":{"schemas":{"A":{"type":"string"}}}}
+            """.trim();
+        var result = parser.parse(json);
+        assertEquals(1, result.getEndpoints().size());
+        var params = result.getEndpoints().get(0).getParameters();
+        assertEquals(1, params.size());
+        assertEquals("X-Trace", params.get(0).getName());
+        assertEquals("header", params.get(0).getLocation());
+        assertEquals("", params.get(0).getPlaceholderValue());
+    }
+
+    @Test
+    void parse_swagger2_unsupported() {
+        String json = """
+            {"swagger":"2.0","paths":{"/x":{"get":{}}}}
+            """.trim();
+        assertThrows(StreamingSpecParser.UnsupportedSpecException.class, () -> parser.parse(json));
+    }
+
+    @Test
+    void parse_referencedParameter_resolvedFromComponents() throws Exception {
+        String json = """
+            {"openapi":"3.0.0","paths":{"/x/{id}":{"get":{"parameters":[
+              {"$ref":"#/components/parameters/Limit"},{"$ref":"#/components/parameters/Id"}]}}},
+             "components":{"parameters":{"Limit":{"name":"limit","in":"query"},"Id":{"name":"id","in":"path"}}}}
+            """.trim();
+        var params = parser.parse(json).getEndpoints().get(0).getParameters();
+        assertEquals("limit", params.get(0).getName());
+        assertNull(params.get(0).getRef());
+        assertEquals("id", params.get(1).getName());
+        assertEquals("1", params.get(1).getPlaceholderValue());
+    }
+
+    @Test
+    void parse_lazyRefs_keepsReferenceUntilRead() throws Exception {
+        String json = """
+            {"openapi":"3.0.0","components":{"parameters":{"Limit":{"name":"limit","in":"query"}}},
+             "paths":{"/x":{"get":{"parameters":[{"$ref":"#/components/parameters/Limit"}]}}}}
+            """.trim();
+        var param = new StreamingSpecParser(true).parse(json).getEndpoints().get(0).getParameters().get(0);
+        assertEquals("#/components/parameters/Limit", param.getRef());
+        assertEquals("limit", param.getName());
+        assertEquals("query", param.getLocation());
+    }
+
+    @Test
+    void parse_yamlAliasForParameters_unsupported() {
+        String yaml = """
+            openapi: 3.0.0
+            x-common: &common
+              - name: q
+                in: query
+            paths:
+              /x:
+                get:
+                  parameters: *common
+            """.trim();
+        assertThrows(StreamingSpecParser.UnsupportedSpecException.class, () -> parser.parse(yaml));
+    }
+
+    @Test
+    void parse_yamlScalarAlias_unsupported() {
+        String yaml = """
+            openapi: 3.0.0
+            x-text: &text Shared summary
+            paths:
+              /x:
+                get:
+                  summary: *text
+            """.trim();
+        assertThrows(StreamingSpecParser.UnsupportedSpecException.class, () -> parser.parse(yaml));
+    }
+
+    @Test
+    void parse_missingVersion_unsupported() {
+        assertThrows(StreamingSpecParser.UnsupportedSpecException.class,
+                () -> parser.parse("{\"paths\":{}}"));
+    }
+
+    @Test
+    void parse_invalidJson_unsupported() {
+        assertThrows(StreamingSpecParser.UnsupportedSpecException.class, () -> parser.parse("{ invalid }"));
+    }
+
+    @Test
+    void openApiParser_streamingMode_fallsBackOnReference() {
+        var openApiParser = new OpenAPIParser();
+        openApiParser.setStreaming(true);
+        String json = """
+            {"openapi":"3.0.0","info":{"title":"x","version":"1"},"paths":{"/x":{"$ref":"#/components/pathItems/X"},"/y":{"get":{}}}}
+            """;
+        var result = openApiParser.parse("test", json);
+        assertTrue(result.getMessages().stream().anyMatch(m -> m.contains("fell back")));
+    }
+
+    @Test
+    void openApiParser_streamingMode_usesStreamingResult() throws Exception {
+        var openApiParser = new OpenAPIParser();
+        openApiParser.setStreaming(true);
+        var result = openApiParser.parse("petstore.json", readResource("openapi-petstore.json"));
+        assertEquals(3, result.getEndpoints().size());
+        assertTrue(result.getMessages().isEmpty());
+    }
+
+    private static void assertSameEndpoints(List<ApiEndpoint> expected, List<ApiEndpoint> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            ApiEndpoint e = expected.get(i);
+            ApiEndpoint a = actual.get(i);
+            assertEquals(e.getIndex(), a.getIndex());
+            assertEquals(e.getScheme(), a.getScheme());
+            assertEquals(e.getMethod(), a.getMethod());
+            assertEquals(e.getServer(), a.getServer());
+            assertEquals(e.getPath(), a.getPath());
+            assertEquals(e.getDescription(), a.getDescription());
+            assertEquals(e.getParameters().size(), a.getParameters().size());
+            for (int j = 0; j < e.getParameters().size(); j++) {
+                assertEquals(e.getParameters().get(j).getName(), a.getParameters().get(j).getName());
+                assertEquals(e.getParameters().get(j).getLocation(), a.getParameters().get(j).getLocation());
+            }
+        }
+    }
+
+    private String readResource(String name) throws Exception {
+        try (InputStream is = StreamingSpecParserTest.class.getResourceAsStream("/" + name)) {
+            assert is != null : "Resource not found: " + name;
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
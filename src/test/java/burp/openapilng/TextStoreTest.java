@@ -0,0 +1,82 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TextStore}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class TextStoreTest {
+
+    @Test
+    void get_returnsEveryTextAcrossBlocks() {
+        TextStore.Builder builder = new TextStore.Builder();
+        List<String> texts = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String text = "## Operation " + i + "\n\nReturns the item. Ünïcode ✓ " + "detail ".repeat(i % 50);
+            texts.add(text);
+            ids.add(builder.add(text));
+        }
+        TextStore store = builder.build();
+        assertEquals(2000, store.size());
+        // Out of order, so blocks are inflated again after being replaced in the cache
+        for (int i = texts.size() - 1; i >= 0; i -= 7) {
+            assertEquals(texts.get(i), store.get(ids.get(i)));
+        }
+        for (int i = 0; i < texts.size(); i++) {
+            assertEquals(texts.get(i), store.get(ids.get(i)));
+        }
+    }
+
+    @Test
+    void add_equalTexts_storedOnce() {
+        TextStore.Builder builder = new TextStore.Builder();
+        int first = builder.add("same text");
+        assertEquals(first, builder.add(new String("same text")));
+        assertNotEquals(first, builder.add(""));
+        TextStore store = builder.build();
+        assertEquals(2, store.size());
+        assertEquals("", store.get(1));
+    }
+
+    @Test
+    void build_compressesRepetitiveText() {
+        TextStore.Builder builder = new TextStore.Builder();
+        long raw = 0;
+        for (int i = 0; i < 500; i++) {
+            String text = "Lists the items of a project, newest first. Pagination: pass the cursor " + i
+                    + " from the previous page.\n".repeat(20);
+            raw += text.length();
+            builder.add(text);
+        }
+        assertTrue(builder.build().getCompressedBytes() * 5 < raw);
+    }
+
+    @Test
+    void addAll_appendsTextsAfterOwn() {
+        TextStore.Builder other = new TextStore.Builder();
+        other.add("first");
+        other.add("second");
+        TextStore.Builder builder = new TextStore.Builder();
+        builder.add("own");
+        assertEquals(1, builder.addAll(other.build()));
+        assertEquals(3, builder.add("after"));
+        TextStore store = builder.build();
+        assertEquals(List.of("own", "first", "second", "after"),
+                List.of(store.get(0), store.get(1), store.get(2), store.get(3)));
+    }
+
+    @Test
+    void emptyStore() {
+        assertEquals(0, new TextStore.Builder().build().size());
+    }
+}
@@ -0,0 +1,116 @@
+package burp.openapilng;
+
+import burp.api.montoya.core.Annotations;
+import burp.api.montoya.core.ToolSource;
+import burp.api.montoya.core.ToolType;
+import burp.api.montoya.http.HttpService;
+import burp.api.montoya.http.handler.HttpRequestToBeSent;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TrafficTagger}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class TrafficTaggerTest {
+
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(Class<T> type, java.lang.reflect.InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static HttpRequestToBeSent request(ToolType tool, String method, String host, String path, String notes) {
+        ToolSource source = fake(ToolSource.class, (proxy, m, args) -> {
+            if ("isFromTool".equals(m.getName())) return Arrays.asList((ToolType[]) args[0]).contains(tool);
+            if ("toolType".equals(m.getName())) return tool;
+            return null;
+        });
+        HttpService service = fake(HttpService.class, (proxy, m, args) -> "host".equals(m.getName()) ? host : null);
+        Annotations annotations = fake(Annotations.class, (proxy, m, args) -> {
+            switch (m.getName()) {
+                case "notes": return notes;
+                case "hasNotes": return !notes.isEmpty();
+                default: return null;
+            }
+        });
+        return fake(HttpRequestToBeSent.class, (proxy, m, args) -> {
+            switch (m.getName()) {
+                case "toolSource": return source;
+                case "httpService": return service;
+                case "annotations": return annotations;
+                case "method": return method;
+                case "path": return path;
+                default: return null;
+            }
+        });
+    }
+
+    private static TrafficTagger tagger(ApiEndpoint... endpoints) throws InterruptedException {
+        TrafficTagger tagger = new TrafficTagger();
+        tagger.setEndpoints(List.of(endpoints));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (tagger.getTrie() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertNotNull(tagger.getTrie());
+        return tagger;
+    }
+
+    private static ApiEndpoint endpoint(int index, String method, String path) {
+        return new ApiEndpoint(index, "https", method, "https://api.test", path, List.of(), "");
+    }
+
+    @Test
+    void notesFor_proxyRequest_tagsMatchingEndpoint() throws InterruptedException {
+        try (TrafficTagger tagger = tagger(endpoint(1, "GET", "/users/{id}"))) {
+            assertEquals("OpenAPI: GET /users/{id}",
+                    tagger.notesFor(request(ToolType.PROXY, "GET", "api.test", "/users/7?x=1", "")));
+            assertEquals("seen before; OpenAPI: GET /users/{id}",
+                    tagger.notesFor(request(ToolType.PROXY, "GET", "api.test", "/users/7", "seen before")));
+        }
+    }
+
+    @Test
+    void notesFor_noMatchOrAlreadyTagged_leavesNotes() throws InterruptedException {
+        try (TrafficTagger tagger = tagger(endpoint(1, "GET", "/users/{id}"))) {
+            assertNull(tagger.notesFor(request(ToolType.PROXY, "DELETE", "api.test", "/users/7", "")));
+            assertNull(tagger.notesFor(request(ToolType.PROXY, "GET", "other.test", "/users/7", "")));
+            assertNull(tagger.notesFor(request(ToolType.PROXY, "GET", "api.test", "/users/7", "OpenAPI: GET /users/{id}")));
+        }
+    }
+
+    @Test
+    void notesFor_otherToolsAndDisabled_ignored() throws InterruptedException {
+        try (TrafficTagger tagger = tagger(endpoint(1, "GET", "/users/{id}"))) {
+            assertNull(tagger.notesFor(request(ToolType.REPEATER, "GET", "api.test", "/users/7", "")));
+            assertNull(tagger.notesFor(request(ToolType.EXTENSIONS, "GET", "api.test", "/users/7", "")));
+            tagger.setEnabled(false);
+            assertNull(tagger.notesFor(request(ToolType.PROXY, "GET", "api.test", "/users/7", "")));
+        }
+    }
+
+    @Test
+    void setEndpoints_replacesAndClearsTrie() throws InterruptedException {
+        try (TrafficTagger tagger = tagger(endpoint(1, "GET", "/users/{id}"))) {
+            PathTemplateTrie first = tagger.getTrie();
+            tagger.setEndpoints(List.of(endpoint(1, "GET", "/orders/{id}")));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (tagger.getTrie() == first && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals("OpenAPI: GET /orders/{id}",
+                    tagger.notesFor(request(ToolType.PROXY, "GET", "api.test", "/orders/3", "")));
+            assertNull(tagger.notesFor(request(ToolType.PROXY, "GET", "api.test", "/users/3", "")));
+            tagger.setEndpoints(List.of());
+            assertNull(tagger.getTrie());
+        }
+    }
+}
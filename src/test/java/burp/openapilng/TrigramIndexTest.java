@@ -0,0 +1,118 @@
+package burp.openapilng;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TrigramIndex}.
+ *
+ * @author jabberwock
+ * @since 1.0
+ * Copyright (c) 2026 jabberwock
+ */
+class TrigramIndexTest {
+
+    private static final String[] RESOURCES = {"users", "orders", "admin", "items", "billing", "reports"};
+
+    private static List<ApiEndpoint> catalog(int count) {
+        List<ApiEndpoint> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String method = i % 3 == 0 ? "POST" : "GET";
+            String path = "/v" + (i % 4) + "/" + RESOURCES[i % RESOURCES.length] + "/" + i;
+            result.add(new ApiEndpoint(i + 1, "https", method, "https://api.example.com", path, List.of(), ""));
+        }
+        return result;
+    }
+
+    /** Reference result: the plain scan the index must agree with. */
+    private static List<ApiEndpoint> scan(List<ApiEndpoint> eps, String regex) {
+        return EndpointTableModel.filter(eps, Pattern.compile(regex), LoadProgress.untracked());
+    }
+
+    @Test
+    void filter_withIndex_matchesFullScan() {
+        List<ApiEndpoint> eps = catalog(5000);
+        TrigramIndex index = new TrigramIndex(eps);
+        for (String regex : new String[]{"/admin", "POST /v2/", "admin/12", "/v1/orders/\\d+$", "bill(ing)?",
+                "^GET /v3/rep", "users|orders", "[a-z]+/4999", "nomatch", "ex.mple", "a{3}", "(?i)ADMIN"}) {
+            assertEquals(scan(eps, regex), EndpointTableModel.filter(index, Pattern.compile(regex),
+                    LoadProgress.untracked()), regex);
+        }
+    }
+
+    @Test
+    void candidates_narrowRowsAndStaySorted() {
+        List<ApiEndpoint> eps = catalog(600);
+        TrigramIndex index = new TrigramIndex(eps);
+        int[] rows = index.candidates(List.of("admin/2"));
+        assertNotNull(rows);
+        assertTrue(rows.length < 100, "got " + rows.length);
+        for (int i = 1; i < rows.length; i++) {
+            assertTrue(rows[i - 1] < rows[i]);
+        }
+        assertEquals(0, index.candidates(List.of("zzzz")).length);
+        // Every row shares the server, so its trigrams narrow nothing
+        assertNull(index.candidates(List.of("example.com")));
+        assertNull(index.candidates(List.of()));
+        assertNull(new TrigramIndex(catalog(10)).candidates(List.of("admin")));
+        assertTrue(index.isBuilt());
+        assertFalse(new TrigramIndex(eps).isBuilt());
+    }
+
+    @Test
+    void requiredLiterals_extractsMandatoryRuns() {
+        assertEquals(List.of("/admin"), TrigramIndex.requiredLiterals("/admin"));
+        assertEquals(List.of("POST /v2/"), TrigramIndex.requiredLiterals("POST /v2/"));
+        assertEquals(List.of("/v1/orders/"), TrigramIndex.requiredLiterals("^/v1/orders/\\d+$"));
+        assertEquals(List.of("api.example"), TrigramIndex.requiredLiterals("api\\.example"));
+        assertEquals(List.of("bil", "/items"), TrigramIndex.requiredLiterals("bill?(ing)?/items"));
+        assertEquals(List.of("user"), TrigramIndex.requiredLiterals("users*/x"));
+        assertEquals(List.of("abc"), TrigramIndex.requiredLiterals("abc+d"));
+        assertEquals(List.of("id/"), TrigramIndex.requiredLiterals("[a-z]+id/"));
+        assertEquals(List.of(), TrigramIndex.requiredLiterals("users|orders"));
+        assertEquals(List.of(), TrigramIndex.requiredLiterals("(?i)admin"));
+        assertEquals(List.of(), TrigramIndex.requiredLiterals("\\Qa.b\\E"));
+        assertEquals(List.of(), TrigramIndex.requiredLiterals("a{0,3}bc"));
+        assertEquals(List.of(), TrigramIndex.requiredLiterals(null));
+    }
+
+    @Test
+    void requiredLiterals_escapeWithArgument_yieldsNoLiterals() {
+        assertEquals(List.of(), TrigramIndex.requiredLiterals("\\x41dmin"));
+        assertEquals(List.of(), TrigramIndex.requiredLiterals("\\u0041dmin"));
+        assertEquals(List.of(), TrigramIndex.requiredLiterals("\\0101dmin"));
+        assertEquals(List.of(), TrigramIndex.requiredLiterals("(adm)in\\1"));
+        assertEquals(List.of("/v1/"), TrigramIndex.requiredLiterals("/v1/\\w+"));
+    }
+
+    @Test
+    void filter_escapeWithArgument_matchesFullScan() {
+        List<ApiEndpoint> eps = catalog(600);
+        TrigramIndex index = new TrigramIndex(eps);
+        // Each spells "admin" with an escaped 'a'
+        for (String regex : new String[]{"\\x61dmin", "\\u0061dmin", "\\0141dmin", "\\x{61}dmin"}) {
+            List<ApiEndpoint> hits = EndpointTableModel.filter(index, Pattern.compile(regex), LoadProgress.untracked());
+            assertFalse(hits.isEmpty(), regex);
+            assertEquals(scan(eps, regex), hits, regex);
+        }
+    }
+
+    @Test
+    void filter_millionRows_takesMilliseconds() {
+        List<ApiEndpoint> eps = catalog(1_000_000);
+        TrigramIndex index = new TrigramIndex(eps);
+        Pattern pattern = Pattern.compile("/admin/99999");
+        EndpointTableModel.filter(index, pattern, LoadProgress.untracked()); // Builds the index
+        long start = System.nanoTime();
+        List<ApiEndpoint> hits = EndpointTableModel.filter(index, pattern, LoadProgress.untracked());
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertFalse(hits.isEmpty());
+        assertTrue(millis < 100, "took " + millis + " ms");
+    }
+}